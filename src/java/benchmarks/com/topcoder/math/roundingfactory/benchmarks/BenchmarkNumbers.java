@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.benchmarks;
+
+import java.util.Random;
+
+import com.topcoder.math.roundingfactory.algorithms.RoundingAlgorithm;
+
+/**
+ * <p>Creates the algorithms and the numbers rounded by the benchmarks.</p>
+ * <p>The numbers are generated with a fixed seed, so that every run rounds the same numbers.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+final class BenchmarkNumbers {
+
+    /**
+     * The number of numbers rounded in turn by a benchmark, a power of two.
+     */
+    static final int COUNT = 1024;
+
+    /**
+     * The accuracy digit used by the benchmarks.
+     */
+    static final int ACCURACY_DIGIT = 2;
+
+    /**
+     * The comparison digit used by the benchmarks.
+     */
+    static final int COMPARISON_DIGIT = 5;
+
+    /**
+     * The package of the algorithms.
+     */
+    private static final String ALGORITHMS_PACKAGE = "com.topcoder.math.roundingfactory.algorithms.";
+
+    /**
+     * The number of fractional digits of the long numbers.
+     */
+    private static final int LONG_DECIMAL_COUNT = 1000;
+
+    /**
+     * The number of integral digits of the long numbers.
+     */
+    private static final int LONG_INT_COUNT = 10;
+
+    /**
+     * The seed of the random generator.
+     */
+    private static final long SEED = 20050101L;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private BenchmarkNumbers() {
+    }
+
+    /**
+     * Creates the algorithm of the given class in the algorithms package, with ACCURACY_DIGIT and
+     * COMPARISON_DIGIT.
+     *
+     * @param algorithm the simple class name of the algorithm
+     * @return the created algorithm
+     * @throws Exception if the algorithm can not be created
+     */
+    static RoundingAlgorithm createAlgorithm(String algorithm) throws Exception {
+        return (RoundingAlgorithm) Class.forName(ALGORITHMS_PACKAGE + algorithm)
+                .getConstructor(new Class[] {int.class, int.class})
+                .newInstance(new Object[] {Integer.valueOf(ACCURACY_DIGIT), Integer.valueOf(COMPARISON_DIGIT)});
+    }
+
+    /**
+     * <p>Creates COUNT numbers of the given shape in String format.</p>
+     * <p>The shapes are:</p>
+     * <ul>
+     * <li>price: up to 5 integral digits and 4 fractional digits, like 1234.5678</li>
+     * <li>long: 10 integral digits and 1000 fractional digits</li>
+     * <li>negative: a negative price</li>
+     * <li>tie: a positive or negative price whose truncation is exactly the comparison digit, like 12.345</li>
+     * </ul>
+     *
+     * @param shape the shape of the numbers
+     * @return the numbers
+     * @throws IllegalArgumentException if the shape is unknown
+     */
+    static String[] createNumbers(String shape) {
+        Random random = new Random(SEED);
+        String[] numbers = new String[COUNT];
+
+        for (int i = 0; i < COUNT; ++i) {
+            if ("price".equals(shape)) {
+                numbers[i] = createPrice(random, 4);
+            } else if ("long".equals(shape)) {
+                numbers[i] = createLongNumber(random);
+            } else if ("negative".equals(shape)) {
+                numbers[i] = "-" + createPrice(random, 4);
+            } else if ("tie".equals(shape)) {
+                String tie = createPrice(random, ACCURACY_DIGIT) + COMPARISON_DIGIT;
+                numbers[i] = random.nextBoolean() ? tie : "-" + tie;
+            } else {
+                throw new IllegalArgumentException("unknown shape: " + shape);
+            }
+        }
+        return numbers;
+    }
+
+    /**
+     * <p>Creates COUNT doubles of the given shape.</p>
+     * <p>The shapes are the price, negative and tie shapes of createNumbers(String), plus:</p>
+     * <ul>
+     * <li>arbitrary: doubles of all magnitudes whose shortest decimals have up to 17 digits</li>
+     * </ul>
+     *
+     * @param shape the shape of the doubles
+     * @return the doubles
+     * @throws IllegalArgumentException if the shape is unknown
+     */
+    static double[] createDoubles(String shape) {
+        double[] numbers = new double[COUNT];
+
+        if ("arbitrary".equals(shape)) {
+            Random random = new Random(SEED);
+            for (int i = 0; i < COUNT; ++i) {
+                numbers[i] = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20) - 10);
+            }
+            return numbers;
+        }
+
+        String[] strings = createNumbers(shape);
+        for (int i = 0; i < COUNT; ++i) {
+            numbers[i] = Double.parseDouble(strings[i]);
+        }
+        return numbers;
+    }
+
+    /**
+     * Creates a positive price with up to 5 integral digits and the given number of fractional digits.
+     *
+     * @param random the random generator
+     * @param fractionalCount the number of fractional digits
+     * @return the price
+     */
+    private static String createPrice(Random random, int fractionalCount) {
+        StringBuffer buffer = new StringBuffer(6 + fractionalCount);
+
+        buffer.append(random.nextInt(100000));
+        buffer.append('.');
+        for (int i = 0; i < fractionalCount; ++i) {
+            buffer.append(random.nextInt(10));
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Creates a positive number with LONG_INT_COUNT integral digits and LONG_DECIMAL_COUNT fractional digits.
+     *
+     * @param random the random generator
+     * @return the number
+     */
+    private static String createLongNumber(Random random) {
+        StringBuffer buffer = new StringBuffer(LONG_INT_COUNT + LONG_DECIMAL_COUNT + 1);
+
+        buffer.append(1 + random.nextInt(9));
+        for (int i = 1; i < LONG_INT_COUNT; ++i) {
+            buffer.append(random.nextInt(10));
+        }
+        buffer.append('.');
+        for (int i = 0; i < LONG_DECIMAL_COUNT; ++i) {
+            buffer.append(random.nextInt(10));
+        }
+        return buffer.toString();
+    }
+}
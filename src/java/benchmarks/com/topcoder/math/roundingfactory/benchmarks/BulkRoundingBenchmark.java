@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.topcoder.math.roundingfactory.algorithms.RoundingAlgorithm;
+
+/**
+ * <p>Compares the roundAll methods with rounding the same BenchmarkNumbers.COUNT numbers by one call each, for
+ * doubles and Strings. The bulk methods compute the power of ten and the tie threshold once per call and parse
+ * all the Strings into one FloatingNumber, so they should take less time than the loops of single calls.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkRoundingBenchmark {
+
+    /**
+     * The simple class name of the algorithm.
+     */
+    @Param({"SymmetricRounding", "AsymmetricRounding", "BankersRounding", "UpSymmetricRounding",
+        "DownSymmetricRounding", "UpAsymmetricRounding", "DownAsymmetricRounding"})
+    public String algorithm;
+
+    /**
+     * The shape of the numbers.
+     */
+    @Param({"price", "negative", "tie"})
+    public String shape;
+
+    /**
+     * The algorithm to benchmark.
+     */
+    private RoundingAlgorithm rounding;
+
+    /**
+     * The doubles to round.
+     */
+    private double[] doubles;
+
+    /**
+     * The Strings to round.
+     */
+    private String[] numbers;
+
+    /**
+     * The array of the rounded doubles.
+     */
+    private double[] doubleResults;
+
+    /**
+     * The array of the rounded Strings.
+     */
+    private String[] results;
+
+    /**
+     * Creates the algorithm and the numbers.
+     *
+     * @throws Exception if the algorithm can not be created
+     */
+    @Setup
+    public void setUp() throws Exception {
+        rounding = BenchmarkNumbers.createAlgorithm(algorithm);
+        doubles = BenchmarkNumbers.createDoubles(shape);
+        numbers = BenchmarkNumbers.createNumbers(shape);
+        doubleResults = new double[BenchmarkNumbers.COUNT];
+        results = new String[BenchmarkNumbers.COUNT];
+    }
+
+    /**
+     * Benchmarks roundAll(double[], double[], int, int, int, int).
+     *
+     * @return the array of the rounded doubles
+     */
+    @Benchmark
+    public double[] roundAllDoubles() {
+        rounding.roundAll(doubles, doubleResults, 0, BenchmarkNumbers.COUNT, BenchmarkNumbers.ACCURACY_DIGIT,
+                BenchmarkNumbers.COMPARISON_DIGIT);
+        return doubleResults;
+    }
+
+    /**
+     * Benchmarks roundDouble(double, int, int) once for each double.
+     *
+     * @return the array of the rounded doubles
+     */
+    @Benchmark
+    public double[] roundDoubles() {
+        for (int i = 0; i < BenchmarkNumbers.COUNT; ++i) {
+            doubleResults[i] = rounding.roundDouble(doubles[i], BenchmarkNumbers.ACCURACY_DIGIT,
+                    BenchmarkNumbers.COMPARISON_DIGIT);
+        }
+        return doubleResults;
+    }
+
+    /**
+     * Benchmarks roundAll(String[], String[], int, int, int, int).
+     *
+     * @return the array of the rounded Strings
+     */
+    @Benchmark
+    public String[] roundAllStrings() {
+        rounding.roundAll(numbers, results, 0, BenchmarkNumbers.COUNT, BenchmarkNumbers.ACCURACY_DIGIT,
+                BenchmarkNumbers.COMPARISON_DIGIT);
+        return results;
+    }
+
+    /**
+     * Benchmarks round(String, int, int) once for each String.
+     *
+     * @return the array of the rounded Strings
+     */
+    @Benchmark
+    public String[] roundStrings() {
+        for (int i = 0; i < BenchmarkNumbers.COUNT; ++i) {
+            results[i] = rounding.round(numbers[i], BenchmarkNumbers.ACCURACY_DIGIT,
+                    BenchmarkNumbers.COMPARISON_DIGIT);
+        }
+        return results;
+    }
+}
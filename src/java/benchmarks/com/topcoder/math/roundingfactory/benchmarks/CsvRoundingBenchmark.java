@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.topcoder.math.roundingfactory.algorithms.RoundingAlgorithm;
+import com.topcoder.math.roundingfactory.csv.CsvRounder;
+import com.topcoder.math.roundingfactory.csv.CsvRoundingReport;
+
+/**
+ * <p>Measures the time of rounding two of the four columns of a CSV file of about FILE_SIZE bytes, by
+ * CsvRounder with one thread and with a thread per processor, and by the naive loop which reads the lines,
+ * splits them, rounds the fields by round(String) and writes them back.</p>
+ * <p>The throughput in MB/s is the file size in MB divided by the average time in seconds.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvRoundingBenchmark {
+
+    /**
+     * The approximate size of the CSV file, 64 MB.
+     */
+    private static final int FILE_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The number of columns of the CSV file.
+     */
+    private static final int COLUMN_COUNT = 4;
+
+    /**
+     * The columns to round.
+     */
+    private static final int[] ROUNDED_COLUMNS = new int[] {1, 3};
+
+    /**
+     * The simple class name of the algorithm.
+     */
+    @Param({"SymmetricRounding", "BankersRounding"})
+    public String algorithm;
+
+    /**
+     * The algorithm to round the numbers.
+     */
+    private RoundingAlgorithm rounding;
+
+    /**
+     * The CSV file to round.
+     */
+    private File input;
+
+    /**
+     * The file to write the result.
+     */
+    private File output;
+
+    /**
+     * Creates the algorithm and the CSV file of prices.
+     *
+     * @throws Exception if the algorithm or the file can not be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        rounding = BenchmarkNumbers.createAlgorithm(algorithm);
+        String[] numbers = BenchmarkNumbers.createNumbers("price");
+
+        input = File.createTempFile("rounding", ".csv");
+        output = File.createTempFile("rounded", ".csv");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(input), "US-ASCII"));
+        try {
+            long size = 0;
+            for (int i = 0; size < FILE_SIZE; ++i) {
+                for (int j = 0; j < COLUMN_COUNT; ++j) {
+                    String number = numbers[(i * COLUMN_COUNT + j) & (BenchmarkNumbers.COUNT - 1)];
+                    writer.write(number);
+                    writer.write(j < COLUMN_COUNT - 1 ? ',' : '\n');
+                    size += number.length() + 1;
+                }
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Deletes the files.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        input.delete();
+        output.delete();
+    }
+
+    /**
+     * Benchmarks CsvRounder with one thread.
+     *
+     * @return the report of the rounding
+     * @throws IOException if the files can not be read or written
+     */
+    @Benchmark
+    public CsvRoundingReport mappedSingleThread() throws IOException {
+        CsvRounder rounder = new CsvRounder(rounding, ROUNDED_COLUMNS);
+        rounder.setThreadCount(1);
+        return rounder.round(input, output);
+    }
+
+    /**
+     * Benchmarks CsvRounder with a thread per processor.
+     *
+     * @return the report of the rounding
+     * @throws IOException if the files can not be read or written
+     */
+    @Benchmark
+    public CsvRoundingReport mappedParallel() throws IOException {
+        return new CsvRounder(rounding, ROUNDED_COLUMNS).round(input, output);
+    }
+
+    /**
+     * Benchmarks the naive loop which reads the lines, splits them, rounds the fields by round(String) and
+     * writes them back.
+     *
+     * @return the number of lines
+     * @throws IOException if the files can not be read or written
+     */
+    @Benchmark
+    public int naiveLineLoop() throws IOException {
+        int lineCount = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(input), "US-ASCII"));
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(output), "US-ASCII"));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.split(",");
+                    for (int i = 0; i < ROUNDED_COLUMNS.length; ++i) {
+                        fields[ROUNDED_COLUMNS[i]] = rounding.round(fields[ROUNDED_COLUMNS[i]]);
+                    }
+                    for (int i = 0; i < fields.length; ++i) {
+                        if (i > 0) {
+                            writer.write(',');
+                        }
+                        writer.write(fields[i]);
+                    }
+                    writer.write('\n');
+                    ++lineCount;
+                }
+            } finally {
+                writer.close();
+            }
+        } finally {
+            reader.close();
+        }
+        return lineCount;
+    }
+}
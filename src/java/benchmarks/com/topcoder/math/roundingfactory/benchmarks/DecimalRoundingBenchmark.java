@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.topcoder.math.roundingfactory.algorithms.RoundingAlgorithm;
+
+/**
+ * <p>Measures the throughput and the average time of rounding BigDecimals, for all the algorithms and all the
+ * shapes of BenchmarkNumbers.createNumbers(String). The rounding of the unscaled value is compared with the
+ * rounding of the plain string of each BigDecimal.</p>
+ * <p>Each call rounds the next one of BenchmarkNumbers.COUNT BigDecimals, so that the result can not be
+ * computed once and reused. Run with -prof gc to get the allocation rate as well.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecimalRoundingBenchmark {
+
+    /**
+     * The simple class name of the algorithm.
+     */
+    @Param({"NoRounding", "RandomRounding", "AlternateRounding", "SymmetricRounding", "AsymmetricRounding",
+        "BankersRounding", "UpSymmetricRounding", "DownSymmetricRounding", "UpAsymmetricRounding",
+        "DownAsymmetricRounding"})
+    public String algorithm;
+
+    /**
+     * The shape of the BigDecimals.
+     */
+    @Param({"price", "long", "negative", "tie"})
+    public String shape;
+
+    /**
+     * The algorithm to benchmark.
+     */
+    private RoundingAlgorithm rounding;
+
+    /**
+     * The BigDecimals to round.
+     */
+    private BigDecimal[] numbers;
+
+    /**
+     * The index of the next BigDecimal to round.
+     */
+    private int index;
+
+    /**
+     * Creates the algorithm and the BigDecimals.
+     *
+     * @throws Exception if the algorithm can not be created
+     */
+    @Setup
+    public void setUp() throws Exception {
+        rounding = BenchmarkNumbers.createAlgorithm(algorithm);
+        String[] strings = BenchmarkNumbers.createNumbers(shape);
+        numbers = new BigDecimal[strings.length];
+        for (int i = 0; i < strings.length; ++i) {
+            numbers[i] = new BigDecimal(strings[i]);
+        }
+        index = 0;
+    }
+
+    /**
+     * Benchmarks roundDecimal(BigDecimal number).
+     *
+     * @return the rounded number
+     */
+    @Benchmark
+    public BigDecimal roundDecimal() {
+        index = (index + 1) & (BenchmarkNumbers.COUNT - 1);
+        return rounding.roundDecimal(numbers[index]);
+    }
+
+    /**
+     * Benchmarks round(String number) with the plain string of the BigDecimal, converting the result back to
+     * a BigDecimal.
+     *
+     * @return the rounded number
+     */
+    @Benchmark
+    public BigDecimal roundPlainString() {
+        index = (index + 1) & (BenchmarkNumbers.COUNT - 1);
+        return new BigDecimal(rounding.round(numbers[index].toPlainString()));
+    }
+}
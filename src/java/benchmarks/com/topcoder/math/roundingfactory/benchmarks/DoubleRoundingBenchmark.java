@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.topcoder.math.roundingfactory.algorithms.RoundingAlgorithm;
+
+/**
+ * <p>Measures the throughput and the average time of rounding doubles, for all the algorithms and all the
+ * shapes of BenchmarkNumbers.createDoubles(String). The long shape is left out, since a double can not hold
+ * 1000 digits.</p>
+ * <p>Each call rounds the next one of BenchmarkNumbers.COUNT doubles, so that the result can not be
+ * computed once and reused. Run with -prof gc to get the allocation rate as well.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoubleRoundingBenchmark {
+
+    /**
+     * The simple class name of the algorithm.
+     */
+    @Param({"NoRounding", "RandomRounding", "AlternateRounding", "SymmetricRounding", "AsymmetricRounding",
+        "BankersRounding", "UpSymmetricRounding", "DownSymmetricRounding", "UpAsymmetricRounding",
+        "DownAsymmetricRounding"})
+    public String algorithm;
+
+    /**
+     * The shape of the doubles.
+     */
+    @Param({"price", "negative", "tie", "arbitrary"})
+    public String shape;
+
+    /**
+     * The algorithm to benchmark.
+     */
+    private RoundingAlgorithm rounding;
+
+    /**
+     * The doubles to round.
+     */
+    private double[] numbers;
+
+    /**
+     * The index of the next double to round.
+     */
+    private int index;
+
+    /**
+     * Creates the algorithm and the doubles.
+     *
+     * @throws Exception if the algorithm can not be created
+     */
+    @Setup
+    public void setUp() throws Exception {
+        rounding = BenchmarkNumbers.createAlgorithm(algorithm);
+        numbers = BenchmarkNumbers.createDoubles(shape);
+        index = 0;
+    }
+
+    /**
+     * Benchmarks round(double number).
+     *
+     * @return the rounded number
+     */
+    @Benchmark
+    public String round() {
+        index = (index + 1) & (BenchmarkNumbers.COUNT - 1);
+        return rounding.round(numbers[index]);
+    }
+
+    /**
+     * Benchmarks roundDouble(double number, int accuracyDigit, int comparisonDigit).
+     *
+     * @return the rounded double
+     */
+    @Benchmark
+    public double roundDouble() {
+        index = (index + 1) & (BenchmarkNumbers.COUNT - 1);
+        return rounding.roundDouble(numbers[index], BenchmarkNumbers.ACCURACY_DIGIT,
+                BenchmarkNumbers.COMPARISON_DIGIT);
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.benchmarks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.topcoder.math.roundingfactory.algorithms.ParallelRounding;
+import com.topcoder.math.roundingfactory.algorithms.RoundingAlgorithm;
+
+/**
+ * <p>Measures the scaling of ParallelRounding with the number of threads, by rounding arrays of ARRAY_LENGTH
+ * prices as doubles, fixed-point numbers and Strings with pools of 1 up to 16 threads. The one-thread pool
+ * shows the cost of the tasks over the roundAll methods of the algorithm, which are measured too.</p>
+ * <p>Pass -p threads=... to match the number of cores of the machine.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelRoundingBenchmark {
+
+    /**
+     * The number of numbers of the arrays, 4M.
+     */
+    private static final int ARRAY_LENGTH = 4 * 1024 * 1024;
+
+    /**
+     * The number of digits after the decimal point of the fixed-point numbers.
+     */
+    private static final int SCALE = 4;
+
+    /**
+     * The simple class name of the algorithm.
+     */
+    @Param({"SymmetricRounding", "AlternateRounding"})
+    public String algorithm;
+
+    /**
+     * The number of threads of the pool.
+     */
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    /**
+     * The number of numbers of a chunk.
+     */
+    @Param({"8192"})
+    public int threshold;
+
+    /**
+     * The algorithm to round the numbers.
+     */
+    private RoundingAlgorithm rounding;
+
+    /**
+     * The pool of the threads.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The parallel rounding to benchmark.
+     */
+    private ParallelRounding parallel;
+
+    /**
+     * The doubles to round.
+     */
+    private double[] doubles;
+
+    /**
+     * The unscaled values of the fixed-point numbers to round.
+     */
+    private long[] unscaledValues;
+
+    /**
+     * The Strings to round.
+     */
+    private String[] numbers;
+
+    /**
+     * The array of the rounded doubles.
+     */
+    private double[] doubleResults;
+
+    /**
+     * The array of the unscaled values of the rounded fixed-point numbers.
+     */
+    private long[] longResults;
+
+    /**
+     * The array of the rounded Strings.
+     */
+    private String[] results;
+
+    /**
+     * Creates the algorithm, the pool and the arrays of prices.
+     *
+     * @throws Exception if the algorithm can not be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        rounding = BenchmarkNumbers.createAlgorithm(algorithm);
+        pool = new ForkJoinPool(threads);
+        parallel = new ParallelRounding(rounding, threshold, pool);
+
+        String[] prices = BenchmarkNumbers.createNumbers("price");
+        doubles = new double[ARRAY_LENGTH];
+        unscaledValues = new long[ARRAY_LENGTH];
+        numbers = new String[ARRAY_LENGTH];
+        for (int i = 0; i < ARRAY_LENGTH; ++i) {
+            numbers[i] = prices[i & (BenchmarkNumbers.COUNT - 1)];
+            doubles[i] = Double.parseDouble(numbers[i]);
+            unscaledValues[i] = Math.round(doubles[i] * 10000);
+        }
+        doubleResults = new double[ARRAY_LENGTH];
+        longResults = new long[ARRAY_LENGTH];
+        results = new String[ARRAY_LENGTH];
+    }
+
+    /**
+     * Shuts the pool down.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Benchmarks roundAll(double[], double[], int, int) of ParallelRounding.
+     *
+     * @return the array of the rounded doubles
+     */
+    @Benchmark
+    public double[] roundDoubles() {
+        parallel.roundAll(doubles, doubleResults, 0, ARRAY_LENGTH);
+        return doubleResults;
+    }
+
+    /**
+     * Benchmarks roundAll(long[], int, long[], int, int) of ParallelRounding.
+     *
+     * @return the array of the unscaled values of the rounded numbers
+     */
+    @Benchmark
+    public long[] roundLongs() {
+        parallel.roundAll(unscaledValues, SCALE, longResults, 0, ARRAY_LENGTH);
+        return longResults;
+    }
+
+    /**
+     * Benchmarks roundAll(String[], String[], int, int) of ParallelRounding.
+     *
+     * @return the array of the rounded Strings
+     */
+    @Benchmark
+    public String[] roundStrings() {
+        parallel.roundAll(numbers, results, 0, ARRAY_LENGTH);
+        return results;
+    }
+
+    /**
+     * Benchmarks roundAll(double[], double[], int, int) of the algorithm in the calling thread.
+     *
+     * @return the array of the rounded doubles
+     */
+    @Benchmark
+    public double[] roundDoublesSequentially() {
+        rounding.roundAll(doubles, doubleResults, 0, ARRAY_LENGTH);
+        return doubleResults;
+    }
+
+    /**
+     * Benchmarks roundAll(long[], int, long[], int, int) of the algorithm in the calling thread.
+     *
+     * @return the array of the unscaled values of the rounded numbers
+     */
+    @Benchmark
+    public long[] roundLongsSequentially() {
+        rounding.roundAll(unscaledValues, SCALE, longResults, 0, ARRAY_LENGTH);
+        return longResults;
+    }
+}
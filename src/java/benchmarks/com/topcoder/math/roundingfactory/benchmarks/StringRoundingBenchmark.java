@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.benchmarks;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.topcoder.math.roundingfactory.algorithms.CachingAlgorithm;
+import com.topcoder.math.roundingfactory.algorithms.MeteredAlgorithm;
+import com.topcoder.math.roundingfactory.algorithms.RoundingAlgorithm;
+import com.topcoder.math.roundingfactory.algorithms.RoundingSpec;
+
+/**
+ * <p>Measures the throughput and the average time of rounding numbers in String format, for all the
+ * algorithms and all the shapes of BenchmarkNumbers.createNumbers(String).</p>
+ * <p>Each call rounds the next one of BenchmarkNumbers.COUNT numbers, so that the result can not be
+ * computed once and reused. Run with -prof gc to get the allocation rate as well, which shows the garbage
+ * saved by writing the results to a char array or a StringBuilder.</p>
+ * <p>The numbers are also held as ASCII bytes in one payload, to compare decoding each of them to a string
+ * with rounding the bytes directly.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringRoundingBenchmark {
+
+    /**
+     * The charset of the payload.
+     */
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    /**
+     * The simple class name of the algorithm.
+     */
+    @Param({"NoRounding", "RandomRounding", "AlternateRounding", "SymmetricRounding", "AsymmetricRounding",
+        "BankersRounding", "UpSymmetricRounding", "DownSymmetricRounding", "UpAsymmetricRounding",
+        "DownAsymmetricRounding"})
+    public String algorithm;
+
+    /**
+     * The shape of the numbers.
+     */
+    @Param({"price", "long", "negative", "tie"})
+    public String shape;
+
+    /**
+     * The algorithm to benchmark.
+     */
+    private RoundingAlgorithm rounding;
+
+    /**
+     * The algorithm compiled with the benchmark digits.
+     */
+    private RoundingSpec spec;
+
+    /**
+     * The algorithm with a cache holding the results of all the numbers.
+     */
+    private CachingAlgorithm cached;
+
+    /**
+     * The algorithm recording its metrics, to measure the cost of the metrics.
+     */
+    private MeteredAlgorithm metered;
+
+    /**
+     * The numbers to round.
+     */
+    private String[] numbers;
+
+    /**
+     * The index of the next number to round.
+     */
+    private int index;
+
+    /**
+     * The char array the results are written to.
+     */
+    private char[] chars;
+
+    /**
+     * The StringBuilder the results are appended to.
+     */
+    private StringBuilder builder;
+
+    /**
+     * The ASCII bytes of all the numbers, one after another.
+     */
+    private byte[] payload;
+
+    /**
+     * The offsets of the numbers in the payload, with the end of the payload at the end.
+     */
+    private int[] offsets;
+
+    /**
+     * The byte array the results are written to.
+     */
+    private byte[] bytes;
+
+    /**
+     * Creates the algorithm and the numbers.
+     *
+     * @throws Exception if the algorithm can not be created
+     */
+    @Setup
+    public void setUp() throws Exception {
+        rounding = BenchmarkNumbers.createAlgorithm(algorithm);
+        spec = rounding.compile(BenchmarkNumbers.ACCURACY_DIGIT, BenchmarkNumbers.COMPARISON_DIGIT);
+        cached = new CachingAlgorithm(rounding, BenchmarkNumbers.COUNT);
+        metered = new MeteredAlgorithm(rounding);
+        numbers = BenchmarkNumbers.createNumbers(shape);
+        index = 0;
+        chars = new char[2048];
+        builder = new StringBuilder(2048);
+
+        offsets = new int[numbers.length + 1];
+        for (int i = 0; i < numbers.length; ++i) {
+            offsets[i + 1] = offsets[i] + numbers[i].length();
+        }
+        payload = new byte[offsets[numbers.length]];
+        for (int i = 0; i < numbers.length; ++i) {
+            for (int j = 0; j < numbers[i].length(); ++j) {
+                payload[offsets[i] + j] = (byte) numbers[i].charAt(j);
+            }
+        }
+        bytes = new byte[2048];
+    }
+
+    /**
+     * Benchmarks round(String number).
+     *
+     * @return the rounded number
+     */
+    @Benchmark
+    public String round() {
+        index = (index + 1) & (BenchmarkNumbers.COUNT - 1);
+        return rounding.round(numbers[index]);
+    }
+
+    /**
+     * Benchmarks round(String number, int accuracyDigit, int comparisonDigit).
+     *
+     * @return the rounded number
+     */
+    @Benchmark
+    public String roundWithDigits() {
+        index = (index + 1) & (BenchmarkNumbers.COUNT - 1);
+        return rounding.round(numbers[index], BenchmarkNumbers.ACCURACY_DIGIT, BenchmarkNumbers.COMPARISON_DIGIT);
+    }
+
+    /**
+     * Benchmarks RoundingSpec.round(CharSequence number), which does not check the digits.
+     *
+     * @return the rounded number
+     */
+    @Benchmark
+    public String roundWithSpec() {
+        index = (index + 1) & (BenchmarkNumbers.COUNT - 1);
+        return spec.round(numbers[index]);
+    }
+
+    /**
+     * Benchmarks round(String number) of CachingAlgorithm, which takes the results from the cache once the
+     * numbers have been rounded, except for the algorithms which are not deterministic.
+     *
+     * @return the rounded number
+     */
+    @Benchmark
+    public String roundCached() {
+        index = (index + 1) & (BenchmarkNumbers.COUNT - 1);
+        return cached.round(numbers[index]);
+    }
+
+    /**
+     * Benchmarks round(String number) of MeteredAlgorithm, which costs the same as round() plus the recording
+     * of the metrics.
+     *
+     * @return the rounded number
+     */
+    @Benchmark
+    public String roundMetered() {
+        index = (index + 1) & (BenchmarkNumbers.COUNT - 1);
+        return metered.round(numbers[index]);
+    }
+
+    /**
+     * Benchmarks round(String number, char[] result, int offset), which does not create the resulting string.
+     *
+     * @return the number of chars written
+     */
+    @Benchmark
+    public int roundToChars() {
+        index = (index + 1) & (BenchmarkNumbers.COUNT - 1);
+        return rounding.round(numbers[index], chars, 0);
+    }
+
+    /**
+     * Benchmarks round(String number, StringBuilder result), which does not create the resulting string.
+     *
+     * @return the StringBuilder
+     */
+    @Benchmark
+    public StringBuilder roundToBuilder() {
+        index = (index + 1) & (BenchmarkNumbers.COUNT - 1);
+        builder.setLength(0);
+        rounding.round(numbers[index], builder);
+        return builder;
+    }
+
+    /**
+     * Benchmarks decoding an ASCII number to a string, round(String number) and encoding the result back,
+     * which the byte array methods save.
+     *
+     * @return the number of bytes written
+     */
+    @Benchmark
+    public int decodeAndRound() {
+        index = (index + 1) & (BenchmarkNumbers.COUNT - 1);
+        String number = new String(payload, offsets[index], offsets[index + 1] - offsets[index], ASCII);
+        String result = rounding.round(number);
+        for (int i = 0; i < result.length(); ++i) {
+            bytes[i] = (byte) result.charAt(i);
+        }
+        return result.length();
+    }
+
+    /**
+     * Benchmarks round(byte[] number, int offset, int length, byte[] result, int resultOffset), which neither
+     * decodes the number nor creates the resulting string.
+     *
+     * @return the number of bytes written
+     */
+    @Benchmark
+    public int roundAscii() {
+        index = (index + 1) & (BenchmarkNumbers.COUNT - 1);
+        return rounding.round(payload, offsets[index], offsets[index + 1] - offsets[index], bytes, 0);
+    }
+}
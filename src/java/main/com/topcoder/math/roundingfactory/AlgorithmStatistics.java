@@ -0,0 +1,374 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory;
+
+import com.topcoder.math.roundingfactory.algorithms.Algorithm;
+import com.topcoder.math.roundingfactory.algorithms.CachingAlgorithm;
+import com.topcoder.math.roundingfactory.algorithms.MeteredAlgorithm;
+import com.topcoder.math.roundingfactory.algorithms.RoundingMetrics;
+
+/**
+ * <p>A snapshot of the settings and the statistics of an algorithm registered in the RoundingManager, as shown
+ * by the RoundingManagerMXBean.</p>
+ * <p>The class of the algorithm is the one of the algorithm wrapped by any CachingAlgorithm and
+ * MeteredAlgorithm. The cache counts are 0 if the results are not cached, and the metrics are 0 if the metrics
+ * are not recorded. An algorithm loaded lazily which has not been got yet is shown with its configured class
+ * and digits, without creating it.</p>
+ *
+ * <p>This class is thread safe, since it is immutable.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+public final class AlgorithmStatistics {
+
+    /**
+     * <p>The metrics read for an algorithm whose metrics are not recorded, whose counts are always 0.</p>
+     */
+    private static final RoundingMetrics NO_METRICS = new RoundingMetrics();
+
+    /**
+     * <p>The name of the algorithm.</p>
+     */
+    private final String name;
+
+    /**
+     * <p>The class name of the algorithm.</p>
+     */
+    private final String className;
+
+    /**
+     * <p>Whether the algorithm has been created.</p>
+     */
+    private final boolean loaded;
+
+    /**
+     * <p>The accuracy digit of the algorithm.</p>
+     */
+    private final int accuracyDigit;
+
+    /**
+     * <p>The comparison digit of the algorithm.</p>
+     */
+    private final int comparisonDigit;
+
+    /**
+     * <p>The maximum number of results cached, 0 if the results are not cached.</p>
+     */
+    private final int cacheSize;
+
+    /**
+     * <p>The number of results taken from the cache.</p>
+     */
+    private final long cacheHitCount;
+
+    /**
+     * <p>The number of results not found in the cache.</p>
+     */
+    private final long cacheMissCount;
+
+    /**
+     * <p>Whether the metrics of the algorithm are recorded.</p>
+     */
+    private final boolean metered;
+
+    /**
+     * <p>The number of calls counted by the metrics.</p>
+     */
+    private final long callCount;
+
+    /**
+     * <p>The number of calls per second since the metrics started counting.</p>
+     */
+    private final double callsPerSecond;
+
+    /**
+     * <p>The number of ties.</p>
+     */
+    private final long tieCount;
+
+    /**
+     * <p>The number of numbers rounded away from zero.</p>
+     */
+    private final long awayFromZeroCount;
+
+    /**
+     * <p>The number of numbers rounded towards zero.</p>
+     */
+    private final long towardsZeroCount;
+
+    /**
+     * <p>The number of numbers rejected.</p>
+     */
+    private final long rejectionCount;
+
+    /**
+     * <p>The number of RoundingExceptions thrown.</p>
+     */
+    private final long roundingExceptionCount;
+
+    /**
+     * <p>The median latency in nanoseconds.</p>
+     */
+    private final long medianLatency;
+
+    /**
+     * <p>The 99th percentile of the latencies in nanoseconds.</p>
+     */
+    private final long latency99;
+
+    /**
+     * <p>The 99.9th percentile of the latencies in nanoseconds.</p>
+     */
+    private final long latency999;
+
+    /**
+     * <p>Constructs the statistics of the given algorithm, reading its current counts.</p>
+     *
+     * @param name the name of the algorithm
+     * @param algorithm the algorithm
+     */
+    AlgorithmStatistics(String name, Algorithm algorithm) {
+        this.name = name;
+        this.loaded = true;
+        this.accuracyDigit = algorithm.getAccuracyDigit();
+        this.comparisonDigit = algorithm.getComparisonDigit();
+
+        CachingAlgorithm cachingAlgorithm = null;
+        if (algorithm instanceof CachingAlgorithm) {
+            cachingAlgorithm = (CachingAlgorithm) algorithm;
+            algorithm = cachingAlgorithm.getAlgorithm();
+        }
+        this.cacheSize = (cachingAlgorithm == null) ? 0 : cachingAlgorithm.getMaximumSize();
+        this.cacheHitCount = (cachingAlgorithm == null) ? 0 : cachingAlgorithm.getHitCount();
+        this.cacheMissCount = (cachingAlgorithm == null) ? 0 : cachingAlgorithm.getMissCount();
+
+        RoundingMetrics metrics = NO_METRICS;
+        this.metered = algorithm instanceof MeteredAlgorithm;
+        if (metered) {
+            metrics = ((MeteredAlgorithm) algorithm).getMetrics();
+            algorithm = ((MeteredAlgorithm) algorithm).getAlgorithm();
+        }
+        long elapsed = System.currentTimeMillis() - metrics.getStartTime();
+        this.callCount = metrics.getCallCount();
+        this.callsPerSecond = (elapsed > 0) ? callCount * 1000.0 / elapsed : 0;
+        this.tieCount = metrics.getTieCount();
+        this.awayFromZeroCount = metrics.getAwayFromZeroCount();
+        this.towardsZeroCount = metrics.getTowardsZeroCount();
+        this.rejectionCount = metrics.getRejectionCount();
+        this.roundingExceptionCount = metrics.getRoundingExceptionCount();
+        this.medianLatency = metrics.getLatencyPercentile(50);
+        this.latency99 = metrics.getLatencyPercentile(99);
+        this.latency999 = metrics.getLatencyPercentile(99.9);
+
+        this.className = algorithm.getClass().getName();
+    }
+
+    /**
+     * <p>Constructs the statistics of an algorithm loaded lazily which has not been created yet.</p>
+     *
+     * @param name the name of the algorithm
+     * @param className the configured class name of the algorithm
+     * @param accuracyDigit the configured accuracy digit of the algorithm
+     * @param comparisonDigit the configured comparison digit of the algorithm
+     * @param cacheSize the configured size of the result cache, 0 if the results are not cached
+     * @param metered whether the metrics of the algorithm are recorded
+     */
+    AlgorithmStatistics(String name, String className, int accuracyDigit, int comparisonDigit, int cacheSize,
+        boolean metered) {
+        this.name = name;
+        this.className = className;
+        this.loaded = false;
+        this.accuracyDigit = accuracyDigit;
+        this.comparisonDigit = comparisonDigit;
+        this.cacheSize = cacheSize;
+        this.cacheHitCount = 0;
+        this.cacheMissCount = 0;
+        this.metered = metered;
+        this.callCount = 0;
+        this.callsPerSecond = 0;
+        this.tieCount = 0;
+        this.awayFromZeroCount = 0;
+        this.towardsZeroCount = 0;
+        this.rejectionCount = 0;
+        this.roundingExceptionCount = 0;
+        this.medianLatency = 0;
+        this.latency99 = 0;
+        this.latency999 = 0;
+    }
+
+    /**
+     * <p>Gets the name of the algorithm.</p>
+     *
+     * @return the name of the algorithm
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * <p>Gets the class name of the algorithm, without any CachingAlgorithm or MeteredAlgorithm wrapping it.</p>
+     *
+     * @return the class name of the algorithm
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * <p>Returns whether the algorithm has been created. Only an algorithm loaded lazily may not be.</p>
+     *
+     * @return whether the algorithm has been created
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * <p>Gets the accuracy digit of the algorithm.</p>
+     *
+     * @return the accuracy digit
+     */
+    public int getAccuracyDigit() {
+        return accuracyDigit;
+    }
+
+    /**
+     * <p>Gets the comparison digit of the algorithm.</p>
+     *
+     * @return the comparison digit
+     */
+    public int getComparisonDigit() {
+        return comparisonDigit;
+    }
+
+    /**
+     * <p>Gets the maximum number of results cached.</p>
+     *
+     * @return the cache size, 0 if the results are not cached
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * <p>Gets the number of results taken from the cache.</p>
+     *
+     * @return the number of cache hits
+     */
+    public long getCacheHitCount() {
+        return cacheHitCount;
+    }
+
+    /**
+     * <p>Gets the number of results not found in the cache.</p>
+     *
+     * @return the number of cache misses
+     */
+    public long getCacheMissCount() {
+        return cacheMissCount;
+    }
+
+    /**
+     * <p>Returns whether the metrics of the algorithm are recorded.</p>
+     *
+     * @return whether the algorithm is metered
+     */
+    public boolean isMetered() {
+        return metered;
+    }
+
+    /**
+     * <p>Gets the number of calls since the metrics started counting.</p>
+     *
+     * @return the number of calls
+     */
+    public long getCallCount() {
+        return callCount;
+    }
+
+    /**
+     * <p>Gets the average number of calls per second since the metrics started counting.</p>
+     *
+     * @return the throughput in calls per second
+     */
+    public double getCallsPerSecond() {
+        return callsPerSecond;
+    }
+
+    /**
+     * <p>Gets the number of ties.</p>
+     *
+     * @return the number of ties
+     */
+    public long getTieCount() {
+        return tieCount;
+    }
+
+    /**
+     * <p>Gets the number of numbers rounded away from zero.</p>
+     *
+     * @return the number of numbers rounded away from zero
+     */
+    public long getAwayFromZeroCount() {
+        return awayFromZeroCount;
+    }
+
+    /**
+     * <p>Gets the number of numbers rounded towards zero.</p>
+     *
+     * @return the number of numbers rounded towards zero
+     */
+    public long getTowardsZeroCount() {
+        return towardsZeroCount;
+    }
+
+    /**
+     * <p>Gets the number of numbers rejected.</p>
+     *
+     * @return the number of numbers rejected
+     */
+    public long getRejectionCount() {
+        return rejectionCount;
+    }
+
+    /**
+     * <p>Gets the number of RoundingExceptions thrown.</p>
+     *
+     * @return the number of RoundingExceptions
+     */
+    public long getRoundingExceptionCount() {
+        return roundingExceptionCount;
+    }
+
+    /**
+     * <p>Gets the median latency.</p>
+     *
+     * @return the median latency in nanoseconds, 0 if no latency is recorded
+     */
+    public long getMedianLatency() {
+        return medianLatency;
+    }
+
+    /**
+     * <p>Gets the 99th percentile of the latencies.</p>
+     *
+     * @return the 99th percentile in nanoseconds, 0 if no latency is recorded
+     */
+    public long getLatency99() {
+        return latency99;
+    }
+
+    /**
+     * <p>Gets the 99.9th percentile of the latencies.</p>
+     *
+     * @return the 99.9th percentile in nanoseconds, 0 if no latency is recorded
+     */
+    public long getLatency999() {
+        return latency999;
+    }
+}
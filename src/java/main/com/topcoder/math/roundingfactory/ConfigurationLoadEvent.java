@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * <p>The flight recorder event of creating the RoundingManager, which loads the algorithms from the
+ * configuration. A failed creation is recorded too, before the ConfigurationException is thrown.</p>
+ *
+ * <p>The event is disabled by default, it is enabled by a recording whose settings enable
+ * com.topcoder.math.roundingfactory.ConfigurationLoad, such as the conf/roundingfactory.jfc settings.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+@Name("com.topcoder.math.roundingfactory.ConfigurationLoad")
+@Label("Rounding Configuration Load")
+@Category({"TopCoder", "Rounding Factory"})
+@Description("The rounding algorithms loaded when the RoundingManager is created")
+@Enabled(false)
+final class ConfigurationLoadEvent extends jdk.jfr.Event {
+
+    /**
+     * <p>The namespace of the configuration.</p>
+     */
+    @Label("Namespace")
+    String namespace;
+
+    /**
+     * <p>The names of the configured algorithms, separated by commas.</p>
+     */
+    @Label("Algorithms")
+    String algorithms;
+
+    /**
+     * <p>The number of the configured algorithms.</p>
+     */
+    @Label("Algorithm Count")
+    int algorithmCount;
+
+    /**
+     * <p>Whether the algorithms are created when they are got the first time.</p>
+     */
+    @Label("Lazy Loading")
+    boolean lazyLoading;
+
+    /**
+     * <p>Whether the RoundingManager has been created.</p>
+     */
+    @Label("Succeeded")
+    boolean succeeded;
+}
@@ -6,23 +6,58 @@
 package com.topcoder.math.roundingfactory;
 
 import com.topcoder.math.roundingfactory.algorithms.Algorithm;
+import com.topcoder.math.roundingfactory.algorithms.CachingAlgorithm;
+import com.topcoder.math.roundingfactory.algorithms.MeteredAlgorithm;
+import com.topcoder.math.roundingfactory.algorithms.RoundingAlgorithm;
+import com.topcoder.math.roundingfactory.algorithms.RoundingMetrics;
+import com.topcoder.math.roundingfactory.algorithms.RoundingSpec;
 
 import com.topcoder.util.config.ConfigManager;
 import com.topcoder.util.config.UnknownNamespaceException;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Map;
-import java.util.Hashtable;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Constructor;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
 
 /**
  * <p>The manager class provides an API to manage the rounding algorithms.
  * It allows the user to define new algorithms, either in a configuration
  * file or dynamically through code. The manager class is a singleton.</p>
  *
- * <p>This class is thread safe, since the inner map is a Hashtable</p>
+ * <p>This class is thread safe, since the inner map is a ConcurrentHashMap. Looking up the algorithms
+ * never blocks, even while other threads add or remove algorithms.</p>
+ *
+ * <p>If the optional lazy_loading property is "true", the configured algorithms are not created
+ * when the manager is created. Only their class names and digits are read and the digits checked, and each
+ * algorithm is created when it is got the first time. This makes the creation of the manager fast when many algorithms are
+ * configured but only a few of them are used.</p>
+ *
+ * <p>If the optional {name}_cache_size property of an algorithm is given, the algorithm is wrapped by a
+ * CachingAlgorithm holding at most this number of results.</p>
+ *
+ * <p>If the optional {name}_metrics property of an algorithm is "true", the algorithm is wrapped by a
+ * MeteredAlgorithm, whose metrics are got by getMetrics(String). With a cache, the metrics are recorded
+ * for the numbers missing from the cache.</p>
+ *
+ * <p>The algorithms and their statistics are shown by the RoundingManagerMXBean registered by
+ * registerMBean(MBeanServer). If the optional register_mbean property is "true", it is registered in the
+ * platform MBeanServer when the manager is created.</p>
+ *
+ * <p>The creation of the manager is recorded by a ConfigurationLoadEvent, and the rounding by the flight
+ * recorder events of the algorithms package. They are disabled by default, the conf/roundingfactory.jfc
+ * settings enable them. If the jdk.jfr module is not present, nothing is recorded.</p>
  *
  * @author qiucx0161
  * @author TCSDEVELOPER
@@ -38,6 +73,11 @@ public class RoundingManager {
      */
     public static final String NAMESPACE = "com.topcoder.math.roundingfactory";
 
+    /**
+     * <p>The object name of the RoundingManagerMXBean.</p>
+     */
+    public static final String MBEAN_NAME = NAMESPACE + ":type=RoundingManager";
+
     /**
      * <p>Constant for the property specifying the rounding algorithm name list.</p>
      */
@@ -58,33 +98,73 @@ public class RoundingManager {
      */
     private static final String ROUNDING_ALGORITHM_COMPARISON_SUFFIX = "_comparison";
 
+    /**
+     * <p>Constant for the optional property suffix for the size of the result cache.</p>
+     */
+    private static final String ROUNDING_ALGORITHM_CACHE_SIZE_SUFFIX = "_cache_size";
+
+    /**
+     * <p>Constant for the optional property suffix specifying whether the metrics are recorded.</p>
+     */
+    private static final String ROUNDING_ALGORITHM_METRICS_SUFFIX = "_metrics";
+
+    /**
+     * <p>Constant for the optional property specifying whether the algorithms are created lazily.</p>
+     */
+    private static final String LAZY_LOADING_PROPERTY = "lazy_loading";
+
+    /**
+     * <p>Constant for the optional property specifying whether the MBean is registered in the platform
+     * MBeanServer.</p>
+     */
+    private static final String REGISTER_MBEAN_PROPERTY = "register_mbean";
+
     /**
      * <p>Constant for the parameter types to retrieve the constructor.</p>
      */
     private static final Class[] PARAMETER_TYPES = new Class[] {int.class, int.class};
 
+    /**
+     * <p>Whether the jdk.jfr module is present. Without it, ConfigurationLoadEvent can not be loaded, so it is
+     * never created.</p>
+     */
+    private static final boolean FLIGHT_RECORDER = isFlightRecorderPresent();
+
     /**
      * <p>The singleton instance of RoundingManager. It will be instantiated in getInstance()
      * only once. This variable will be null until accessed the first time.</p>
+     * <p>It is volatile, so that the instance read without locking in getInstance() is always
+     * completely constructed.</p>
      */
-    private static RoundingManager instance = null;
+    private static volatile RoundingManager instance = null;
 
     /**
      * <p>Represents a mapping from Strings to instances of Algorithm - that is, from
      * the identifier of an algorithm to the algorithm itself.It is initialized in constructor.</p>
+     * <p>In lazy loading mode, the configured algorithms which have not been got yet are mapped to
+     * AlgorithmDefinition instances instead, which are replaced by the algorithms once created.</p>
      */
-    private final Map algorithms;
+    private final ConcurrentMap algorithms;
 
     /**
      * <p>Private constructor that prevents outside instantiation(singleton).</p>
      * <p>This constructor will retrieve the algorithms information from ConfigManager,
      * instantiate them through reflection and then register them.
+     * A ConfigurationLoadEvent is recorded while a flight recording enables it, if the jdk.jfr module is
+     * present.
      *
      * @throws ConfigurationException if anything goes wrong with ConfigManager
      */
     private RoundingManager() throws ConfigurationException {
 
-        algorithms = new Hashtable();
+        algorithms = new ConcurrentHashMap();
+
+        ConfigurationLoadEvent event = null;
+        if (FLIGHT_RECORDER) {
+            event = new ConfigurationLoadEvent();
+            event.begin();
+            event.namespace = NAMESPACE;
+        }
 
         try {
 
@@ -105,22 +185,41 @@ public class RoundingManager {
                 throw new ConfigurationException(ROUNDING_ALGORITHMS_PROPERTY + " property does not exist.");
             }
 
+            boolean lazyLoading = getBooleanProperty(LAZY_LOADING_PROPERTY);
+            if (event != null && event.isEnabled()) {
+                event.algorithms = join(algorithmArray);
+                event.algorithmCount = algorithmArray.length;
+                event.lazyLoading = lazyLoading;
+            }
+
             // load all algorithms
             for (int i = 0; i < algorithmArray.length; ++i) {
 
                 String className = getProperty(algorithmArray[i] + ROUNDING_ALGORITHM_CLASS_SUFFIX);
                 Integer accuracyDigit = getIntProperty(algorithmArray[i] + ROUNDING_ALGORITHM_ACCURACY_SUFFIX);
                 Integer comparisonDigit = getIntProperty(algorithmArray[i] + ROUNDING_ALGORITHM_COMPARISON_SUFFIX);
+                Integer cacheSize = getCacheSizeProperty(algorithmArray[i] + ROUNDING_ALGORITHM_CACHE_SIZE_SUFFIX);
+                boolean metered = getBooleanProperty(algorithmArray[i] + ROUNDING_ALGORITHM_METRICS_SUFFIX);
+
+                if (lazyLoading) {
+                    // only record the definition, the algorithm is created when it is got the first time,
+                    // but its digits are checked now as the constructor would check them
+                    checkAlgorithmName(algorithmArray[i]);
+                    checkDigits(algorithmArray[i], accuracyDigit, comparisonDigit);
+                    algorithms.putIfAbsent(algorithmArray[i],
+                            new AlgorithmDefinition(className, accuracyDigit, comparisonDigit, cacheSize, metered));
+                } else {
+                    // add the algorithm
+                    addAlgorithm(algorithmArray[i],
+                            createAlgorithm(className, accuracyDigit, comparisonDigit, cacheSize, metered));
+                }
+            }
 
-                // retrieve the public constructor using the parameter type array
-                Constructor algorithmConstructor = Class.forName(className).getConstructor(PARAMETER_TYPES);
-
-                // create the algorithm instacne using reflection
-                Algorithm algorithm = (Algorithm) algorithmConstructor.newInstance(
-                        new Object[] {accuracyDigit, comparisonDigit});
-
-                // add the algorithm
-                addAlgorithm(algorithmArray[i], algorithm);
+            if (getBooleanProperty(REGISTER_MBEAN_PROPERTY)) {
+                registerMBean(ManagementFactory.getPlatformMBeanServer());
+            }
+            if (event != null) {
+                event.succeeded = true;
             }
         } catch (ConfigurationException ce) {
             // do not wrap ConfigurationException
@@ -128,6 +227,41 @@ public class RoundingManager {
         } catch (Exception e) {
             // wrap the exception with ConfigurationException
             throw new ConfigurationException("Exception occurs while creating the instance", e);
+        } finally {
+            if (event != null) {
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Joins the given names with commas.
+     *
+     * @param names the names to join
+     * @return the joined names
+     */
+    private static String join(String[] names) {
+        StringBuilder buffer = new StringBuilder();
+        for (int i = 0; i < names.length; ++i) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            buffer.append(names[i]);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Checks whether the flight recorder API of the jdk.jfr module can be loaded.
+     *
+     * @return true if jdk.jfr.Event can be loaded, false otherwise
+     */
+    private static boolean isFlightRecorderPresent() {
+        try {
+            Class.forName("jdk.jfr.Event", false, RoundingManager.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
         }
     }
 
@@ -167,25 +301,128 @@ public class RoundingManager {
         }
     }
 
+    /**
+     * Checks the configured digits of the given algorithm, which is loaded lazily.
+     *
+     * @param name the name of the algorithm
+     * @param accuracyDigit the configured accuracy digit
+     * @param comparisonDigit the configured comparison digit
+     * @throws ConfigurationException if the accuracy digit is negative, or the comparison digit is not between
+     * 1 and 9 inclusive.
+     */
+    private static void checkDigits(String name, Integer accuracyDigit, Integer comparisonDigit)
+        throws ConfigurationException {
+        if (accuracyDigit.intValue() < 0) {
+            throw new ConfigurationException(name + ROUNDING_ALGORITHM_ACCURACY_SUFFIX
+                    + " property should not be negative.");
+        }
+        if (comparisonDigit.intValue() < 1 || comparisonDigit.intValue() > 9) {
+            throw new ConfigurationException(name + ROUNDING_ALGORITHM_COMPARISON_SUFFIX
+                    + " property should be between 1 and 9, inclusive.");
+        }
+    }
+
+    /**
+     * Gets the specified optional cache size property from the ConfigManager.
+     *
+     * @param key the name of the property
+     * @return the specified cache size, or null if the property does not exist.
+     * @throws ConfigurationException if the value is not a positive integer.
+     * @throws UnknownNamespaceException if the namespace does not exist.
+     */
+    private Integer getCacheSizeProperty(String key) throws ConfigurationException, UnknownNamespaceException {
+        if (ConfigManager.getInstance().getString(NAMESPACE, key) == null) {
+            return null;
+        }
+
+        Integer cacheSize = getIntProperty(key);
+        if (cacheSize.intValue() <= 0) {
+            throw new ConfigurationException(key + " property should be positive.");
+        }
+        return cacheSize;
+    }
+
+    /**
+     * Gets the specified optional boolean property from the ConfigManager.
+     *
+     * @param key the name of the property
+     * @return the specified boolean value, or false if the property does not exist.
+     * @throws ConfigurationException if the value is neither "true" nor "false".
+     * @throws UnknownNamespaceException if the namespace does not exist.
+     */
+    private boolean getBooleanProperty(String key) throws ConfigurationException, UnknownNamespaceException {
+
+        // retrieve the property from ConfigManager
+        String value = ConfigManager.getInstance().getString(NAMESPACE, key);
+
+        if (value == null || value.trim().equalsIgnoreCase("false")) {
+            return false;
+        }
+        if (value.trim().equalsIgnoreCase("true")) {
+            return true;
+        }
+        throw new ConfigurationException(key + " property is invalid boolean.");
+    }
+
+    /**
+     * Creates the algorithm of the given class with the given digits through reflection, wrapped by a
+     * MeteredAlgorithm if the metrics are recorded, then by a CachingAlgorithm if the cache size is given.
+     *
+     * @param className the class name of the algorithm
+     * @param accuracyDigit the accuracy digit of the algorithm
+     * @param comparisonDigit the comparison digit of the algorithm
+     * @param cacheSize the size of the result cache, or null if the results are not cached
+     * @param metered whether the metrics of the algorithm are recorded
+     * @return the created algorithm
+     * @throws Exception if the algorithm can not be created
+     */
+    private static Algorithm createAlgorithm(String className, Integer accuracyDigit, Integer comparisonDigit,
+        Integer cacheSize, boolean metered) throws Exception {
+
+        // retrieve the public constructor using the parameter type array
+        Constructor algorithmConstructor = Class.forName(className).getConstructor(PARAMETER_TYPES);
+
+        // create the algorithm instacne using reflection
+        Algorithm algorithm =
+            (Algorithm) algorithmConstructor.newInstance(new Object[] {accuracyDigit, comparisonDigit});
+
+        if (metered) {
+            algorithm = new MeteredAlgorithm(algorithm);
+        }
+        return (cacheSize == null) ? algorithm : new CachingAlgorithm(algorithm, cacheSize.intValue());
+    }
+
     /**
      * <p>Gets the singleton instance of RoundingManager.</p>
+     * <p>Only the creation of the instance is synchronized, once created the instance is returned without
+     * locking. If the creation fails, the ConfigurationException is thrown and the next call tries again.</p>
      *
      * @return the singleton instance of RoundingManager
      * @throws ConfigurationException if anything goes wrong with ConfigManager
      */
-    public static synchronized RoundingManager getInstance() throws ConfigurationException {
+    public static RoundingManager getInstance() throws ConfigurationException {
 
-        // create the singleton instance if it not be created yet.
-        if (instance == null) {
-            instance = new RoundingManager();
+        // read the volatile field only once on the fast path
+        RoundingManager result = instance;
+        if (result != null) {
+            return result;
         }
 
-        return instance;
+        synchronized (RoundingManager.class) {
+            // create the singleton instance if it not be created yet.
+            if (instance == null) {
+                instance = new RoundingManager();
+            }
+
+            return instance;
+        }
     }
 
     /**
      * <p>Adds the given round algorithm. If name already exists as a key,
      * false will be returned, otherwise the algorithm will be registered and true will be returned.</p>
+     * <p>The check and the registration are a single atomic operation, so only one of the threads adding
+     * algorithms of the same name at the same time succeeds.</p>
      *
      * @return whether the algorithm was added.
      * @param name the algorithm name
@@ -201,28 +438,68 @@ public class RoundingManager {
             throw new NullPointerException("algorithm should not be null");
         }
 
-        // return false immediately if the algorithm already exists
-        if (algorithms.containsKey(name)) {
-            return false;
-        }
-
-        // register the algorithm and return true
-        algorithms.put(name, algorithm);
-        return true;
+        // register the algorithm unless the name already exists
+        return algorithms.putIfAbsent(name, algorithm) == null;
     }
 
     /**
      * <p>Get the specified rounding algorithm. If the given name does no exist, null will be returned.</p>
+     * <p>In lazy loading mode, a configured algorithm is created by the first call getting it.</p>
      *
      * @return the Algorithm instance with the given name, or null if there is no corresponding name
      * @param name the name of an algorithm
      * @throws NullPointerException if name is null
      * @throws IllegalArgumentException if the name is empty string.
+     * @throws IllegalStateException if the algorithm is loaded lazily and can not be created
      */
     public Algorithm getAlgorithm(String name) {
         checkAlgorithmName(name);
 
-        return (Algorithm) algorithms.get(name);
+        return toAlgorithm(name, algorithms.get(name));
+    }
+
+    /**
+     * <p>Gets the specified rounding algorithm compiled with its current accuracy and comparison digits.
+     * If the given name does no exist, null will be returned.</p>
+     * <p>The returned spec is immutable and rounds without checking the digits, so it can be kept and shared
+     * by all the threads. It is not changed by later changes of the algorithm digits or of the manager.</p>
+     * <p>Only a RoundingAlgorithm can be compiled, null is returned for any other Algorithm.</p>
+     *
+     * @return the RoundingSpec of the algorithm with the given name, or null if there is no corresponding name
+     * or the algorithm is not a RoundingAlgorithm
+     * @param name the name of an algorithm
+     * @throws NullPointerException if name is null
+     * @throws IllegalArgumentException if the name is empty string.
+     * @throws IllegalStateException if the algorithm is loaded lazily and can not be created
+     */
+    public RoundingSpec getRoundingSpec(String name) {
+        Algorithm algorithm = getAlgorithm(name);
+
+        if (!(algorithm instanceof RoundingAlgorithm)) {
+            return null;
+        }
+
+        return ((RoundingAlgorithm) algorithm).compile();
+    }
+
+    /**
+     * <p>Gets the metrics of the specified rounding algorithm. If the given name does no exist, or the
+     * algorithm is not a MeteredAlgorithm nor a CachingAlgorithm of a MeteredAlgorithm, null will be
+     * returned.</p>
+     *
+     * @return the RoundingMetrics of the algorithm with the given name, or null if it has no metrics
+     * @param name the name of an algorithm
+     * @throws NullPointerException if name is null
+     * @throws IllegalArgumentException if the name is empty string.
+     * @throws IllegalStateException if the algorithm is loaded lazily and can not be created
+     */
+    public RoundingMetrics getMetrics(String name) {
+        Algorithm algorithm = getAlgorithm(name);
+
+        if (algorithm instanceof CachingAlgorithm) {
+            algorithm = ((CachingAlgorithm) algorithm).getAlgorithm();
+        }
+        return (algorithm instanceof MeteredAlgorithm) ? ((MeteredAlgorithm) algorithm).getMetrics() : null;
     }
 
     /**
@@ -250,12 +527,214 @@ public class RoundingManager {
     /**
      * <p>Gets a collection of all registered althorithms.</p>
      * <p>Note: A shallow copy is returned, so changes to the manager are not reflected in the
-     * returned collection, and vice-versa.
+     * returned collection, and vice-versa. The copy is made without blocking other threads, and
+     * reflects the algorithms registered at some point during the call.
+     * <p>In lazy loading mode, the configured algorithms which have not been got yet are created.</p>
      *
      * @return a shallow copy of all registered althorithms.
+     * @throws IllegalStateException if an algorithm is loaded lazily and can not be created
      */
     public Collection getAllAlgorithms() {
-        return new ArrayList(algorithms.values());
+        Collection result = new ArrayList(algorithms.size());
+
+        for (Iterator itr = algorithms.entrySet().iterator(); itr.hasNext();) {
+            Map.Entry entry = (Map.Entry) itr.next();
+            result.add(toAlgorithm((String) entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * <p>Registers the RoundingManagerMXBean of this manager in the given MBeanServer with the object name
+     * MBEAN_NAME, replacing any MBean registered with this name.</p>
+     *
+     * @param server the MBeanServer to register the MBean in
+     * @throws NullPointerException if server is null
+     * @throws JMException if the MBean can not be registered
+     */
+    public void registerMBean(MBeanServer server) throws JMException {
+        if (server == null) {
+            throw new NullPointerException("server should not be null");
+        }
+
+        ObjectName name = getMBeanName();
+        synchronized (RoundingManager.class) {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(new RoundingManagerMonitor(this), name);
+        }
+    }
+
+    /**
+     * <p>Unregisters the MBean registered with the object name MBEAN_NAME from the given MBeanServer.</p>
+     *
+     * @return whether an MBean was registered with this name
+     * @param server the MBeanServer to unregister the MBean from
+     * @throws NullPointerException if server is null
+     * @throws JMException if the MBean can not be unregistered
+     */
+    public boolean unregisterMBean(MBeanServer server) throws JMException {
+        if (server == null) {
+            throw new NullPointerException("server should not be null");
+        }
+
+        ObjectName name = getMBeanName();
+        synchronized (RoundingManager.class) {
+            if (!server.isRegistered(name)) {
+                return false;
+            }
+            server.unregisterMBean(name);
+            return true;
+        }
+    }
+
+    /**
+     * <p>Gets the object name of the MBean.</p>
+     *
+     * @return the object name MBEAN_NAME
+     */
+    private static ObjectName getMBeanName() {
+        try {
+            return new ObjectName(MBEAN_NAME);
+        } catch (MalformedObjectNameException e) {
+            // never happens, the name is a valid constant
+            throw new IllegalStateException("invalid MBean name " + MBEAN_NAME, e);
+        }
+    }
+
+    /**
+     * <p>Gets the names of the registered algorithms, sorted.</p>
+     *
+     * @return the names of the algorithms
+     */
+    String[] getAlgorithmNames() {
+        String[] names = (String[]) algorithms.keySet().toArray(new String[0]);
+        Arrays.sort(names);
+        return names;
+    }
+
+    /**
+     * <p>Gets the settings and statistics of all the registered algorithms, sorted by name. The algorithms
+     * loaded lazily are not created.</p>
+     *
+     * @return the statistics of the algorithms
+     */
+    AlgorithmStatistics[] getAlgorithmStatistics() {
+        String[] names = getAlgorithmNames();
+        Collection result = new ArrayList(names.length);
+
+        for (int i = 0; i < names.length; ++i) {
+            Object value = algorithms.get(names[i]);
+
+            // skip the algorithms removed meanwhile
+            if (value != null) {
+                result.add(toStatistics(names[i], value));
+            }
+        }
+        return (AlgorithmStatistics[]) result.toArray(new AlgorithmStatistics[result.size()]);
+    }
+
+    /**
+     * <p>Gets the settings and statistics of the specified algorithm. The algorithm is not created if it is
+     * loaded lazily.</p>
+     *
+     * @return the statistics of the algorithm, or null if there is no corresponding name
+     * @param name the name of an algorithm
+     * @throws NullPointerException if name is null
+     * @throws IllegalArgumentException if the name is empty string.
+     */
+    AlgorithmStatistics getAlgorithmStatistics(String name) {
+        checkAlgorithmName(name);
+
+        Object value = algorithms.get(name);
+        return (value == null) ? null : toStatistics(name, value);
+    }
+
+    /**
+     * <p>Resets the metrics and the cache counts of all the registered algorithms.</p>
+     */
+    void resetStatistics() {
+        for (Iterator itr = algorithms.values().iterator(); itr.hasNext();) {
+            resetStatistics(itr.next());
+        }
+    }
+
+    /**
+     * <p>Resets the metrics and the cache counts of the specified algorithm.</p>
+     *
+     * @return whether the algorithm exists
+     * @param name the name of an algorithm
+     * @throws NullPointerException if name is null
+     * @throws IllegalArgumentException if the name is empty string.
+     */
+    boolean resetStatistics(String name) {
+        checkAlgorithmName(name);
+
+        Object value = algorithms.get(name);
+        if (value == null) {
+            return false;
+        }
+        resetStatistics(value);
+        return true;
+    }
+
+    /**
+     * <p>Converts the value mapped to the given name to the statistics of the algorithm, without creating an
+     * algorithm loaded lazily.</p>
+     *
+     * @param name the name of the algorithm
+     * @param value the value mapped to the name
+     * @return the statistics of the algorithm
+     */
+    private static AlgorithmStatistics toStatistics(String name, Object value) {
+        if (!(value instanceof AlgorithmDefinition)) {
+            return new AlgorithmStatistics(name, (Algorithm) value);
+        }
+
+        AlgorithmDefinition definition = (AlgorithmDefinition) value;
+        return new AlgorithmStatistics(name, definition.className, definition.accuracyDigit.intValue(),
+                definition.comparisonDigit.intValue(),
+                (definition.cacheSize == null) ? 0 : definition.cacheSize.intValue(), definition.metered);
+    }
+
+    /**
+     * <p>Resets the metrics and the cache counts of the algorithm mapped to a name. Nothing is done for an
+     * algorithm loaded lazily which has not been created, which has not rounded any number.</p>
+     *
+     * @param value the value mapped to the name
+     */
+    private static void resetStatistics(Object value) {
+        Object algorithm = value;
+        if (algorithm instanceof CachingAlgorithm) {
+            ((CachingAlgorithm) algorithm).resetCounts();
+            algorithm = ((CachingAlgorithm) algorithm).getAlgorithm();
+        }
+        if (algorithm instanceof MeteredAlgorithm) {
+            ((MeteredAlgorithm) algorithm).getMetrics().reset();
+        }
+    }
+
+    /**
+     * <p>Converts the value mapped to the given name to the algorithm. If the value is the definition of an
+     * algorithm loaded lazily, the algorithm is created and replaces the definition in the map.</p>
+     *
+     * @param name the name of the algorithm
+     * @param value the value mapped to the name, may be null
+     * @return the algorithm, or null if the value is null
+     * @throws IllegalStateException if the algorithm can not be created
+     */
+    private Algorithm toAlgorithm(String name, Object value) {
+        if (!(value instanceof AlgorithmDefinition)) {
+            return (Algorithm) value;
+        }
+
+        AlgorithmDefinition definition = (AlgorithmDefinition) value;
+        Algorithm algorithm = definition.getAlgorithm(name);
+
+        // replace the definition unless the algorithm has been removed or replaced meanwhile
+        algorithms.replace(name, definition, algorithm);
+        return algorithm;
     }
 
     /**
@@ -276,4 +755,78 @@ public class RoundingManager {
         }
     }
 
+    /**
+     * <p>The configuration of an algorithm loaded lazily. The algorithm is created only once, by the first
+     * call of getAlgorithm(String).</p>
+     */
+    private static class AlgorithmDefinition {
+
+        /**
+         * <p>The class name of the algorithm.</p>
+         */
+        private final String className;
+
+        /**
+         * <p>The accuracy digit of the algorithm.</p>
+         */
+        private final Integer accuracyDigit;
+
+        /**
+         * <p>The comparison digit of the algorithm.</p>
+         */
+        private final Integer comparisonDigit;
+
+        /**
+         * <p>The size of the result cache, or null if the results are not cached.</p>
+         */
+        private final Integer cacheSize;
+
+        /**
+         * <p>Whether the metrics of the algorithm are recorded.</p>
+         */
+        private final boolean metered;
+
+        /**
+         * <p>The created algorithm, null until created.</p>
+         */
+        private Algorithm algorithm = null;
+
+        /**
+         * <p>Constructs the definition of an algorithm.</p>
+         *
+         * @param className the class name of the algorithm
+         * @param accuracyDigit the accuracy digit of the algorithm
+         * @param comparisonDigit the comparison digit of the algorithm
+         * @param cacheSize the size of the result cache, or null if the results are not cached
+         * @param metered whether the metrics of the algorithm are recorded
+         */
+        AlgorithmDefinition(String className, Integer accuracyDigit, Integer comparisonDigit, Integer cacheSize,
+            boolean metered) {
+            this.className = className;
+            this.accuracyDigit = accuracyDigit;
+            this.comparisonDigit = comparisonDigit;
+            this.cacheSize = cacheSize;
+            this.metered = metered;
+        }
+
+        /**
+         * <p>Gets the algorithm, creating it the first time. If the creation fails, the next call tries
+         * again.</p>
+         *
+         * @param name the name of the algorithm, used in the error message
+         * @return the algorithm
+         * @throws IllegalStateException if the algorithm can not be created
+         */
+        synchronized Algorithm getAlgorithm(String name) {
+            if (algorithm == null) {
+                try {
+                    algorithm = createAlgorithm(className, accuracyDigit, comparisonDigit, cacheSize, metered);
+                } catch (Exception e) {
+                    throw new IllegalStateException("Exception occurs while creating the algorithm " + name, e);
+                }
+            }
+            return algorithm;
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory;
+
+/**
+ * <p>The management interface of the RoundingManager, registered by RoundingManager.registerMBean(MBeanServer).
+ * It lists the registered algorithms with their settings and statistics, and resets the statistics.</p>
+ * <p>The attributes are read from the ConcurrentHashMap of the manager and from the counters of the
+ * algorithms, so reading them never blocks the threads rounding numbers. An algorithm loaded lazily is not
+ * created by reading the attributes.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+public interface RoundingManagerMXBean {
+
+    /**
+     * <p>Gets the names of the registered algorithms, sorted.</p>
+     *
+     * @return the names of the algorithms
+     */
+    String[] getAlgorithmNames();
+
+    /**
+     * <p>Gets the number of registered algorithms.</p>
+     *
+     * @return the number of algorithms
+     */
+    int getAlgorithmCount();
+
+    /**
+     * <p>Gets the settings and statistics of all the registered algorithms, sorted by name.</p>
+     *
+     * @return the statistics of the algorithms
+     */
+    AlgorithmStatistics[] getAlgorithmStatistics();
+
+    /**
+     * <p>Gets the settings and statistics of the specified algorithm.</p>
+     *
+     * @return the statistics of the algorithm, or null if there is no algorithm of the given name
+     * @param name the name of an algorithm
+     */
+    AlgorithmStatistics getAlgorithmStatistics(String name);
+
+    /**
+     * <p>Resets the metrics and the cache counts of all the registered algorithms. The cached results are
+     * kept.</p>
+     */
+    void resetStatistics();
+
+    /**
+     * <p>Resets the metrics and the cache counts of the specified algorithm. The cached results are kept.</p>
+     *
+     * @return whether the algorithm exists
+     * @param name the name of an algorithm
+     */
+    boolean resetStatistics(String name);
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory;
+
+/**
+ * <p>The RoundingManagerMXBean of a RoundingManager, which is registered by
+ * RoundingManager.registerMBean(MBeanServer).</p>
+ *
+ * <p>This class is thread safe, since the manager is thread safe.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+final class RoundingManagerMonitor implements RoundingManagerMXBean {
+
+    /**
+     * <p>The manager to monitor.</p>
+     */
+    private final RoundingManager manager;
+
+    /**
+     * <p>Constructs the monitor of the given manager.</p>
+     *
+     * @param manager the manager to monitor
+     */
+    RoundingManagerMonitor(RoundingManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * <p>Gets the names of the registered algorithms, sorted.</p>
+     *
+     * @return the names of the algorithms
+     */
+    public String[] getAlgorithmNames() {
+        return manager.getAlgorithmNames();
+    }
+
+    /**
+     * <p>Gets the number of registered algorithms.</p>
+     *
+     * @return the number of algorithms
+     */
+    public int getAlgorithmCount() {
+        return manager.getAlgorithmNames().length;
+    }
+
+    /**
+     * <p>Gets the settings and statistics of all the registered algorithms, sorted by name.</p>
+     *
+     * @return the statistics of the algorithms
+     */
+    public AlgorithmStatistics[] getAlgorithmStatistics() {
+        return manager.getAlgorithmStatistics();
+    }
+
+    /**
+     * <p>Gets the settings and statistics of the specified algorithm.</p>
+     *
+     * @return the statistics of the algorithm, or null if there is no algorithm of the given name
+     * @param name the name of an algorithm
+     * @throws NullPointerException if name is null
+     * @throws IllegalArgumentException if the name is empty string.
+     */
+    public AlgorithmStatistics getAlgorithmStatistics(String name) {
+        return manager.getAlgorithmStatistics(name);
+    }
+
+    /**
+     * <p>Resets the metrics and the cache counts of all the registered algorithms.</p>
+     */
+    public void resetStatistics() {
+        manager.resetStatistics();
+    }
+
+    /**
+     * <p>Resets the metrics and the cache counts of the specified algorithm.</p>
+     *
+     * @return whether the algorithm exists
+     * @param name the name of an algorithm
+     * @throws NullPointerException if name is null
+     * @throws IllegalArgumentException if the name is empty string.
+     */
+    public boolean resetStatistics(String name) {
+        return manager.resetStatistics(name);
+    }
+}
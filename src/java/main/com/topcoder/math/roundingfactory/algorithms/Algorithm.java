@@ -5,8 +5,19 @@
  */
 package com.topcoder.math.roundingfactory.algorithms;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+
 /**
  * <p>An interface class that represents an algorithm to perform rounding.</p>
+ * <p>Only round(String, int, int), roundDouble(double, int, int), round(double), round(String) and the
+ * accessors of the accuracy and comparison digits need to be implemented. The other methods are default
+ * methods which round through round(String, int, int), so they give the same results as it, though without
+ * its speed. RoundingAlgorithm overrides all of them with the concrete algorithms' own paths.</p>
  *
  * @author qiucx0161
  * @author TCSDEVELOPER
@@ -65,6 +76,634 @@ public interface Algorithm {
      */
     String round(String number);
 
+    /**
+     * <p>Rounds the given number using the given accuracy and comparison digits, overriding the defaults.</p>
+     * <p>The result is the same as the one of round(String, int, int). The chars are parsed where they are,
+     * so a number held by a StringBuilder or a CharBuffer needs not be copied to a string first.</p>
+     *
+     * @return the rounded result
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     *
+     * @throws NullPointerException if number is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * if the accuracyDigit is negative.
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    default String round(CharSequence number, int accuracyDigit, int comparisonDigit) {
+        RoundingAlgorithm.checkNumber(number);
+        return round(number.toString(), accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given number using the default accuracy and comparison digits.</p>
+     *
+     * @return the rounded result
+     * @param number a number to round
+     * @throws NullPointerException if number is null
+     * @throws RoundingException if any exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    default String round(CharSequence number) {
+        return round(number, getAccuracyDigit(), getComparisonDigit());
+    }
+
+    /**
+     * <p>Rounds the number held by the given range of a char array using the given accuracy and comparison
+     * digits, overriding the defaults.</p>
+     * <p>The result is the same as the one of round(String, int, int) with the string of the range. The chars
+     * are parsed where they are, without copying them.</p>
+     *
+     * @return the rounded result
+     * @param number the char array holding a number to round
+     * @param offset the offset of the first char of the number
+     * @param length the number of chars of the number
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     *
+     * @throws NullPointerException if number is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * if the accuracyDigit is negative.
+     * @throws ArrayIndexOutOfBoundsException if offset or length is negative, or the range is out of number.
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if the chars are not a valid floating point number
+     */
+    default String round(char[] number, int offset, int length, int accuracyDigit, int comparisonDigit) {
+        RoundingAlgorithm.checkNumber(number);
+        RoundingAlgorithm.checkSlice(number.length, offset, length);
+        return round(new String(number, offset, length), accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given fixed-point number using the given accuracy and comparison digits, overriding the
+     * defaults.</p>
+     * <p>The number is unscaledValue * 10^-scale, and the result is the unscaled value of the rounded
+     * number with accuracyDigit digits after the decimal point, so round(12345, 3, 2, 5) returns 1235.</p>
+     *
+     * @return the unscaled value of the rounded result
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     *
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * if the accuracyDigit or the scale is negative.
+     * @throws RoundingException if exceptions occur while rounding, or the result can not be held by a long.
+     */
+    default long round(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
+        RoundingAlgorithm.checkRoundingArguments(accuracyDigit, comparisonDigit);
+        FixedPoint.checkScale(scale);
+        return RoundingAlgorithm.toUnscaledValue(
+                round(FixedPoint.toString(unscaledValue, scale), accuracyDigit, comparisonDigit), accuracyDigit);
+    }
+
+    /**
+     * <p>Rounds the given fixed-point number using the default accuracy and comparison digits.</p>
+     *
+     * @return the unscaled value of the rounded result
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number
+     * @throws IllegalArgumentException if the scale is negative.
+     * @throws RoundingException if any exceptions occur while rounding, or the result can not be held by a long.
+     */
+    default long round(long unscaledValue, int scale) {
+        return round(unscaledValue, scale, getAccuracyDigit(), getComparisonDigit());
+    }
+
+    /**
+     * <p>Rounds the given BigDecimal using the given accuracy and comparison digits, overriding the defaults.</p>
+     * <p>The result is the same number as the one of round(String, int, int) with the plain string of the
+     * BigDecimal, with accuracyDigit digits after the decimal point. The unscaled value and the scale of the
+     * BigDecimal are rounded as a fixed-point number, without converting it to a string, when the unscaled
+     * value fits in a long.</p>
+     *
+     * @return the rounded result
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     *
+     * @throws NullPointerException if number is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * if the accuracyDigit is negative.
+     * @throws RoundingException if exceptions occur while rounding.
+     */
+    default BigDecimal roundDecimal(BigDecimal number, int accuracyDigit, int comparisonDigit) {
+        RoundingAlgorithm.checkNumber(number);
+        return RoundingAlgorithm.toDecimal(round(number.toPlainString(), accuracyDigit, comparisonDigit),
+                accuracyDigit);
+    }
+
+    /**
+     * <p>Rounds the given BigDecimal using the default accuracy and comparison digits.</p>
+     *
+     * @return the rounded result
+     * @param number a number to round
+     * @throws NullPointerException if number is null
+     * @throws RoundingException if any exceptions occur while rounding.
+     */
+    default BigDecimal roundDecimal(BigDecimal number) {
+        return roundDecimal(number, getAccuracyDigit(), getComparisonDigit());
+    }
+
+    /**
+     * <p>Rounds the given number using the given accuracy and comparison digits, overriding the defaults,
+     * and writes the result to the given char array at the given offset.</p>
+     * <p>The result is the same as the one of round(String, int, int). Nothing is written if there is no room
+     * for it.</p>
+     *
+     * @return the number of chars written
+     * @param number a number to round
+     * @param result the char array to write the result
+     * @param offset the offset in result of the first char to write
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     *
+     * @throws NullPointerException if number or result is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * if the accuracyDigit is negative.
+     * @throws ArrayIndexOutOfBoundsException if offset is negative, or the result does not fit in result
+     * after offset.
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    default int round(CharSequence number, char[] result, int offset, int accuracyDigit, int comparisonDigit) {
+        RoundingAlgorithm.checkNumber(number);
+        if (result == null) {
+            throw new NullPointerException("result should not be null");
+        }
+        if (offset < 0 || offset > result.length) {
+            throw new ArrayIndexOutOfBoundsException(offset);
+        }
+
+        String string = round(number, accuracyDigit, comparisonDigit);
+        RoundingAlgorithm.checkRoom(result.length, offset, string.length());
+        string.getChars(0, string.length(), result, offset);
+        return string.length();
+    }
+
+    /**
+     * <p>Rounds the given number using the default accuracy and comparison digits, and writes the result
+     * to the given char array at the given offset.</p>
+     *
+     * @return the number of chars written
+     * @param number a number to round
+     * @param result the char array to write the result
+     * @param offset the offset in result of the first char to write
+     *
+     * @throws NullPointerException if number or result is null
+     * @throws ArrayIndexOutOfBoundsException if offset is negative, or the result does not fit in result
+     * after offset.
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    default int round(CharSequence number, char[] result, int offset) {
+        return round(number, result, offset, getAccuracyDigit(), getComparisonDigit());
+    }
+
+    /**
+     * <p>Rounds the given number using the given accuracy and comparison digits, overriding the defaults,
+     * and appends the result to the given StringBuilder.</p>
+     * <p>The result is the same as the one of round(String, int, int).</p>
+     *
+     * @return the number of chars appended
+     * @param number a number to round
+     * @param result the StringBuilder to append the result
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     *
+     * @throws NullPointerException if number or result is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * if the accuracyDigit is negative.
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    default int round(CharSequence number, StringBuilder result, int accuracyDigit, int comparisonDigit) {
+        RoundingAlgorithm.checkNumber(number);
+        if (result == null) {
+            throw new NullPointerException("result should not be null");
+        }
+
+        String string = round(number, accuracyDigit, comparisonDigit);
+        result.append(string);
+        return string.length();
+    }
+
+    /**
+     * <p>Rounds the given number using the default accuracy and comparison digits, and appends the result
+     * to the given StringBuilder.</p>
+     *
+     * @return the number of chars appended
+     * @param number a number to round
+     * @param result the StringBuilder to append the result
+     *
+     * @throws NullPointerException if number or result is null
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    default int round(CharSequence number, StringBuilder result) {
+        return round(number, result, getAccuracyDigit(), getComparisonDigit());
+    }
+
+    /**
+     * <p>Rounds the given number using the given accuracy and comparison digits, overriding the defaults,
+     * and appends the result to the given Appendable.</p>
+     * <p>The result is the same as the one of round(String, int, int). If the Appendable throws IOException,
+     * part of the result may have been appended.</p>
+     *
+     * @return the number of chars appended
+     * @param number a number to round
+     * @param result the Appendable to append the result
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     *
+     * @throws NullPointerException if number or result is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * if the accuracyDigit is negative.
+     * @throws IOException if the Appendable throws it
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    default int round(CharSequence number, Appendable result, int accuracyDigit, int comparisonDigit)
+            throws IOException {
+        RoundingAlgorithm.checkNumber(number);
+        if (result == null) {
+            throw new NullPointerException("result should not be null");
+        }
+
+        String string = round(number, accuracyDigit, comparisonDigit);
+        result.append(string);
+        return string.length();
+    }
+
+    /**
+     * <p>Rounds the given number using the default accuracy and comparison digits, and appends the result
+     * to the given Appendable.</p>
+     *
+     * @return the number of chars appended
+     * @param number a number to round
+     * @param result the Appendable to append the result
+     *
+     * @throws NullPointerException if number or result is null
+     * @throws IOException if the Appendable throws it
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    default int round(CharSequence number, Appendable result) throws IOException {
+        return round(number, result, getAccuracyDigit(), getComparisonDigit());
+    }
+
+    /**
+     * <p>Rounds the number held by the given range of a byte array as ASCII text using the given accuracy and
+     * comparison digits, overriding the defaults, and writes the result as ASCII text to the given byte array
+     * at the given offset.</p>
+     * <p>The result is the same as the one of round(String, int, int) with the string of the range. Nothing
+     * is written if there is no room for it.</p>
+     *
+     * @return the number of bytes written
+     * @param number the byte array holding a number to round
+     * @param offset the offset of the first byte of the number
+     * @param length the number of bytes of the number
+     * @param result the byte array to write the result
+     * @param resultOffset the offset in result of the first byte to write
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     *
+     * @throws NullPointerException if number or result is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * if the accuracyDigit is negative.
+     * @throws ArrayIndexOutOfBoundsException if offset, length or resultOffset is negative, the range is out
+     * of number, or the result does not fit in result after resultOffset.
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if the bytes are not a valid floating point number
+     */
+    default int round(byte[] number, int offset, int length, byte[] result, int resultOffset, int accuracyDigit,
+            int comparisonDigit) {
+        RoundingAlgorithm.checkNumber(number);
+        RoundingAlgorithm.checkSlice(number.length, offset, length);
+        if (result == null) {
+            throw new NullPointerException("result should not be null");
+        }
+        if (resultOffset < 0 || resultOffset > result.length) {
+            throw new ArrayIndexOutOfBoundsException(resultOffset);
+        }
+
+        String string = round(new String(number, offset, length, StandardCharsets.ISO_8859_1), accuracyDigit,
+                comparisonDigit);
+        RoundingAlgorithm.checkRoom(result.length, resultOffset, string.length());
+        System.arraycopy(string.getBytes(StandardCharsets.ISO_8859_1), 0, result, resultOffset, string.length());
+        return string.length();
+    }
+
+    /**
+     * <p>Rounds the number held by the given range of a byte array as ASCII text using the default accuracy
+     * and comparison digits, and writes the result as ASCII text to the given byte array at the given
+     * offset.</p>
+     *
+     * @return the number of bytes written
+     * @param number the byte array holding a number to round
+     * @param offset the offset of the first byte of the number
+     * @param length the number of bytes of the number
+     * @param result the byte array to write the result
+     * @param resultOffset the offset in result of the first byte to write
+     *
+     * @throws NullPointerException if number or result is null
+     * @throws ArrayIndexOutOfBoundsException if offset, length or resultOffset is negative, the range is out
+     * of number, or the result does not fit in result after resultOffset.
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if the bytes are not a valid floating point number
+     */
+    default int round(byte[] number, int offset, int length, byte[] result, int resultOffset) {
+        return round(number, offset, length, result, resultOffset, getAccuracyDigit(), getComparisonDigit());
+    }
+
+    /**
+     * <p>Rounds the number held by the remaining bytes of a ByteBuffer as ASCII text using the given accuracy
+     * and comparison digits, overriding the defaults, and puts the result as ASCII text to the given
+     * ByteBuffer.</p>
+     * <p>The result is the same as the one of round(String, int, int) with the string of the remaining bytes.
+     * On success the position of number is moved to its limit, and the position of result is advanced by the
+     * bytes written. Nothing is changed if an exception is thrown.</p>
+     *
+     * @return the number of bytes written
+     * @param number the ByteBuffer holding a number to round, a heap or a direct one
+     * @param result the ByteBuffer to put the result, a heap or a direct one
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     *
+     * @throws NullPointerException if number or result is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * if the accuracyDigit is negative, or number and result are the same buffer.
+     * @throws java.nio.ReadOnlyBufferException if result is read-only.
+     * @throws java.nio.BufferOverflowException if the result does not fit in the remaining bytes of result.
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if the bytes are not a valid floating point number
+     */
+    default int round(ByteBuffer number, ByteBuffer result, int accuracyDigit, int comparisonDigit) {
+        RoundingAlgorithm.checkNumber(number);
+        if (result == null) {
+            throw new NullPointerException("result should not be null");
+        }
+        if (result == number) {
+            throw new IllegalArgumentException("number and result should not be the same buffer");
+        }
+        if (result.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+
+        byte[] bytes = new byte[number.remaining()];
+        number.duplicate().get(bytes);
+        byte[] rounded = round(new String(bytes, StandardCharsets.ISO_8859_1), accuracyDigit, comparisonDigit)
+                .getBytes(StandardCharsets.ISO_8859_1);
+        result.put(rounded);
+        number.position(number.limit());
+        return rounded.length;
+    }
+
+    /**
+     * <p>Rounds the number held by the remaining bytes of a ByteBuffer as ASCII text using the default accuracy
+     * and comparison digits, and puts the result as ASCII text to the given ByteBuffer.</p>
+     *
+     * @return the number of bytes written
+     * @param number the ByteBuffer holding a number to round, a heap or a direct one
+     * @param result the ByteBuffer to put the result, a heap or a direct one
+     *
+     * @throws NullPointerException if number or result is null
+     * @throws IllegalArgumentException if number and result are the same buffer.
+     * @throws java.nio.ReadOnlyBufferException if result is read-only.
+     * @throws java.nio.BufferOverflowException if the result does not fit in the remaining bytes of result.
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if the bytes are not a valid floating point number
+     */
+    default int round(ByteBuffer number, ByteBuffer result) {
+        return round(number, result, getAccuracyDigit(), getComparisonDigit());
+    }
+
+    /**
+     * <p>Rounds the number read from the given Reader using the given accuracy and comparison digits,
+     * overriding the defaults, and appends the result to the given Appendable.</p>
+     * <p>The result is the same as the one of round(String, int, int) with the string of all the chars read.
+     * The Reader is not closed. If an exception is thrown, part of the result may have been appended.</p>
+     * <p>This default implementation reads all the chars into memory and rounds them as one string, since the
+     * digits an arbitrary algorithm needs are not known. The algorithms of this package override it to read the
+     * number in one pass, only checking the fractional digits after the first truncated one rather than
+     * keeping them, so a number of any length is rounded with memory for its integral digits and the accuracy
+     * only.</p>
+     *
+     * @return the number of chars appended
+     * @param number the Reader to read a number to round
+     * @param result the Appendable to append the result
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     *
+     * @throws NullPointerException if number or result is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * if the accuracyDigit is negative.
+     * @throws IOException if the Reader or the Appendable throws it
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if the chars read are not a valid floating point number
+     */
+    default int round(Reader number, Appendable result, int accuracyDigit, int comparisonDigit)
+            throws IOException {
+        RoundingAlgorithm.checkNumber(number);
+        if (result == null) {
+            throw new NullPointerException("result should not be null");
+        }
+
+        StringBuilder chars = new StringBuilder();
+        char[] buffer = new char[64];
+        for (int read = number.read(buffer); read != -1; read = number.read(buffer)) {
+            chars.append(buffer, 0, read);
+        }
+        return round(chars, result, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the number read from the given Reader using the default accuracy and comparison digits, and
+     * appends the result to the given Appendable.</p>
+     *
+     * @return the number of chars appended
+     * @param number the Reader to read a number to round
+     * @param result the Appendable to append the result
+     *
+     * @throws NullPointerException if number or result is null
+     * @throws IOException if the Reader or the Appendable throws it
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if the chars read are not a valid floating point number
+     */
+    default int round(Reader number, Appendable result) throws IOException {
+        return round(number, result, getAccuracyDigit(), getComparisonDigit());
+    }
+
+    /**
+     * <p>Rounds the numbers from index from (inclusive) to index to (exclusive) using the given accuracy and
+     * comparison digits, overriding the defaults. The result of numbers[i] is stored to results[i].</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results, it may be numbers itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     *
+     * @throws NullPointerException if numbers or results is null, or any number to round is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * if the accuracyDigit is negative, or from is greater than to.
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * numbers or results.
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if any number to round is not a valid floating point number
+     */
+    default void roundAll(String[] numbers, String[] results, int from, int to, int accuracyDigit,
+            int comparisonDigit) {
+        RoundingAlgorithm.checkRoundingArguments(accuracyDigit, comparisonDigit);
+        if (numbers == null) {
+            throw new NullPointerException("numbers should not be null");
+        }
+        if (results == null) {
+            throw new NullPointerException("results should not be null");
+        }
+        RoundingAlgorithm.checkRange(numbers.length, results.length, from, to);
+
+        for (int i = from; i < to; ++i) {
+            results[i] = round(numbers[i], accuracyDigit, comparisonDigit);
+        }
+    }
+
+    /**
+     * <p>Rounds the numbers from index from (inclusive) to index to (exclusive) using the default accuracy and
+     * comparison digits. The result of numbers[i] is stored to results[i].</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results, it may be numbers itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     *
+     * @throws NullPointerException if numbers or results is null, or any number to round is null
+     * @throws IllegalArgumentException if from is greater than to.
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * numbers or results.
+     * @throws RoundingException if exceptions occur while rounding.
+     * @throws NumberFormatException if any number to round is not a valid floating point number
+     */
+    default void roundAll(String[] numbers, String[] results, int from, int to) {
+        roundAll(numbers, results, from, to, getAccuracyDigit(), getComparisonDigit());
+    }
+
+    /**
+     * <p>Rounds the doubles from index from (inclusive) to index to (exclusive) using the given accuracy and
+     * comparison digits, overriding the defaults. The result of numbers[i] is stored to results[i].</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results, it may be numbers itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     *
+     * @throws NullPointerException if numbers or results is null
+     * @throws IllegalArgumentException if any number to round is not proper or comparisonDigit is less than 1
+     * or greater than 9 or if the accuracyDigit is negative, or from is greater than to.
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * numbers or results.
+     * @throws RoundingException if exceptions occur while rounding.
+     */
+    default void roundAll(double[] numbers, double[] results, int from, int to, int accuracyDigit,
+            int comparisonDigit) {
+        RoundingAlgorithm.checkRoundingArguments(accuracyDigit, comparisonDigit);
+        if (numbers == null) {
+            throw new NullPointerException("numbers should not be null");
+        }
+        if (results == null) {
+            throw new NullPointerException("results should not be null");
+        }
+        RoundingAlgorithm.checkRange(numbers.length, results.length, from, to);
+
+        for (int i = from; i < to; ++i) {
+            results[i] = roundDouble(numbers[i], accuracyDigit, comparisonDigit);
+        }
+    }
+
+    /**
+     * <p>Rounds the doubles from index from (inclusive) to index to (exclusive) using the default accuracy and
+     * comparison digits. The result of numbers[i] is stored to results[i].</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results, it may be numbers itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     *
+     * @throws NullPointerException if numbers or results is null
+     * @throws IllegalArgumentException if any number to round is not proper, or from is greater than to.
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * numbers or results.
+     * @throws RoundingException if exceptions occur while rounding.
+     */
+    default void roundAll(double[] numbers, double[] results, int from, int to) {
+        roundAll(numbers, results, from, to, getAccuracyDigit(), getComparisonDigit());
+    }
+
+    /**
+     * <p>Rounds the fixed-point numbers from index from (inclusive) to index to (exclusive) using the given
+     * accuracy and comparison digits, overriding the defaults. The unscaled value of the result of
+     * unscaledValues[i] is stored to results[i].</p>
+     *
+     * @param unscaledValues the unscaled values of the numbers to round
+     * @param scale the number of digits after the decimal point of all the numbers
+     * @param results the array to store the unscaled values of the rounded results, it may be unscaledValues
+     * itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     *
+     * @throws NullPointerException if unscaledValues or results is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * if the accuracyDigit or the scale is negative, or from is greater than to.
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * unscaledValues or results.
+     * @throws RoundingException if exceptions occur while rounding, or a result can not be held by a long.
+     */
+    default void roundAll(long[] unscaledValues, int scale, long[] results, int from, int to, int accuracyDigit,
+            int comparisonDigit) {
+        RoundingAlgorithm.checkRoundingArguments(accuracyDigit, comparisonDigit);
+        FixedPoint.checkScale(scale);
+        if (unscaledValues == null) {
+            throw new NullPointerException("unscaledValues should not be null");
+        }
+        if (results == null) {
+            throw new NullPointerException("results should not be null");
+        }
+        RoundingAlgorithm.checkRange(unscaledValues.length, results.length, from, to);
+
+        for (int i = from; i < to; ++i) {
+            results[i] = round(unscaledValues[i], scale, accuracyDigit, comparisonDigit);
+        }
+    }
+
+    /**
+     * <p>Rounds the fixed-point numbers from index from (inclusive) to index to (exclusive) using the default
+     * accuracy and comparison digits. The unscaled value of the result of unscaledValues[i] is stored to
+     * results[i].</p>
+     *
+     * @param unscaledValues the unscaled values of the numbers to round
+     * @param scale the number of digits after the decimal point of all the numbers
+     * @param results the array to store the unscaled values of the rounded results, it may be unscaledValues
+     * itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     *
+     * @throws NullPointerException if unscaledValues or results is null
+     * @throws IllegalArgumentException if the scale is negative, or from is greater than to.
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * unscaledValues or results.
+     * @throws RoundingException if exceptions occur while rounding, or a result can not be held by a long.
+     */
+    default void roundAll(long[] unscaledValues, int scale, long[] results, int from, int to) {
+        roundAll(unscaledValues, scale, results, from, to, getAccuracyDigit(), getComparisonDigit());
+    }
+
     /**
      * <p>Get the accuracy digit representing the level of precision.</p>
      *
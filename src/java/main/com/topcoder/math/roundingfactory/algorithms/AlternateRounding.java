@@ -5,6 +5,9 @@
  */
 package com.topcoder.math.roundingfactory.algorithms;
 
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * <p>A concrete subclass of RoundingAlgorithm which performs the Alternate rounding algorithm:</p>
  * <p>If the digits past the accuracy digit equals to the comparison digit, round up in first time and than
@@ -16,6 +19,12 @@ package com.topcoder.math.roundingfactory.algorithms;
  * <p>round(1.25, 1, 5) -> 1.2(again)</p>
  * <p>round(1.249, 1, 5) -> 1.2</p>
  *
+ * <p>By default the alternation is shared by all the threads, which take turns through an atomic
+ * counter without any lock. If the algorithm is created in per-thread mode, each thread alternates on
+ * its own, starting with round up, so that threads never touch shared state. The numbers of ties rounded
+ * up and down by each thread then differ by one at most, so the global balance is kept statistically
+ * rather than exactly.</p>
+ *
  * <p>This class is thread safe.</p>
  *
  * @author qiucx0161
@@ -23,20 +32,38 @@ package com.topcoder.math.roundingfactory.algorithms;
  *
  * @version 1.0
  */
-public class AlternateRounding extends RoundingAlgorithm {
+public class AlternateRounding extends FloatingRoundingAlgorithm {
+
+    /**
+     * The number of ties rounded so far, shared by all the threads. Ties are rounded up when it is even
+     * and down when it is odd. It is null in per-thread mode.
+     */
+    private final AtomicLong tieCount;
 
     /**
-     * A flag indicating whether round up or round down.
-     * The value will be changed alternately.
+     * The number of ties rounded so far by each thread, held in an array of length 1.
+     * It is null unless in per-thread mode.
      */
-    private boolean roundUp = true;
+    private final ThreadLocal threadTieCount;
 
     /**
      * <p>Constructs an instance of AlternateRounding with accuracyDigit equal to 2 and
      * comparisonDigit equal to 5.</p>
      */
     public AlternateRounding() {
-        // empty
+        this(false);
+    }
+
+    /**
+     * <p>Constructs an instance of AlternateRounding with accuracyDigit equal to 2 and
+     * comparisonDigit equal to 5, in the given alternation mode.</p>
+     *
+     * @param perThread true if each thread should alternate on its own, false if the alternation
+     * should be shared by all the threads
+     */
+    public AlternateRounding(boolean perThread) {
+        tieCount = perThread ? null : new AtomicLong();
+        threadTieCount = perThread ? new ThreadTieCount() : null;
     }
 
     /**
@@ -48,7 +75,75 @@ public class AlternateRounding extends RoundingAlgorithm {
      * the accuracyDigit is negative.
      */
     public AlternateRounding(int accuracyDigit, int comparisonDigit) {
+        this(accuracyDigit, comparisonDigit, false);
+    }
+
+    /**
+     * <p>Constructs an instance of AlternateRounding with accuracyDigit and comparisonDigit as specified,
+     * in the given alternation mode.</p>
+     *
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @param perThread true if each thread should alternate on its own, false if the alternation
+     * should be shared by all the threads
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     */
+    public AlternateRounding(int accuracyDigit, int comparisonDigit, boolean perThread) {
         super(accuracyDigit, comparisonDigit);
+
+        tieCount = perThread ? null : new AtomicLong();
+        threadTieCount = perThread ? new ThreadTieCount() : null;
+    }
+
+    /**
+     * <p>Returns whether each thread alternates on its own.</p>
+     *
+     * @return true if in per-thread mode, false if the alternation is shared by all the threads
+     */
+    public boolean isPerThread() {
+        return threadTieCount != null;
+    }
+
+    /**
+     * <p>Returns false, since the result of a tie depends on the ties rounded before.</p>
+     *
+     * @return false
+     */
+    protected boolean isDeterministic() {
+        return false;
+    }
+
+    /**
+     * <p>Returns a new AlternateRounding with the same digits for each chunk of a parallel bulk rounding.
+     * Each chunk alternates on its own starting with round up, so the result of a chunk does not depend on
+     * the other chunks or on the ties rounded by this instance before.</p>
+     *
+     * @return the algorithms of the chunks
+     * @param chunkCount the number of chunks, positive
+     */
+    RoundingAlgorithm[] splitChunks(int chunkCount) {
+        RoundingAlgorithm[] chunkAlgorithms = new RoundingAlgorithm[chunkCount];
+        for (int i = 0; i < chunkCount; ++i) {
+            chunkAlgorithms[i] = new AlternateRounding(getAccuracyDigit(), getComparisonDigit());
+        }
+        return chunkAlgorithms;
+    }
+
+    /**
+     * <p>Returns whether the next tie should be rounded up, and moves the alternation on.</p>
+     *
+     * @return true if the tie should be rounded up, false if it should be rounded down
+     */
+    private boolean nextRoundUp() {
+        if (threadTieCount != null) {
+            // only the current thread can access its own counter
+            long[] count = (long[]) threadTieCount.get();
+            return (count[0]++ & 1) == 0;
+        }
+
+        // each thread takes its own turn without locking
+        return (tieCount.getAndIncrement() & 1) == 0;
     }
 
     /**
@@ -71,29 +166,38 @@ public class AlternateRounding extends RoundingAlgorithm {
      * @throws RoundingException if any exception occurs when rounding.
      */
     public String round(String number, int accuracyDigit, int comparisonDigit) {
-
         // check arguments
         RoundingAlgorithm.checkRoundingArguments(accuracyDigit, comparisonDigit);
 
+        return roundRecorded(new FloatingNumber(), number, accuracyDigit, comparisonDigit).toString();
+    }
+
+    /**
+     * <p>Parses the given number into the given FloatingNumber and rounds it, the arguments have been checked.</p>
+     * <p>The same as round(String, int, int), without creating the resulting string.</p>
+     *
+     * @return the given FloatingNumber rounded
+     * @param floatingNumber the FloatingNumber to parse the number into
+     * @param number the number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws NullPointerException if number is null
+     * @throws NumberFormatException if number is not a valid floating point number
+     * @throws RoundingException if any exception occurs when rounding.
+     */
+    FloatingNumber roundNumber(FloatingNumber floatingNumber, CharSequence number, int accuracyDigit,
+            int comparisonDigit) {
+
         // exception will be thrown if the number is invalid
-        FloatingNumber floatingNumber = new FloatingNumber(number);
+        floatingNumber.parse(number);
 
         try {
             int comparisonResult = floatingNumber.truncationCompare(accuracyDigit, comparisonDigit);
             if (comparisonResult == 0) {
 
-                // copy the old value
-                boolean copyOfRoundUp = false;
-
-                // accessing to roundUp variable must be synchronized
-                synchronized (this) {
-                    copyOfRoundUp = roundUp;
-                    roundUp = !roundUp;
-                }
-
                 // if comparisonDigit equals to truncation digits,
-                // choose round up or down according the roundUp flag
-                if (copyOfRoundUp) {
+                // choose round up or down alternately
+                if (nextRoundUp()) {
                     return floatingNumber.roundUp(accuracyDigit);
                 } else {
                     return floatingNumber.roundDown(accuracyDigit);
@@ -112,4 +216,86 @@ public class AlternateRounding extends RoundingAlgorithm {
             throw new RoundingException("exception occurs when rounding", e);
         }
     }
+
+    /**
+     * <p>Performs the rounding of a fixed-point number, the arguments have been checked.</p>
+     * <p>The same as round(String, int, int), using integer arithmetic only. The alternation is shared
+     * with round(String, int, int).</p>
+     * <p>Example:</p>
+     * <p>round(1251, 3, 1, 5) -> 13</p>
+     * <p>round(125, 2, 1, 5) -> 12 or 13</p>
+     *
+     * @return the unscaled value of the rounded number
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number, non-negative
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if the result can not be held by a long.
+     */
+    long roundValue(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
+
+        int comparisonResult = FixedPoint.truncationCompare(unscaledValue, scale, accuracyDigit, comparisonDigit);
+        if (comparisonResult == 0) {
+
+            // if comparisonDigit equals to truncation digits,
+            // choose round up or down alternately
+            if (nextRoundUp()) {
+                return FixedPoint.roundUp(unscaledValue, scale, accuracyDigit);
+            } else {
+                return FixedPoint.roundDown(unscaledValue, scale, accuracyDigit);
+            }
+        }
+
+        if (comparisonResult == 1) {
+            // if comparisonDigit is less than truncation digits, round away from 0
+            return FixedPoint.roundAwayFromZero(unscaledValue, scale, accuracyDigit);
+        } else {
+            // if comparisonDigit is greater than truncation digits, round towards 0
+            return FixedPoint.roundTowardsZero(unscaledValue, scale, accuracyDigit);
+        }
+    }
+
+    /**
+     * <p>Performs the rounding of a fixed-point number whose unscaled value may not fit in a long, the
+     * arguments have been checked.</p>
+     * <p>The same as roundValue(long, int, int, int): the quotient is rounded to the nearest, and a remainder
+     * equal to the comparison digit followed by 0's rounds it up and down alternately.</p>
+     *
+     * @return the unscaled value of the rounded number
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number, non-negative
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     */
+    BigInteger roundValue(BigInteger unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
+
+        BigInteger[] quotientAndRemainder = FixedPoint.divideAndRemainder(unscaledValue, scale, accuracyDigit);
+        BigInteger quotient = quotientAndRemainder[0];
+        BigInteger remainder = quotientAndRemainder[1];
+
+        int comparisonResult = FixedPoint.compareRemainder(remainder, scale - accuracyDigit, comparisonDigit);
+        if (comparisonResult == 0) {
+            // if comparisonDigit equals to truncation digits, choose round up or down alternately
+            comparisonResult = (nextRoundUp() == (remainder.signum() > 0)) ? 1 : -1;
+        }
+
+        // round away from 0 if comparisonDigit is less than truncation digits, otherwise round towards 0
+        return (comparisonResult == 1) ? FixedPoint.awayFromZero(quotient, remainder) : quotient;
+    }
+
+    /**
+     * <p>The number of ties rounded by each thread, held in an array of length 1 so that it can be
+     * increased in place.</p>
+     */
+    private static class ThreadTieCount extends ThreadLocal {
+
+        /**
+         * Returns the initial count of a thread, which is 0.
+         *
+         * @return a new array of length 1
+         */
+        protected Object initialValue() {
+            return new long[1];
+        }
+    }
 }
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>A helper class which appends chars as ASCII bytes to a byte array or a ByteBuffer, so that FloatingNumber
+ * can write a rounded number to a network or file payload without encoding a string.</p>
+ * <p>Each char is written as the byte of its low 8 bits, which keeps the digits, signs and decimal symbols
+ * of the rounded numbers. The room for the chars should be checked by checkRoom(int) first, so that nothing
+ * is written if they do not fit.</p>
+ *
+ * <p>This class is not thread safe, since it holds the position to write.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+final class AsciiBuffer implements Appendable {
+
+    /**
+     * The byte array to write, or null if a ByteBuffer is written.
+     */
+    private final byte[] bytes;
+
+    /**
+     * The ByteBuffer to write at its position, or null if a byte array is written.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The index in the byte array to write the next char.
+     */
+    private int position;
+
+    /**
+     * Constructs an instance which writes the given byte array from the given index.
+     *
+     * @param bytes the byte array to write
+     * @param offset the index in the array to write the first char
+     */
+    AsciiBuffer(byte[] bytes, int offset) {
+        this.bytes = bytes;
+        this.buffer = null;
+        this.position = offset;
+    }
+
+    /**
+     * Constructs an instance which writes the given ByteBuffer at its position, advancing it.
+     *
+     * @param buffer the ByteBuffer to write, a heap or a direct one
+     */
+    AsciiBuffer(ByteBuffer buffer) {
+        this.bytes = null;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Checks whether the given number of chars fit in the bytes left to write.
+     *
+     * @param length the number of chars to write
+     * @throws ArrayIndexOutOfBoundsException if a byte array is written and the chars do not fit in it
+     * @throws BufferOverflowException if a ByteBuffer is written and the chars do not fit in its remaining bytes
+     */
+    void checkRoom(int length) {
+        if (bytes == null) {
+            if (length > buffer.remaining()) {
+                throw new BufferOverflowException();
+            }
+        } else if (length > bytes.length - position) {
+            throw new ArrayIndexOutOfBoundsException("the result of " + length + " chars does not fit in "
+                    + (bytes.length - position) + " bytes after offset " + position);
+        }
+    }
+
+    /**
+     * Appends the given chars as ASCII bytes.
+     *
+     * @param csq the chars to append
+     * @return this instance
+     */
+    public Appendable append(CharSequence csq) {
+        return append(csq, 0, csq.length());
+    }
+
+    /**
+     * Appends the given range of the given chars as ASCII bytes.
+     *
+     * @param csq the chars to append
+     * @param start the index of the first char to append
+     * @param end the index after the last char to append
+     * @return this instance
+     */
+    public Appendable append(CharSequence csq, int start, int end) {
+        for (int i = start; i < end; ++i) {
+            append(csq.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Appends the given char as an ASCII byte.
+     *
+     * @param c the char to append
+     * @return this instance
+     */
+    public Appendable append(char c) {
+        if (bytes != null) {
+            bytes[position++] = (byte) c;
+        } else {
+            buffer.put((byte) c);
+        }
+        return this;
+    }
+}
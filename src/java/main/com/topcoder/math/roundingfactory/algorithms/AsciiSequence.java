@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>A helper class which views a range of a byte array or a ByteBuffer holding ASCII text as a CharSequence,
+ * so that a number in a network or file payload can be parsed by FloatingNumber without decoding it to a
+ * string.</p>
+ * <p>Each byte is taken as the char of the same value from 0 to 255, so any byte which is not an ASCII digit,
+ * sign or decimal symbol makes the number invalid. The bytes are not copied, so they should not be modified
+ * while the view is used.</p>
+ *
+ * <p>This class is not thread safe, since the bytes may be modified.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+final class AsciiSequence implements CharSequence {
+
+    /**
+     * The viewed byte array, or null if a ByteBuffer is viewed.
+     */
+    private final byte[] bytes;
+
+    /**
+     * The viewed ByteBuffer, or null if a byte array is viewed.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The index of the first byte of the view in the array or the buffer.
+     */
+    private final int offset;
+
+    /**
+     * The number of bytes of the view.
+     */
+    private final int length;
+
+    /**
+     * Constructs a view of the given range of the given byte array. The range has been checked.
+     *
+     * @param bytes the byte array to view
+     * @param offset the index of the first byte of the view in the array
+     * @param length the number of bytes of the view
+     */
+    AsciiSequence(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.buffer = null;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Constructs a view of the given range of the given ByteBuffer. The range has been checked.
+     * The bytes are read by absolute index, so the position of the buffer is not used.
+     *
+     * @param buffer the ByteBuffer to view, a heap or a direct one
+     * @param offset the index of the first byte of the view in the buffer
+     * @param length the number of bytes of the view
+     */
+    AsciiSequence(ByteBuffer buffer, int offset, int length) {
+        this.bytes = null;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Returns the number of chars of the view.
+     *
+     * @return the number of chars of the view
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns the char at the given index of the view.
+     *
+     * @param index the index of the char in the view
+     * @return the char at the given index
+     * @throws IndexOutOfBoundsException if index is negative or not less than length()
+     */
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + " is out of the view of length " + length);
+        }
+        byte b = (bytes != null) ? bytes[offset + index] : buffer.get(offset + index);
+        return (char) (b & 0xff);
+    }
+
+    /**
+     * Returns a view of the given range of this view, which shares the same bytes.
+     *
+     * @param start the index of the first char, inclusive
+     * @param end the index after the last char, exclusive
+     * @return the view of the given range
+     * @throws IndexOutOfBoundsException if the range is out of this view
+     */
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("range [" + start + ", " + end + ") is out of the view of length "
+                    + length);
+        }
+        return (bytes != null) ? new AsciiSequence(bytes, offset + start, end - start)
+                : new AsciiSequence(buffer, offset + start, end - start);
+    }
+
+    /**
+     * Returns the chars of the view as a string.
+     *
+     * @return the chars of the view
+     */
+    public String toString() {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; ++i) {
+            chars[i] = charAt(i);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,512 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A RoundingAlgorithm which caches the results of another algorithm for the numbers in String format.</p>
+ * <p>When the same few numbers are rounded again and again, such as the prices of a quote sent to many
+ * subscribers, the results are taken from the cache instead of being rounded and created again. The cache
+ * is keyed by the number, the accuracy digit and the comparison digit, and holds at most the given number
+ * of results.</p>
+ * <p>The results are held by a ConcurrentHashMap, so a hit never blocks. When the cache is full, a result is
+ * evicted by the CLOCK algorithm, which approximates LRU without reordering anything on a hit: the keys are
+ * kept in a ring in the order they were added, and a hit only marks its result as referenced. To add a
+ * result, a hand goes round the ring, clearing the marks it passes, and evicts the first result which has
+ * not been referenced since the hand last passed it. Only the misses lock the ring, and a number is rounded
+ * by the algorithm before that, so two threads missing the same number at the same time may both round it.</p>
+ * <p>The results of an algorithm which is not deterministic, such as RandomRounding and AlternateRounding, are
+ * never cached, since the next result for the same number may differ. Such an algorithm is simply called by
+ * this class, and the calls are not counted as hits or misses. Any other Algorithm should always give the same
+ * result for the same number and digits.</p>
+ * <p>Every method taking the number as a CharSequence, a char array, bytes or a Reader rounds its string
+ * through the cache. The doubles and the fixed-point numbers are not cached, they are rounded by the algorithm
+ * directly.</p>
+ * <p>The accuracy and comparison digits of this instance start with the ones of the algorithm, but are then
+ * independent of them.</p>
+ *
+ * <p>This class is thread safe, provided that the algorithm is thread safe as all the algorithms of this
+ * component are.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+public class CachingAlgorithm extends RoundingAlgorithm {
+
+    /**
+     * The algorithm whose results are cached.
+     */
+    private final Algorithm algorithm;
+
+    /**
+     * The algorithm as a RoundingAlgorithm, to round the doubles and the fixed-point numbers without checking
+     * the digits again, or null if the algorithm is not a RoundingAlgorithm.
+     */
+    private final RoundingAlgorithm roundingAlgorithm;
+
+    /**
+     * The maximum number of results cached.
+     */
+    private final int maximumSize;
+
+    /**
+     * The map from the keys to the entries of the results, null if the algorithm is not deterministic.
+     */
+    private final ConcurrentMap<Key, Entry> cache;
+
+    /**
+     * The keys of the results in the cache, in the order they were added or replaced, null if the algorithm
+     * is not deterministic. It is also the lock of the changes of the cache.
+     */
+    private final Key[] ring;
+
+    /**
+     * The number of keys in the ring, guarded by the ring.
+     */
+    private int count = 0;
+
+    /**
+     * The index in the ring of the next key to consider for eviction, guarded by the ring.
+     */
+    private int hand = 0;
+
+    /**
+     * The number of results taken from the cache. A LongAdder, so that the threads which hit the cache do not
+     * contend on one counter.
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * The number of results not found in the cache.
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * <p>Constructs an instance caching at most the given number of results of the given algorithm.</p>
+     *
+     * @param algorithm the algorithm whose results are cached
+     * @param maximumSize the maximum number of results cached
+     * @throws NullPointerException if algorithm is null
+     * @throws IllegalArgumentException if maximumSize is not positive
+     */
+    public CachingAlgorithm(Algorithm algorithm, int maximumSize) {
+        super(checkAlgorithm(algorithm).getAccuracyDigit(), algorithm.getComparisonDigit());
+
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize should be positive");
+        }
+
+        this.algorithm = algorithm;
+        this.roundingAlgorithm = (algorithm instanceof RoundingAlgorithm) ? (RoundingAlgorithm) algorithm : null;
+        this.maximumSize = maximumSize;
+
+        if (roundingAlgorithm != null && !roundingAlgorithm.isDeterministic()) {
+            cache = null;
+            ring = null;
+        } else {
+            cache = new ConcurrentHashMap<Key, Entry>();
+            ring = new Key[maximumSize];
+        }
+    }
+
+    /**
+     * <p>Checks whether the algorithm is given.</p>
+     *
+     * @param algorithm the algorithm
+     * @return the algorithm
+     * @throws NullPointerException if algorithm is null
+     */
+    private static Algorithm checkAlgorithm(Algorithm algorithm) {
+        if (algorithm == null) {
+            throw new NullPointerException("algorithm should not be null");
+        }
+        return algorithm;
+    }
+
+    /**
+     * <p>Gets the algorithm whose results are cached.</p>
+     *
+     * @return the algorithm
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * <p>Gets the maximum number of results cached.</p>
+     *
+     * @return the maximum number of results cached
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * <p>Returns whether the results are cached, which is false if the algorithm is not deterministic.</p>
+     *
+     * @return whether the results are cached
+     */
+    public boolean isCaching() {
+        return cache != null;
+    }
+
+    /**
+     * <p>Gets the number of results taken from the cache.</p>
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * <p>Gets the number of results not found in the cache, which were rounded by the algorithm.</p>
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * <p>Gets the number of results in the cache.</p>
+     *
+     * @return the number of results cached
+     */
+    public int getSize() {
+        if (cache == null) {
+            return 0;
+        }
+
+        synchronized (ring) {
+            return count;
+        }
+    }
+
+    /**
+     * <p>Removes all the results from the cache, and resets the hit and miss counts to zero.</p>
+     */
+    public void clear() {
+        if (cache != null) {
+            synchronized (ring) {
+                cache.clear();
+                Arrays.fill(ring, null);
+                count = 0;
+                hand = 0;
+            }
+        }
+        resetCounts();
+    }
+
+    /**
+     * <p>Resets the hit and miss counts to 0, keeping the cached results. A hit or a miss counted while the
+     * counts are reset may be kept.</p>
+     */
+    public void resetCounts() {
+        hitCount.reset();
+        missCount.reset();
+    }
+
+    /**
+     * <p>Rounds the given number using the given accuracy and comparison digits, taking the result from the
+     * cache if it is there.</p>
+     * <p>The result is the one of round(String, int, int) of the algorithm. A number which is not valid is
+     * not cached, its exception is thrown again each time.</p>
+     *
+     * @return the rounded result
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if number is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    public String round(String number, int accuracyDigit, int comparisonDigit) {
+        if (cache == null) {
+            return algorithm.round(number, accuracyDigit, comparisonDigit);
+        }
+
+        // check arguments
+        checkRoundingArguments(accuracyDigit, comparisonDigit);
+        if (number == null) {
+            throw new NullPointerException("number should not be null");
+        }
+
+        Key key = new Key(number, accuracyDigit, comparisonDigit);
+        Entry entry = cache.get(key);
+        if (entry != null) {
+            // only write the mark if it is not set, so that the hot results are not written by every hit
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            hitCount.increment();
+            return entry.result;
+        }
+
+        // round without holding the lock
+        missCount.increment();
+        String result = algorithm.round(number, accuracyDigit, comparisonDigit);
+        add(key, new Entry(result));
+        return result;
+    }
+
+    /**
+     * <p>Adds the given entry to the cache, evicting an entry by the CLOCK algorithm if the cache is full.
+     * Nothing is done if another thread has added the key meanwhile.</p>
+     *
+     * @param key the key of the result
+     * @param entry the entry of the result
+     */
+    private void add(Key key, Entry entry) {
+        synchronized (ring) {
+            if (cache.putIfAbsent(key, entry) != null) {
+                return;
+            }
+
+            if (count < ring.length) {
+                ring[count++] = key;
+                return;
+            }
+
+            // give a second chance to the entries referenced since the hand last passed them
+            while (true) {
+                Entry candidate = cache.get(ring[hand]);
+                if (candidate.referenced) {
+                    candidate.referenced = false;
+                } else {
+                    cache.remove(ring[hand]);
+                    ring[hand] = key;
+                    hand = (hand + 1) % ring.length;
+                    return;
+                }
+                hand = (hand + 1) % ring.length;
+            }
+        }
+    }
+
+    /**
+     * <p>Rounds the given double to a string by the algorithm, without caching it.</p>
+     *
+     * @return the rounded number
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws IllegalArgumentException if the number is not proper
+     * @throws RoundingException if any exceptions occur when rounding
+     */
+    String roundDoubleString(double number, int accuracyDigit, int comparisonDigit) {
+        if (roundingAlgorithm == null) {
+            return super.roundDoubleString(number, accuracyDigit, comparisonDigit);
+        }
+        return roundingAlgorithm.roundDoubleString(number, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given double by the algorithm, without caching it.</p>
+     *
+     * @return the rounded number
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws IllegalArgumentException if the number is not proper
+     * @throws RoundingException if any exceptions occur when rounding
+     */
+    double roundDoubleValue(double number, int accuracyDigit, int comparisonDigit) {
+        if (roundingAlgorithm == null) {
+            return algorithm.roundDouble(number, accuracyDigit, comparisonDigit);
+        }
+        return roundingAlgorithm.roundDoubleValue(number, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given BigDecimal by the algorithm, without caching it.</p>
+     *
+     * @return the rounded number
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if any exceptions occur when rounding
+     */
+    BigDecimal roundDecimalValue(BigDecimal number, int accuracyDigit, int comparisonDigit) {
+        if (roundingAlgorithm == null) {
+            return super.roundDecimalValue(number, accuracyDigit, comparisonDigit);
+        }
+        return roundingAlgorithm.roundDecimalValue(number, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given fixed-point number by the algorithm, without caching it.</p>
+     *
+     * @return the unscaled value of the rounded result
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number, non-negative
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if exceptions occur when rounding, or the result can not be held by a long.
+     */
+    long roundValue(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
+        if (roundingAlgorithm == null) {
+            return algorithm.round(unscaledValue, scale, accuracyDigit, comparisonDigit);
+        }
+        return roundingAlgorithm.roundValue(unscaledValue, scale, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the fixed-point numbers in the given range by the algorithm, without caching them.</p>
+     *
+     * @param unscaledValues the unscaled values of the numbers to round
+     * @param scale the number of digits after the decimal point of all the numbers, non-negative
+     * @param results the array to store the unscaled values of the rounded results
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if any exceptions occur while rounding, or a result can not be held by a long.
+     */
+    void roundRange(long[] unscaledValues, int scale, long[] results, int from, int to, int accuracyDigit,
+            int comparisonDigit) {
+        if (roundingAlgorithm == null) {
+            super.roundRange(unscaledValues, scale, results, from, to, accuracyDigit, comparisonDigit);
+        } else {
+            roundingAlgorithm.roundRange(unscaledValues, scale, results, from, to, accuracyDigit, comparisonDigit);
+        }
+    }
+
+    /**
+     * <p>Rounds the doubles in the given range by the algorithm, without caching them.</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws IllegalArgumentException if any number to round is not proper
+     * @throws RoundingException if any exceptions occur when rounding.
+     */
+    void roundRange(double[] numbers, double[] results, int from, int to, int accuracyDigit, int comparisonDigit) {
+        if (roundingAlgorithm == null) {
+            super.roundRange(numbers, results, from, to, accuracyDigit, comparisonDigit);
+        } else {
+            roundingAlgorithm.roundRange(numbers, results, from, to, accuracyDigit, comparisonDigit);
+        }
+    }
+
+    /**
+     * <p>Returns whether the algorithm is deterministic.</p>
+     *
+     * @return whether the results only depend on the number and the digits
+     */
+    protected boolean isDeterministic() {
+        return cache != null;
+    }
+
+    /**
+     * <p>The entry of a result in the cache.</p>
+     *
+     * @author TCSDEVELOPER
+     *
+     * @version 1.0
+     */
+    private static final class Entry {
+
+        /**
+         * The result.
+         */
+        final String result;
+
+        /**
+         * Whether the result has been referenced since the hand of the ring last passed it.
+         */
+        volatile boolean referenced = false;
+
+        /**
+         * Constructs an entry.
+         *
+         * @param result the result
+         */
+        Entry(String result) {
+            this.result = result;
+        }
+    }
+
+    /**
+     * <p>The key of a result in the cache.</p>
+     *
+     * @author TCSDEVELOPER
+     *
+     * @version 1.0
+     */
+    private static final class Key {
+
+        /**
+         * The number rounded.
+         */
+        private final String number;
+
+        /**
+         * The accuracy digit.
+         */
+        private final int accuracyDigit;
+
+        /**
+         * The comparison digit.
+         */
+        private final int comparisonDigit;
+
+        /**
+         * The hash code.
+         */
+        private final int hashCode;
+
+        /**
+         * Constructs a key.
+         *
+         * @param number the number rounded
+         * @param accuracyDigit the accuracy digit
+         * @param comparisonDigit the comparison digit
+         */
+        Key(String number, int accuracyDigit, int comparisonDigit) {
+            this.number = number;
+            this.accuracyDigit = accuracyDigit;
+            this.comparisonDigit = comparisonDigit;
+            this.hashCode = (number.hashCode() * 31 + accuracyDigit) * 31 + comparisonDigit;
+        }
+
+        /**
+         * Returns the hash code.
+         *
+         * @return the hash code
+         */
+        public int hashCode() {
+            return hashCode;
+        }
+
+        /**
+         * Returns whether the given object is an equal key.
+         *
+         * @param obj the object to compare
+         * @return whether the object is a key of the same number and digits
+         */
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) obj;
+            return hashCode == key.hashCode && accuracyDigit == key.accuracyDigit
+                    && comparisonDigit == key.comparisonDigit && number.equals(key.number);
+        }
+    }
+}
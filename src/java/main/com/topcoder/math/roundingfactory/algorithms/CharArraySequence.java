@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+/**
+ * <p>A helper class which views a range of a char array as a CharSequence, so that a number in a char array
+ * can be parsed by FloatingNumber without copying it to a string.</p>
+ * <p>The chars are not copied, so the array should not be modified while the view is used.</p>
+ *
+ * <p>This class is not thread safe, since the array may be modified.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+final class CharArraySequence implements CharSequence {
+
+    /**
+     * The viewed array.
+     */
+    private final char[] chars;
+
+    /**
+     * The offset of the first char of the view in the array.
+     */
+    private final int offset;
+
+    /**
+     * The number of chars of the view.
+     */
+    private final int length;
+
+    /**
+     * Constructs a view of the given range of the given array. The range has been checked.
+     *
+     * @param chars the array to view
+     * @param offset the offset of the first char of the view in the array
+     * @param length the number of chars of the view
+     */
+    CharArraySequence(char[] chars, int offset, int length) {
+        this.chars = chars;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Returns the number of chars of the view.
+     *
+     * @return the number of chars of the view
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns the char at the given index of the view.
+     *
+     * @param index the index of the char in the view
+     * @return the char at the given index
+     * @throws IndexOutOfBoundsException if index is negative or not less than length()
+     */
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + " is out of the view of length " + length);
+        }
+        return chars[offset + index];
+    }
+
+    /**
+     * Returns a view of the given range of this view, which shares the same array.
+     *
+     * @param start the index of the first char, inclusive
+     * @param end the index after the last char, exclusive
+     * @return the view of the given range
+     * @throws IndexOutOfBoundsException if the range is out of this view
+     */
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("range [" + start + ", " + end + ") is out of the view of length "
+                    + length);
+        }
+        return new CharArraySequence(chars, offset + start, end - start);
+    }
+
+    /**
+     * Returns the chars of the view as a string.
+     *
+     * @return the chars of the view
+     */
+    public String toString() {
+        return new String(chars, offset, length);
+    }
+}
@@ -5,6 +5,8 @@
  */
 package com.topcoder.math.roundingfactory.algorithms;
 
+import java.math.BigInteger;
+
 /**
  * <p>A concrete subclass of RoundingAlgorithm which performs the Always Round Down (Symmetric)
  * rounding algorithm:</p>
@@ -23,7 +25,7 @@ package com.topcoder.math.roundingfactory.algorithms;
  *
  * @version 1.0
  */
-public class DownSymmetricRounding extends RoundingAlgorithm {
+public class DownSymmetricRounding extends FloatingRoundingAlgorithm {
 
     /**
      * <p>Constructs an instance of DownSymmetricRounding with accuracyDigit equal to 2 and
@@ -66,18 +68,142 @@ public class DownSymmetricRounding extends RoundingAlgorithm {
      * @throws NumberFormatException if number is not a valid floating point number
      */
     public String round(String number, int accuracyDigit, int comparisonDigit) {
-
         // check arguments
         RoundingAlgorithm.checkRoundingArguments(accuracyDigit, comparisonDigit);
 
+        return roundRecorded(new FloatingNumber(), number, accuracyDigit, comparisonDigit).toString();
+    }
+
+    /**
+     * <p>Parses the given number into the given FloatingNumber and rounds it, the arguments have been checked.</p>
+     * <p>The same as round(String, int, int), without creating the resulting string.</p>
+     *
+     * @return the given FloatingNumber rounded
+     * @param floatingNumber the FloatingNumber to parse the number into
+     * @param number the number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws NullPointerException if number is null
+     * @throws NumberFormatException if number is not a valid floating point number
+     * @throws RoundingException if any exception occurs when rounding.
+     */
+    FloatingNumber roundNumber(FloatingNumber floatingNumber, CharSequence number, int accuracyDigit,
+            int comparisonDigit) {
+
         // exception will be thrown if the number is invalid
-        FloatingNumber floatingNumber = new FloatingNumber(number);
+        floatingNumber.parse(number);
         try {
             // round the number towards 0
             return floatingNumber.roundTowardsZero(accuracyDigit);
         } catch (Exception e) {
             throw new RoundingException("exception occurs when rounding", e);
         }
+    }
+
+    /**
+     * <p>Performs the rounding of a fixed-point number, the arguments have been checked.</p>
+     * <p>Symmetrically rounds numbers down. Truncates all numbers toward 0.</p>
+     * <p>Example:</p>
+     * <p>round(125, 2, 1, x) -> 12</p>
+     * <p>round(-125, 2, 1, x) -> -12</p>
+     *
+     * @return the unscaled value of the rounded number
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number, non-negative
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if the result can not be held by a long.
+     */
+    long roundValue(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
+
+        // round the number towards 0
+        return FixedPoint.roundTowardsZero(unscaledValue, scale, accuracyDigit);
+    }
+
+    /**
+     * <p>Performs the rounding of a fixed-point number whose unscaled value may not fit in a long, the
+     * arguments have been checked.</p>
+     * <p>The same as roundValue(long, int, int, int): the quotient truncated by the division is the result.</p>
+     *
+     * @return the unscaled value of the rounded number
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number, non-negative
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     */
+    BigInteger roundValue(BigInteger unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
+
+        // round the number towards 0
+        return FixedPoint.divideAndRemainder(unscaledValue, scale, accuracyDigit)[0];
+    }
+
+    /**
+     * <p>Rounds the fixed-point numbers in the given range, the arguments have been checked.</p>
+     * <p>When digits are truncated, the power of ten is computed once for all the
+     * numbers, so each number only takes a division.</p>
+     *
+     * @param unscaledValues the unscaled values of the numbers to round
+     * @param scale the number of digits after the decimal point of all the numbers, non-negative
+     * @param results the array to store the unscaled values of the rounded results
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if a result can not be held by a long.
+     */
+    void roundRange(long[] unscaledValues, int scale, long[] results, int from, int to, int accuracyDigit,
+            int comparisonDigit) {
+
+        int digits = scale - accuracyDigit;
+        if (!FixedPoint.canDivide(digits)) {
+            // no digit or too many digits are truncated
+            super.roundRange(unscaledValues, scale, results, from, to, accuracyDigit, comparisonDigit);
+            return;
+        }
 
+        long divisor = FixedPoint.powerOfTen(digits);
+        for (int i = from; i < to; ++i) {
+            // round towards 0
+            results[i] = unscaledValues[i] / divisor;
+        }
+    }
+
+    /**
+     * <p>Rounds the doubles in the given range, the arguments have been checked.</p>
+     * <p>The power of ten of the accuracy is computed once for all the numbers. Each double is multiplied by
+     * the power and rounded from its integral part, so it only takes a multiplication and a division. A double
+     * whose truncation may be zero is rounded by roundDoubleValue(double, int, int) instead, which finds its
+     * shortest decimal.</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws IllegalArgumentException if any number to round is not proper
+     * @throws RoundingException if any exceptions occur when rounding.
+     */
+    void roundRange(double[] numbers, double[] results, int from, int to, int accuracyDigit, int comparisonDigit) {
+
+        if (!FixedPoint.canScale(accuracyDigit)) {
+            // the power of ten can not be held exactly by a double
+            super.roundRange(numbers, results, from, to, accuracyDigit, comparisonDigit);
+            return;
+        }
+
+        double power = FixedPoint.doublePowerOfTen(accuracyDigit);
+        for (int i = from; i < to; ++i) {
+            double scaled = numbers[i] * power;
+            double quotient = (long) scaled;
+            double fraction = Math.abs(scaled - quotient);
+
+            if (!FixedPoint.isClear(scaled, fraction, 0)) {
+                results[i] = roundDoubleValue(numbers[i], accuracyDigit, comparisonDigit);
+            } else {
+                // round towards 0
+                results[i] = quotient / power;
+            }
+        }
     }
 }
@@ -0,0 +1,549 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.math.BigInteger;
+
+/**
+ * <p>A helper class used to round fixed-point numbers, that is an unscaled long value together with
+ * the number of digits after the decimal point (the scale). It provides the same rounding methods as
+ * FloatingNumber, using integer division and remainder only, so no object is created.</p>
+ * <p>All methods take the scale of the given value and the desired accuracy, and return the unscaled
+ * value of the result at the desired accuracy.</p>
+ * <p>Examples (unscaled value, scale -> unscaled value with accuracy 1):</p>
+ *
+ * <p>RoundUp(1): 12345, 2 -> 1235, -12345, 2 -> -1234</p>
+ *
+ * <p>RoundDown(1): 12345, 2 -> 1234, -12345, 2 -> -1235</p>
+ *
+ * <p>RoundTowardsZero(1): 12345, 2 -> 1234, -12345, 2 -> -1234</p>
+ *
+ * <p>RoundAwayFromsZero(1): 12345, 2 -> 1235, -12345, 2 -> -1235</p>
+ *
+ * <p>The unscaled values of BigDecimals which do not fit in a long are rounded the same way by the
+ * BigInteger methods, with one division and remainder for each number.</p>
+ *
+ * <p>It also converts doubles to fixed-point numbers. A double is taken as the shortest decimal which
+ * converts back to it, so 0.015 is 15 with scale 3 rather than its exact binary value
+ * 0.01499999999999999944...</p>
+ *
+ * <p>This class is thread safe, since it is stateless.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+final class FixedPoint {
+
+    /**
+     * The powers of ten which can be held by a long, indexed by the exponent.
+     */
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    /**
+     * The powers of ten which can be held exactly by a double, indexed by the exponent.
+     */
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[23];
+
+    /**
+     * 2^53, all the integers whose absolute value is less than it can be held exactly by a double.
+     */
+    private static final double EXACT_DOUBLE_LIMIT = 9007199254740992.0;
+
+    /**
+     * 2^-50, the relative error bound of a scaled double used by isClear(double, double, double).
+     */
+    private static final double SCALING_ERROR = 0x1p-50;
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; ++i) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+
+        DOUBLE_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < DOUBLE_POWERS_OF_TEN.length; ++i) {
+            DOUBLE_POWERS_OF_TEN[i] = DOUBLE_POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * Private constructor to prevent this class be instantiated.
+     */
+    private FixedPoint() {
+        // empty
+    }
+
+    /**
+     * Checks whether the scale is valid.
+     *
+     * @param scale the scale to be verified.
+     * @throws IllegalArgumentException if the scale is negative.
+     */
+    static void checkScale(int scale) {
+        if (scale < 0) {
+            throw new IllegalArgumentException("scale should not be negative");
+        }
+    }
+
+    /**
+     * Returns the given power of ten.
+     *
+     * @param exponent the exponent, between 0 and 18 inclusive
+     * @return the power of ten
+     */
+    static long powerOfTen(int exponent) {
+        return POWERS_OF_TEN[exponent];
+    }
+
+    /**
+     * Compare the truncation after the specified accuracy digit to the given comparison digit.
+     *
+     * @param unscaledValue the unscaled value of the number
+     * @param scale the number of digits after the decimal point of the number
+     * @param accuracyDigit the accuracy digit to truncate
+     * @param comparisonDigit the digit used for comparison
+     * @return 1 if the truncation is greater than comparisonDigit, 0 if the truncation equals to comparisonDigit
+     * or -1 if the truncation is less than comparisonDigit.
+     */
+    static int truncationCompare(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
+
+        int digits = scale - accuracyDigit;
+
+        // no digit is truncated, or the truncation is zero
+        if (digits <= 0 || unscaledValue == 0) {
+            return -1;
+        }
+
+        // the truncation of a long can not reach the comparison digit with more than 19 truncated digits
+        if (digits > POWERS_OF_TEN.length) {
+            return -1;
+        }
+
+        long remainder = (digits == POWERS_OF_TEN.length) ? unscaledValue : unscaledValue % POWERS_OF_TEN[digits];
+        return compareRemainder(remainder, comparisonDigit * POWERS_OF_TEN[digits - 1]);
+    }
+
+    /**
+     * Compare the remainder of the truncation to the given threshold, that is the comparison digit
+     * followed by 0's.
+     *
+     * @param remainder the truncated digits, with the sign of the number
+     * @param threshold the comparison digit times 10^(the number of truncated digits - 1)
+     * @return 1 if the truncation is greater than comparisonDigit, 0 if the truncation equals to comparisonDigit
+     * or -1 if the truncation is less than comparisonDigit.
+     */
+    static int compareRemainder(long remainder, long threshold) {
+
+        // the remainder is compared as a negative value, so that Long.MIN_VALUE needs no special care
+        if (remainder > 0) {
+            remainder = -remainder;
+        }
+
+        if (remainder == -threshold) {
+            return 0;
+        }
+        return (remainder < -threshold) ? 1 : -1;
+    }
+
+    /**
+     * Rounds the truncated quotient away from zero, if the truncated digits are not all 0's.
+     *
+     * @param quotient the unscaled value truncated towards zero
+     * @param remainder the truncated digits, with the sign of the number
+     * @return the unscaled value rounded away from zero
+     */
+    static long awayFromZero(long quotient, long remainder) {
+        if (remainder == 0) {
+            return quotient;
+        }
+        return (remainder < 0) ? quotient - 1 : quotient + 1;
+    }
+
+    /**
+     * Divides the unscaled value of a number by the power of ten of the truncated digits.
+     * If no digit is truncated, the number is only rescaled and the remainder is zero.
+     *
+     * @param unscaledValue the unscaled value of the number
+     * @param scale the number of digits after the decimal point of the number
+     * @param accuracyDigit the desired accuracy
+     * @return the unscaled value truncated towards zero to the desired accuracy, followed by the truncated
+     * digits with the sign of the number
+     */
+    static BigInteger[] divideAndRemainder(BigInteger unscaledValue, int scale, int accuracyDigit) {
+        if (scale <= accuracyDigit) {
+            return new BigInteger[] {unscaledValue.multiply(BigInteger.TEN.pow(accuracyDigit - scale)),
+                BigInteger.ZERO};
+        }
+        return unscaledValue.divideAndRemainder(BigInteger.TEN.pow(scale - accuracyDigit));
+    }
+
+    /**
+     * Compare the remainder of the truncation to the comparison digit followed by 0's.
+     *
+     * @param remainder the truncated digits, with the sign of the number
+     * @param digits the number of truncated digits, that is the scale minus the accuracy
+     * @param comparisonDigit the digit used for comparison
+     * @return 1 if the truncation is greater than comparisonDigit, 0 if the truncation equals to comparisonDigit
+     * or -1 if the truncation is less than comparisonDigit.
+     */
+    static int compareRemainder(BigInteger remainder, int digits, int comparisonDigit) {
+
+        // no digit is truncated, or the truncation is zero
+        if (remainder.signum() == 0) {
+            return -1;
+        }
+
+        BigInteger threshold = BigInteger.valueOf(comparisonDigit).multiply(BigInteger.TEN.pow(digits - 1));
+        return remainder.abs().compareTo(threshold);
+    }
+
+    /**
+     * Rounds the truncated quotient away from zero, if the truncated digits are not all 0's.
+     *
+     * @param quotient the unscaled value truncated towards zero
+     * @param remainder the truncated digits, with the sign of the number
+     * @return the unscaled value rounded away from zero
+     */
+    static BigInteger awayFromZero(BigInteger quotient, BigInteger remainder) {
+        return (remainder.signum() == 0) ? quotient : quotient.add(BigInteger.valueOf(remainder.signum()));
+    }
+
+    /**
+     * Returns whether the given number of truncated digits can be removed by a single division by a
+     * power of ten held by a long.
+     *
+     * @param digits the number of truncated digits, that is the scale minus the accuracy
+     * @return whether digits is between 1 and 18 inclusive
+     */
+    static boolean canDivide(int digits) {
+        return digits > 0 && digits < POWERS_OF_TEN.length;
+    }
+
+    /**
+     * Returns whether doubles can be scaled to the desired accuracy by a power of ten held exactly by a double.
+     *
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @return whether accuracyDigit is at most 22
+     */
+    static boolean canScale(int accuracyDigit) {
+        return accuracyDigit < DOUBLE_POWERS_OF_TEN.length;
+    }
+
+    /**
+     * Returns the given power of ten as a double, which is exact.
+     *
+     * @param exponent the exponent, between 0 and 22 inclusive
+     * @return the power of ten
+     */
+    static double doublePowerOfTen(int exponent) {
+        return DOUBLE_POWERS_OF_TEN[exponent];
+    }
+
+    /**
+     * Returns whether a double multiplied by the power of ten of the accuracy can be rounded without finding
+     * its shortest decimal.
+     * <p>The shortest decimal of the double, multiplied by the same power, differs from the scaled double by less
+     * than (|scaled| + 1) * 2^-50, which also covers the error of the threshold. If the fraction of the scaled
+     * double is farther than that from 0, 1 and the threshold, the shortest decimal has the same integral part
+     * and sign, has truncated digits, and its truncation compares to the comparison digit the same way as the
+     * fraction compares to the threshold. It is never true for NaN, infinities and doubles whose scaled value is
+     * 2^49 or more.</p>
+     *
+     * @param scaled the double multiplied by the power of ten of the accuracy
+     * @param fraction the absolute difference between scaled and its integral part
+     * @param threshold the comparison digit divided by 10, or 0 if the truncation is not compared
+     * @return whether the truncation is surely neither zero nor a tie
+     */
+    static boolean isClear(double scaled, double fraction, double threshold) {
+        double error = (Math.abs(scaled) + 1) * SCALING_ERROR;
+        return fraction > error && fraction < 1 - error && Math.abs(fraction - threshold) > error;
+    }
+
+    /**
+     * Rounds such that the value of the number increases.
+     * The number will not be changed if it's a rounded number.
+     *
+     * @param unscaledValue the unscaled value of the number
+     * @param scale the number of digits after the decimal point of the number
+     * @param accuracyDigit the desired accuracy
+     * @return the unscaled value of the rounded number
+     * @throws RoundingException if the result can not be held by a long
+     */
+    static long roundUp(long unscaledValue, int scale, int accuracyDigit) {
+        return (unscaledValue < 0) ? roundTowardsZero(unscaledValue, scale, accuracyDigit)
+                : roundAwayFromZero(unscaledValue, scale, accuracyDigit);
+    }
+
+    /**
+     * Rounds such that the value of the number decreases.
+     * The number will not be changed if it's a rounded number.
+     *
+     * @param unscaledValue the unscaled value of the number
+     * @param scale the number of digits after the decimal point of the number
+     * @param accuracyDigit the desired accuracy
+     * @return the unscaled value of the rounded number
+     * @throws RoundingException if the result can not be held by a long
+     */
+    static long roundDown(long unscaledValue, int scale, int accuracyDigit) {
+        return (unscaledValue < 0) ? roundAwayFromZero(unscaledValue, scale, accuracyDigit)
+                : roundTowardsZero(unscaledValue, scale, accuracyDigit);
+    }
+
+    /**
+     * Rounds this number away from zero(the absolute value of the number increases).
+     * The number will not be changed if it's a rounded number.
+     *
+     * @param unscaledValue the unscaled value of the number
+     * @param scale the number of digits after the decimal point of the number
+     * @param accuracyDigit the desired accuracy
+     * @return the unscaled value of the rounded number
+     * @throws RoundingException if the result can not be held by a long
+     */
+    static long roundAwayFromZero(long unscaledValue, int scale, int accuracyDigit) {
+
+        long quotient = roundTowardsZero(unscaledValue, scale, accuracyDigit);
+
+        if (scale > accuracyDigit && !isExact(unscaledValue, scale - accuracyDigit)) {
+            return (unscaledValue < 0) ? quotient - 1 : quotient + 1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Rounds this number towards zero(the absolute value of the number decreases).
+     * The number will not be changed if it's a rounded number.
+     *
+     * @param unscaledValue the unscaled value of the number
+     * @param scale the number of digits after the decimal point of the number
+     * @param accuracyDigit the desired accuracy
+     * @return the unscaled value of the rounded number
+     * @throws RoundingException if the result can not be held by a long
+     */
+    static long roundTowardsZero(long unscaledValue, int scale, int accuracyDigit) {
+
+        if (scale <= accuracyDigit) {
+            return rescale(unscaledValue, accuracyDigit - scale);
+        }
+
+        int digits = scale - accuracyDigit;
+        return (digits < POWERS_OF_TEN.length) ? unscaledValue / POWERS_OF_TEN[digits] : 0;
+    }
+
+    /**
+     * Returns the number unchanged at the desired accuracy.
+     *
+     * @param unscaledValue the unscaled value of the number
+     * @param scale the number of digits after the decimal point of the number
+     * @param accuracyDigit the desired accuracy
+     * @return the unscaled value of the number
+     * @throws RoundingException if the number has non-zero digits after the desired accuracy, or the result
+     * can not be held by a long
+     */
+    static long roundUnnecessary(long unscaledValue, int scale, int accuracyDigit) {
+
+        if (scale > accuracyDigit && !isExact(unscaledValue, scale - accuracyDigit)) {
+            throw new RoundingException("the number has more than " + accuracyDigit
+                    + " digits after the decimal point");
+        }
+        return roundTowardsZero(unscaledValue, scale, accuracyDigit);
+    }
+
+    /**
+     * Get the last digit according to the accuracy.
+     * This method may be used in Banker's Rounding.
+     *
+     * @param unscaledValue the unscaled value of the number
+     * @param scale the number of digits after the decimal point of the number
+     * @param accuracyDigit the desired accuracy
+     * @return the last digit according to the accuracy
+     */
+    static int getLastDigit(long unscaledValue, int scale, int accuracyDigit) {
+
+        if (scale < accuracyDigit) {
+            return 0;
+        }
+
+        int digit = (int) (roundTowardsZero(unscaledValue, scale, accuracyDigit) % 10);
+        return (digit < 0) ? -digit : digit;
+    }
+
+    /**
+     * Returns whether any non-zero digit exists after the desired accuracy.
+     *
+     * @param unscaledValue the unscaled value of the number
+     * @param scale the number of digits after the decimal point of the number
+     * @param accuracyDigit the desired accuracy
+     * @return whether the number will be changed by the truncation
+     */
+    static boolean hasTruncation(long unscaledValue, int scale, int accuracyDigit) {
+        return scale > accuracyDigit && !isExact(unscaledValue, scale - accuracyDigit);
+    }
+
+    /**
+     * Returns whether the given number of trailing digits are all 0's.
+     *
+     * @param unscaledValue the unscaled value of the number
+     * @param digits the number of trailing digits, positive
+     * @return whether the truncation is zero
+     */
+    private static boolean isExact(long unscaledValue, int digits) {
+        return (digits < POWERS_OF_TEN.length) ? unscaledValue % POWERS_OF_TEN[digits] == 0 : unscaledValue == 0;
+    }
+
+    /**
+     * Appends the given number of 0's to the unscaled value.
+     *
+     * @param unscaledValue the unscaled value of the number
+     * @param digits the number of 0's to append, non-negative
+     * @return the unscaled value with more digits
+     * @throws RoundingException if the result can not be held by a long
+     */
+    private static long rescale(long unscaledValue, int digits) {
+
+        if (digits == 0 || unscaledValue == 0) {
+            return unscaledValue;
+        }
+
+        if (digits >= POWERS_OF_TEN.length
+                || unscaledValue > Long.MAX_VALUE / POWERS_OF_TEN[digits]
+                || unscaledValue < Long.MIN_VALUE / POWERS_OF_TEN[digits]) {
+            throw new RoundingException("the rounded number can not be held by a long");
+        }
+        return unscaledValue * POWERS_OF_TEN[digits];
+    }
+
+    /**
+     * Converts the fixed-point number to a string in normal notation.
+     *
+     * @param unscaledValue the unscaled value of the number
+     * @param scale the number of digits after the decimal point of the number
+     * @return the number in normal notation
+     */
+    static String toString(long unscaledValue, int scale) {
+
+        String digits = Long.toString(unscaledValue);
+        if (scale == 0) {
+            return digits;
+        }
+
+        int signLength = (unscaledValue < 0) ? 1 : 0;
+        int integralLength = digits.length() - signLength - scale;
+
+        StringBuffer buffer = new StringBuffer(digits.length() + scale + 2);
+        buffer.append(digits.substring(0, signLength));
+        if (integralLength > 0) {
+            buffer.append(digits.substring(signLength, signLength + integralLength));
+        } else {
+            buffer.append('0');
+        }
+        buffer.append('.');
+        for (int i = integralLength; i < 0; ++i) {
+            buffer.append('0');
+        }
+        buffer.append(digits.substring(signLength + Math.max(integralLength, 0)));
+        return buffer.toString();
+    }
+
+    /**
+     * Returns whether the given fixed-point number can be rescaled to the desired accuracy without
+     * overflowing a long. It is always true if the accuracy is less than the scale.
+     *
+     * @param unscaledValue the unscaled value of the number
+     * @param scale the number of digits after the decimal point of the number
+     * @param accuracyDigit the desired accuracy
+     * @return whether the number at the desired accuracy can be held by a long
+     */
+    static boolean canRescale(long unscaledValue, int scale, int accuracyDigit) {
+
+        if (scale >= accuracyDigit || unscaledValue == 0) {
+            return true;
+        }
+
+        int digits = accuracyDigit - scale;
+        return digits < POWERS_OF_TEN.length
+                && unscaledValue <= Long.MAX_VALUE / POWERS_OF_TEN[digits]
+                && unscaledValue >= Long.MIN_VALUE / POWERS_OF_TEN[digits];
+    }
+
+    /**
+     * Returns the scale of the shortest decimal which converts back to the given double, if its
+     * unscaled value can be held exactly by a double.
+     * <p>The decimal is searched from scale 0 upwards. For each scale the two integers around the
+     * scaled double are the only candidates, and a candidate is accepted if dividing it by the power
+     * of ten gives the double back, since the division is correctly rounded. The search stops once
+     * more than one decimal of the same scale could convert back to the double, or the unscaled value
+     * reaches 2^53, because the shortest decimal is then not guaranteed to be found.</p>
+     *
+     * @param number the double to convert
+     * @return the number of digits after the decimal point, or -1 if the double can not be converted
+     * this way, which is always the case for NaN and infinities.
+     */
+    static int scaleOf(double number) {
+
+        double magnitude = Math.abs(number);
+        if (magnitude == 0) {
+            return 0;
+        }
+
+        double ulp = Math.ulp(magnitude);
+        for (int scale = 0; scale < DOUBLE_POWERS_OF_TEN.length; ++scale) {
+            double power = DOUBLE_POWERS_OF_TEN[scale];
+
+            // the product is exact here, since the ulp is a power of two and power of ten is exact
+            if (ulp * power >= 1) {
+                // only an integer is exact at scale 0, otherwise the decimal may not be unique
+                return (scale == 0 && magnitude * power < EXACT_DOUBLE_LIMIT) ? 0 : -1;
+            }
+
+            double scaled = magnitude * power;
+            if (scaled >= EXACT_DOUBLE_LIMIT) {
+                return -1;
+            }
+
+            double floor = Math.floor(scaled);
+            if (floor / power == magnitude || (floor + 1) / power == magnitude) {
+                return scale;
+            }
+        }
+
+        // NaN also falls through here
+        return -1;
+    }
+
+    /**
+     * Returns the unscaled value of the shortest decimal which converts back to the given double.
+     *
+     * @param number the double to convert
+     * @param scale the scale returned by scaleOf(number), non-negative
+     * @return the unscaled value of the decimal
+     */
+    static long unscaledValueOf(double number, int scale) {
+
+        double power = DOUBLE_POWERS_OF_TEN[scale];
+        double floor = Math.floor(number * power);
+
+        return (long) ((floor / power == number) ? floor : floor + 1);
+    }
+
+    /**
+     * Converts the fixed-point number to the nearest double.
+     *
+     * @param unscaledValue the unscaled value of the number
+     * @param scale the number of digits after the decimal point of the number
+     * @return the nearest double
+     */
+    static double toDouble(long unscaledValue, int scale) {
+
+        // both operands are exact, and the division is correctly rounded
+        if (scale < DOUBLE_POWERS_OF_TEN.length
+                && unscaledValue < EXACT_DOUBLE_LIMIT && unscaledValue > -EXACT_DOUBLE_LIMIT) {
+            return unscaledValue / DOUBLE_POWERS_OF_TEN[scale];
+        }
+
+        return Double.parseDouble(toString(unscaledValue, scale));
+    }
+}
@@ -5,11 +5,19 @@
  */
 package com.topcoder.math.roundingfactory.algorithms;
 
+import java.io.IOException;
+
 /**
  * <p>A helper class used to parse floating-number.
  * This class can parse floating-number and provides some useful rounding methods including
  * round up, round down, round away form zero round towards zero.</p>
  * <p>NOTE:This class does not support scientific notion</p>
+ * <p>The number is validated by a single scan over the input which only records the offsets
+ * of the sign, the significant integral digits and the significant fractional digits, so no
+ * intermediate strings are created while parsing.</p>
+ * <p>The rounding methods only record how the number is rounded. The result is then either got by
+ * toString(), which only allocates the resulting string, or written to a char array or an Appendable
+ * without any allocation.</p>
  * <p>Examples:</p>
  *
  * <p>RoundUp(1): 123.45 -> 123.5, -123.45 -> -123.4</p>
@@ -18,7 +26,7 @@ package com.topcoder.math.roundingfactory.algorithms;
  *
  * <p>RoundTowardsZero(1): 123.45 -> 123.4, -123.45 -> -123.4</p>
  *
- * <p>RoundAwayFromsZero(1): 123.45 -> 123.4, -123.45 -> -123.4</p>
+ * <p>RoundAwayFromsZero(1): 123.45 -> 123.5, -123.45 -> -123.5</p>
  *
  * @author qiucx0161
  * @author TCSDEVELOPER
@@ -34,141 +42,226 @@ class FloatingNumber {
      */
     private static final String DECIMAL_SYMBOL = ".,";
 
+    /**
+     * Constant for the carry position when the absolute value is not increased by the rounding.
+     */
+    private static final int NO_CARRY = Integer.MAX_VALUE;
+
     /**
      * Current decimal symbol.
      */
     private char currentDecimalSymbol = '.';
 
     /**
-     * The integral digits of this floating-number.
-     * Note: these digits excludes leading 0's.
+     * The number being parsed. The digits are never copied out of it, so it should not be modified while
+     * this instance is used.
      */
-    private String integral = "0";
+    private CharSequence number;
 
     /**
-     * The fractional digits of this floating-number.
-     * Note: these digits excludes trailing 0's.
+     * The offset of the first significant integral digit in number.
+     * Note: leading 0's are excluded, so it equals integralEnd if the integral portion is zero.
      */
-    private String fractional = "";
+    private int integralStart;
 
     /**
-     * The sign of this floating-number.
+     * The offset after the last integral digit in number.
      */
-    private char sign = '+';
+    private int integralEnd;
 
     /**
-     * Constructs an instance of FloatingNumber with given number in String format.
-     * NOTE:This class does not support scientific notion.
-     *
-     * @param number the number used to create this instance
-     * @throws NullPointerException if number is null
-     * @throws NumberFormatException if number is not a valid floating point number
+     * The offset of the first fractional digit in number.
      */
-    FloatingNumber(String number) {
+    private int fractionalStart;
 
-        if( (number == null)
-                || ( number == "" )) {
+    /**
+     * The offset of the first non-zero fractional digit in number.
+     * Note: it equals fractionalEnd if the fractional portion is zero.
+     */
+    private int fractionalSignificant;
 
-            throw new NullPointerException("Attempted to parse a number, but provided a null/empty string");
-        }
+    /**
+     * The offset after the last significant fractional digit in number.
+     * Note: trailing 0's are excluded, so it equals fractionalStart if the fractional portion is zero.
+     */
+    private int fractionalEnd;
 
-        // First step is to parse the number by simply splitting on the decimal symbol
-	    String[] numArray = number.split(Character.toString(currentDecimalSymbol));
+    /**
+     * Whether this floating-number is negative.
+     */
+    private boolean negative = false;
 
-	    if( numArray.length < 1 ) {
-			throw new NumberFormatException("Improperly formatted number");
-	    }
+    /**
+     * The accuracy of the last rounding method called, or -1 if no rounding method has been called.
+     */
+    private int roundingAccuracy = -1;
 
-		if( numArray.length == 1 ) {
-			// check the integral digits
-			checkDigits(numArray[0], 0, true);
-			integral = numArray[0];
-	    }
-	    else {
-			checkDigits(numArray[0], 0, true);
-			checkDigits(numArray[1], 0, false);
-			integral = numArray[0];
-			fractional = numArray[1];
-	    }
+    /**
+     * The offset in number of the digit increased by one by the last rounding method called, -1 if the carry
+     * runs past the first digit, or NO_CARRY if the absolute value is not increased.
+     */
+    private int carryPosition = NO_CARRY;
 
+    /**
+     * Constructs an instance of FloatingNumber without number. A number should be parsed by
+     * parse(CharSequence) before using it. This allows to reuse one instance for many numbers.
+     */
+    FloatingNumber() {
+        // empty
     }
 
     /**
-     * Checks whether the given number contains invalid characters, and returns the end position
-     * of integral or fractional digits.
+     * Constructs an instance of FloatingNumber with given number in String format.
+     * NOTE:This class does not support scientific notion.
      *
-     * @param number the number to check
-     * @param position the begin position
-     * @param isIntegral whether current digits are integral part
-     * @return the end position of the integral or fractional digits.
-     * @throws NumberFormatException if the given number contains invalid characters.
-     */
-    private int checkDigits(String number, int position, boolean isIntegral) {
-       
-        int numArraySize = number.length()-1-position;
-        char[] numArray = new char[numArraySize];
-
-        number.getChars(position, number.length()-1, numArray, 0);
-
-        for(int index=0; index < numArraySize - 1; index++) {
-            if( isIntegral &&
-                    (numArray[index] == currentDecimalSymbol)) {
-                return position+index;
-            }
-            else if( Character.isDigit(numArray[index]) ) {
-                continue;
-            }
-        }
-        return 0;
+     * @param number the number used to create this instance
+     * @throws NullPointerException if number is null
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    FloatingNumber(CharSequence number) {
+        parse(number);
     }
 
     /**
-     * Return whether this floating number is zero.
-     *
-     * @return whether this floating number is zero.
+     * Clears the number parsed and its rounding, so that this instance holds no reference to it. A number
+     * should be parsed by parse(CharSequence) before using this instance again.
      */
-    boolean isZero() {
-        if (isIntegralPortionZero
-                && isFractionalPortionZero) {
-            return true;
-                }
-        else {
-            return false;
-        }
+    void clear() {
+        number = null;
+        integralStart = 0;
+        integralEnd = 0;
+        fractionalStart = 0;
+        fractionalSignificant = 0;
+        fractionalEnd = 0;
+        negative = false;
+        currentDecimalSymbol = '.';
+        roundingAccuracy = -1;
+        carryPosition = NO_CARRY;
     }
 
     /**
-     * Returns whether the integral portion of this floating number is zero.
+     * Parses the given number, replacing the number parsed before and its rounding.
+     * The chars are not copied, so any CharSequence such as a StringBuilder or a view of a buffer is
+     * parsed as cheaply as a String.
+     * NOTE:This class does not support scientific notion.
+     * A ParseEvent is recorded while a flight recording enables it, if the jdk.jfr module is present.
      *
-     * @return whether interal portion is zero.
+     * @param number the number to parse
+     * @throws NullPointerException if number is null
+     * @throws NumberFormatException if number is not a valid floating point number
      */
-    private boolean isIntegralPortionZero() {
+    void parse(CharSequence number) {
+
+        if (number == null) {
+            throw new NullPointerException("number should not be null");
+        }
+
+        if (!RoundingAlgorithm.FLIGHT_RECORDER) {
+            parseNumber(number);
+            return;
+        }
 
-        if ((this.integral == null)
-            || (this.integral.isEmpty())
-            || (this.integral == "0")) {
-                return true;
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        boolean valid = false;
+        try {
+            parseNumber(number);
+            valid = true;
+        } finally {
+            if (event.shouldCommit()) {
+                event.inputLength = number.length();
+                event.valid = valid;
+                event.commit();
             }
-        else {
-            return false;
         }
     }
-    
+
     /**
-     * Returns whether the decimal portion of this floating number is zero.
+     * Parses the given number, which is not null.
      *
-     * @return whether decimal portion is zero.
+     * @param number the number to parse
+     * @throws NumberFormatException if number is not a valid floating point number
      */
-    private boolean isFractionalPortionZero() {
+    private void parseNumber(CharSequence number) {
+        this.number = number;
+        currentDecimalSymbol = '.';
+        negative = false;
+        roundingAccuracy = -1;
+        carryPosition = NO_CARRY;
+
+        int length = number.length();
+        int position = 0;
+
+        // the optional sign
+        if (length > 0) {
+            char ch = number.charAt(0);
+            if (ch == '-') {
+                negative = true;
+                ++position;
+            } else if (ch == '+') {
+                ++position;
+            }
+        }
+
+        // the integral digits, remember the first non-zero digit to skip leading 0's
+        int integralBegin = position;
+        integralStart = -1;
+        for (; position < length; ++position) {
+            char ch = number.charAt(position);
+            if (ch < '0' || ch > '9') {
+                break;
+            }
+            if (integralStart == -1 && ch != '0') {
+                integralStart = position;
+            }
+        }
+        integralEnd = position;
+        if (integralStart == -1) {
+            integralStart = integralEnd;
+        }
 
-        if ((this.fractional == null)
-            || (this.fractional.isEmpty())
-            || (this.fractional == "0")) {
-                return true;
+        // the optional decimal symbol followed by the fractional digits, remember the first and
+        // the last non-zero digits to skip leading and trailing 0's
+        fractionalStart = position;
+        fractionalSignificant = -1;
+        fractionalEnd = -1;
+        if (position < length && DECIMAL_SYMBOL.indexOf(number.charAt(position)) >= 0) {
+            currentDecimalSymbol = number.charAt(position);
+            fractionalStart = ++position;
+            for (; position < length; ++position) {
+                char ch = number.charAt(position);
+                if (ch < '0' || ch > '9') {
+                    break;
+                }
+                if (ch != '0') {
+                    if (fractionalSignificant == -1) {
+                        fractionalSignificant = position;
+                    }
+                    fractionalEnd = position + 1;
+                }
             }
-        else {
-            return false;
         }
+        if (fractionalEnd == -1) {
+            fractionalSignificant = fractionalStart;
+            fractionalEnd = fractionalStart;
+        }
+
+        if (position != length) {
+            throw new NumberFormatException("invalid character at position " + position + " of " + number);
+        }
+
+        if (integralBegin == integralEnd && fractionalStart == position) {
+            throw new NumberFormatException("the number should contain one digit at least: " + number);
+        }
+    }
+
+    /**
+     * Return whether this floating number is zero.
+     *
+     * @return whether this floating number is zero.
+     */
+    boolean isZero() {
+        return integralStart == integralEnd && fractionalStart == fractionalEnd;
     }
 
     /**
@@ -180,7 +273,20 @@ class FloatingNumber {
      * or -1 if the truncation is less than comparisonDigit.
      */
     int truncationCompare(int accuracyDigit, int comparisonDigit) {
-        return 0;
+
+        // the truncation is zero, which is always less than comparisonDigit (1 to 9)
+        if (!hasTruncation(accuracyDigit)) {
+            return -1;
+        }
+
+        int digit = number.charAt(fractionalStart + accuracyDigit) - '0';
+        if (digit != comparisonDigit) {
+            return digit > comparisonDigit ? 1 : -1;
+        }
+
+        // the first truncated digit equals comparisonDigit, any following digit is non-zero
+        // since trailing 0's are excluded
+        return (fractionalStart + accuracyDigit + 1 < fractionalEnd) ? 1 : 0;
     }
 
     /**
@@ -188,10 +294,10 @@ class FloatingNumber {
      * The number will not be changed if it's a rounded number.
      *
      * @param accuracyDigit the desired accuracy
-     * @return the rounded number
+     * @return this number, rounded
      */
-    String roundUp(int accuracyDigit) {
-        return "";
+    FloatingNumber roundUp(int accuracyDigit) {
+        return negative ? roundTowardsZero(accuracyDigit) : roundAwayFromZero(accuracyDigit);
     }
 
     /**
@@ -199,10 +305,10 @@ class FloatingNumber {
      * The number will not be changed if it's a rounded number.
      *
      * @param accuracyDigit the desired accuracy
-     * @return the rounded number
+     * @return this number, rounded
      */
-    String roundDown(int accuracyDigit) {
-        return "";
+    FloatingNumber roundDown(int accuracyDigit) {
+        return negative ? roundAwayFromZero(accuracyDigit) : roundTowardsZero(accuracyDigit);
     }
 
     /**
@@ -210,10 +316,12 @@ class FloatingNumber {
      * The number will not be changed if it's a rounded number.
      *
      * @param accuracyDigit the desired accuracy
-     * @return the rounded number
+     * @return this number, rounded
      */
-    String roundAwayFromZero(int accuracyDigit) {
-        return "";
+    FloatingNumber roundAwayFromZero(int accuracyDigit) {
+        roundingAccuracy = accuracyDigit;
+        carryPosition = hasTruncation(accuracyDigit) ? findCarryPosition(accuracyDigit) : NO_CARRY;
+        return this;
     }
 
     /**
@@ -221,45 +329,337 @@ class FloatingNumber {
      * The number will not be changed if it's a rounded number.
      *
      * @param accuracyDigit the desired accuracy
-     * @return the rounded number
+     * @return this number, rounded
+     */
+    FloatingNumber roundTowardsZero(int accuracyDigit) {
+        roundingAccuracy = accuracyDigit;
+        carryPosition = NO_CARRY;
+        return this;
+    }
+
+    /**
+     * Returns whether the last rounding method called has truncated any non-zero digit.
+     *
+     * @return whether the number is changed by the last rounding, false if no rounding method has been called
+     */
+    boolean isTruncated() {
+        return roundingAccuracy != -1 && hasTruncation(roundingAccuracy);
+    }
+
+    /**
+     * Returns whether the last rounding method called has increased the absolute value of the number.
+     *
+     * @return whether the number is rounded away from zero
      */
-    String roundTowardsZero(int accuracyDigit) {
-        return "";
+    boolean isIncreased() {
+        return carryPosition != NO_CARRY;
     }
 
     /**
-     * Returns all significant digits according to the desired accuracy.
+     * Returns whether any non-zero digit exists after the desired accuracy.
      *
      * @param accuracyDigit the desired accuracy
-     * @return the significant digits
+     * @return whether the number will be changed by the truncation.
      */
-    private String getSignificantDigits(int accuracyDigit) {
-        int counter = accuracyDigit;
+    private boolean hasTruncation(int accuracyDigit) {
+        return fractionalEnd - fractionalStart > accuracyDigit;
+    }
 
-        while (
-   }
+    /**
+     * Finds the last digit kept at the desired accuracy which is not 9. This digit is increased by one when
+     * the absolute value is increased by one unit of the last digit, and the 9's after it become 0's.
+     *
+     * @param accuracyDigit the desired accuracy, there should be truncation after it
+     * @return the offset of the digit in number, or -1 if all the digits kept are 9's
+     */
+    private int findCarryPosition(int accuracyDigit) {
+        for (int position = fractionalStart + accuracyDigit - 1; position >= fractionalStart; --position) {
+            if (number.charAt(position) != '9') {
+                return position;
+            }
+        }
+        for (int position = integralEnd - 1; position >= integralStart; --position) {
+            if (number.charAt(position) != '9') {
+                return position;
+            }
+        }
+        return -1;
+    }
 
+    /**
+     * Returns whether the result is zero, which is written as "0" without sign.
+     *
+     * @return whether the result is zero
+     */
+    private boolean isZeroResult() {
+        if (roundingAccuracy == -1) {
+            return isZero();
+        }
+        return carryPosition == NO_CARRY && integralStart == integralEnd
+                && (fractionalSignificant == fractionalEnd
+                || fractionalSignificant - fractionalStart >= roundingAccuracy);
+    }
 
     /**
-     * Converts the number to normal notation.
+     * Returns the offset in number where the unchanged result starts, skipping a leading '+'.
      *
-     * @param digits the significant digits of the number
-     * @param accuracyDigit the desired accuracy
-     * @return the number in normal notation
+     * @return the offset of the unchanged result
+     */
+    private int getUnchangedStart() {
+        return (number.charAt(0) == '+') ? 1 : 0;
+    }
+
+    /**
+     * Returns the length of the result.
+     * <p>The result is the number rounded by the last rounding method called, in normal notation.
+     * If no rounding method has been called, the result is the number unchanged except that a leading '+'
+     * is removed. A zero result is always "0".</p>
+     *
+     * @return the length of the result
+     */
+    int getLength() {
+        if (isZeroResult()) {
+            return 1;
+        }
+
+        if (roundingAccuracy == -1) {
+            return number.length() - getUnchangedStart();
+        }
+
+        int integralLength = integralEnd - integralStart;
+        int length = negative ? 1 : 0;
+        if (integralLength == 0) {
+            // a single 0, or the 1 carried into the integral portion
+            length += 1;
+        } else {
+            length += (carryPosition == -1) ? integralLength + 1 : integralLength;
+        }
+        if (roundingAccuracy > 0) {
+            length += 1 + roundingAccuracy;
+        }
+        return length;
+    }
+
+    /**
+     * Writes the result to the given buffer, see getLength() for the result.
+     *
+     * @param buffer the buffer to write
+     * @param offset the offset of the first char to write, there should be getLength() chars after it
+     * @return the number of chars written, the same as getLength()
+     */
+    int getChars(char[] buffer, int offset) {
+        if (isZeroResult()) {
+            buffer[offset] = '0';
+            return 1;
+        }
+
+        if (roundingAccuracy == -1) {
+            int start = getUnchangedStart();
+            copyChars(start, number.length(), buffer, offset);
+            return number.length() - start;
+        }
+
+        int position = offset;
+        if (negative) {
+            buffer[position++] = '-';
+        }
+
+        // the integral portion
+        if (carryPosition == -1) {
+            // the carry runs past the first digit
+            buffer[position++] = '1';
+            position = appendZero(buffer, position, integralEnd - integralStart);
+        } else if (integralStart == integralEnd) {
+            buffer[position++] = '0';
+        } else {
+            position = getDigits(integralStart, integralEnd, buffer, position);
+        }
+
+        if (roundingAccuracy == 0) {
+            return position - offset;
+        }
+
+        // the fractional portion, padded with 0's
+        buffer[position++] = currentDecimalSymbol;
+        int fractionalCount = Math.min(fractionalEnd - fractionalStart, roundingAccuracy);
+        if (carryPosition < fractionalStart) {
+            // all the fractional digits kept are 9's, which the carry turns to 0's
+            position = appendZero(buffer, position, fractionalCount);
+        } else {
+            position = getDigits(fractionalStart, fractionalStart + fractionalCount, buffer, position);
+        }
+        position = appendZero(buffer, position, roundingAccuracy - fractionalCount);
+
+        return position - offset;
+    }
+
+    /**
+     * Writes the digits of number from start (inclusive) to end (exclusive) to the buffer. If the carry
+     * position is among them, the digit there is increased by one and the following digits are written as 0's.
+     *
+     * @param start the offset of the first digit in number
+     * @param end the offset after the last digit in number
+     * @param buffer the buffer to write
+     * @param position the position in the buffer to write the first digit
+     * @return the position in the buffer after the last digit written
      */
-    private String toNormalNotation(String digits, int accuracyDigit) {
-        return "";
+    private int getDigits(int start, int end, char[] buffer, int position) {
+        if (carryPosition >= end) {
+            copyChars(start, end, buffer, position);
+            return position + end - start;
+        }
+
+        copyChars(start, carryPosition, buffer, position);
+        position += carryPosition - start;
+        buffer[position++] = (char) (number.charAt(carryPosition) + 1);
+        return appendZero(buffer, position, end - carryPosition - 1);
     }
 
+    /**
+     * Copies the chars of number from start (inclusive) to end (exclusive) to the buffer.
+     *
+     * @param start the offset of the first char in number
+     * @param end the offset after the last char in number
+     * @param buffer the buffer to write
+     * @param position the position in the buffer to write the first char
+     */
+    private void copyChars(int start, int end, char[] buffer, int position) {
+        if (number instanceof String) {
+            ((String) number).getChars(start, end, buffer, position);
+            return;
+        }
+
+        for (int i = start; i < end; ++i) {
+            buffer[position++] = number.charAt(i);
+        }
+    }
 
     /**
-     * Append some 0's to the StringBuffer.
+     * Appends the result to the given Appendable, see getLength() for the result.
      *
-     * @param builder the StringBuffer instance to append
+     * @param out the Appendable to append
+     * @throws IOException if the Appendable throws it
+     */
+    void appendTo(Appendable out) throws IOException {
+        if (isZeroResult()) {
+            out.append('0');
+            return;
+        }
+
+        if (roundingAccuracy == -1) {
+            out.append(number, getUnchangedStart(), number.length());
+            return;
+        }
+
+        if (negative) {
+            out.append('-');
+        }
+
+        // the integral portion
+        if (carryPosition == -1) {
+            // the carry runs past the first digit
+            out.append('1');
+            appendZero(out, integralEnd - integralStart);
+        } else if (integralStart == integralEnd) {
+            out.append('0');
+        } else {
+            appendDigits(integralStart, integralEnd, out);
+        }
+
+        if (roundingAccuracy == 0) {
+            return;
+        }
+
+        // the fractional portion, padded with 0's
+        out.append(currentDecimalSymbol);
+        int fractionalCount = Math.min(fractionalEnd - fractionalStart, roundingAccuracy);
+        if (carryPosition < fractionalStart) {
+            // all the fractional digits kept are 9's, which the carry turns to 0's
+            appendZero(out, fractionalCount);
+        } else {
+            appendDigits(fractionalStart, fractionalStart + fractionalCount, out);
+        }
+        appendZero(out, roundingAccuracy - fractionalCount);
+    }
+
+    /**
+     * Appends the digits of number from start (inclusive) to end (exclusive) to the Appendable. If the carry
+     * position is among them, the digit there is increased by one and the following digits are appended as 0's.
+     *
+     * @param start the offset of the first digit in number
+     * @param end the offset after the last digit in number
+     * @param out the Appendable to append
+     * @throws IOException if the Appendable throws it
+     */
+    private void appendDigits(int start, int end, Appendable out) throws IOException {
+        if (carryPosition >= end) {
+            out.append(number, start, end);
+            return;
+        }
+
+        out.append(number, start, carryPosition);
+        out.append((char) (number.charAt(carryPosition) + 1));
+        appendZero(out, end - carryPosition - 1);
+    }
+
+    /**
+     * Returns the result, see getLength() for the result.
+     *
+     * @return the result
+     */
+    public String toString() {
+        if (roundingAccuracy == -1 && !isZeroResult() && getUnchangedStart() == 0 && number instanceof String) {
+            // the number itself is the result
+            return (String) number;
+        }
+
+        char[] buffer = new char[getLength()];
+        getChars(buffer, 0);
+        return new String(buffer);
+    }
+
+    /**
+     * Returns the result like toString(), but writes it through the given buffer first, so that a buffer
+     * reused for many results saves the char array toString() creates for each of them.
+     *
+     * @param buffer the buffer to write the result, it should hold getLength() chars at least
+     * @return the result
+     */
+    String toString(char[] buffer) {
+        if (roundingAccuracy == -1 && !isZeroResult() && getUnchangedStart() == 0 && number instanceof String) {
+            // the number itself is the result
+            return (String) number;
+        }
+
+        return new String(buffer, 0, getChars(buffer, 0));
+    }
+
+    /**
+     * Append some 0's to the buffer.
+     *
+     * @param buffer the buffer to append
+     * @param offset the position of the first 0
      * @param count the number of 0 to append
+     * @return the position after the last 0
      */
-    private static void appendZero(StringBuffer builder, int count) {
-        return;
+    private static int appendZero(char[] buffer, int offset, int count) {
+        for (int i = 0; i < count; ++i) {
+            buffer[offset + i] = '0';
+        }
+        return offset + count;
+    }
+
+    /**
+     * Append some 0's to the Appendable.
+     *
+     * @param out the Appendable to append
+     * @param count the number of 0 to append
+     * @throws IOException if the Appendable throws it
+     */
+    private static void appendZero(Appendable out, int count) throws IOException {
+        for (int i = 0; i < count; ++i) {
+            out.append('0');
+        }
     }
 
     /**
@@ -270,7 +670,16 @@ class FloatingNumber {
      * @return the last digit according to the accuracy
      */
     int getLastDigit(int accuracyDigit) {
-        return 0;
+
+        if (accuracyDigit == 0) {
+            return (integralStart == integralEnd) ? 0 : number.charAt(integralEnd - 1) - '0';
+        }
+
+        if (accuracyDigit > fractionalEnd - fractionalStart) {
+            return 0;
+        }
+
+        return number.charAt(fractionalStart + accuracyDigit - 1) - '0';
     }
 
 }
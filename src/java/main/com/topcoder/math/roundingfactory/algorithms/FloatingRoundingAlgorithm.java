@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+/**
+ * <p>The base class of the algorithms of this package which round FloatingNumbers.</p>
+ * <p>The subclasses implement roundNumber(FloatingNumber, CharSequence, int, int), which never returns null, so
+ * the numbers are rounded without creating any string. Algorithms outside this package can not implement it,
+ * so they extend RoundingAlgorithm directly and round to string.</p>
+ *
+ * <p>This class is thread safe.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+abstract class FloatingRoundingAlgorithm extends RoundingAlgorithm {
+
+    /**
+     * <p>Constructs an instance with accuracyDigit equal to 2 and comparisonDigit equal to 5.</p>
+     */
+    FloatingRoundingAlgorithm() {
+        // empty
+    }
+
+    /**
+     * <p>Constructs an instance with accuracyDigit and comparisonDigit as specified.</p>
+     *
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     */
+    FloatingRoundingAlgorithm(int accuracyDigit, int comparisonDigit) {
+        super(accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Parses the given number into the given FloatingNumber and rounds it, the accuracy and comparison
+     * digits have been checked.</p>
+     * <p>The subclasses implement it with the same result as round(String, int, int).</p>
+     *
+     * @return the given FloatingNumber rounded, never null
+     * @param floatingNumber the FloatingNumber to parse the number into
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws NullPointerException if number is null
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    abstract FloatingNumber roundNumber(FloatingNumber floatingNumber, CharSequence number, int accuracyDigit,
+            int comparisonDigit);
+
+    /**
+     * <p>Tells that the algorithm rounds FloatingNumbers.</p>
+     *
+     * @return true
+     */
+    boolean roundsFloatingNumbers() {
+        return true;
+    }
+}
@@ -0,0 +1,434 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>A RoundingAlgorithm which records the RoundingMetrics of another algorithm: the number of calls, the ties,
+ * the numbers rounded away from zero and towards zero, the numbers rejected, the RoundingExceptions thrown and
+ * the latencies.</p>
+ * <p>Each number costs a few increments of LongAdders, so the metrics can be left on in production. Reading the
+ * clock twice may cost more than rounding a short number, so only the latencies of a random sample of the
+ * numbers are recorded, one of every 16 by default. The latency is the time taken by the algorithm, without
+ * checking the digits.</p>
+ * <p>The ties and the decisions are known for the numbers in String format and the fixed-point numbers rounded
+ * by one of the algorithms of this component, which record how they round a number. The doubles, the numbers
+ * read from a Reader and the numbers rounded by any other Algorithm are only counted with their latencies.
+ * The fixed-point numbers of the roundAll methods are counted one by one.</p>
+ * <p>When a MeteredAlgorithm is cached by a CachingAlgorithm, only the numbers missing from the cache are
+ * counted.</p>
+ * <p>The accuracy and comparison digits of this instance start with the ones of the algorithm, but are then
+ * independent of them.</p>
+ *
+ * <p>This class is thread safe, provided that the algorithm is thread safe as all the algorithms of this
+ * component are.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+public class MeteredAlgorithm extends RoundingAlgorithm {
+
+    /**
+     * The default sampling interval of the latencies.
+     */
+    public static final int DEFAULT_SAMPLING_INTERVAL = 16;
+
+    /**
+     * The start time of a number whose latency is not sampled.
+     */
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    /**
+     * The algorithm whose metrics are recorded.
+     */
+    private final Algorithm algorithm;
+
+    /**
+     * The algorithm as a RoundingAlgorithm, to know how it rounds the numbers, or null if the algorithm is not
+     * a RoundingAlgorithm.
+     */
+    private final RoundingAlgorithm roundingAlgorithm;
+
+    /**
+     * The metrics of the algorithm.
+     */
+    private final RoundingMetrics metrics = new RoundingMetrics();
+
+    /**
+     * The sampling interval minus one, a latency is sampled when a random int masked by it is 0.
+     */
+    private final int samplingMask;
+
+    /**
+     * <p>Constructs an instance recording the metrics of the given algorithm, sampling the latency of one of
+     * every DEFAULT_SAMPLING_INTERVAL numbers.</p>
+     *
+     * @param algorithm the algorithm whose metrics are recorded
+     * @throws NullPointerException if algorithm is null
+     */
+    public MeteredAlgorithm(Algorithm algorithm) {
+        this(algorithm, DEFAULT_SAMPLING_INTERVAL);
+    }
+
+    /**
+     * <p>Constructs an instance recording the metrics of the given algorithm, sampling the latency of one of
+     * every samplingInterval numbers on average. With the interval 1, the latencies of all the numbers are
+     * recorded.</p>
+     *
+     * @param algorithm the algorithm whose metrics are recorded
+     * @param samplingInterval the sampling interval of the latencies, a power of two
+     * @throws NullPointerException if algorithm is null
+     * @throws IllegalArgumentException if samplingInterval is not a positive power of two
+     */
+    public MeteredAlgorithm(Algorithm algorithm, int samplingInterval) {
+        super(checkAlgorithm(algorithm).getAccuracyDigit(), algorithm.getComparisonDigit());
+
+        if (samplingInterval <= 0 || (samplingInterval & (samplingInterval - 1)) != 0) {
+            throw new IllegalArgumentException("samplingInterval should be a positive power of two");
+        }
+
+        this.algorithm = algorithm;
+        this.roundingAlgorithm = (algorithm instanceof RoundingAlgorithm) ? (RoundingAlgorithm) algorithm : null;
+        this.samplingMask = samplingInterval - 1;
+    }
+
+    /**
+     * <p>Checks whether the algorithm is given.</p>
+     *
+     * @param algorithm the algorithm
+     * @return the algorithm
+     * @throws NullPointerException if algorithm is null
+     */
+    private static Algorithm checkAlgorithm(Algorithm algorithm) {
+        if (algorithm == null) {
+            throw new NullPointerException("algorithm should not be null");
+        }
+        return algorithm;
+    }
+
+    /**
+     * <p>Gets the algorithm whose metrics are recorded.</p>
+     *
+     * @return the algorithm
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * <p>Gets the metrics of the algorithm.</p>
+     *
+     * @return the metrics
+     */
+    public RoundingMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * <p>Gets the sampling interval of the latencies.</p>
+     *
+     * @return the sampling interval
+     */
+    public int getSamplingInterval() {
+        return samplingMask + 1;
+    }
+
+    /**
+     * <p>Starts the timing of a number, if its latency is sampled.</p>
+     *
+     * @return the start time, or NOT_SAMPLED if the latency is not sampled
+     */
+    private long start() {
+        if (samplingMask != 0 && (ThreadLocalRandom.current().nextInt() & samplingMask) != 0) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * <p>Records a number rounded, with its latency if it is sampled.</p>
+     *
+     * @param start the start time given by start()
+     */
+    private void recordRounding(long start) {
+        if (start == NOT_SAMPLED) {
+            metrics.recordRounding();
+        } else {
+            metrics.recordRounding(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * <p>Performs the rounding of a given number in String format by the algorithm, and records it.</p>
+     *
+     * @return the rounded number
+     * @param number the number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if number is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     * @throws NumberFormatException if number is not a valid floating point number
+     * @throws RoundingException if any exception occurs when rounding.
+     */
+    public String round(String number, int accuracyDigit, int comparisonDigit) {
+        if (roundingAlgorithm != null) {
+            // check arguments
+            checkRoundingArguments(accuracyDigit, comparisonDigit);
+
+            FloatingNumber rounded = roundRecorded(new FloatingNumber(), number, accuracyDigit, comparisonDigit);
+            if (rounded != null) {
+                return rounded.toString();
+            }
+        }
+
+        long start = start();
+        try {
+            String result = algorithm.round(number, accuracyDigit, comparisonDigit);
+            recordRounding(start);
+            return result;
+        } catch (RoundingException e) {
+            metrics.recordRoundingException();
+            throw e;
+        } catch (IllegalArgumentException e) {
+            metrics.recordRejection();
+            throw e;
+        }
+    }
+
+    /**
+     * <p>Parses the given number into the given FloatingNumber and rounds it by the algorithm, and records it
+     * with its tie and decision.</p>
+     *
+     * @return the given FloatingNumber rounded, or null if the algorithm only rounds to string
+     * @param floatingNumber the FloatingNumber to parse the number into
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws NullPointerException if number is null
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    FloatingNumber roundNumber(FloatingNumber floatingNumber, CharSequence number, int accuracyDigit,
+            int comparisonDigit) {
+        if (roundingAlgorithm == null) {
+            return null;
+        }
+
+        long start = start();
+        FloatingNumber rounded;
+        try {
+            rounded = roundingAlgorithm.roundNumber(floatingNumber, number, accuracyDigit, comparisonDigit);
+        } catch (RoundingException e) {
+            metrics.recordRoundingException();
+            throw e;
+        } catch (IllegalArgumentException e) {
+            metrics.recordRejection();
+            throw e;
+        }
+        if (rounded == null) {
+            // the number is rounded and recorded by round(String, int, int)
+            return null;
+        }
+
+        recordRounding(start);
+        if (rounded.isTruncated()) {
+            metrics.recordTruncation(rounded.truncationCompare(accuracyDigit, comparisonDigit) == 0,
+                    rounded.isIncreased());
+        }
+        return rounded;
+    }
+
+    /**
+     * <p>Tells whether the algorithm rounds FloatingNumbers, which a non-RoundingAlgorithm never does.</p>
+     *
+     * @return true if the algorithm rounds FloatingNumbers, false if it only rounds to string
+     */
+    boolean roundsFloatingNumbers() {
+        return roundingAlgorithm != null && roundingAlgorithm.roundsFloatingNumbers();
+    }
+
+    /**
+     * <p>Rounds the number read by the given NumberReader by the algorithm and appends the result to the given
+     * Appendable, and records it.</p>
+     *
+     * @return the number of chars appended
+     * @param reader the NumberReader to read a number to round
+     * @param result the Appendable to append the result
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws IOException if the Reader or the Appendable throws it
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if the chars read are not a valid floating point number
+     */
+    int roundNumber(NumberReader reader, Appendable result, int accuracyDigit, int comparisonDigit)
+            throws IOException {
+        if (roundingAlgorithm == null) {
+            // the number is rounded and recorded by round(String, int, int)
+            return super.roundNumber(reader, result, accuracyDigit, comparisonDigit);
+        }
+
+        long start = start();
+        try {
+            int length = roundingAlgorithm.roundNumber(reader, result, accuracyDigit, comparisonDigit);
+            recordRounding(start);
+            return length;
+        } catch (RoundingException e) {
+            metrics.recordRoundingException();
+            throw e;
+        } catch (IllegalArgumentException e) {
+            metrics.recordRejection();
+            throw e;
+        }
+    }
+
+    /**
+     * <p>Rounds the given double to a string by the algorithm, and records it.</p>
+     *
+     * @return the rounded number
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws IllegalArgumentException if the number is not proper
+     * @throws RoundingException if any exceptions occur when rounding
+     */
+    String roundDoubleString(double number, int accuracyDigit, int comparisonDigit) {
+        if (roundingAlgorithm == null) {
+            // the number is rounded and recorded by round(long, int, int, int) or round(String, int, int)
+            return super.roundDoubleString(number, accuracyDigit, comparisonDigit);
+        }
+
+        long start = start();
+        try {
+            String result = roundingAlgorithm.roundDoubleString(number, accuracyDigit, comparisonDigit);
+            recordRounding(start);
+            return result;
+        } catch (RoundingException e) {
+            metrics.recordRoundingException();
+            throw e;
+        } catch (IllegalArgumentException e) {
+            metrics.recordRejection();
+            throw e;
+        }
+    }
+
+    /**
+     * <p>Rounds the given double by the algorithm, and records it.</p>
+     *
+     * @return the rounded number
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws IllegalArgumentException if the number is not proper
+     * @throws RoundingException if any exceptions occur when rounding and when exception occurs
+     * in converting the string to double.
+     */
+    double roundDoubleValue(double number, int accuracyDigit, int comparisonDigit) {
+        long start = start();
+        try {
+            double result = (roundingAlgorithm == null) ? algorithm.roundDouble(number, accuracyDigit, comparisonDigit)
+                    : roundingAlgorithm.roundDoubleValue(number, accuracyDigit, comparisonDigit);
+            recordRounding(start);
+            return result;
+        } catch (RoundingException e) {
+            metrics.recordRoundingException();
+            throw e;
+        } catch (IllegalArgumentException e) {
+            metrics.recordRejection();
+            throw e;
+        }
+    }
+
+    /**
+     * <p>Rounds the given BigDecimal by the algorithm, and records it.</p>
+     *
+     * @return the rounded number
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if any exceptions occur when rounding
+     */
+    BigDecimal roundDecimalValue(BigDecimal number, int accuracyDigit, int comparisonDigit) {
+        if (roundingAlgorithm == null) {
+            // the number is rounded and recorded by round(long, int, int, int) or round(String, int, int)
+            return super.roundDecimalValue(number, accuracyDigit, comparisonDigit);
+        }
+
+        long start = start();
+        try {
+            BigDecimal result = roundingAlgorithm.roundDecimalValue(number, accuracyDigit, comparisonDigit);
+            recordRounding(start);
+            return result;
+        } catch (RoundingException e) {
+            metrics.recordRoundingException();
+            throw e;
+        }
+    }
+
+    /**
+     * <p>Performs the rounding of a fixed-point number by the algorithm, and records it with its tie and
+     * decision.</p>
+     *
+     * @return the unscaled value of the rounded number
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number, non-negative
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if the result can not be held by a long.
+     */
+    long roundValue(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
+        long start = start();
+        long result;
+        try {
+            result = (roundingAlgorithm == null)
+                    ? algorithm.round(unscaledValue, scale, accuracyDigit, comparisonDigit)
+                    : roundingAlgorithm.roundValue(unscaledValue, scale, accuracyDigit, comparisonDigit);
+        } catch (RoundingException e) {
+            metrics.recordRoundingException();
+            throw e;
+        }
+
+        recordRounding(start);
+        if (roundingAlgorithm != null && FixedPoint.hasTruncation(unscaledValue, scale, accuracyDigit)) {
+            metrics.recordTruncation(
+                    FixedPoint.truncationCompare(unscaledValue, scale, accuracyDigit, comparisonDigit) == 0,
+                    result != FixedPoint.roundTowardsZero(unscaledValue, scale, accuracyDigit));
+        }
+        return result;
+    }
+
+    /**
+     * <p>Rounds the fixed-point numbers in the given range one by one, so that each of them is recorded.</p>
+     *
+     * @param unscaledValues the unscaled values of the numbers to round
+     * @param scale the number of digits after the decimal point of all the numbers, non-negative
+     * @param results the array to store the unscaled values of the rounded results
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if a result can not be held by a long.
+     */
+    void roundRange(long[] unscaledValues, int scale, long[] results, int from, int to, int accuracyDigit,
+            int comparisonDigit) {
+        for (int i = from; i < to; ++i) {
+            results[i] = roundValue(unscaledValues[i], scale, accuracyDigit, comparisonDigit);
+        }
+    }
+
+    /**
+     * <p>Returns whether the algorithm always gives the same result for the same number and digits.</p>
+     *
+     * @return whether the algorithm is deterministic
+     */
+    protected boolean isDeterministic() {
+        return roundingAlgorithm == null || roundingAlgorithm.isDeterministic();
+    }
+}
@@ -5,6 +5,9 @@
  */
 package com.topcoder.math.roundingfactory.algorithms;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+
 /**
  * <p>A concrete subclass of RoundingAlgorithm which performs the No Rounding algorithm:</p>
  * <p>Don't do any rounding, simple as that. The returned number will not contain sign "+",
@@ -22,7 +25,7 @@ package com.topcoder.math.roundingfactory.algorithms;
  *
  * @version 1.0
  */
-public class NoRounding extends RoundingAlgorithm {
+public class NoRounding extends FloatingRoundingAlgorithm {
 
     /**
      * <p>Constructs an instance of NoRounding with accuracyDigit equal to 2 and comparisonDigit equal to 5.</p>
@@ -67,22 +70,134 @@ public class NoRounding extends RoundingAlgorithm {
         // check arguments
         RoundingAlgorithm.checkRoundingArguments(accuracyDigit, comparisonDigit);
 
+        return roundRecorded(new FloatingNumber(), number, accuracyDigit, comparisonDigit).toString();
+    }
+
+    /**
+     * <p>Parses the given number into the given FloatingNumber and rounds it, the arguments have been checked.</p>
+     * <p>The same as round(String, int, int), without creating the resulting string.</p>
+     *
+     * @return the given FloatingNumber rounded
+     * @param floatingNumber the FloatingNumber to parse the number into
+     * @param number the number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws NullPointerException if number is null
+     * @throws NumberFormatException if number is not a valid floating point number
+     * @throws RoundingException if any exception occurs when rounding.
+     */
+    FloatingNumber roundNumber(FloatingNumber floatingNumber, CharSequence number, int accuracyDigit,
+            int comparisonDigit) {
+
         // Note: this class will never throw RoundingException
 
-        // exception will be thrown if the number is invalid
-        FloatingNumber floatingNumber = new FloatingNumber(number);
+        // exception will be thrown if the number is invalid, the number is kept unchanged,
+        // except that '+' is removed and 0 is always "0"
+        floatingNumber.parse(number);
+        return floatingNumber;
+    }
 
-        // if the number is 0, simply return "0"
-        if (floatingNumber.isZero()) {
-            return "0";
-        }
+    /**
+     * <p>Copies the number read from the given NumberReader to the given Appendable, the arguments have been
+     * checked.</p>
+     * <p>The same as round(String, int, int), all the digits are copied as they are read.</p>
+     *
+     * @return the number of chars appended
+     * @param reader the NumberReader to read the number
+     * @param result the Appendable to append the result
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws IOException if the Reader or the Appendable throws it
+     * @throws NumberFormatException if the chars read are not a valid floating point number
+     */
+    int roundNumber(NumberReader reader, Appendable result, int accuracyDigit, int comparisonDigit)
+            throws IOException {
+        return reader.copyUnchanged(result);
+    }
+
+    /**
+     * <p>Converts the double to a string without any rounding.</p>
+     * <p>The result is the shortest decimal which converts back to the double in normal notation,
+     * and "0" if the number equals 0.</p>
+     * <p>Example:</p>
+     * <p>round(123.456000) -> "123.456"</p>
+     * <p>round(1e10) -> "10000000000"</p>
+     * <p>round(1e23) -> "100000000000000000000000"</p>
+     *
+     * @return the number in normal notation
+     * @param number a number to round
+     * @throws IllegalArgumentException if the number is not proper
+     */
+    public String round(double number) {
+        return RoundingAlgorithm.doubleToString(number);
+    }
 
-        if (number.charAt(0) == '+') {
-            // remove the '+' if necessary
-            return number.substring(1);
-        } else {
-            return number;
+    /**
+     * <p>Converts the double to a string without any rounding, the same as round(double).</p>
+     *
+     * @return the number in normal notation
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws IllegalArgumentException if the number is not proper
+     */
+    String roundDoubleString(double number, int accuracyDigit, int comparisonDigit) {
+        return RoundingAlgorithm.doubleToString(number);
+    }
+
+    /**
+     * <p>Returns the BigDecimal without any rounding, keeping all its digits.</p>
+     * <p>This is used by roundDecimal(BigDecimal, int, int) after the accuracy and comparison digits are
+     * checked.</p>
+     * @return the given number
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     */
+    BigDecimal roundDecimalValue(BigDecimal number, int accuracyDigit, int comparisonDigit) {
+        return number;
+    }
+
+    /**
+     * <p>Returns the double without any rounding.</p>
+     * <p>This is used by roundDouble(double, int, int) and roundAll(double[], double[], int, int, int, int)
+     * after the accuracy and comparison digits are checked.</p>
+     *
+     * @return the given number, or 0 if it equals 0
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws IllegalArgumentException if the number is not proper
+     */
+    double roundDoubleValue(double number, int accuracyDigit, int comparisonDigit) {
+        if (Double.isNaN(number) || Double.isInfinite(number)) {
+            throw new IllegalArgumentException("number should not be NaN or infinite");
         }
 
+        // -0.0 is returned as 0, the same as round(double)
+        return (number == 0) ? 0 : number;
+    }
+
+    /**
+     * <p>Performs the rounding of a fixed-point number, the arguments have been checked.</p>
+     * <p>As indicated by the name, this does no rounding. The number is only rescaled to the desired
+     * accuracy, which must not drop any non-zero digit.</p>
+     * <p>Example:</p>
+     * <p>round(1050, 3, 2, x) -> 105</p>
+     * <p>round(105, 2, 3, x) -> 1050</p>
+     * <p>round(1051, 3, 2, x) -> RoundingException</p>
+     *
+     * @return the unscaled value of the rounded number
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number, non-negative
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if the result can not be held by a long, or the number has non-zero digits after the
+     * accuracy digit.
+     */
+    long roundValue(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
+
+        // the number is only rescaled, exception will be thrown if any digit would be dropped
+        return FixedPoint.roundUnnecessary(unscaledValue, scale, accuracyDigit);
     }
 }
@@ -0,0 +1,279 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * <p>A helper class which reads a number from a Reader in one pass, keeping only what the rounding needs.</p>
+ * <p>readTruncated(int) validates the whole number, but keeps only the sign, the significant integral digits,
+ * the fractional digits up to the first truncated one, and a single '1' standing for all the following digits
+ * if any of them is non-zero. Every algorithm rounds this truncated number the same as the whole one, since
+ * the truncation comparison only looks at the first truncated digit and whether any non-zero digit follows,
+ * and the carry only runs through the digits kept. So rounding a number of any length needs memory for its
+ * integral digits and the accuracy only.</p>
+ * <p>copyUnchanged(Appendable) copies the number as NoRounding gives it, holding only the count of the leading
+ * 0's until the first non-zero digit decides whether the result is "0".</p>
+ * <p>The chars are read by blocks of BUFFER_SIZE, so the Reader needs not be buffered.</p>
+ * <p>NOTE:This class does not support scientific notion.</p>
+ *
+ * <p>This class is not thread safe, since it holds the state of the reading.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+final class NumberReader {
+
+    /**
+     * The number of chars read from the Reader at once.
+     */
+    private static final int BUFFER_SIZE = 512;
+
+    /**
+     * Constant for the decimal symbols.
+     */
+    private static final String DECIMAL_SYMBOL = ".,";
+
+    /**
+     * The Reader to read the number.
+     */
+    private final Reader reader;
+
+    /**
+     * The block of chars read from the Reader.
+     */
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    /**
+     * The number of chars in the buffer.
+     */
+    private int count = 0;
+
+    /**
+     * The index of the next char in the buffer.
+     */
+    private int index = 0;
+
+    /**
+     * The position in the number of the char returned by the last call of next().
+     */
+    private long position = -1;
+
+    /**
+     * Constructs an instance reading the number from the given Reader.
+     *
+     * @param reader the Reader to read the number
+     */
+    NumberReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the whole number, validating it, and returns the truncated number which rounds the same at the given
+     * accuracy. See the class documentation for what is kept.
+     *
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @return the truncated number
+     * @throws NumberFormatException if the number is not a valid floating point number
+     * @throws IOException if the Reader throws it
+     */
+    CharSequence readTruncated(int accuracyDigit) throws IOException {
+        StringBuilder number = new StringBuilder();
+
+        // the optional sign
+        int ch = next();
+        if (ch == '-') {
+            number.append('-');
+            ch = next();
+        } else if (ch == '+') {
+            ch = next();
+        }
+
+        // the integral digits, without leading 0's unless all of them are 0's
+        boolean hasIntegralDigit = false;
+        for (; isDigit(ch); ch = next()) {
+            if (ch != '0' || number.length() > 0 && number.charAt(number.length() - 1) != '-') {
+                number.append((char) ch);
+            }
+            hasIntegralDigit = true;
+        }
+        if (hasIntegralDigit && (number.length() == 0 || number.charAt(number.length() - 1) == '-')) {
+            number.append('0');
+        }
+
+        // the fractional digits up to the first truncated one, and whether any following digit is non-zero
+        boolean hasFractionalDigit = false;
+        if (ch >= 0 && DECIMAL_SYMBOL.indexOf(ch) >= 0) {
+            number.append((char) ch);
+            int kept = 0;
+            boolean hasNonZeroDropped = false;
+            for (ch = next(); isDigit(ch); ch = next()) {
+                if (kept <= accuracyDigit) {
+                    number.append((char) ch);
+                    ++kept;
+                } else if (ch != '0') {
+                    hasNonZeroDropped = true;
+                }
+                hasFractionalDigit = true;
+            }
+            if (hasNonZeroDropped) {
+                number.append('1');
+            }
+        }
+
+        checkEnd(ch, hasIntegralDigit || hasFractionalDigit);
+        return number;
+    }
+
+    /**
+     * Reads the whole number and appends it unchanged, except that a leading '+' is removed and a zero is
+     * appended as "0". The chars are appended once the first non-zero digit is read, so part of the number
+     * may have been appended if it turns out to be invalid.
+     *
+     * @param out the Appendable to append the number
+     * @return the number of chars appended
+     * @throws NumberFormatException if the number is not a valid floating point number
+     * @throws IOException if the Reader or the Appendable throws it
+     */
+    int copyUnchanged(Appendable out) throws IOException {
+        boolean negative = false;
+        int ch = next();
+        if (ch == '-') {
+            negative = true;
+            ch = next();
+        } else if (ch == '+') {
+            ch = next();
+        }
+
+        // count the leading 0's, until a non-zero digit shows the number is not zero
+        long integralZeros = 0;
+        for (; ch == '0'; ch = next()) {
+            ++integralZeros;
+        }
+        int decimalSymbol = -1;
+        long fractionalZeros = 0;
+        if (!isDigit(ch) && ch >= 0 && DECIMAL_SYMBOL.indexOf(ch) >= 0) {
+            decimalSymbol = ch;
+            for (ch = next(); ch == '0'; ch = next()) {
+                ++fractionalZeros;
+            }
+        }
+
+        if (!isDigit(ch)) {
+            // no non-zero digit
+            checkEnd(ch, integralZeros > 0 || fractionalZeros > 0);
+            out.append('0');
+            return 1;
+        }
+
+        // append the held sign and 0's, then copy the rest
+        long length = 0;
+        if (negative) {
+            out.append('-');
+            ++length;
+        }
+        length += appendZeros(out, integralZeros);
+        if (decimalSymbol >= 0) {
+            out.append((char) decimalSymbol);
+            length += 1 + appendZeros(out, fractionalZeros);
+        }
+        for (; isDigit(ch); ch = next()) {
+            out.append((char) ch);
+            ++length;
+        }
+        if (decimalSymbol < 0 && ch >= 0 && DECIMAL_SYMBOL.indexOf(ch) >= 0) {
+            out.append((char) ch);
+            ++length;
+            for (ch = next(); isDigit(ch); ch = next()) {
+                out.append((char) ch);
+                ++length;
+            }
+        }
+
+        checkEnd(ch, true);
+        return (length > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) length;
+    }
+
+    /**
+     * Reads the whole Reader into a string.
+     *
+     * @return the chars read
+     * @throws IOException if the Reader throws it
+     */
+    String readAll() throws IOException {
+        StringBuilder string = new StringBuilder();
+        for (int n = reader.read(buffer); n >= 0; n = reader.read(buffer)) {
+            string.append(buffer, 0, n);
+        }
+        return string.toString();
+    }
+
+    /**
+     * Checks that the number ends at the given char and contains a digit.
+     *
+     * @param ch the char after the number, -1 at the end
+     * @param hasDigit whether the number contains a digit
+     * @throws NumberFormatException if ch is not the end, or there is no digit
+     */
+    private void checkEnd(int ch, boolean hasDigit) {
+        if (ch >= 0) {
+            throw new NumberFormatException("invalid character at position " + position + " of the number");
+        }
+        if (!hasDigit) {
+            throw new NumberFormatException("the number should contain one digit at least");
+        }
+    }
+
+    /**
+     * Appends the given number of 0's.
+     *
+     * @param out the Appendable to append
+     * @param zeros the number of 0's
+     * @return the number of 0's
+     * @throws IOException if the Appendable throws it
+     */
+    private static long appendZeros(Appendable out, long zeros) throws IOException {
+        for (long i = 0; i < zeros; ++i) {
+            out.append('0');
+        }
+        return zeros;
+    }
+
+    /**
+     * Returns whether the given char is a decimal digit.
+     *
+     * @param ch the char, -1 at the end
+     * @return whether the char is a digit
+     */
+    private static boolean isDigit(int ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    /**
+     * Reads the next char.
+     *
+     * @return the next char, or -1 at the end of the number
+     * @throws IOException if the Reader throws it
+     */
+    private int next() throws IOException {
+        if (index == count) {
+            if (count < 0) {
+                return -1;
+            }
+            count = reader.read(buffer);
+            index = 0;
+            if (count <= 0) {
+                // a Reader returns 0 only for an empty buffer, so it is the end
+                count = -1;
+                return -1;
+            }
+        }
+        ++position;
+        return buffer[index++];
+    }
+}
@@ -0,0 +1,441 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>Rounds large arrays of numbers in parallel with a RoundingAlgorithm, by the threads of a ForkJoinPool.</p>
+ *
+ * <p>The range to round is cut into chunks of threshold numbers, the last chunk holding the rest. The chunks
+ * are split in halves by fork/join tasks, and each chunk is rounded by the roundAll methods of the algorithm,
+ * so the bulk fast paths of the algorithms are kept.</p>
+ *
+ * <p>The chunks only depend on the range and the threshold, never on the number of threads. A deterministic
+ * algorithm rounds every chunk itself, so the results are the same as the ones of its roundAll methods.
+ * AlternateRounding gives each chunk its own alternation starting with round up, and RandomRounding gives
+ * each chunk a generator split from its own in the order of the chunks, so the result of each chunk is the
+ * same whichever thread rounds it, and a seeded RandomRounding replays the same choices on any number of
+ * cores. Any other algorithm which is not deterministic, such as one wrapped by a CachingAlgorithm or a
+ * MeteredAlgorithm, rounds the whole range in the calling thread.</p>
+ *
+ * <p>If the rounding of a chunk throws an exception, it is thrown by the roundAll method once the tasks
+ * running have ended. The other chunks may have been rounded or not.</p>
+ *
+ * <p>This class is thread safe, as long as the algorithm is.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+public final class ParallelRounding {
+
+    /**
+     * <p>The default number of numbers of a chunk. It is large enough for the rounding of a chunk to outweigh
+     * the forking of its task many times over, and small enough for an array of a million numbers to be
+     * shared by dozens of threads.</p>
+     */
+    public static final int DEFAULT_THRESHOLD = 8192;
+
+    /**
+     * <p>The algorithm to round with.</p>
+     */
+    private final RoundingAlgorithm algorithm;
+
+    /**
+     * <p>The number of numbers of a chunk, positive.</p>
+     */
+    private final int threshold;
+
+    /**
+     * <p>The pool running the tasks.</p>
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * <p>Constructs an instance rounding with the given algorithm by the common pool, in chunks of
+     * DEFAULT_THRESHOLD numbers.</p>
+     *
+     * @param algorithm the algorithm to round with
+     * @throws NullPointerException if algorithm is null
+     */
+    public ParallelRounding(RoundingAlgorithm algorithm) {
+        this(algorithm, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * <p>Constructs an instance rounding with the given algorithm by the common pool, in chunks of the given
+     * number of numbers.</p>
+     *
+     * @param algorithm the algorithm to round with
+     * @param threshold the number of numbers of a chunk
+     * @throws NullPointerException if algorithm is null
+     * @throws IllegalArgumentException if threshold is not positive
+     */
+    public ParallelRounding(RoundingAlgorithm algorithm, int threshold) {
+        this(algorithm, threshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * <p>Constructs an instance rounding with the given algorithm by the given pool, in chunks of the given
+     * number of numbers.</p>
+     *
+     * @param algorithm the algorithm to round with
+     * @param threshold the number of numbers of a chunk
+     * @param pool the pool running the tasks
+     * @throws NullPointerException if algorithm or pool is null
+     * @throws IllegalArgumentException if threshold is not positive
+     */
+    public ParallelRounding(RoundingAlgorithm algorithm, int threshold, ForkJoinPool pool) {
+        if (algorithm == null) {
+            throw new NullPointerException("algorithm should not be null");
+        }
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold(" + threshold + ") should be positive");
+        }
+        if (pool == null) {
+            throw new NullPointerException("pool should not be null");
+        }
+
+        this.algorithm = algorithm;
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    /**
+     * <p>Returns the algorithm to round with.</p>
+     *
+     * @return the algorithm
+     */
+    public RoundingAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * <p>Returns the number of numbers of a chunk.</p>
+     *
+     * @return the threshold
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * <p>Returns the pool running the tasks.</p>
+     *
+     * @return the pool
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * <p>Rounds the numbers from index from (inclusive) to index to (exclusive) in parallel using the default
+     * accuracy and comparison digits of the algorithm. The result of numbers[i] is stored to results[i].</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results, it may be numbers itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @throws NullPointerException if numbers or results is null, or any number to round is null
+     * @throws IllegalArgumentException if from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * numbers or results
+     * @throws RoundingException if any exceptions occur when rounding.
+     * @throws NumberFormatException if any number to round is not a valid floating point number
+     */
+    public void roundAll(String[] numbers, String[] results, int from, int to) {
+        roundAll(numbers, results, from, to, algorithm.getAccuracyDigit(), algorithm.getComparisonDigit());
+    }
+
+    /**
+     * <p>Rounds the numbers from index from (inclusive) to index to (exclusive) in parallel using the given
+     * accuracy and comparison digits. The result of numbers[i] is stored to results[i].</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results, it may be numbers itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if numbers or results is null, or any number to round is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative, or from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * numbers or results
+     * @throws RoundingException if any exceptions occur when rounding.
+     * @throws NumberFormatException if any number to round is not a valid floating point number
+     */
+    public void roundAll(final String[] numbers, final String[] results, int from, int to,
+            final int accuracyDigit, final int comparisonDigit) {
+        // check arguments
+        RoundingAlgorithm.checkRoundingArguments(accuracyDigit, comparisonDigit);
+        if (numbers == null) {
+            throw new NullPointerException("numbers should not be null");
+        }
+        if (results == null) {
+            throw new NullPointerException("results should not be null");
+        }
+        RoundingAlgorithm.checkRange(numbers.length, results.length, from, to);
+
+        round(new Chunks(from, to) {
+            void roundChunk(RoundingAlgorithm chunkAlgorithm, int chunkFrom, int chunkTo) {
+                chunkAlgorithm.roundAll(numbers, results, chunkFrom, chunkTo, accuracyDigit, comparisonDigit);
+            }
+        });
+    }
+
+    /**
+     * <p>Rounds the doubles from index from (inclusive) to index to (exclusive) in parallel using the default
+     * accuracy and comparison digits of the algorithm. The result of numbers[i] is stored to results[i].</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results, it may be numbers itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @throws NullPointerException if numbers or results is null
+     * @throws IllegalArgumentException if any number to round is not proper, or from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * numbers or results
+     * @throws RoundingException if any exceptions occur when rounding.
+     */
+    public void roundAll(double[] numbers, double[] results, int from, int to) {
+        roundAll(numbers, results, from, to, algorithm.getAccuracyDigit(), algorithm.getComparisonDigit());
+    }
+
+    /**
+     * <p>Rounds the doubles from index from (inclusive) to index to (exclusive) in parallel using the given
+     * accuracy and comparison digits. The result of numbers[i] is stored to results[i].</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results, it may be numbers itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if numbers or results is null
+     * @throws IllegalArgumentException if any number to round is not proper or comparisonDigit is less than 1
+     * or greater than 9 or the accuracyDigit is negative, or from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * numbers or results
+     * @throws RoundingException if any exceptions occur when rounding.
+     */
+    public void roundAll(final double[] numbers, final double[] results, int from, int to,
+            final int accuracyDigit, final int comparisonDigit) {
+        // check arguments
+        RoundingAlgorithm.checkRoundingArguments(accuracyDigit, comparisonDigit);
+        if (numbers == null) {
+            throw new NullPointerException("numbers should not be null");
+        }
+        if (results == null) {
+            throw new NullPointerException("results should not be null");
+        }
+        RoundingAlgorithm.checkRange(numbers.length, results.length, from, to);
+
+        round(new Chunks(from, to) {
+            void roundChunk(RoundingAlgorithm chunkAlgorithm, int chunkFrom, int chunkTo) {
+                chunkAlgorithm.roundAll(numbers, results, chunkFrom, chunkTo, accuracyDigit, comparisonDigit);
+            }
+        });
+    }
+
+    /**
+     * <p>Rounds the fixed-point numbers from index from (inclusive) to index to (exclusive) in parallel using
+     * the default accuracy and comparison digits of the algorithm. The unscaled value of the result of
+     * unscaledValues[i] is stored to results[i].</p>
+     *
+     * @param unscaledValues the unscaled values of the numbers to round
+     * @param scale the number of digits after the decimal point of all the numbers
+     * @param results the array to store the unscaled values of the rounded results, it may be unscaledValues
+     * itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @throws NullPointerException if unscaledValues or results is null
+     * @throws IllegalArgumentException if the scale is negative, or from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * unscaledValues or results
+     * @throws RoundingException if any exceptions occur while rounding, or a result can not be held by a long.
+     */
+    public void roundAll(long[] unscaledValues, int scale, long[] results, int from, int to) {
+        roundAll(unscaledValues, scale, results, from, to, algorithm.getAccuracyDigit(),
+                algorithm.getComparisonDigit());
+    }
+
+    /**
+     * <p>Rounds the fixed-point numbers from index from (inclusive) to index to (exclusive) in parallel using
+     * the given accuracy and comparison digits. The unscaled value of the result of unscaledValues[i] is
+     * stored to results[i].</p>
+     *
+     * @param unscaledValues the unscaled values of the numbers to round
+     * @param scale the number of digits after the decimal point of all the numbers
+     * @param results the array to store the unscaled values of the rounded results, it may be unscaledValues
+     * itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if unscaledValues or results is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit or the scale is negative, or from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * unscaledValues or results
+     * @throws RoundingException if any exceptions occur while rounding, or a result can not be held by a long.
+     */
+    public void roundAll(final long[] unscaledValues, final int scale, final long[] results, int from, int to,
+            final int accuracyDigit, final int comparisonDigit) {
+        // check arguments
+        RoundingAlgorithm.checkRoundingArguments(accuracyDigit, comparisonDigit);
+        FixedPoint.checkScale(scale);
+        if (unscaledValues == null) {
+            throw new NullPointerException("unscaledValues should not be null");
+        }
+        if (results == null) {
+            throw new NullPointerException("results should not be null");
+        }
+        RoundingAlgorithm.checkRange(unscaledValues.length, results.length, from, to);
+
+        round(new Chunks(from, to) {
+            void roundChunk(RoundingAlgorithm chunkAlgorithm, int chunkFrom, int chunkTo) {
+                chunkAlgorithm.roundRange(unscaledValues, scale, results, chunkFrom, chunkTo, accuracyDigit,
+                        comparisonDigit);
+            }
+        });
+    }
+
+    /**
+     * <p>Rounds the given chunks, the arguments have been checked.</p>
+     * <p>The chunks are always rounded by the algorithms split for them, so a range is rounded the same
+     * whether it has one chunk or more. A single chunk is rounded in the calling thread, without any task.
+     * Otherwise the chunks are rounded by a task invoked in the pool, unless the algorithm can not round them
+     * independently.</p>
+     *
+     * @param chunks the chunks to round
+     */
+    private void round(Chunks chunks) {
+        int chunkCount = (int) ((chunks.to - chunks.from + (long) threshold - 1) / threshold);
+        if (chunkCount == 0) {
+            return;
+        }
+
+        RoundingAlgorithm[] chunkAlgorithms = algorithm.splitChunks(chunkCount);
+        if (chunkAlgorithms == null) {
+            // the chunks depend on each other, round them in order
+            chunks.roundChunk(algorithm, chunks.from, chunks.to);
+            return;
+        }
+        if (chunkCount == 1) {
+            chunks.roundChunk(chunkAlgorithms[0], chunks.from, chunks.to);
+            return;
+        }
+
+        chunks.chunkAlgorithms = chunkAlgorithms;
+        pool.invoke(new ChunkTask(chunks, 0, chunkCount));
+    }
+
+    /**
+     * <p>The chunks of a range to round. The subclasses round a chunk of their own kind of arrays.</p>
+     */
+    private abstract class Chunks {
+
+        /**
+         * <p>The index of the first number to round.</p>
+         */
+        final int from;
+
+        /**
+         * <p>The index after the last number to round.</p>
+         */
+        final int to;
+
+        /**
+         * <p>The algorithms rounding the chunks, set before the tasks are started.</p>
+         */
+        RoundingAlgorithm[] chunkAlgorithms;
+
+        /**
+         * <p>Constructs the chunks of the given range.</p>
+         *
+         * @param from the index of the first number to round
+         * @param to the index after the last number to round
+         */
+        Chunks(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * <p>Rounds the given chunk of numbers.</p>
+         *
+         * @param chunkAlgorithm the algorithm rounding the chunk
+         * @param chunkFrom the index of the first number of the chunk
+         * @param chunkTo the index after the last number of the chunk
+         */
+        abstract void roundChunk(RoundingAlgorithm chunkAlgorithm, int chunkFrom, int chunkTo);
+
+        /**
+         * <p>Rounds the chunk of the given index.</p>
+         *
+         * @param chunk the index of the chunk
+         */
+        void roundChunk(int chunk) {
+            int chunkFrom = from + chunk * threshold;
+            roundChunk(chunkAlgorithms[chunk], chunkFrom, (int) Math.min((long) chunkFrom + threshold, to));
+        }
+    }
+
+    /**
+     * <p>The task rounding a range of chunks, which is split in halves until a single chunk is left.</p>
+     */
+    private static final class ChunkTask extends RecursiveAction {
+
+        /**
+         * <p>The serial version UID of the task.</p>
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * <p>The chunks to round.</p>
+         */
+        private final Chunks chunks;
+
+        /**
+         * <p>The index of the first chunk of the task.</p>
+         */
+        private final int firstChunk;
+
+        /**
+         * <p>The index after the last chunk of the task.</p>
+         */
+        private final int lastChunk;
+
+        /**
+         * <p>Constructs a task rounding the given range of chunks.</p>
+         *
+         * @param chunks the chunks to round
+         * @param firstChunk the index of the first chunk of the task
+         * @param lastChunk the index after the last chunk of the task
+         */
+        ChunkTask(Chunks chunks, int firstChunk, int lastChunk) {
+            this.chunks = chunks;
+            this.firstChunk = firstChunk;
+            this.lastChunk = lastChunk;
+        }
+
+        /**
+         * <p>Rounds the chunks of this task.</p>
+         */
+        protected void compute() {
+            if (lastChunk - firstChunk == 1) {
+                chunks.roundChunk(firstChunk);
+                return;
+            }
+
+            int middle = (firstChunk + lastChunk) >>> 1;
+            invokeAll(new ChunkTask(chunks, firstChunk, middle), new ChunkTask(chunks, middle, lastChunk));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>The flight recorder event of parsing a number by FloatingNumber. A number which is not valid is recorded
+ * too, before the NumberFormatException is thrown.</p>
+ *
+ * <p>The event is disabled by default, like RoundingEvent. It is usually enabled with a threshold, since every
+ * rounded number is parsed.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+@Name("com.topcoder.math.roundingfactory.Parse")
+@Label("Number Parse")
+@Category({"TopCoder", "Rounding Factory"})
+@Description("A number parsed before it is rounded")
+@Enabled(false)
+@StackTrace(false)
+final class ParseEvent extends jdk.jfr.Event {
+
+    /**
+     * <p>The number of chars of the number parsed.</p>
+     */
+    @Label("Input Length")
+    int inputLength;
+
+    /**
+     * <p>Whether the number is a valid floating point number.</p>
+     */
+    @Label("Valid")
+    boolean valid;
+}
@@ -5,7 +5,10 @@
  */
 package com.topcoder.math.roundingfactory.algorithms;
 
+import java.math.BigInteger;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * <p>A concrete subclass of RoundingAlgorithm which performs the Random rounding algorithm:</p>
@@ -17,6 +20,12 @@ import java.util.Random;
  * <p>round(1.25, 1, 5) -> 1.2 or 1.3</p>
  * <p>round(1.249, 1, 5) -> 1.2</p>
  *
+ * <p>By default each thread draws from its ThreadLocalRandom, so ties never contend, but the choices can not
+ * be replayed. A seed can be given instead, so that the choices can be replayed as long as the ties are
+ * rounded in the same order, and the generator is a SplittableRandom. For reproducible parallel runs, give a
+ * seed and create one split() instance for each task, in a fixed order. A java.util.Random shared by all the
+ * threads can be given or created as well, but the threads contend on its seed.</p>
+ *
  * <p>This class is thread safe.</p>
  *
  * @author qiucx0161
@@ -24,22 +33,31 @@ import java.util.Random;
  *
  * @version 1.0
  */
-public class RandomRounding extends RoundingAlgorithm {
+public class RandomRounding extends FloatingRoundingAlgorithm {
+
+    /**
+     * A Random instance used to choose whether to round up or down, shared by all the threads.
+     * java.util.Random is thread safe itself. It is null unless a shared Random is given or created.
+     */
+    private final Random random;
 
     /**
-     * A Random instance used to choose whether to round up or down.
+     * The seeded generator used to choose whether to round up or down. SplittableRandom is not thread safe,
+     * so it is synchronized on. It is null unless a seed is given or this instance is split().
      */
-    private Random random = new Random();
+    private final SplittableRandom seededRandom;
 
     /**
-     * <p>Constructs an instance of RandomRounding with accuracyDigit equal to 2 and comparisonDigit equal to 5.</p>
+     * <p>Constructs an instance of RandomRounding with accuracyDigit equal to 2 and comparisonDigit equal to 5,
+     * which draws from the ThreadLocalRandom of each thread.</p>
      */
     public RandomRounding() {
-        // empty 
+        this(true);
     }
 
     /**
-     * <p>Constructs an instance of RandomRounding with accuracyDigit and comparisonDigit as specified.</p>
+     * <p>Constructs an instance of RandomRounding with accuracyDigit and comparisonDigit as specified, which
+     * draws from the ThreadLocalRandom of each thread.</p>
      *
      * @param accuracyDigit the desired accuracy
      * @param comparisonDigit the comparison digit
@@ -47,7 +65,194 @@ public class RandomRounding extends RoundingAlgorithm {
      * the accuracyDigit is negative.
      */
     public RandomRounding(int accuracyDigit, int comparisonDigit) {
+        this(accuracyDigit, comparisonDigit, true);
+    }
+
+    /**
+     * <p>Constructs an instance of RandomRounding with accuracyDigit equal to 2 and comparisonDigit equal to 5,
+     * which draws from a generator of each thread or a generator shared by all the threads.</p>
+     *
+     * @param perThread true if each thread should draw from its ThreadLocalRandom, false if a new Random
+     * should be shared by all the threads
+     */
+    public RandomRounding(boolean perThread) {
+        random = perThread ? null : new Random();
+        seededRandom = null;
+    }
+
+    /**
+     * <p>Constructs an instance of RandomRounding with accuracyDigit and comparisonDigit as specified,
+     * which draws from a generator of each thread or a generator shared by all the threads.</p>
+     *
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @param perThread true if each thread should draw from its ThreadLocalRandom, false if a new Random
+     * should be shared by all the threads
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     */
+    public RandomRounding(int accuracyDigit, int comparisonDigit, boolean perThread) {
         super(accuracyDigit, comparisonDigit);
+
+        random = perThread ? null : new Random();
+        seededRandom = null;
+    }
+
+    /**
+     * <p>Constructs an instance of RandomRounding with accuracyDigit equal to 2 and comparisonDigit equal to 5,
+     * which draws from the given generator.</p>
+     * <p>The generator is shared by all the threads. Given a seeded generator, the choices can be replayed
+     * as long as the ties are rounded in the same order.</p>
+     *
+     * @param random the generator used to choose whether to round up or down
+     * @throws NullPointerException if random is null
+     */
+    public RandomRounding(Random random) {
+        if (random == null) {
+            throw new NullPointerException("random should not be null");
+        }
+
+        this.random = random;
+        this.seededRandom = null;
+    }
+
+    /**
+     * <p>Constructs an instance of RandomRounding with accuracyDigit and comparisonDigit as specified,
+     * which draws from the given generator.</p>
+     * <p>The generator is shared by all the threads. Given a seeded generator, the choices can be replayed
+     * as long as the ties are rounded in the same order.</p>
+     *
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @param random the generator used to choose whether to round up or down
+     * @throws NullPointerException if random is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     */
+    public RandomRounding(int accuracyDigit, int comparisonDigit, Random random) {
+        super(accuracyDigit, comparisonDigit);
+
+        if (random == null) {
+            throw new NullPointerException("random should not be null");
+        }
+
+        this.random = random;
+        this.seededRandom = null;
+    }
+
+    /**
+     * <p>Constructs an instance of RandomRounding with accuracyDigit equal to 2 and comparisonDigit equal to 5,
+     * which draws from a SplittableRandom with the given seed.</p>
+     * <p>The choices can be replayed with the same seed as long as the ties are rounded in the same order.</p>
+     *
+     * @param seed the seed of the generator used to choose whether to round up or down
+     */
+    public RandomRounding(long seed) {
+        this.random = null;
+        this.seededRandom = new SplittableRandom(seed);
+    }
+
+    /**
+     * <p>Constructs an instance of RandomRounding with accuracyDigit and comparisonDigit as specified,
+     * which draws from a SplittableRandom with the given seed.</p>
+     * <p>The choices can be replayed with the same seed as long as the ties are rounded in the same order.</p>
+     *
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @param seed the seed of the generator used to choose whether to round up or down
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     */
+    public RandomRounding(int accuracyDigit, int comparisonDigit, long seed) {
+        this(accuracyDigit, comparisonDigit, new SplittableRandom(seed));
+    }
+
+    /**
+     * <p>Constructs an instance of RandomRounding with accuracyDigit and comparisonDigit as specified,
+     * which draws from the given SplittableRandom. It is used by split().</p>
+     *
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @param seededRandom the generator used to choose whether to round up or down
+     */
+    private RandomRounding(int accuracyDigit, int comparisonDigit, SplittableRandom seededRandom) {
+        super(accuracyDigit, comparisonDigit);
+
+        this.random = null;
+        this.seededRandom = seededRandom;
+    }
+
+    /**
+     * <p>Returns whether each thread draws from its own generator.</p>
+     *
+     * @return true if each thread draws from its ThreadLocalRandom, false if the generator is shared by all
+     * the threads
+     */
+    public boolean isPerThread() {
+        return random == null && seededRandom == null;
+    }
+
+    /**
+     * <p>Returns false, since the result of a tie is chosen randomly.</p>
+     *
+     * @return false
+     */
+    protected boolean isDeterministic() {
+        return false;
+    }
+
+    /**
+     * <p>Creates a new instance with the same accuracy and comparison digits, and a new SplittableRandom split
+     * from the seeded generator of this instance, or else seeded from its generator (of the current thread in
+     * per-thread mode).</p>
+     * <p>If this instance draws from a seeded generator, the instances split from it in the same order
+     * always make the same choices, whichever threads use them. So a parallel run can be replayed by
+     * splitting one instance for each task before the tasks are started.</p>
+     *
+     * @return a new RandomRounding with an independent generator
+     */
+    public RandomRounding split() {
+        SplittableRandom generator;
+        if (seededRandom != null) {
+            synchronized (seededRandom) {
+                generator = seededRandom.split();
+            }
+        } else {
+            generator = new SplittableRandom((random != null) ? random.nextLong()
+                    : ThreadLocalRandom.current().nextLong());
+        }
+        return new RandomRounding(getAccuracyDigit(), getComparisonDigit(), generator);
+    }
+
+    /**
+     * <p>Returns an instance split() from this one for each chunk of a parallel bulk rounding, in the order
+     * of the chunks. Given a seeded generator, the choices of each chunk can be replayed, whichever threads
+     * round the chunks.</p>
+     *
+     * @return the algorithms of the chunks
+     * @param chunkCount the number of chunks, positive
+     */
+    RoundingAlgorithm[] splitChunks(int chunkCount) {
+        RoundingAlgorithm[] chunkAlgorithms = new RoundingAlgorithm[chunkCount];
+        for (int i = 0; i < chunkCount; ++i) {
+            chunkAlgorithms[i] = split();
+        }
+        return chunkAlgorithms;
+    }
+
+    /**
+     * <p>Chooses whether to round a tie away from 0, drawing from the generator of this instance, or from the
+     * ThreadLocalRandom of the current thread in per-thread mode.</p>
+     *
+     * @return 1 to round away from 0, 0 to round towards 0
+     */
+    private int nextChoice() {
+        if (seededRandom != null) {
+            synchronized (seededRandom) {
+                return seededRandom.nextInt(2);
+            }
+        }
+        return (random != null) ? random.nextInt(2) : ThreadLocalRandom.current().nextInt(2);
     }
 
     /**
@@ -70,21 +275,36 @@ public class RandomRounding extends RoundingAlgorithm {
      * @throws RoundingException if any exception occurs when rounding.
      */
     public String round(String number, int accuracyDigit, int comparisonDigit) {
-
         // check arguments
         RoundingAlgorithm.checkRoundingArguments(accuracyDigit, comparisonDigit);
 
+        return roundRecorded(new FloatingNumber(), number, accuracyDigit, comparisonDigit).toString();
+    }
+
+    /**
+     * <p>Parses the given number into the given FloatingNumber and rounds it, the arguments have been checked.</p>
+     * <p>The same as round(String, int, int), without creating the resulting string.</p>
+     *
+     * @return the given FloatingNumber rounded
+     * @param floatingNumber the FloatingNumber to parse the number into
+     * @param number the number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws NullPointerException if number is null
+     * @throws NumberFormatException if number is not a valid floating point number
+     * @throws RoundingException if any exception occurs when rounding.
+     */
+    FloatingNumber roundNumber(FloatingNumber floatingNumber, CharSequence number, int accuracyDigit,
+            int comparisonDigit) {
 
         // exception will be thrown if the number is invalid
-        FloatingNumber floatingNumber = new FloatingNumber(number);
+        floatingNumber.parse(number);
 
         try {
             int comparisonResult = floatingNumber.truncationCompare(accuracyDigit, comparisonDigit);
             if (comparisonResult == 0) {
-                synchronized (random) {
-                    // if comparisonDigit equals to truncation digits, round randomly
-                    comparisonResult = random.nextInt(2);
-                }
+                // if comparisonDigit equals to truncation digits, round randomly
+                comparisonResult = nextChoice();
             }
 
             if (comparisonResult == 1) {
@@ -98,4 +318,63 @@ public class RandomRounding extends RoundingAlgorithm {
             throw new RoundingException("exception occurs when rounding", e);
         }
     }
+
+    /**
+     * <p>Performs the rounding of a fixed-point number, the arguments have been checked.</p>
+     * <p>The same as round(String, int, int), using integer arithmetic only.</p>
+     * <p>Example:</p>
+     * <p>round(1251, 3, 1, 5) -> 13</p>
+     * <p>round(125, 2, 1, 5) -> 12 or 13</p>
+     *
+     * @return the unscaled value of the rounded number
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number, non-negative
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if the result can not be held by a long.
+     */
+    long roundValue(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
+
+        int comparisonResult = FixedPoint.truncationCompare(unscaledValue, scale, accuracyDigit, comparisonDigit);
+        if (comparisonResult == 0) {
+            // if comparisonDigit equals to truncation digits, round randomly
+            comparisonResult = nextChoice();
+        }
+
+        if (comparisonResult == 1) {
+            // if comparisonDigit is less than truncation digits, round away from 0
+            return FixedPoint.roundAwayFromZero(unscaledValue, scale, accuracyDigit);
+        } else {
+            // if comparisonDigit is greater than truncation digits, round towards 0
+            return FixedPoint.roundTowardsZero(unscaledValue, scale, accuracyDigit);
+        }
+    }
+
+    /**
+     * <p>Performs the rounding of a fixed-point number whose unscaled value may not fit in a long, the
+     * arguments have been checked.</p>
+     * <p>The same as roundValue(long, int, int, int): the quotient is rounded to the nearest, and a remainder
+     * equal to the comparison digit followed by 0's rounds it away from or towards 0 randomly.</p>
+     *
+     * @return the unscaled value of the rounded number
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number, non-negative
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     */
+    BigInteger roundValue(BigInteger unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
+
+        BigInteger[] quotientAndRemainder = FixedPoint.divideAndRemainder(unscaledValue, scale, accuracyDigit);
+        BigInteger quotient = quotientAndRemainder[0];
+        BigInteger remainder = quotientAndRemainder[1];
+
+        int comparisonResult = FixedPoint.compareRemainder(remainder, scale - accuracyDigit, comparisonDigit);
+        if (comparisonResult == 0) {
+            // if comparisonDigit equals to truncation digits, round randomly
+            comparisonResult = nextChoice();
+        }
+
+        // round away from 0 if comparisonDigit is less than truncation digits, otherwise round towards 0
+        return (comparisonResult == 1) ? FixedPoint.awayFromZero(quotient, remainder) : quotient;
+    }
 }
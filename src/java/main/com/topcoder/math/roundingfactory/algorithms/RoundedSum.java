@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.function.DoubleConsumer;
+
+/**
+ * <p>The exact sum of numbers rounded by a RoundingSpec, created by RoundingSpec.newSum(). Each number is
+ * rounded and its rounded value is added, so the sum is the same as the one of the rounded results of the
+ * spec added one by one with BigDecimal.</p>
+ *
+ * <p>The rounded values are added as unscaled values at the accuracy digit of the spec to a long, so the
+ * doubles which the spec rounds without any string are summed without creating any object. A rounded value
+ * which can not be held that way, or which would overflow the long, is added to a BigDecimal instead.</p>
+ *
+ * <p>It is a DoubleConsumer, and sums can be combined, so it can collect a parallel DoubleStream:</p>
+ * <pre>
+ * RoundedSum sum = doubles.parallel().collect(spec::newSum, RoundedSum::accept, RoundedSum::combine);
+ * </pre>
+ * <p>RoundingSpec.summing() gives the Collector of the same sum for a Stream of CharSequences and Numbers.</p>
+ *
+ * <p>This class is not thread safe, like the sums of java.util.stream: each thread of a parallel stream adds
+ * to its own sum, and the sums are combined afterwards.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+public final class RoundedSum implements DoubleConsumer {
+
+    /**
+     * <p>The spec rounding the numbers.</p>
+     */
+    private final RoundingSpec spec;
+
+    /**
+     * <p>The number of numbers added.</p>
+     */
+    private long count;
+
+    /**
+     * <p>The sum of the unscaled values at the accuracy digit of the spec, of the rounded values added to the
+     * long.</p>
+     */
+    private long unscaledSum;
+
+    /**
+     * <p>The sum of the other rounded values, or null if there is none.</p>
+     */
+    private BigDecimal overflow;
+
+    /**
+     * <p>Constructs an empty sum.</p>
+     *
+     * @param spec the spec rounding the numbers
+     */
+    RoundedSum(RoundingSpec spec) {
+        this.spec = spec;
+    }
+
+    /**
+     * <p>Gets the spec rounding the numbers.</p>
+     *
+     * @return the spec
+     */
+    public RoundingSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * <p>Rounds the given double and adds the rounded value.</p>
+     *
+     * @param number the double to round and add
+     * @throws IllegalArgumentException if the number is not proper
+     * @throws RoundingException if exceptions occur when rounding.
+     */
+    public void accept(double number) {
+        double rounded = spec.roundDouble(number);
+        ++count;
+
+        int scale = FixedPoint.scaleOf(rounded);
+        if (scale >= 0 && scale <= spec.getAccuracyDigit()) {
+            long unscaledValue = FixedPoint.unscaledValueOf(rounded, scale);
+            if (unscaledValue == 0) {
+                return;
+            }
+            if (FixedPoint.canRescale(unscaledValue, scale, spec.getAccuracyDigit())) {
+                add(unscaledValue * FixedPoint.powerOfTen(spec.getAccuracyDigit() - scale));
+                return;
+            }
+        }
+
+        add(new BigDecimal(RoundingAlgorithm.doubleToString(rounded)));
+    }
+
+    /**
+     * <p>Rounds the given number and adds the rounded value.</p>
+     *
+     * @param number the number to round and add
+     * @throws NullPointerException if number is null
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    public void accept(CharSequence number) {
+        BigDecimal rounded = new BigDecimal(spec.round(number));
+        ++count;
+
+        addRounded(rounded);
+    }
+
+    /**
+     * <p>Rounds the given BigDecimal and adds the rounded value.</p>
+     *
+     * @param number the BigDecimal to round and add
+     * @throws NullPointerException if number is null
+     * @throws RoundingException if exceptions occur when rounding.
+     */
+    public void accept(BigDecimal number) {
+        BigDecimal rounded = spec.roundDecimal(number);
+        ++count;
+
+        addRounded(rounded);
+    }
+
+    /**
+     * <p>Adds the numbers of the given sum to this sum. The given sum is not changed.</p>
+     *
+     * @param other the sum to add
+     * @throws NullPointerException if other is null
+     * @throws IllegalArgumentException if the other sum is rounded with different digits
+     */
+    public void combine(RoundedSum other) {
+        if (other == null) {
+            throw new NullPointerException("other should not be null");
+        }
+        if (other.spec.getAccuracyDigit() != spec.getAccuracyDigit()) {
+            throw new IllegalArgumentException("the sums should be rounded at the same accuracy digit");
+        }
+
+        count += other.count;
+        add(other.unscaledSum);
+        if (other.overflow != null) {
+            add(other.overflow);
+        }
+    }
+
+    /**
+     * <p>Gets the number of numbers added.</p>
+     *
+     * @return the number of numbers
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * <p>Gets the exact sum of the rounded values, whose scale is the accuracy digit of the spec.</p>
+     *
+     * @return the sum
+     */
+    public BigDecimal getSum() {
+        BigDecimal sum = BigDecimal.valueOf(unscaledSum, spec.getAccuracyDigit());
+        return (overflow == null) ? sum : sum.add(overflow);
+    }
+
+    /**
+     * <p>Gets the sum of the rounded values as a double, the nearest double to getSum().</p>
+     *
+     * @return the sum as a double
+     */
+    public double getDoubleSum() {
+        if (overflow == null) {
+            return FixedPoint.toDouble(unscaledSum, spec.getAccuracyDigit());
+        }
+        return getSum().doubleValue();
+    }
+
+    /**
+     * <p>Returns the sum in plain notation.</p>
+     *
+     * @return the sum as a string
+     */
+    public String toString() {
+        return getSum().toPlainString();
+    }
+
+    /**
+     * <p>Adds the given rounded value, to the long sum if its unscaled value at the accuracy digit can be held
+     * by a long.</p>
+     *
+     * @param rounded the rounded value to add
+     */
+    private void addRounded(BigDecimal rounded) {
+        if (rounded.scale() <= spec.getAccuracyDigit()) {
+            BigInteger unscaledValue = rounded.setScale(spec.getAccuracyDigit()).unscaledValue();
+            if (unscaledValue.bitLength() < Long.SIZE) {
+                add(unscaledValue.longValue());
+                return;
+            }
+        }
+
+        add(rounded);
+    }
+
+    /**
+     * <p>Adds the given unscaled value at the accuracy digit, moving the long sum to the BigDecimal if it
+     * would overflow.</p>
+     *
+     * @param unscaledValue the unscaled value to add
+     */
+    private void add(long unscaledValue) {
+        long sum = unscaledSum + unscaledValue;
+        // the sum overflows if both values have the same sign and the sum has the other sign
+        if (((unscaledSum ^ sum) & (unscaledValue ^ sum)) < 0) {
+            add(BigDecimal.valueOf(unscaledSum, spec.getAccuracyDigit()));
+            sum = unscaledValue;
+        }
+        unscaledSum = sum;
+    }
+
+    /**
+     * <p>Adds the given value to the BigDecimal sum.</p>
+     *
+     * @param value the value to add
+     */
+    private void add(BigDecimal value) {
+        overflow = (overflow == null) ? value : overflow.add(value);
+    }
+}
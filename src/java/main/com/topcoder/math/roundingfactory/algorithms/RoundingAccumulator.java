@@ -0,0 +1,377 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * <p>Sums raw fixed-point numbers exactly, together with the sums of the same numbers rounded by several
+ * RoundingSpecs, so that the bias of each rounding over a large batch can be measured in one pass.</p>
+ *
+ * <p>The numbers are fixed-point numbers of the scale of the accumulator, or doubles which are exactly such
+ * numbers. For each spec, the residue of a number is its rounded value minus the number itself. The
+ * accumulator keeps the sum of the numbers and the sum of the residues of each spec, and the sum of the
+ * rounded values of a spec is the sum of the numbers plus its residue. A residue is at most one unit of the
+ * accuracy digit, so the mean residue shows the bias of the rounding: about 0 for SymmetricRounding of
+ * random numbers, and about half a unit for UpAsymmetricRounding.</p>
+ *
+ * <p>The sums are 128-bit integers held by two longs each, the carry of the low long going into the high
+ * long, so they never overflow before 2^64 numbers have been added. Adding a number creates no object, the
+ * BigDecimals are only created by the getters.</p>
+ *
+ * <p>This class is not thread safe. Each thread can sum its own numbers, and the accumulators can be
+ * combined afterwards.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+public final class RoundingAccumulator {
+
+    /**
+     * <p>The specs rounding the numbers.</p>
+     */
+    private final RoundingSpec[] specs;
+
+    /**
+     * <p>The number of digits after the decimal point of the numbers.</p>
+     */
+    private final int scale;
+
+    /**
+     * <p>The power of ten of each spec, which is a unit of its accuracy digit at the scale.</p>
+     */
+    private final long[] units;
+
+    /**
+     * <p>The 128-bit sums, the high long followed by the low long: the sum of the numbers first, then the sum
+     * of the residues of each spec.</p>
+     */
+    private final long[] sums;
+
+    /**
+     * <p>The residues of the number being added by each spec, kept so that adding a number creates no
+     * array.</p>
+     */
+    private final long[] residues;
+
+    /**
+     * <p>The number of numbers added.</p>
+     */
+    private long count;
+
+    /**
+     * <p>Constructs an empty accumulator of fixed-point numbers of the given scale, rounded by the given
+     * specs.</p>
+     *
+     * @param scale the number of digits after the decimal point of the numbers
+     * @param specs the specs rounding the numbers
+     * @throws NullPointerException if specs is null or contains null
+     * @throws IllegalArgumentException if scale is negative, specs is empty, or the accuracy digit of any spec
+     * is greater than scale or less than scale by more than 18
+     */
+    public RoundingAccumulator(int scale, RoundingSpec[] specs) {
+        FixedPoint.checkScale(scale);
+        if (specs == null) {
+            throw new NullPointerException("specs should not be null");
+        }
+        if (specs.length == 0) {
+            throw new IllegalArgumentException("specs should not be empty");
+        }
+
+        this.scale = scale;
+        this.specs = specs.clone();
+        this.units = new long[specs.length];
+        for (int i = 0; i < specs.length; ++i) {
+            if (this.specs[i] == null) {
+                throw new NullPointerException("specs should not contain null");
+            }
+
+            int digits = scale - this.specs[i].getAccuracyDigit();
+            if (digits < 0 || digits > 18) {
+                throw new IllegalArgumentException("the accuracy digit of specs[" + i + "] should be between "
+                        + Math.max(scale - 18, 0) + " and the scale " + scale);
+            }
+            units[i] = FixedPoint.powerOfTen(digits);
+        }
+        this.sums = new long[2 * (specs.length + 1)];
+        this.residues = new long[specs.length];
+    }
+
+    /**
+     * <p>Gets the number of digits after the decimal point of the numbers.</p>
+     *
+     * @return the scale
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * <p>Gets the number of specs rounding the numbers.</p>
+     *
+     * @return the number of specs
+     */
+    public int getSpecCount() {
+        return specs.length;
+    }
+
+    /**
+     * <p>Gets the spec of the given index.</p>
+     *
+     * @return the spec
+     * @param index the index of the spec, in the order given to the constructor
+     * @throws ArrayIndexOutOfBoundsException if index is out of range
+     */
+    public RoundingSpec getSpec(int index) {
+        return specs[index];
+    }
+
+    /**
+     * <p>Adds the fixed-point number of the given unscaled value at the scale of the accumulator, and the
+     * residues of its rounding by each spec.</p>
+     *
+     * @param unscaledValue the unscaled value of the number
+     * @throws RoundingException if exceptions occur when rounding, such as by NoRounding if the number has
+     * more digits than its accuracy digit. The number is not added then.
+     */
+    public void add(long unscaledValue) {
+        // round by all the specs first, so that a failure leaves the sums unchanged
+        for (int i = 0; i < specs.length; ++i) {
+            long rounded = specs[i].round(unscaledValue, scale);
+
+            // the rounded value differs from the truncated one by one unit at most, so the residue is
+            // computed without rescaling the rounded value to the scale, which could overflow
+            long truncated = unscaledValue / units[i];
+            residues[i] = (rounded - truncated) * units[i] - (unscaledValue - truncated * units[i]);
+        }
+
+        ++count;
+        add(0, unscaledValue);
+        for (int i = 0; i < specs.length; ++i) {
+            add(i + 1, residues[i]);
+        }
+    }
+
+    /**
+     * <p>Adds the given double, which should be a fixed-point number of the scale of the accumulator: its
+     * shortest decimal should have no more digits after the decimal point than the scale.</p>
+     *
+     * @param number the number to add
+     * @throws IllegalArgumentException if the number is not proper, or is not a fixed-point number of the scale
+     * whose unscaled value can be held by a long
+     * @throws RoundingException if exceptions occur when rounding. The number is not added then.
+     */
+    public void add(double number) {
+        int numberScale = FixedPoint.scaleOf(number);
+        if (numberScale >= 0 && numberScale <= scale) {
+            long unscaledValue = FixedPoint.unscaledValueOf(number, numberScale);
+            if (unscaledValue == 0) {
+                add(0L);
+                return;
+            }
+            if (FixedPoint.canRescale(unscaledValue, numberScale, scale)) {
+                add(unscaledValue * FixedPoint.powerOfTen(scale - numberScale));
+                return;
+            }
+        }
+
+        if (Double.isNaN(number) || Double.isInfinite(number)) {
+            throw new IllegalArgumentException("number should not be NaN or infinite");
+        }
+        throw new IllegalArgumentException("number(" + number + ") is not a fixed-point number of scale " + scale);
+    }
+
+    /**
+     * <p>Adds the fixed-point numbers of the given unscaled values from index from (inclusive) to index to
+     * (exclusive).</p>
+     *
+     * @param unscaledValues the unscaled values of the numbers
+     * @param from the index of the first number to add
+     * @param to the index after the last number to add
+     * @throws NullPointerException if unscaledValues is null
+     * @throws IllegalArgumentException if from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * unscaledValues
+     * @throws RoundingException if exceptions occur when rounding. The numbers before the failed one have been
+     * added then.
+     */
+    public void addAll(long[] unscaledValues, int from, int to) {
+        if (unscaledValues == null) {
+            throw new NullPointerException("unscaledValues should not be null");
+        }
+        RoundingAlgorithm.checkRange(unscaledValues.length, unscaledValues.length, from, to);
+
+        for (int i = from; i < to; ++i) {
+            add(unscaledValues[i]);
+        }
+    }
+
+    /**
+     * <p>Adds the doubles from index from (inclusive) to index to (exclusive), which should be fixed-point
+     * numbers of the scale of the accumulator.</p>
+     *
+     * @param numbers the numbers to add
+     * @param from the index of the first number to add
+     * @param to the index after the last number to add
+     * @throws NullPointerException if numbers is null
+     * @throws IllegalArgumentException if any number is not proper or is not a fixed-point number of the scale,
+     * or from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of numbers
+     * @throws RoundingException if exceptions occur when rounding. The numbers before the failed one have been
+     * added then.
+     */
+    public void addAll(double[] numbers, int from, int to) {
+        if (numbers == null) {
+            throw new NullPointerException("numbers should not be null");
+        }
+        RoundingAlgorithm.checkRange(numbers.length, numbers.length, from, to);
+
+        for (int i = from; i < to; ++i) {
+            add(numbers[i]);
+        }
+    }
+
+    /**
+     * <p>Adds the sums of the given accumulator to this one. The given accumulator is not changed.</p>
+     *
+     * @param other the accumulator to add
+     * @throws NullPointerException if other is null
+     * @throws IllegalArgumentException if the other accumulator has another scale or other accuracy digits
+     */
+    public void combine(RoundingAccumulator other) {
+        if (other == null) {
+            throw new NullPointerException("other should not be null");
+        }
+        if (other.scale != scale || !Arrays.equals(other.units, units)) {
+            throw new IllegalArgumentException("the accumulators should have the same scale and accuracy digits");
+        }
+
+        count += other.count;
+        for (int i = 0; i <= specs.length; ++i) {
+            add(i, other.sums[2 * i], other.sums[2 * i + 1]);
+        }
+    }
+
+    /**
+     * <p>Gets the number of numbers added.</p>
+     *
+     * @return the number of numbers
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * <p>Gets the exact sum of the numbers added.</p>
+     *
+     * @return the sum of the numbers, of the scale of the accumulator
+     */
+    public BigDecimal getSum() {
+        return new BigDecimal(toBigInteger(0), scale);
+    }
+
+    /**
+     * <p>Gets the exact sum of the numbers rounded by the spec of the given index.</p>
+     *
+     * @return the sum of the rounded values, of the scale of the accumulator
+     * @param index the index of the spec
+     * @throws ArrayIndexOutOfBoundsException if index is out of range
+     */
+    public BigDecimal getRoundedSum(int index) {
+        checkIndex(index);
+
+        return new BigDecimal(toBigInteger(0).add(toBigInteger(index + 1)), scale);
+    }
+
+    /**
+     * <p>Gets the sum of the residues of the spec of the given index, which is the sum of the rounded values
+     * minus the sum of the numbers.</p>
+     *
+     * @return the sum of the residues, of the scale of the accumulator
+     * @param index the index of the spec
+     * @throws ArrayIndexOutOfBoundsException if index is out of range
+     */
+    public BigDecimal getResidue(int index) {
+        checkIndex(index);
+
+        return new BigDecimal(toBigInteger(index + 1), scale);
+    }
+
+    /**
+     * <p>Gets the mean residue of the spec of the given index, in units of its accuracy digit. It is between
+     * -1 and 1, and 0 if no number has been added.</p>
+     *
+     * @return the mean residue in units of the accuracy digit
+     * @param index the index of the spec
+     * @throws ArrayIndexOutOfBoundsException if index is out of range
+     */
+    public double getMeanResidue(int index) {
+        checkIndex(index);
+        if (count == 0) {
+            return 0;
+        }
+
+        return toBigInteger(index + 1).doubleValue() / units[index] / count;
+    }
+
+    /**
+     * <p>Adds the given value to the 128-bit sum of the given index. The value is extended to 128 bits by
+     * its sign.</p>
+     *
+     * @param index the index of the sum
+     * @param value the value to add
+     */
+    private void add(int index, long value) {
+        add(index, value >> 63, value);
+    }
+
+    /**
+     * <p>Adds the given 128-bit value to the 128-bit sum of the given index.</p>
+     * <p>The low long of the sum wraps around below the low long added if it carries, as unsigned, and
+     * the carry goes to the high long.</p>
+     *
+     * @param index the index of the sum
+     * @param high the high long of the value to add
+     * @param low the low long of the value to add, as unsigned
+     */
+    private void add(int index, long high, long low) {
+        long sum = sums[2 * index + 1] + low;
+
+        sums[2 * index] += high + ((Long.compareUnsigned(sum, low) < 0) ? 1 : 0);
+        sums[2 * index + 1] = sum;
+    }
+
+    /**
+     * <p>Converts the 128-bit sum of the given index to a BigInteger.</p>
+     *
+     * @param index the index of the sum
+     * @return the sum as a BigInteger
+     */
+    private BigInteger toBigInteger(int index) {
+        long low = sums[2 * index + 1];
+        BigInteger unsignedLow = BigInteger.valueOf(low & Long.MAX_VALUE);
+        if (low < 0) {
+            unsignedLow = unsignedLow.setBit(63);
+        }
+
+        return BigInteger.valueOf(sums[2 * index]).shiftLeft(64).add(unsignedLow);
+    }
+
+    /**
+     * <p>Checks whether the given index of a spec is in range.</p>
+     *
+     * @param index the index of the spec
+     * @throws ArrayIndexOutOfBoundsException if index is out of range
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= specs.length) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+}
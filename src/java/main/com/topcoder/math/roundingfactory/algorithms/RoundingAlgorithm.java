@@ -6,7 +6,15 @@
 package com.topcoder.math.roundingfactory.algorithms;
 
 
-import java.text.NumberFormat;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
 
 
 /**
@@ -35,6 +43,29 @@ public abstract class RoundingAlgorithm implements Algorithm {
      */
     private int comparisonDigit = 5;
 
+    /**
+     * <p>The FloatingNumber of each thread, which is reused to write the results to char arrays and Appendables
+     * without creating any object. It is null while in use.</p>
+     */
+    private static final ThreadLocal<FloatingNumber> FLOATING_NUMBERS = new ThreadLocal<FloatingNumber>();
+
+    /**
+     * <p>The number of significant digits which always convert back to the same double.</p>
+     */
+    private static final int MAX_DOUBLE_DIGITS = 17;
+
+    /**
+     * <p>The initial length of the char buffer the results of a range of strings are written through, which
+     * holds most results. It is enlarged for longer ones.</p>
+     */
+    private static final int RANGE_BUFFER_LENGTH = 32;
+
+    /**
+     * <p>Whether the jdk.jfr module is present. Without it, RoundingEvent and ParseEvent can not be loaded,
+     * so they are never created and the numbers are rounded without recording.</p>
+     */
+    static final boolean FLIGHT_RECORDER = isFlightRecorderPresent();
+
     /**
      * <p>The protected constructor to prevent this class be instantiated.</p>
      * <p>This constructor is empty.</p>
@@ -54,6 +85,9 @@ public abstract class RoundingAlgorithm implements Algorithm {
      * if the accuracyDigit is negative.
      */
     protected RoundingAlgorithm(int accuracyDigit, int comparisonDigit) {
+        // check arguments
+        checkRoundingArguments(accuracyDigit, comparisonDigit);
+
         this.accuracyDigit = accuracyDigit;
         this.comparisonDigit = comparisonDigit;
     }
@@ -88,8 +122,105 @@ public abstract class RoundingAlgorithm implements Algorithm {
      */
     public abstract String round(String number, int accuracyDigit, int comparisonDigit);
 
+    /**
+     * <p>Rounds the given number based on the default accuracy and comparison digits.</p>
+     *
+     * @return the rounded result
+     * @param number a number to round
+     * @throws NullPointerException if number is null
+     * @throws RoundingException if any exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    public String round(CharSequence number) {
+        return round(number, this.accuracyDigit, this.comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given number using the given accuracy and comparison digits, overriding the defaults.</p>
+     * <p>The result is the same as the one of round(String, int, int). A string is rounded by it, the concrete
+     * algorithms parse any other CharSequence where it is, so only the result string is created. The number
+     * should not be modified while it is rounded.</p>
+     *
+     * @return the rounded result
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if number is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    public String round(CharSequence number, int accuracyDigit, int comparisonDigit) {
+        if (number instanceof String) {
+            return round((String) number, accuracyDigit, comparisonDigit);
+        }
+
+        // check arguments
+        checkRoundingArguments(accuracyDigit, comparisonDigit);
+        checkNumber(number);
+
+        return roundSequence(number, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given number, the arguments have been checked.</p>
+     * <p>The same as round(CharSequence, int, int), shared by it and RoundingSpec.</p>
+     *
+     * @return the rounded result
+     * @param number a number to round, not null
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    String roundSequence(CharSequence number, int accuracyDigit, int comparisonDigit) {
+        FloatingNumber floatingNumber = takeFloatingNumber();
+        try {
+            FloatingNumber rounded = roundRecorded(floatingNumber, number, accuracyDigit, comparisonDigit);
+            if (rounded == null) {
+                // the algorithm only rounds to string
+                return round(number.toString(), accuracyDigit, comparisonDigit);
+            }
+
+            return rounded.toString();
+        } finally {
+            releaseFloatingNumber(floatingNumber);
+        }
+    }
+
+    /**
+     * <p>Rounds the number held by the given range of a char array using the given accuracy and comparison
+     * digits, overriding the defaults.</p>
+     * <p>The result is the same as the one of round(String, int, int) with the string of the range. The range
+     * is viewed as a CharSequence and rounded by round(CharSequence, int, int), so the chars are not copied.</p>
+     *
+     * @return the rounded result
+     * @param number the char array holding a number to round
+     * @param offset the offset of the first char of the number
+     * @param length the number of chars of the number
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if number is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     * @throws ArrayIndexOutOfBoundsException if offset or length is negative, or the range is out of number.
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if the chars are not a valid floating point number
+     */
+    public String round(char[] number, int offset, int length, int accuracyDigit, int comparisonDigit) {
+        // check arguments
+        checkNumber(number);
+        checkSlice(number.length, offset, length);
+
+        return round(new CharArraySequence(number, offset, length), accuracyDigit, comparisonDigit);
+    }
+
     /**
      * <p>Convenience method that rounds doubles using the default accuracy and comparison digit.</p>
+     * <p>The double is taken as the shortest decimal which converts back to it, see doubleToString(double).
+     * If the decimal fits in a long it is rounded by round(long, int, int, int), otherwise the decimal is
+     * expanded to a string and rounded by round(String, int, int).</p>
      * <p>Note: Because scientific notion is not supported, a very long string
      * maybe return if the exponent is large.</p>
      * @return the rounded number
@@ -98,12 +229,41 @@ public abstract class RoundingAlgorithm implements Algorithm {
      * @throws RoundingException if any exceptions occur when rounding
      */
     public String round(double number) {
-        return roundDouble(number, this.accuracyDigit, this.comparisonDigit);
+        return roundDoubleString(number, this.accuracyDigit, this.comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given double to a string, the accuracy and comparison digits have been checked.</p>
+     * <p>The same as round(double) with the given digits. NoRounding overrides it to keep all the digits.</p>
+     *
+     * @return the rounded number
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws IllegalArgumentException if the number is not proper
+     * @throws RoundingException if any exceptions occur when rounding
+     */
+    String roundDoubleString(double number, int accuracyDigit, int comparisonDigit) {
+        int scale = FixedPoint.scaleOf(number);
+        if (scale >= 0) {
+            long unscaledValue = FixedPoint.unscaledValueOf(number, scale);
+            if (FixedPoint.canRescale(unscaledValue, scale, accuracyDigit)) {
+                long result = roundValue(unscaledValue, scale, accuracyDigit, comparisonDigit);
+
+                // the same as the string rounding, 0 is always returned as "0"
+                return (result == 0) ? "0" : FixedPoint.toString(result, accuracyDigit);
+            }
+        }
+
+        return round(doubleToString(number), accuracyDigit, comparisonDigit);
     }
 
     /**
      * <p>Convenience method that round doubles using the given accuracy and comparison digits,
      * overriding the defaults.</p>
+     * <p>The double is taken as the shortest decimal which converts back to it, see doubleToString(double).
+     * If the decimal fits in a long it is rounded by round(long, int, int, int), otherwise the decimal is
+     * expanded to a string and rounded by round(String, int, int).</p>
      *
      * @return the rounded number
      * @param number a number to round
@@ -118,19 +278,1043 @@ public abstract class RoundingAlgorithm implements Algorithm {
         // check arguments
         checkRoundingArguments(accuracyDigit, comparisonDigit);
 
-        return 0.0;
+        return roundDoubleValue(number, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given double without checking the accuracy and comparison digits, which is shared by
+     * roundDouble(double, int, int) and roundRange(double[], double[], int, int, int, int).</p>
+     *
+     * @return the rounded number
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws IllegalArgumentException if the number is not proper
+     * @throws RoundingException if any exceptions occur when rounding and when exception occurs
+     * in converting the string to double.
+     */
+    double roundDoubleValue(double number, int accuracyDigit, int comparisonDigit) {
+        int scale = FixedPoint.scaleOf(number);
+        if (scale >= 0) {
+            long unscaledValue = FixedPoint.unscaledValueOf(number, scale);
+            if (FixedPoint.canRescale(unscaledValue, scale, accuracyDigit)) {
+                return FixedPoint.toDouble(roundValue(unscaledValue, scale, accuracyDigit, comparisonDigit),
+                        accuracyDigit);
+            }
+        }
+
+        String result = round(doubleToString(number), accuracyDigit, comparisonDigit);
+        try {
+            return Double.parseDouble(result);
+        } catch (NumberFormatException e) {
+            throw new RoundingException("fail to convert the rounded number " + result + " to double", e);
+        }
+    }
+
+    /**
+     * <p>Rounds the given BigDecimal using the default accuracy and comparison digits.</p>
+     *
+     * @return the rounded number, with accuracyDigit digits after the decimal point
+     * @param number a number to round
+     * @throws NullPointerException if number is null
+     * @throws RoundingException if any exceptions occur while rounding.
+     */
+    public BigDecimal roundDecimal(BigDecimal number) {
+        return roundDecimal(number, this.accuracyDigit, this.comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given BigDecimal using the given accuracy and comparison digits, overriding the
+     * defaults.</p>
+     * <p>If the unscaled value of the number fits in a long, it is rounded by round(long, int, int, int)
+     * with the scale of the number, otherwise it is rounded as a BigInteger with the same integer
+     * arithmetic.</p>
+     *
+     * @return the rounded number, with accuracyDigit digits after the decimal point
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if number is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     * @throws RoundingException if any exceptions occur while rounding.
+     */
+    public BigDecimal roundDecimal(BigDecimal number, int accuracyDigit, int comparisonDigit) {
+        // check arguments
+        checkNumber(number);
+        checkRoundingArguments(accuracyDigit, comparisonDigit);
+
+        return roundDecimalValue(number, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given BigDecimal, the arguments have been checked.</p>
+     * <p>A number of negative scale is taken at scale 0. NoRounding overrides it to return the number
+     * unchanged.</p>
+     *
+     * @return the rounded number, with accuracyDigit digits after the decimal point
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if any exceptions occur while rounding.
+     */
+    BigDecimal roundDecimalValue(BigDecimal number, int accuracyDigit, int comparisonDigit) {
+        if (number.scale() < 0) {
+            number = number.setScale(0);
+        }
+
+        BigInteger unscaledValue = number.unscaledValue();
+        if (unscaledValue.bitLength() <= 63) {
+            long value = unscaledValue.longValue();
+            if (FixedPoint.canRescale(value, number.scale(), accuracyDigit)) {
+                return BigDecimal.valueOf(roundValue(value, number.scale(), accuracyDigit, comparisonDigit),
+                        accuracyDigit);
+            }
+        }
+
+        return new BigDecimal(roundValue(unscaledValue, number.scale(), accuracyDigit, comparisonDigit),
+                accuracyDigit);
+    }
+
+    /**
+     * <p>Rounds the given fixed-point number whose unscaled value may not fit in a long, the arguments have
+     * been checked.</p>
+     * <p>This implementation converts the number to a string and rounds it with round(String, int, int).
+     * The concrete algorithms override it with one BigInteger division and remainder.</p>
+     *
+     * @return the unscaled value of the rounded result
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number, non-negative
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if exceptions occur when rounding.
+     */
+    BigInteger roundValue(BigInteger unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
+        String number = new BigDecimal(unscaledValue, scale).toPlainString();
+        return toDecimal(round(number, accuracyDigit, comparisonDigit), accuracyDigit).unscaledValue();
+    }
+
+    /**
+     * <p>Rounds the given fixed-point number using the default accuracy and comparison digits.</p>
+     *
+     * @return the unscaled value of the rounded result
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number
+     * @throws IllegalArgumentException if the scale is negative.
+     * @throws RoundingException if any exceptions occur while rounding, or the result can not be held by a long.
+     */
+    public long round(long unscaledValue, int scale) {
+        return round(unscaledValue, scale, this.accuracyDigit, this.comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given fixed-point number using the given accuracy and comparison digits, overriding the
+     * defaults.</p>
+     * <p>The arguments are checked once here, then the number is rounded by roundValue, which the concrete
+     * algorithms implement with integer arithmetic.</p>
+     *
+     * @return the unscaled value of the rounded result
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit or the scale is negative.
+     * @throws RoundingException if exceptions occur when rounding, or the result can not be held by a long.
+     */
+    public long round(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
+        // check arguments
+        checkRoundingArguments(accuracyDigit, comparisonDigit);
+        FixedPoint.checkScale(scale);
+
+        return roundValue(unscaledValue, scale, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given fixed-point number, the arguments have been checked.</p>
+     * <p>This implementation converts the number to a string and rounds it with round(String, int, int).
+     * The concrete algorithms override it with integer arithmetic.</p>
+     *
+     * @return the unscaled value of the rounded result
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number, non-negative
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if exceptions occur when rounding, or the result can not be held by a long.
+     */
+    long roundValue(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
+        return toUnscaledValue(round(FixedPoint.toString(unscaledValue, scale), accuracyDigit, comparisonDigit),
+                accuracyDigit);
+    }
+
+    /**
+     * <p>Converts the given result of round(String, int, int) to a BigDecimal with accuracyDigit digits after
+     * the decimal point.</p>
+     *
+     * @return the rounded number as a BigDecimal
+     * @param result the rounded number as a string
+     * @param accuracyDigit the accuracy the number has been rounded to, non-negative
+     * @throws RoundingException if the rounded number has more than accuracyDigit digits after the decimal point
+     */
+    static BigDecimal toDecimal(String result, int accuracyDigit) {
+        try {
+            return new BigDecimal(result.replace(',', '.')).setScale(accuracyDigit);
+        } catch (ArithmeticException e) {
+            throw new RoundingException("the rounded number has more than " + accuracyDigit + " fractional digits", e);
+        }
+    }
+
+    /**
+     * <p>Converts the given result of round(String, int, int) to the unscaled value of a fixed-point number
+     * with accuracyDigit digits after the decimal point.</p>
+     *
+     * @return the unscaled value of the rounded number
+     * @param result the rounded number as a string
+     * @param accuracyDigit the accuracy the number has been rounded to, non-negative
+     * @throws RoundingException if the rounded number has more than accuracyDigit digits after the decimal point,
+     * or can not be held by a long.
+     */
+    static long toUnscaledValue(String result, int accuracyDigit) {
+        BigDecimal rounded = toDecimal(result, accuracyDigit);
+        if (rounded.unscaledValue().bitLength() > 63) {
+            throw new RoundingException("the rounded number can not be held by a long");
+        }
+        return rounded.unscaledValue().longValue();
+    }
+
+    /**
+     * <p>Rounds the given number using the default accuracy and comparison digits, and writes the result to the
+     * given char array at the given offset.</p>
+     *
+     * @return the number of chars written
+     * @param number a number to round
+     * @param result the char array to write the result
+     * @param offset the offset in result of the first char to write
+     * @throws NullPointerException if number or result is null
+     * @throws ArrayIndexOutOfBoundsException if offset is negative, or the result does not fit in result
+     * after offset.
+     * @throws RoundingException if any exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    public int round(CharSequence number, char[] result, int offset) {
+        return round(number, result, offset, this.accuracyDigit, this.comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given number using the given accuracy and comparison digits, overriding the defaults,
+     * and writes the result to the given char array at the given offset.</p>
+     * <p>The result is the same as the one of round(String, int, int). The concrete algorithms write it
+     * without creating any string. The length of the result is checked first, so nothing is written
+     * if there is no room for it.</p>
+     *
+     * @return the number of chars written
+     * @param number a number to round
+     * @param result the char array to write the result
+     * @param offset the offset in result of the first char to write
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if number or result is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     * @throws ArrayIndexOutOfBoundsException if offset is negative, or the result does not fit in result
+     * after offset.
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    public int round(CharSequence number, char[] result, int offset, int accuracyDigit, int comparisonDigit) {
+        // check arguments
+        checkRoundingArguments(accuracyDigit, comparisonDigit);
+        checkNumber(number);
+        if (result == null) {
+            throw new NullPointerException("result should not be null");
+        }
+        if (offset < 0 || offset > result.length) {
+            throw new ArrayIndexOutOfBoundsException(offset);
+        }
+
+        FloatingNumber floatingNumber = takeFloatingNumber();
+        try {
+            FloatingNumber rounded = roundRecorded(floatingNumber, number, accuracyDigit, comparisonDigit);
+            if (rounded == null) {
+                // the algorithm only rounds to string
+                String string = round(number.toString(), accuracyDigit, comparisonDigit);
+                checkRoom(result.length, offset, string.length());
+                string.getChars(0, string.length(), result, offset);
+                return string.length();
+            }
+
+            checkRoom(result.length, offset, rounded.getLength());
+            return rounded.getChars(result, offset);
+        } finally {
+            releaseFloatingNumber(floatingNumber);
+        }
+    }
+
+    /**
+     * <p>Rounds the given number using the default accuracy and comparison digits, and appends the result to
+     * the given StringBuilder.</p>
+     *
+     * @return the number of chars appended
+     * @param number a number to round
+     * @param result the StringBuilder to append the result
+     * @throws NullPointerException if number or result is null
+     * @throws RoundingException if any exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    public int round(CharSequence number, StringBuilder result) {
+        return round(number, result, this.accuracyDigit, this.comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given number using the given accuracy and comparison digits, overriding the defaults,
+     * and appends the result to the given StringBuilder.</p>
+     * <p>The result is the same as the one of round(String, int, int). The concrete algorithms append it
+     * without creating any string, the StringBuilder only grows if its capacity is exceeded.</p>
+     *
+     * @return the number of chars appended
+     * @param number a number to round
+     * @param result the StringBuilder to append the result
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if number or result is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    public int round(CharSequence number, StringBuilder result, int accuracyDigit, int comparisonDigit) {
+        try {
+            return round(number, (Appendable) result, accuracyDigit, comparisonDigit);
+        } catch (IOException e) {
+            // never happens, StringBuilder does not throw IOException
+            throw new RoundingException("exception occurs when appending the result", e);
+        }
+    }
+
+    /**
+     * <p>Rounds the given number using the default accuracy and comparison digits, and appends the result to
+     * the given Appendable.</p>
+     *
+     * @return the number of chars appended
+     * @param number a number to round
+     * @param result the Appendable to append the result
+     * @throws NullPointerException if number or result is null
+     * @throws IOException if the Appendable throws it
+     * @throws RoundingException if any exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    public int round(CharSequence number, Appendable result) throws IOException {
+        return round(number, result, this.accuracyDigit, this.comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given number using the given accuracy and comparison digits, overriding the defaults,
+     * and appends the result to the given Appendable.</p>
+     * <p>The result is the same as the one of round(String, int, int). The concrete algorithms append it
+     * without creating any string. If the Appendable throws IOException, part of the result may have been
+     * appended.</p>
+     *
+     * @return the number of chars appended
+     * @param number a number to round
+     * @param result the Appendable to append the result
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if number or result is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     * @throws IOException if the Appendable throws it
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    public int round(CharSequence number, Appendable result, int accuracyDigit, int comparisonDigit)
+            throws IOException {
+        // check arguments
+        checkRoundingArguments(accuracyDigit, comparisonDigit);
+        checkNumber(number);
+        if (result == null) {
+            throw new NullPointerException("result should not be null");
+        }
+
+        return appendSequence(number, result, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given number and appends the result to the given Appendable, the arguments have been
+     * checked.</p>
+     * <p>The same as round(CharSequence, Appendable, int, int), shared by it and RoundingSpec.</p>
+     *
+     * @return the number of chars appended
+     * @param number a number to round, not null
+     * @param result the Appendable to append the result, not null
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws IOException if the Appendable throws it
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    int appendSequence(CharSequence number, Appendable result, int accuracyDigit, int comparisonDigit)
+            throws IOException {
+        FloatingNumber floatingNumber = takeFloatingNumber();
+        try {
+            FloatingNumber rounded = roundRecorded(floatingNumber, number, accuracyDigit, comparisonDigit);
+            if (rounded == null) {
+                // the algorithm only rounds to string
+                String string = round(number.toString(), accuracyDigit, comparisonDigit);
+                result.append(string);
+                return string.length();
+            }
+
+            rounded.appendTo(result);
+            return rounded.getLength();
+        } finally {
+            releaseFloatingNumber(floatingNumber);
+        }
+    }
+
+    /**
+     * <p>Rounds the number held by the given range of a byte array as ASCII text using the default accuracy
+     * and comparison digits, and writes the result as ASCII text to the given byte array at the given
+     * offset.</p>
+     *
+     * @return the number of bytes written
+     * @param number the byte array holding a number to round
+     * @param offset the offset of the first byte of the number
+     * @param length the number of bytes of the number
+     * @param result the byte array to write the result
+     * @param resultOffset the offset in result of the first byte to write
+     * @throws NullPointerException if number or result is null
+     * @throws ArrayIndexOutOfBoundsException if offset, length or resultOffset is negative, the range is out
+     * of number, or the result does not fit in result after resultOffset.
+     * @throws RoundingException if any exceptions occur when rounding.
+     * @throws NumberFormatException if the bytes are not a valid floating point number
+     */
+    public int round(byte[] number, int offset, int length, byte[] result, int resultOffset) {
+        return round(number, offset, length, result, resultOffset, this.accuracyDigit, this.comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the number held by the given range of a byte array as ASCII text using the given accuracy and
+     * comparison digits, overriding the defaults, and writes the result as ASCII text to the given byte array
+     * at the given offset.</p>
+     * <p>The result is the same as the one of round(String, int, int) with the string of the range. The
+     * concrete algorithms parse the bytes where they are and write the result without creating any string.
+     * The length of the result is checked first, so nothing is written if there is no room for it.</p>
+     *
+     * @return the number of bytes written
+     * @param number the byte array holding a number to round
+     * @param offset the offset of the first byte of the number
+     * @param length the number of bytes of the number
+     * @param result the byte array to write the result
+     * @param resultOffset the offset in result of the first byte to write
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if number or result is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     * @throws ArrayIndexOutOfBoundsException if offset, length or resultOffset is negative, the range is out
+     * of number, or the result does not fit in result after resultOffset.
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if the bytes are not a valid floating point number
+     */
+    public int round(byte[] number, int offset, int length, byte[] result, int resultOffset, int accuracyDigit,
+            int comparisonDigit) {
+        // check arguments
+        checkRoundingArguments(accuracyDigit, comparisonDigit);
+        checkNumber(number);
+        checkSlice(number.length, offset, length);
+        if (result == null) {
+            throw new NullPointerException("result should not be null");
+        }
+        if (resultOffset < 0 || resultOffset > result.length) {
+            throw new ArrayIndexOutOfBoundsException(resultOffset);
+        }
+
+        return roundAscii(new AsciiSequence(number, offset, length), new AsciiBuffer(result, resultOffset),
+                accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the number held by the remaining bytes of a ByteBuffer as ASCII text using the default accuracy
+     * and comparison digits, and puts the result as ASCII text to the given ByteBuffer.</p>
+     *
+     * @return the number of bytes written
+     * @param number the ByteBuffer holding a number to round, a heap or a direct one
+     * @param result the ByteBuffer to put the result, a heap or a direct one
+     * @throws NullPointerException if number or result is null
+     * @throws IllegalArgumentException if number and result are the same buffer.
+     * @throws ReadOnlyBufferException if result is read-only.
+     * @throws java.nio.BufferOverflowException if the result does not fit in the remaining bytes of result.
+     * @throws RoundingException if any exceptions occur when rounding.
+     * @throws NumberFormatException if the bytes are not a valid floating point number
+     */
+    public int round(ByteBuffer number, ByteBuffer result) {
+        return round(number, result, this.accuracyDigit, this.comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the number held by the remaining bytes of a ByteBuffer as ASCII text using the given accuracy
+     * and comparison digits, overriding the defaults, and puts the result as ASCII text to the given
+     * ByteBuffer.</p>
+     * <p>The result is the same as the one of round(String, int, int) with the string of the remaining bytes.
+     * The concrete algorithms parse the bytes where they are and put the result without creating any string.
+     * On success the position of number is moved to its limit, and the position of result is advanced by the
+     * bytes written. The length of the result is checked first, so nothing is changed if there is no room
+     * for it.</p>
+     *
+     * @return the number of bytes written
+     * @param number the ByteBuffer holding a number to round, a heap or a direct one
+     * @param result the ByteBuffer to put the result, a heap or a direct one
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if number or result is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative, or number and result are the same buffer.
+     * @throws ReadOnlyBufferException if result is read-only.
+     * @throws java.nio.BufferOverflowException if the result does not fit in the remaining bytes of result.
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if the bytes are not a valid floating point number
+     */
+    public int round(ByteBuffer number, ByteBuffer result, int accuracyDigit, int comparisonDigit) {
+        // check arguments
+        checkRoundingArguments(accuracyDigit, comparisonDigit);
+        checkNumber(number);
+        if (result == null) {
+            throw new NullPointerException("result should not be null");
+        }
+        if (result == number) {
+            throw new IllegalArgumentException("number and result should not be the same buffer");
+        }
+        if (result.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+
+        int written = roundAscii(new AsciiSequence(number, number.position(), number.remaining()),
+                new AsciiBuffer(result), accuracyDigit, comparisonDigit);
+        number.position(number.limit());
+        return written;
+    }
+
+    /**
+     * <p>Rounds the number read from the given Reader using the default accuracy and comparison digits, and
+     * appends the result to the given Appendable.</p>
+     *
+     * @return the number of chars appended
+     * @param number the Reader to read a number to round
+     * @param result the Appendable to append the result
+     * @throws NullPointerException if number or result is null
+     * @throws IOException if the Reader or the Appendable throws it
+     * @throws RoundingException if any exceptions occur when rounding.
+     * @throws NumberFormatException if the chars read are not a valid floating point number
+     */
+    public int round(Reader number, Appendable result) throws IOException {
+        return round(number, result, this.accuracyDigit, this.comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the number read from the given Reader using the given accuracy and comparison digits,
+     * overriding the defaults, and appends the result to the given Appendable.</p>
+     * <p>The result is the same as the one of round(String, int, int) with the string of all the chars read.
+     * The concrete algorithms only keep the digits which decide the rounding, see NumberReader. An algorithm
+     * which only rounds to string gets the whole string.</p>
+     *
+     * @return the number of chars appended
+     * @param number the Reader to read a number to round
+     * @param result the Appendable to append the result
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if number or result is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     * @throws IOException if the Reader or the Appendable throws it
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if the chars read are not a valid floating point number
+     */
+    public int round(Reader number, Appendable result, int accuracyDigit, int comparisonDigit)
+            throws IOException {
+        // check arguments
+        checkRoundingArguments(accuracyDigit, comparisonDigit);
+        checkNumber(number);
+        if (result == null) {
+            throw new NullPointerException("result should not be null");
+        }
+
+        return roundNumber(new NumberReader(number), result, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Reads the number from the given NumberReader, rounds it and appends the result to the given
+     * Appendable, the arguments have been checked.</p>
+     * <p>This implementation rounds the truncated number given by NumberReader.readTruncated(int), which is
+     * rounded the same as the whole number. NoRounding overrides it, since it keeps all the digits. An
+     * algorithm which does not round FloatingNumbers, see roundsFloatingNumbers(), rounds the whole string
+     * instead.</p>
+     *
+     * @return the number of chars appended
+     * @param reader the NumberReader to read a number to round
+     * @param result the Appendable to append the result
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws IOException if the Reader or the Appendable throws it
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if the chars read are not a valid floating point number
+     */
+    int roundNumber(NumberReader reader, Appendable result, int accuracyDigit, int comparisonDigit)
+            throws IOException {
+        if (!roundsFloatingNumbers()) {
+            // the algorithm only rounds to string
+            String string = round(reader.readAll(), accuracyDigit, comparisonDigit);
+            result.append(string);
+            return string.length();
+        }
+
+        FloatingNumber floatingNumber = takeFloatingNumber();
+        try {
+            FloatingNumber rounded = roundRecorded(floatingNumber, reader.readTruncated(accuracyDigit),
+                    accuracyDigit, comparisonDigit);
+            rounded.appendTo(result);
+            return rounded.getLength();
+        } finally {
+            releaseFloatingNumber(floatingNumber);
+        }
+    }
+
+    /**
+     * <p>Rounds the given ASCII number and writes the result to the given buffer, the arguments have been
+     * checked.</p>
+     *
+     * @return the number of bytes written
+     * @param number the ASCII number to round
+     * @param result the buffer to write the result
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws ArrayIndexOutOfBoundsException if the result does not fit in a byte array
+     * @throws java.nio.BufferOverflowException if the result does not fit in a ByteBuffer
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    private int roundAscii(CharSequence number, AsciiBuffer result, int accuracyDigit, int comparisonDigit) {
+        FloatingNumber floatingNumber = takeFloatingNumber();
+        try {
+            FloatingNumber rounded = roundRecorded(floatingNumber, number, accuracyDigit, comparisonDigit);
+            if (rounded == null) {
+                // the algorithm only rounds to string
+                String string = round(number.toString(), accuracyDigit, comparisonDigit);
+                result.checkRoom(string.length());
+                result.append(string);
+                return string.length();
+            }
+
+            result.checkRoom(rounded.getLength());
+            rounded.appendTo(result);
+            return rounded.getLength();
+        } catch (IOException e) {
+            // never happens, AsciiBuffer does not throw IOException
+            throw new RoundingException("exception occurs when writing the result", e);
+        } finally {
+            releaseFloatingNumber(floatingNumber);
+        }
+    }
+
+    /**
+     * <p>Parses the given number into the given FloatingNumber and rounds it, the accuracy and comparison
+     * digits have been checked.</p>
+     * <p>The returned FloatingNumber records how the number is rounded, and gives the same result as
+     * round(String, int, int) without creating any string. This implementation returns null, so that
+     * the number is rounded by round(String, int, int) instead. The subclasses of FloatingRoundingAlgorithm
+     * implement it.</p>
+     *
+     * @return the given FloatingNumber rounded, or null if the algorithm only rounds to string
+     * @param floatingNumber the FloatingNumber to parse the number into
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws NullPointerException if number is null
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    FloatingNumber roundNumber(FloatingNumber floatingNumber, CharSequence number, int accuracyDigit,
+            int comparisonDigit) {
+        return null;
+    }
+
+    /**
+     * <p>Tells whether roundNumber(FloatingNumber, CharSequence, int, int) rounds the numbers, or returns null
+     * so that they are rounded by round(String, int, int).</p>
+     * <p>This implementation returns false. FloatingRoundingAlgorithm, the base of the algorithms which implement
+     * roundNumber, returns true.</p>
+     *
+     * @return true if the algorithm rounds FloatingNumbers, false if it only rounds to string
+     */
+    boolean roundsFloatingNumbers() {
+        return false;
+    }
+
+    /**
+     * <p>Rounds the given number by roundNumber(FloatingNumber, CharSequence, int, int), and records a
+     * RoundingEvent while a flight recording enables it.</p>
+     * <p>The event is created and committed around the rounding like any flight recorder event. While it is
+     * not enabled, its methods do nothing and the event does not escape, so the rounding costs the same as
+     * without it. The event is not created at all if the jdk.jfr module is not present.</p>
+     *
+     * @return the given FloatingNumber rounded, or null if the algorithm only rounds to string
+     * @param floatingNumber the FloatingNumber to parse the number into
+     * @param number a number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws NullPointerException if number is null
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    final FloatingNumber roundRecorded(FloatingNumber floatingNumber, CharSequence number, int accuracyDigit,
+            int comparisonDigit) {
+        if (!FLIGHT_RECORDER) {
+            return roundNumber(floatingNumber, number, accuracyDigit, comparisonDigit);
+        }
+
+        RoundingEvent event = new RoundingEvent();
+        event.begin();
+
+        FloatingNumber rounded = roundNumber(floatingNumber, number, accuracyDigit, comparisonDigit);
+        if (rounded != null && event.shouldCommit()) {
+            event.set(this, number, rounded, accuracyDigit, comparisonDigit);
+            event.commit();
+        }
+        return rounded;
+    }
+
+    /**
+     * <p>Takes the FloatingNumber of the current thread, which is reused to write the results without creating
+     * any object. It should be given back by releaseFloatingNumber(FloatingNumber).</p>
+     * <p>A new FloatingNumber is created if the one of the current thread is in use, which happens if an
+     * Appendable rounds numbers itself while a result is appended to it.</p>
+     *
+     * @return the FloatingNumber to use
+     */
+    private static FloatingNumber takeFloatingNumber() {
+        FloatingNumber floatingNumber = FLOATING_NUMBERS.get();
+        if (floatingNumber == null) {
+            return new FloatingNumber();
+        }
+
+        FLOATING_NUMBERS.set(null);
+        return floatingNumber;
+    }
+
+    /**
+     * <p>Gives back the FloatingNumber taken by takeFloatingNumber(), so that it can be reused.</p>
+     * <p>The number it has parsed is cleared first, so the pooled instance does not keep the last input of the
+     * thread, which may be a large StringBuilder or a view of a buffer, from being collected.</p>
+     *
+     * @param floatingNumber the FloatingNumber to give back
+     */
+    private static void releaseFloatingNumber(FloatingNumber floatingNumber) {
+        floatingNumber.clear();
+        FLOATING_NUMBERS.set(floatingNumber);
+    }
+
+    /**
+     * <p>Rounds the numbers from index from (inclusive) to index to (exclusive) using the default accuracy and
+     * comparison digits. The result of numbers[i] is stored to results[i].</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results, it may be numbers itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @throws NullPointerException if numbers or results is null, or any number to round is null
+     * @throws IllegalArgumentException if from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * numbers or results
+     * @throws RoundingException if any exceptions occur when rounding.
+     * @throws NumberFormatException if any number to round is not a valid floating point number
+     */
+    public void roundAll(String[] numbers, String[] results, int from, int to) {
+        roundAll(numbers, results, from, to, this.accuracyDigit, this.comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the numbers from index from (inclusive) to index to (exclusive) using the given accuracy and
+     * comparison digits, overriding the defaults. The result of numbers[i] is stored to results[i].</p>
+     * <p>The arguments are checked once, then the numbers are rounded by roundRange, which parses all of them
+     * into the same FloatingNumber.</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results, it may be numbers itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if numbers or results is null, or any number to round is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative, or from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * numbers or results
+     * @throws RoundingException if any exceptions occur when rounding.
+     * @throws NumberFormatException if any number to round is not a valid floating point number
+     */
+    public void roundAll(String[] numbers, String[] results, int from, int to, int accuracyDigit,
+            int comparisonDigit) {
+        // check arguments
+        checkRoundingArguments(accuracyDigit, comparisonDigit);
+        if (numbers == null) {
+            throw new NullPointerException("numbers should not be null");
+        }
+        if (results == null) {
+            throw new NullPointerException("results should not be null");
+        }
+        checkRange(numbers.length, results.length, from, to);
+
+        roundRange(numbers, results, from, to, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the numbers in the given range, the arguments have been checked.</p>
+     * <p>The FloatingNumber of the current thread is taken once and each number is parsed into it, and the
+     * results are written through one char buffer, so only the result strings are created. A number which the
+     * algorithm does not round as a FloatingNumber is rounded by round(String, int, int).</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws NullPointerException if any number to round is null
+     * @throws RoundingException if any exceptions occur when rounding.
+     * @throws NumberFormatException if any number to round is not a valid floating point number
+     */
+    void roundRange(String[] numbers, String[] results, int from, int to, int accuracyDigit, int comparisonDigit) {
+        FloatingNumber floatingNumber = takeFloatingNumber();
+        char[] buffer = new char[RANGE_BUFFER_LENGTH];
+        try {
+            for (int i = from; i < to; ++i) {
+                FloatingNumber rounded = roundRecorded(floatingNumber, numbers[i], accuracyDigit, comparisonDigit);
+                if (rounded == null) {
+                    results[i] = round(numbers[i], accuracyDigit, comparisonDigit);
+                } else {
+                    if (rounded.getLength() > buffer.length) {
+                        buffer = new char[Math.max(rounded.getLength(), buffer.length * 2)];
+                    }
+                    results[i] = rounded.toString(buffer);
+                }
+            }
+        } finally {
+            releaseFloatingNumber(floatingNumber);
+        }
+    }
+
+    /**
+     * <p>Rounds the doubles from index from (inclusive) to index to (exclusive) using the default accuracy and
+     * comparison digits. The result of numbers[i] is stored to results[i].</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results, it may be numbers itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @throws NullPointerException if numbers or results is null
+     * @throws IllegalArgumentException if any number to round is not proper, or from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * numbers or results
+     * @throws RoundingException if any exceptions occur when rounding.
+     */
+    public void roundAll(double[] numbers, double[] results, int from, int to) {
+        roundAll(numbers, results, from, to, this.accuracyDigit, this.comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the doubles from index from (inclusive) to index to (exclusive) using the given accuracy and
+     * comparison digits, overriding the defaults. The result of numbers[i] is stored to results[i].</p>
+     * <p>The arguments are checked once, then the numbers are rounded by roundRange, which the concrete
+     * algorithms implement with the power of ten and the comparison threshold computed once for all the
+     * numbers. The results are the same as the ones of roundDouble(double, int, int).</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results, it may be numbers itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if numbers or results is null
+     * @throws IllegalArgumentException if any number to round is not proper or comparisonDigit is less than 1
+     * or greater than 9 or the accuracyDigit is negative, or from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * numbers or results
+     * @throws RoundingException if any exceptions occur when rounding.
+     */
+    public void roundAll(double[] numbers, double[] results, int from, int to, int accuracyDigit,
+            int comparisonDigit) {
+        // check arguments
+        checkRoundingArguments(accuracyDigit, comparisonDigit);
+        if (numbers == null) {
+            throw new NullPointerException("numbers should not be null");
+        }
+        if (results == null) {
+            throw new NullPointerException("results should not be null");
+        }
+        checkRange(numbers.length, results.length, from, to);
+
+        roundRange(numbers, results, from, to, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the doubles in the given range, the arguments have been checked.</p>
+     * <p>This implementation rounds each double by roundDoubleValue(double, int, int). Concrete algorithms
+     * override it with a loop which rounds the doubles scaled by the power of ten of the accuracy, and only
+     * finds the shortest decimal of a double whose truncation may be zero or a tie.</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws IllegalArgumentException if any number to round is not proper
+     * @throws RoundingException if any exceptions occur when rounding.
+     */
+    void roundRange(double[] numbers, double[] results, int from, int to, int accuracyDigit, int comparisonDigit) {
+        for (int i = from; i < to; ++i) {
+            results[i] = roundDoubleValue(numbers[i], accuracyDigit, comparisonDigit);
+        }
+    }
+
+    /**
+     * <p>Rounds the fixed-point numbers from index from (inclusive) to index to (exclusive) using the default
+     * accuracy and comparison digits. The unscaled value of the result of unscaledValues[i] is stored to
+     * results[i].</p>
+     *
+     * @param unscaledValues the unscaled values of the numbers to round
+     * @param scale the number of digits after the decimal point of all the numbers
+     * @param results the array to store the unscaled values of the rounded results, it may be unscaledValues
+     * itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @throws NullPointerException if unscaledValues or results is null
+     * @throws IllegalArgumentException if the scale is negative, or from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * unscaledValues or results
+     * @throws RoundingException if any exceptions occur while rounding, or a result can not be held by a long.
+     */
+    public void roundAll(long[] unscaledValues, int scale, long[] results, int from, int to) {
+        roundAll(unscaledValues, scale, results, from, to, this.accuracyDigit, this.comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the fixed-point numbers from index from (inclusive) to index to (exclusive) using the given
+     * accuracy and comparison digits, overriding the defaults. The unscaled value of the result of
+     * unscaledValues[i] is stored to results[i].</p>
+     * <p>The arguments are checked once, then the numbers are rounded by roundRange, which the concrete
+     * algorithms implement with the power of ten and the comparison threshold computed once for all
+     * the numbers.</p>
+     *
+     * @param unscaledValues the unscaled values of the numbers to round
+     * @param scale the number of digits after the decimal point of all the numbers
+     * @param results the array to store the unscaled values of the rounded results, it may be unscaledValues
+     * itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws NullPointerException if unscaledValues or results is null
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit or the scale is negative, or from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * unscaledValues or results
+     * @throws RoundingException if any exceptions occur while rounding, or a result can not be held by a long.
+     */
+    public void roundAll(long[] unscaledValues, int scale, long[] results, int from, int to, int accuracyDigit,
+            int comparisonDigit) {
+        // check arguments
+        checkRoundingArguments(accuracyDigit, comparisonDigit);
+        FixedPoint.checkScale(scale);
+        if (unscaledValues == null) {
+            throw new NullPointerException("unscaledValues should not be null");
+        }
+        if (results == null) {
+            throw new NullPointerException("results should not be null");
+        }
+        checkRange(unscaledValues.length, results.length, from, to);
+
+        roundRange(unscaledValues, scale, results, from, to, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the fixed-point numbers in the given range, the arguments have been checked.</p>
+     * <p>This implementation rounds each number by round(long, int, int, int). Concrete algorithms
+     * override it with a loop which does not check the arguments again.</p>
+     *
+     * @param unscaledValues the unscaled values of the numbers to round
+     * @param scale the number of digits after the decimal point of all the numbers, non-negative
+     * @param results the array to store the unscaled values of the rounded results
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if any exceptions occur while rounding, or a result can not be held by a long.
+     */
+    void roundRange(long[] unscaledValues, int scale, long[] results, int from, int to, int accuracyDigit,
+            int comparisonDigit) {
+        for (int i = from; i < to; ++i) {
+            results[i] = round(unscaledValues[i], scale, accuracyDigit, comparisonDigit);
+        }
     }
 
     /**
      * Converts double to String. Note: Because scientific notion is not supported, a very long string
      * maybe return if the exponent is large.
+     * <p>The result is the shortest decimal which converts back to the double in normal notation,
+     * without trailing 0's after the decimal point. 0 is converted to "0". Of the shortest decimals, the
+     * one closest to the double is taken, and at least two significant digits are considered, the same
+     * digits as Double.toString gives since JDK 19. Earlier JDKs may give one more digit, for example
+     * 9.999999999999999E22 for 1e23, which is converted to "100000000000000000000000" here.</p>
      *
      * @param number the double value to be converted.
      * @return the string value
      * @throws IllegalArgumentException if the number is not proper
      */
-    private static String doubleToString(double number) {
-        return "";
+    static String doubleToString(double number) {
+        if (Double.isNaN(number) || Double.isInfinite(number)) {
+            throw new IllegalArgumentException("number should not be NaN or infinite");
+        }
+
+        int scale = FixedPoint.scaleOf(number);
+        if (scale >= 0) {
+            long unscaledValue = FixedPoint.unscaledValueOf(number, scale);
+            return (unscaledValue == 0) ? "0" : FixedPoint.toString(unscaledValue, scale);
+        }
+
+        BigDecimal decimal = shortestDecimalOf(number);
+        if (decimal.signum() == 0) {
+            return "0";
+        }
+        return decimal.stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * <p>Returns the shortest decimal which converts back to the given double, of at least two significant
+     * digits, and the closest to the double of them.</p>
+     * <p>The exact value of the double is rounded to 2, 3, ... significant digits. At each precision the
+     * nearest decimal is taken if it converts back, otherwise the decimal on the other side of the double,
+     * since the decimals converting back are not centered on the double at a power of two. 17 digits always
+     * convert back. It is only used for the doubles which FixedPoint can not convert, whose magnitudes are
+     * very large or very small.</p>
+     *
+     * @param number the double to convert, not NaN or infinite
+     * @return the shortest decimal converting back to the double
+     */
+    private static BigDecimal shortestDecimalOf(double number) {
+        BigDecimal exact = new BigDecimal(number);
+        for (int digits = 2; digits < MAX_DOUBLE_DIGITS; ++digits) {
+            BigDecimal nearest = exact.round(new MathContext(digits, RoundingMode.HALF_EVEN));
+            if (Double.parseDouble(nearest.toString()) == number) {
+                return nearest;
+            }
+
+            BigDecimal other = exact.round(new MathContext(digits,
+                    (nearest.compareTo(exact) < 0) ? RoundingMode.CEILING : RoundingMode.FLOOR));
+            if (Double.parseDouble(other.toString()) == number) {
+                return other;
+            }
+        }
+        return exact.round(new MathContext(MAX_DOUBLE_DIGITS, RoundingMode.HALF_EVEN));
     }
 
     /**
@@ -159,6 +1343,8 @@ public abstract class RoundingAlgorithm implements Algorithm {
      * @throws IllegalArgumentException if the given number is negative
      */
     public void setAccuracyDigit(int accuracyDigit) {
+        checkAccuracyDigit(accuracyDigit);
+
         this.accuracyDigit = accuracyDigit;
     }
 
@@ -170,9 +1356,87 @@ public abstract class RoundingAlgorithm implements Algorithm {
      * @throws IllegalArgumentException if the given number is out of the scope of 1 to 9.
      */
     public void setComparisonDigit(int comparisonDigit) {
+        checkComparisonDigit(comparisonDigit);
+
         this.comparisonDigit = comparisonDigit;
     }
 
+    /**
+     * <p>Returns whether the algorithm always gives the same result for the same number and digits.</p>
+     * <p>This implementation returns true. An algorithm whose result also depends on a random generator or on
+     * the numbers rounded before should override it to return false, so that its results are not cached by
+     * CachingAlgorithm.</p>
+     *
+     * @return whether the results only depend on the number and the digits
+     */
+    protected boolean isDeterministic() {
+        return true;
+    }
+
+    /**
+     * <p>Returns the algorithms which round the chunks of a parallel bulk rounding, one for each chunk in
+     * order. The chunks are rounded at the same time by different threads, so an algorithm whose result
+     * depends on the ties rounded before gives each chunk its own instance.</p>
+     * <p>This implementation returns this algorithm for each chunk if it is deterministic, or null otherwise,
+     * in which case ParallelRounding rounds all the chunks in order by this algorithm. AlternateRounding and
+     * RandomRounding override it.</p>
+     *
+     * @return the algorithms of the chunks, or null if the chunks can not be rounded independently
+     * @param chunkCount the number of chunks, positive
+     */
+    RoundingAlgorithm[] splitChunks(int chunkCount) {
+        if (!isDeterministic()) {
+            return null;
+        }
+
+        RoundingAlgorithm[] chunkAlgorithms = new RoundingAlgorithm[chunkCount];
+        Arrays.fill(chunkAlgorithms, this);
+        return chunkAlgorithms;
+    }
+
+    /**
+     * <p>Compiles this algorithm with the default accuracy and comparison digits into an immutable
+     * RoundingSpec.</p>
+     * <p>The spec keeps the digits of the time it is compiled, later calls of setAccuracyDigit(int) and
+     * setComparisonDigit(int) do not change it.</p>
+     *
+     * @return the spec rounding with this algorithm and the default digits
+     */
+    public RoundingSpec compile() {
+        return new RoundingSpec(this, this.accuracyDigit, this.comparisonDigit);
+    }
+
+    /**
+     * <p>Compiles this algorithm with the given accuracy and comparison digits into an immutable
+     * RoundingSpec. The digits are checked once here, the spec never checks them again.</p>
+     *
+     * @return the spec rounding with this algorithm and the given digits
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9 or
+     * the accuracyDigit is negative.
+     */
+    public RoundingSpec compile(int accuracyDigit, int comparisonDigit) {
+        // check arguments
+        checkRoundingArguments(accuracyDigit, comparisonDigit);
+
+        return new RoundingSpec(this, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Checks whether the flight recorder API of the jdk.jfr module can be loaded.</p>
+     *
+     * @return true if jdk.jfr.Event can be loaded, false otherwise
+     */
+    private static boolean isFlightRecorderPresent() {
+        try {
+            Class.forName("jdk.jfr.Event", false, RoundingAlgorithm.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
     /**
      * <p>Checks whether the accuracy digit and comparison digit are valid</p>
      * <p>accuracyDigit should be non-negative.</p>
@@ -184,7 +1448,73 @@ public abstract class RoundingAlgorithm implements Algorithm {
      * if the accuracyDigit is negative.
      */
     static void checkRoundingArguments(int accuracyDigit, int comparisonDigit) {
-        return;
+        checkAccuracyDigit(accuracyDigit);
+        checkComparisonDigit(comparisonDigit);
+    }
+
+    /**
+     * <p>Checks whether the range to round is valid for the given arrays.</p>
+     *
+     * @param length the length of the array of the numbers
+     * @param resultsLength the length of the array of the results
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @throws IllegalArgumentException if from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than length or
+     * resultsLength
+     */
+    static void checkRange(int length, int resultsLength, int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from(" + from + ") should not be greater than to(" + to + ")");
+        }
+        if (from < 0) {
+            throw new ArrayIndexOutOfBoundsException(from);
+        }
+        if (to > length || to > resultsLength) {
+            throw new ArrayIndexOutOfBoundsException(to);
+        }
+    }
+
+    /**
+     * <p>Checks whether the number to round is given.</p>
+     *
+     * @param number the number to round
+     * @throws NullPointerException if number is null
+     */
+    static void checkNumber(Object number) {
+        if (number == null) {
+            throw new NullPointerException("number should not be null");
+        }
+    }
+
+    /**
+     * <p>Checks whether the given range is in an array of the given length.</p>
+     *
+     * @param arrayLength the length of the array
+     * @param offset the offset of the first element of the range
+     * @param length the number of elements of the range
+     * @throws ArrayIndexOutOfBoundsException if offset or length is negative, or the range is out of the array
+     */
+    static void checkSlice(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || length > arrayLength - offset) {
+            throw new ArrayIndexOutOfBoundsException("the range of " + length + " elements at offset " + offset
+                    + " is out of the array of length " + arrayLength);
+        }
+    }
+
+    /**
+     * <p>Checks whether the given number of elements fit in an array of the given length after the offset.</p>
+     *
+     * @param arrayLength the length of the array to write
+     * @param offset the offset of the first element to write, between 0 and arrayLength inclusive
+     * @param length the number of elements to write
+     * @throws ArrayIndexOutOfBoundsException if the elements do not fit in the array after offset
+     */
+    static void checkRoom(int arrayLength, int offset, int length) {
+        if (length > arrayLength - offset) {
+            throw new ArrayIndexOutOfBoundsException("the result of " + length + " chars does not fit in "
+                    + (arrayLength - offset) + " chars after offset " + offset);
+        }
     }
 
     /**
@@ -195,7 +1525,9 @@ public abstract class RoundingAlgorithm implements Algorithm {
      * @throws IllegalArgumentException if the accuracyDigit is negative.
      */
     private static void checkAccuracyDigit(int accuracyDigit) {
-        return;
+        if (accuracyDigit < 0) {
+            throw new IllegalArgumentException("accuracyDigit should not be negative");
+        }
     }
 
     /**
@@ -206,7 +1538,9 @@ public abstract class RoundingAlgorithm implements Algorithm {
      * @throws IllegalArgumentException if comparisonDigit is less than 1 or greater than 9.
      */
     private static void checkComparisonDigit(int comparisonDigit) {
-        return;
+        if (comparisonDigit < 1 || comparisonDigit > 9) {
+            throw new IllegalArgumentException("comparisonDigit should be between 1 and 9, inclusive");
+        }
     }
 
 }
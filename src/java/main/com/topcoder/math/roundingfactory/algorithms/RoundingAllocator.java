@@ -0,0 +1,312 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+/**
+ * <p>Allocates a total amount to parts in proportion to their weights, rounding each share with a RoundingSpec
+ * while keeping the sum of the parts equal to the total.</p>
+ *
+ * <p>The total is rounded with the spec first. The exact share of each part is the rounded total times its
+ * weight divided by the sum of the weights, and each share is rounded with the spec. The rounded shares may
+ * miss the total by a few units of the accuracy digit, and these units are then given by the largest
+ * remainder method: if the shares fall short of the total, one unit is added to each of the parts whose
+ * rounded share is the furthest below the exact share, and if they exceed it, one unit is taken from each of
+ * the parts whose rounded share is the furthest above. On equal remainders the parts of lower indexes go
+ * first, so the allocation is reproducible.</p>
+ *
+ * <p>All the computing is done on longs: the shares are exact fractions of longs, and the remainders are
+ * compared as longs. When the product of the total and a weight can not be held by a long, its 128 bits are
+ * divided by long division. The parts to correct are selected by a heap of the indexes of the parts, whose
+ * size is the number of units to give, so the whole allocation of n parts takes O(n log k) time for k units,
+ * which is never greater than n. No object is created but the arrays of the remainders and of the heap.</p>
+ *
+ * <p>The decision of the rounding of a share only depends on its sign, the parity of its last digit and the
+ * digits after the accuracy digit, so the spec rounds the share reduced to its last digit, the first digit
+ * after the accuracy digit and a last digit telling whether any other digit follows. The share itself is
+ * never rescaled, and can not overflow.</p>
+ *
+ * <p>This class is thread safe, as long as the algorithm of the spec is.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+public final class RoundingAllocator {
+
+    /**
+     * <p>The mask of a digit of 32 bits of the long division.</p>
+     */
+    private static final long DIGIT_MASK = 0xFFFFFFFFL;
+
+    /**
+     * <p>The spec rounding the total and the shares.</p>
+     */
+    private final RoundingSpec spec;
+
+    /**
+     * <p>Constructs an allocator rounding the total and the shares with the given spec.</p>
+     *
+     * @param spec the spec rounding the total and the shares
+     * @throws NullPointerException if spec is null
+     */
+    public RoundingAllocator(RoundingSpec spec) {
+        if (spec == null) {
+            throw new NullPointerException("spec should not be null");
+        }
+
+        this.spec = spec;
+    }
+
+    /**
+     * <p>Gets the spec rounding the total and the shares.</p>
+     *
+     * @return the spec
+     */
+    public RoundingSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * <p>Allocates the given fixed-point total to parts in proportion to the given weights.</p>
+     *
+     * @return the unscaled values of the parts, of the accuracy digit of the spec, whose sum is the rounded total
+     * @param unscaledTotal the unscaled value of the total
+     * @param scale the number of digits after the decimal point of the total
+     * @param weights the weights of the parts
+     * @throws NullPointerException if weights is null
+     * @throws IllegalArgumentException if scale is negative, any weight is negative, the sum of the weights is
+     * not positive or can not be held by a long, or the rounded total is Long.MIN_VALUE
+     * @throws RoundingException if exceptions occur when rounding, such as by NoRounding if the total or a share
+     * has more digits than the accuracy digit
+     */
+    public long[] allocate(long unscaledTotal, int scale, long[] weights) {
+        if (weights == null) {
+            throw new NullPointerException("weights should not be null");
+        }
+
+        long[] results = new long[weights.length];
+        allocate(unscaledTotal, scale, weights, results, 0, weights.length);
+        return results;
+    }
+
+    /**
+     * <p>Allocates the given fixed-point total to the parts from index from (inclusive) to index to (exclusive)
+     * in proportion to their weights. The part of weights[i] is stored to results[i].</p>
+     *
+     * @return the unscaled value of the rounded total, of the accuracy digit of the spec, which is the sum of
+     * the parts
+     * @param unscaledTotal the unscaled value of the total
+     * @param scale the number of digits after the decimal point of the total
+     * @param weights the weights of the parts
+     * @param results the array to store the unscaled values of the parts, of the accuracy digit of the spec
+     * @param from the index of the first part
+     * @param to the index after the last part
+     * @throws NullPointerException if weights or results is null
+     * @throws IllegalArgumentException if scale is negative, any weight in the range is negative, the sum of the
+     * weights in the range is not positive or can not be held by a long, the rounded total is Long.MIN_VALUE,
+     * or from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of weights
+     * or results
+     * @throws RoundingException if exceptions occur when rounding, such as by NoRounding if the total or a share
+     * has more digits than the accuracy digit. The results in the range are undefined then.
+     */
+    public long allocate(long unscaledTotal, int scale, long[] weights, long[] results, int from, int to) {
+        if (weights == null) {
+            throw new NullPointerException("weights should not be null");
+        }
+        if (results == null) {
+            throw new NullPointerException("results should not be null");
+        }
+        RoundingAlgorithm.checkRange(weights.length, results.length, from, to);
+
+        long weightSum = 0;
+        for (int i = from; i < to; ++i) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("weights[" + i + "] should not be negative");
+            }
+            weightSum += weights[i];
+            if (weightSum < 0) {
+                throw new IllegalArgumentException("the sum of the weights can not be held by a long");
+            }
+        }
+        if (weightSum == 0) {
+            throw new IllegalArgumentException("the sum of the weights should be positive");
+        }
+
+        long total = spec.round(unscaledTotal, scale);
+        if (total == Long.MIN_VALUE) {
+            throw new IllegalArgumentException("the rounded total should not be Long.MIN_VALUE");
+        }
+        int sign = (total < 0) ? -1 : 1;
+        long magnitude = Math.abs(total);
+        int reducedScale = spec.getAccuracyDigit() + 2;
+
+        // the remainders are the exact shares minus the rounded shares, times the sum of the weights
+        long[] remainders = new long[to - from];
+        long[] division = new long[2];
+        long residue = total;
+        for (int i = from; i < to; ++i) {
+            multiplyDivide(magnitude, weights[i], weightSum, division);
+            long quotient = division[0];
+            long remainder = division[1];
+
+            // the first digit after the accuracy digit, and whether any other digit follows
+            multiplyDivide(remainder, 10, weightSum, division);
+            long lastDigit = quotient % 10;
+            long reduced = (lastDigit * 10 + division[0]) * 10 + ((division[1] == 0) ? 0 : 1);
+            long roundedUp = sign * spec.round(sign * reduced, reducedScale) - lastDigit;
+
+            results[i] = sign * (quotient + roundedUp);
+            remainders[i - from] = sign * (remainder - roundedUp * weightSum);
+            residue -= results[i];
+        }
+
+        // each remainder is less than the sum of the weights, so less units than parts are left to give
+        if (residue != 0) {
+            int direction = (residue > 0) ? 1 : -1;
+            int[] heap = selectLargest(remainders, direction, (int) Math.abs(residue));
+            for (int j = 0; j < heap.length; ++j) {
+                results[from + heap[j]] += direction;
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * <p>Computes the quotient and the remainder of the product of two non-negative longs divided by a positive
+     * long, the quotient being known to fit in a long.</p>
+     * <p>If the product can not be held by a long, its 128 bits are divided by two digits of 32 bits, as the
+     * long division of Knuth.</p>
+     *
+     * @param multiplicand the multiplicand, non-negative
+     * @param multiplier the multiplier, non-negative
+     * @param divisor the divisor, positive
+     * @param result the array to store the quotient and the remainder
+     */
+    private static void multiplyDivide(long multiplicand, long multiplier, long divisor, long[] result) {
+        long low = multiplicand * multiplier;
+        long high = Math.multiplyHigh(multiplicand, multiplier);
+        if (high == 0 && low >= 0) {
+            result[0] = low / divisor;
+            result[1] = low % divisor;
+            return;
+        }
+
+        // normalizes the divisor so that its highest bit is set, the quotient fits so high is less than it
+        int shift = Long.numberOfLeadingZeros(divisor);
+        divisor <<= shift;
+        high = (high << shift) | (low >>> (64 - shift));
+        low <<= shift;
+
+        long first = divideDigit(high, low >>> 32, divisor);
+        long middle = ((high << 32) | (low >>> 32)) - first * divisor;
+        long second = divideDigit(middle, low & DIGIT_MASK, divisor);
+
+        result[0] = (first << 32) | second;
+        result[1] = (((middle << 32) | (low & DIGIT_MASK)) - second * divisor) >>> shift;
+    }
+
+    /**
+     * <p>Computes a digit of 32 bits of the quotient of the long division: the unsigned high long followed by
+     * the next digit of the dividend, divided by the normalized divisor.</p>
+     * <p>The digit is estimated by the high digit of the divisor, and corrected down twice at most.</p>
+     *
+     * @return the digit of the quotient
+     * @param high the unsigned remainder so far, less than the divisor
+     * @param digit the next digit of 32 bits of the dividend
+     * @param divisor the divisor, whose highest bit is set
+     */
+    private static long divideDigit(long high, long digit, long divisor) {
+        long divisorHigh = divisor >>> 32;
+        long divisorLow = divisor & DIGIT_MASK;
+
+        long quotient = Long.divideUnsigned(high, divisorHigh);
+        long remainder = high - quotient * divisorHigh;
+        while (quotient > DIGIT_MASK || Long.compareUnsigned(quotient * divisorLow, (remainder << 32) | digit) > 0) {
+            --quotient;
+            remainder += divisorHigh;
+            if (remainder > DIGIT_MASK) {
+                break;
+            }
+        }
+
+        return quotient;
+    }
+
+    /**
+     * <p>Selects the indexes of the given number of the largest remainders times the direction, the lower
+     * index going first on equal remainders.</p>
+     * <p>The indexes are kept in a heap whose root is the least of them, which is replaced by each greater
+     * remainder found.</p>
+     *
+     * @return the selected indexes, in no particular order
+     * @param remainders the remainders
+     * @param direction 1 to select the largest remainders, -1 to select the least ones
+     * @param count the number of indexes to select, not greater than the number of remainders
+     */
+    private static int[] selectLargest(long[] remainders, int direction, int count) {
+        int[] heap = new int[count];
+        for (int i = 0; i < count; ++i) {
+            heap[i] = i;
+        }
+        for (int i = count / 2 - 1; i >= 0; --i) {
+            siftDown(heap, i, remainders, direction);
+        }
+
+        for (int i = count; i < remainders.length; ++i) {
+            if (less(heap[0], i, remainders, direction)) {
+                heap[0] = i;
+                siftDown(heap, 0, remainders, direction);
+            }
+        }
+
+        return heap;
+    }
+
+    /**
+     * <p>Moves the index at the given position of the heap down until no index below it is less.</p>
+     *
+     * @param heap the heap of indexes
+     * @param position the position of the index to move
+     * @param remainders the remainders
+     * @param direction 1 if the heap selects the largest remainders, -1 if it selects the least ones
+     */
+    private static void siftDown(int[] heap, int position, long[] remainders, int direction) {
+        int index = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heap.length) {
+                break;
+            }
+            if (child + 1 < heap.length && less(heap[child + 1], heap[child], remainders, direction)) {
+                ++child;
+            }
+            if (!less(heap[child], index, remainders, direction)) {
+                break;
+            }
+
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = index;
+    }
+
+    /**
+     * <p>Tells whether the part of the first index goes after the part of the second one: its remainder times
+     * the direction is less, or they are equal and its index is greater.</p>
+     *
+     * @return true if the part of the first index goes after the part of the second one
+     * @param first the first index
+     * @param second the second index
+     * @param remainders the remainders
+     * @param direction 1 if the largest remainders go first, -1 if the least ones go first
+     */
+    private static boolean less(int first, int second, long[] remainders, int direction) {
+        int comparison = Long.compare(direction * remainders[first], direction * remainders[second]);
+        return (comparison < 0) || (comparison == 0 && first > second);
+    }
+}
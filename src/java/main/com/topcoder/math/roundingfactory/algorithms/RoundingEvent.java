@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>The flight recorder event of rounding a number by a RoundingAlgorithm. It records the algorithm, the
+ * length of the number, the digits and how the number is rounded, so that a latency spike found in a
+ * recording can be related to the numbers rounded at that time.</p>
+ *
+ * <p>The event is disabled by default, it is enabled by a recording whose settings enable
+ * com.topcoder.math.roundingfactory.Rounding, such as the conf/roundingfactory.jfc settings. While it is not
+ * enabled, begin() and shouldCommit() do nothing and the event is never filled.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+@Name("com.topcoder.math.roundingfactory.Rounding")
+@Label("Rounding")
+@Category({"TopCoder", "Rounding Factory"})
+@Description("A number rounded by a rounding algorithm")
+@Enabled(false)
+@StackTrace(false)
+final class RoundingEvent extends jdk.jfr.Event {
+
+    /**
+     * <p>The decision of a number which is not changed by the rounding.</p>
+     */
+    static final String UNCHANGED = "unchanged";
+
+    /**
+     * <p>The decision of a number whose truncated digits are dropped.</p>
+     */
+    static final String TOWARDS_ZERO = "towards zero";
+
+    /**
+     * <p>The decision of a number whose absolute value is increased by the rounding.</p>
+     */
+    static final String AWAY_FROM_ZERO = "away from zero";
+
+    /**
+     * <p>The class name of the algorithm.</p>
+     */
+    @Label("Algorithm")
+    String algorithm;
+
+    /**
+     * <p>The number of chars of the number rounded.</p>
+     */
+    @Label("Input Length")
+    int inputLength;
+
+    /**
+     * <p>The accuracy digit used.</p>
+     */
+    @Label("Accuracy Digit")
+    int accuracyDigit;
+
+    /**
+     * <p>The comparison digit used.</p>
+     */
+    @Label("Comparison Digit")
+    int comparisonDigit;
+
+    /**
+     * <p>Whether the truncated digits equal the comparison digit.</p>
+     */
+    @Label("Tie")
+    boolean tie;
+
+    /**
+     * <p>How the number is rounded, one of UNCHANGED, TOWARDS_ZERO and AWAY_FROM_ZERO.</p>
+     */
+    @Label("Decision")
+    String decision;
+
+    /**
+     * <p>Fills this event with the rounding of the given number.</p>
+     *
+     * @param algorithm the algorithm which has rounded the number
+     * @param number the number rounded
+     * @param rounded the FloatingNumber holding how the number is rounded
+     * @param accuracyDigit the accuracy digit used
+     * @param comparisonDigit the comparison digit used
+     */
+    void set(Object algorithm, CharSequence number, FloatingNumber rounded, int accuracyDigit,
+            int comparisonDigit) {
+        this.algorithm = algorithm.getClass().getName();
+        this.inputLength = number.length();
+        this.accuracyDigit = accuracyDigit;
+        this.comparisonDigit = comparisonDigit;
+        this.tie = rounded.truncationCompare(accuracyDigit, comparisonDigit) == 0;
+        if (!rounded.isTruncated()) {
+            this.decision = UNCHANGED;
+        } else {
+            this.decision = rounded.isIncreased() ? AWAY_FROM_ZERO : TOWARDS_ZERO;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>The metrics of the numbers rounded by a MeteredAlgorithm: the number of calls, the ties, the numbers
+ * rounded away from zero and towards zero, the numbers rejected, the RoundingExceptions thrown and a
+ * histogram of the latencies.</p>
+ * <p>The latencies are only recorded for the sample of the numbers chosen by the MeteredAlgorithm.</p>
+ * <p>The counters are LongAdders, which spread the increments of the threads over several cells, so the
+ * threads rounding with the same algorithm do not contend on a single counter. The counts read while numbers
+ * are rounded are only a snapshot of some point during the call.</p>
+ * <p>The histogram has the same layout as an HdrHistogram with 3 significant bits: the latencies less than 8
+ * nanoseconds have a bucket each, and every power of two above them is split into 8 buckets, so a percentile
+ * is reported within 12.5% of the recorded latency. The latencies of 2^42 nanoseconds, about 73 minutes, or
+ * more are counted in the last bucket.</p>
+ *
+ * <p>This class is thread safe, since all the counters are LongAdders.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+public final class RoundingMetrics {
+
+    /**
+     * The number of bits of the sub-buckets of a power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * The number of sub-buckets of a power of two.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The highest power of two of the latencies held by the histogram, greater latencies are counted as the
+     * greatest one.
+     */
+    private static final int MAX_EXPONENT = 41;
+
+    /**
+     * The greatest latency held by the histogram, in nanoseconds.
+     */
+    private static final long MAX_LATENCY = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    /**
+     * The number of buckets of the histogram.
+     */
+    static final int BUCKET_COUNT = getBucketIndex(MAX_LATENCY) + 1;
+
+    /**
+     * The number of calls, including the ones which are rejected or throw RoundingException.
+     */
+    private final LongAdder callCount = new LongAdder();
+
+    /**
+     * The number of ties, whose truncated digits equal the comparison digit.
+     */
+    private final LongAdder tieCount = new LongAdder();
+
+    /**
+     * The number of numbers rounded away from zero.
+     */
+    private final LongAdder awayFromZeroCount = new LongAdder();
+
+    /**
+     * The number of numbers rounded towards zero, with non-zero digits truncated.
+     */
+    private final LongAdder towardsZeroCount = new LongAdder();
+
+    /**
+     * The number of numbers rejected by an IllegalArgumentException, such as a NumberFormatException.
+     */
+    private final LongAdder rejectionCount = new LongAdder();
+
+    /**
+     * The number of RoundingExceptions thrown.
+     */
+    private final LongAdder roundingExceptionCount = new LongAdder();
+
+    /**
+     * The counts of the latencies, indexed by the bucket.
+     */
+    private final LongAdder[] latencyCounts = new LongAdder[BUCKET_COUNT];
+
+    /**
+     * The time in milliseconds when the counting started, that is when the instance was created or last reset.
+     */
+    private volatile long startTime = System.currentTimeMillis();
+
+    /**
+     * <p>Constructs an instance with all the counts 0.</p>
+     */
+    public RoundingMetrics() {
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            latencyCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * <p>Records a number rounded, whose latency is not sampled.</p>
+     */
+    void recordRounding() {
+        callCount.increment();
+    }
+
+    /**
+     * <p>Records a number rounded in the given time.</p>
+     *
+     * @param latency the time taken to round the number, in nanoseconds
+     */
+    void recordRounding(long latency) {
+        callCount.increment();
+        latencyCounts[getBucketIndex(latency)].increment();
+    }
+
+    /**
+     * <p>Records how a number with truncated digits is rounded.</p>
+     *
+     * @param tie whether the truncated digits equal the comparison digit
+     * @param awayFromZero whether the number is rounded away from zero, otherwise towards zero
+     */
+    void recordTruncation(boolean tie, boolean awayFromZero) {
+        if (tie) {
+            tieCount.increment();
+        }
+        if (awayFromZero) {
+            awayFromZeroCount.increment();
+        } else {
+            towardsZeroCount.increment();
+        }
+    }
+
+    /**
+     * <p>Records a number rejected by an IllegalArgumentException.</p>
+     */
+    void recordRejection() {
+        callCount.increment();
+        rejectionCount.increment();
+    }
+
+    /**
+     * <p>Records a RoundingException thrown.</p>
+     */
+    void recordRoundingException() {
+        callCount.increment();
+        roundingExceptionCount.increment();
+    }
+
+    /**
+     * <p>Gets the number of calls, including the ones which are rejected or throw RoundingException.</p>
+     *
+     * @return the number of calls
+     */
+    public long getCallCount() {
+        return callCount.sum();
+    }
+
+    /**
+     * <p>Gets the number of ties, whose truncated digits equal the comparison digit, such as 1.25 rounded to 1
+     * digit with the comparison digit 5.</p>
+     *
+     * @return the number of ties
+     */
+    public long getTieCount() {
+        return tieCount.sum();
+    }
+
+    /**
+     * <p>Gets the number of numbers rounded away from zero.</p>
+     *
+     * @return the number of numbers rounded away from zero
+     */
+    public long getAwayFromZeroCount() {
+        return awayFromZeroCount.sum();
+    }
+
+    /**
+     * <p>Gets the number of numbers rounded towards zero. The numbers without any non-zero digit truncated
+     * are neither rounded towards zero nor away from zero.</p>
+     *
+     * @return the number of numbers rounded towards zero
+     */
+    public long getTowardsZeroCount() {
+        return towardsZeroCount.sum();
+    }
+
+    /**
+     * <p>Gets the number of numbers rejected by an IllegalArgumentException, such as a NumberFormatException.
+     * </p>
+     *
+     * @return the number of numbers rejected
+     */
+    public long getRejectionCount() {
+        return rejectionCount.sum();
+    }
+
+    /**
+     * <p>Gets the number of RoundingExceptions thrown.</p>
+     *
+     * @return the number of RoundingExceptions thrown
+     */
+    public long getRoundingExceptionCount() {
+        return roundingExceptionCount.sum();
+    }
+
+    /**
+     * <p>Gets the number of latencies recorded, that is the number of sampled calls which are not rejected and
+     * do not throw RoundingException.</p>
+     *
+     * @return the number of latencies recorded
+     */
+    public long getLatencyCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            count += latencyCounts[i].sum();
+        }
+        return count;
+    }
+
+    /**
+     * <p>Gets the latency at the given percentile, such as 50 for the median or 99.9. The greatest latency of
+     * the bucket holding the percentile is returned, so the actual latency is at most 12.5% less.</p>
+     *
+     * @return the latency at the percentile in nanoseconds, or 0 if no latency is recorded
+     * @param percentile the percentile, greater than 0 and not greater than 100
+     * @throws IllegalArgumentException if percentile is not greater than 0 or greater than 100
+     */
+    public long getLatencyPercentile(double percentile) {
+        if (!(percentile > 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("percentile should be greater than 0 and not greater than 100");
+        }
+
+        // take a snapshot, so that the counts do not change while they are walked
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            counts[i] = latencyCounts[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            count += counts[i];
+            if (count >= rank) {
+                return getBucketLimit(i);
+            }
+        }
+        return MAX_LATENCY;
+    }
+
+    /**
+     * <p>Gets the time when the counting started, that is when the instance was created or last reset.</p>
+     *
+     * @return the start time in milliseconds, as given by System.currentTimeMillis()
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * <p>Resets all the counts to 0. The numbers rounded during the call may or may not be counted.</p>
+     */
+    public void reset() {
+        startTime = System.currentTimeMillis();
+        callCount.reset();
+        tieCount.reset();
+        awayFromZeroCount.reset();
+        towardsZeroCount.reset();
+        rejectionCount.reset();
+        roundingExceptionCount.reset();
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            latencyCounts[i].reset();
+        }
+    }
+
+    /**
+     * <p>Gets the index of the bucket of the given latency.</p>
+     *
+     * @return the index of the bucket
+     * @param latency the latency in nanoseconds, a negative latency is taken as 0
+     */
+    static int getBucketIndex(long latency) {
+        if (latency < SUB_BUCKET_COUNT) {
+            return (latency < 0) ? 0 : (int) latency;
+        }
+
+        long value = Math.min(latency, MAX_LATENCY);
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+
+        // the highest SUB_BUCKET_BITS + 1 bits, the first of them is always 1
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * <p>Gets the greatest latency of the given bucket.</p>
+     *
+     * @return the greatest latency of the bucket in nanoseconds
+     * @param index the index of the bucket
+     */
+    static long getBucketLimit(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long first = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return first + (1L << shift) - 1;
+    }
+}
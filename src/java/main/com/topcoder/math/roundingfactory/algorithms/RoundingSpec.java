@@ -0,0 +1,355 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collector;
+
+/**
+ * <p>An algorithm compiled with fixed accuracy and comparison digits, created by RoundingAlgorithm.compile or
+ * RoundingManager.getRoundingSpec.</p>
+ * <p>The digits are checked once when the spec is compiled, so its round methods go straight to the rounding
+ * of the algorithm without checking them again. Unlike the default digits of the algorithm, the digits of a
+ * spec never change, so a spec can be kept in a static field and used by all the threads, while other code
+ * changes the defaults of the algorithm.</p>
+ * <p>The results are the same as the ones of the algorithm with the digits of the spec.</p>
+ * <p>A spec also gives the operators and the collectors of the streams of java.util.stream. The operators of
+ * doubles and fixed-point numbers are primitive, so a DoubleStream or a LongStream is rounded without boxing,
+ * and the sums of RoundedSum add the rounded values in the same pass. They can all be used by parallel
+ * streams.</p>
+ *
+ * <p>This class is immutable and thread safe, provided that the algorithm is thread safe as all the
+ * algorithms of this component are.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+public final class RoundingSpec {
+
+    /**
+     * <p>The algorithm used to round.</p>
+     */
+    private final RoundingAlgorithm algorithm;
+
+    /**
+     * <p>The accuracy digit, non-negative.</p>
+     */
+    private final int accuracyDigit;
+
+    /**
+     * <p>The comparison digit, between 1 and 9 inclusive.</p>
+     */
+    private final int comparisonDigit;
+
+    /**
+     * <p>Constructs a spec, the digits have been checked.</p>
+     *
+     * @param algorithm the algorithm used to round
+     * @param accuracyDigit the accuracy digit, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     */
+    RoundingSpec(RoundingAlgorithm algorithm, int accuracyDigit, int comparisonDigit) {
+        this.algorithm = algorithm;
+        this.accuracyDigit = accuracyDigit;
+        this.comparisonDigit = comparisonDigit;
+    }
+
+    /**
+     * <p>Gets the accuracy digit of this spec.</p>
+     *
+     * @return the accuracy digit
+     */
+    public int getAccuracyDigit() {
+        return accuracyDigit;
+    }
+
+    /**
+     * <p>Gets the comparison digit of this spec.</p>
+     *
+     * @return the comparison digit
+     */
+    public int getComparisonDigit() {
+        return comparisonDigit;
+    }
+
+    /**
+     * <p>Rounds the given number.</p>
+     * <p>The same as round(CharSequence, int, int) of the algorithm with the digits of this spec.</p>
+     *
+     * @return the rounded result
+     * @param number a number to round
+     * @throws NullPointerException if number is null
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    public String round(CharSequence number) {
+        if (number == null) {
+            throw new NullPointerException("number should not be null");
+        }
+
+        return algorithm.roundSequence(number, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given number and appends the result to the given StringBuilder.</p>
+     * <p>The same as round(CharSequence, StringBuilder, int, int) of the algorithm with the digits of this
+     * spec.</p>
+     *
+     * @return the number of chars appended
+     * @param number a number to round
+     * @param result the StringBuilder to append the result
+     * @throws NullPointerException if number or result is null
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    public int round(CharSequence number, StringBuilder result) {
+        try {
+            return round(number, (Appendable) result);
+        } catch (IOException e) {
+            // never happens, StringBuilder does not throw IOException
+            throw new RoundingException("exception occurs when appending the result", e);
+        }
+    }
+
+    /**
+     * <p>Rounds the given number and appends the result to the given Appendable.</p>
+     * <p>The same as round(CharSequence, Appendable, int, int) of the algorithm with the digits of this
+     * spec.</p>
+     *
+     * @return the number of chars appended
+     * @param number a number to round
+     * @param result the Appendable to append the result
+     * @throws NullPointerException if number or result is null
+     * @throws IOException if the Appendable throws it
+     * @throws RoundingException if exceptions occur when rounding.
+     * @throws NumberFormatException if number is not a valid floating point number
+     */
+    public int round(CharSequence number, Appendable result) throws IOException {
+        if (number == null) {
+            throw new NullPointerException("number should not be null");
+        }
+        if (result == null) {
+            throw new NullPointerException("result should not be null");
+        }
+
+        return algorithm.appendSequence(number, result, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given double.</p>
+     * <p>The same as roundDouble(double, int, int) of the algorithm with the digits of this spec.</p>
+     *
+     * @return the rounded number
+     * @param number a number to round
+     * @throws IllegalArgumentException if the number is NaN or infinite
+     * @throws RoundingException if exceptions occur when rounding.
+     */
+    public double roundDouble(double number) {
+        return algorithm.roundDoubleValue(number, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given BigDecimal.</p>
+     * <p>The same as roundDecimal(BigDecimal, int, int) of the algorithm with the digits of this spec.</p>
+     *
+     * @return the rounded number, with the accuracy digit of this spec digits after the decimal point
+     * @param number a number to round
+     * @throws NullPointerException if number is null
+     * @throws RoundingException if exceptions occur when rounding.
+     */
+    public BigDecimal roundDecimal(BigDecimal number) {
+        if (number == null) {
+            throw new NullPointerException("number should not be null");
+        }
+
+        return algorithm.roundDecimalValue(number, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the given fixed-point number.</p>
+     * <p>The same as round(long, int, int, int) of the algorithm with the digits of this spec. Only the scale
+     * is checked, since it is given by each call.</p>
+     *
+     * @return the unscaled value of the rounded result
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number
+     * @throws IllegalArgumentException if the scale is negative.
+     * @throws RoundingException if exceptions occur when rounding, or the result can not be held by a long.
+     */
+    public long round(long unscaledValue, int scale) {
+        FixedPoint.checkScale(scale);
+
+        return algorithm.roundValue(unscaledValue, scale, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the doubles from index from (inclusive) to index to (exclusive). The result of numbers[i] is
+     * stored to results[i].</p>
+     * <p>The same as roundAll(double[], double[], int, int, int, int) of the algorithm with the digits of this
+     * spec.</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results, it may be numbers itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @throws NullPointerException if numbers or results is null
+     * @throws IllegalArgumentException if a number to round is NaN or infinite, or from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * numbers or results
+     * @throws RoundingException if exceptions occur when rounding.
+     */
+    public void roundAll(double[] numbers, double[] results, int from, int to) {
+        if (numbers == null) {
+            throw new NullPointerException("numbers should not be null");
+        }
+        if (results == null) {
+            throw new NullPointerException("results should not be null");
+        }
+        RoundingAlgorithm.checkRange(numbers.length, results.length, from, to);
+
+        algorithm.roundRange(numbers, results, from, to, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Rounds the fixed-point numbers from index from (inclusive) to index to (exclusive). The unscaled value
+     * of the result of unscaledValues[i] is stored to results[i].</p>
+     * <p>The same as roundAll(long[], int, long[], int, int, int, int) of the algorithm with the digits of this
+     * spec.</p>
+     *
+     * @param unscaledValues the unscaled values of the numbers to round
+     * @param scale the number of digits after the decimal point of all the numbers
+     * @param results the array to store the unscaled values of the rounded results, it may be unscaledValues
+     * itself
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @throws NullPointerException if unscaledValues or results is null
+     * @throws IllegalArgumentException if the scale is negative, or from is greater than to
+     * @throws ArrayIndexOutOfBoundsException if from is negative, or to is greater than the length of
+     * unscaledValues or results
+     * @throws RoundingException if exceptions occur when rounding, or a result can not be held by a long.
+     */
+    public void roundAll(long[] unscaledValues, int scale, long[] results, int from, int to) {
+        FixedPoint.checkScale(scale);
+        if (unscaledValues == null) {
+            throw new NullPointerException("unscaledValues should not be null");
+        }
+        if (results == null) {
+            throw new NullPointerException("results should not be null");
+        }
+        RoundingAlgorithm.checkRange(unscaledValues.length, results.length, from, to);
+
+        algorithm.roundRange(unscaledValues, scale, results, from, to, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * <p>Returns the operator rounding doubles by roundDouble(double), to round a DoubleStream with
+     * map(DoubleUnaryOperator).</p>
+     *
+     * @return the operator rounding doubles
+     */
+    public DoubleUnaryOperator asDoubleOperator() {
+        return new DoubleUnaryOperator() {
+            public double applyAsDouble(double number) {
+                return algorithm.roundDoubleValue(number, accuracyDigit, comparisonDigit);
+            }
+        };
+    }
+
+    /**
+     * <p>Returns the operator rounding the unscaled values of fixed-point numbers of the given scale by
+     * round(long, int), to round a LongStream with map(LongUnaryOperator).</p>
+     *
+     * @return the operator rounding unscaled values
+     * @param scale the number of digits after the decimal point of all the numbers
+     * @throws IllegalArgumentException if the scale is negative.
+     */
+    public LongUnaryOperator asLongOperator(final int scale) {
+        FixedPoint.checkScale(scale);
+
+        return new LongUnaryOperator() {
+            public long applyAsLong(long unscaledValue) {
+                return algorithm.roundValue(unscaledValue, scale, accuracyDigit, comparisonDigit);
+            }
+        };
+    }
+
+    /**
+     * <p>Returns the operator rounding Strings by round(CharSequence), to round a Stream of Strings with
+     * map(Function). A null number is rejected by NullPointerException.</p>
+     *
+     * @return the operator rounding Strings
+     */
+    public UnaryOperator<String> asStringOperator() {
+        return new UnaryOperator<String>() {
+            public String apply(String number) {
+                return round(number);
+            }
+        };
+    }
+
+    /**
+     * <p>Creates an empty RoundedSum of the numbers rounded by this spec.</p>
+     *
+     * @return the new sum
+     */
+    public RoundedSum newSum() {
+        return new RoundedSum(this);
+    }
+
+    /**
+     * <p>Returns the Collector rounding the elements of a Stream and adding them to a RoundedSum. The elements
+     * should be CharSequences or Numbers. A CharSequence is added by accept(CharSequence), a Double or a Float
+     * by accept(double), and a BigDecimal by accept(BigDecimal). The integers Long, Integer, Short, Byte and
+     * BigInteger are added exactly as BigDecimals, so no digit is lost to a double. The collector is unordered
+     * and can be used by a parallel stream.</p>
+     * <p>An element of any other type is rejected by IllegalArgumentException, a null one by
+     * NullPointerException.</p>
+     *
+     * @return the collector of the RoundedSum of the elements
+     */
+    public Collector<Object, RoundedSum, RoundedSum> summing() {
+        return Collector.of(new Supplier<RoundedSum>() {
+            public RoundedSum get() {
+                return newSum();
+            }
+        }, new BiConsumer<RoundedSum, Object>() {
+            public void accept(RoundedSum sum, Object element) {
+                if (element instanceof CharSequence) {
+                    sum.accept((CharSequence) element);
+                } else if (element instanceof Double || element instanceof Float) {
+                    sum.accept(((Number) element).doubleValue());
+                } else if (element instanceof BigDecimal) {
+                    sum.accept((BigDecimal) element);
+                } else if (element instanceof Long || element instanceof Integer || element instanceof Short
+                        || element instanceof Byte) {
+                    sum.accept(BigDecimal.valueOf(((Number) element).longValue()));
+                } else if (element instanceof BigInteger) {
+                    sum.accept(new BigDecimal((BigInteger) element));
+                } else if (element == null) {
+                    throw new NullPointerException("element should not be null");
+                } else {
+                    throw new IllegalArgumentException("element of " + element.getClass().getName()
+                            + " can not be rounded");
+                }
+            }
+        }, new BinaryOperator<RoundedSum>() {
+            public RoundedSum apply(RoundedSum sum, RoundedSum other) {
+                sum.combine(other);
+                return sum;
+            }
+        }, new Collector.Characteristics[] {Collector.Characteristics.IDENTITY_FINISH,
+            Collector.Characteristics.UNORDERED});
+    }
+}
@@ -5,6 +5,8 @@
  */
 package com.topcoder.math.roundingfactory.algorithms;
 
+import java.math.BigInteger;
+
 /**
  * <p>A concrete subclass of RoundingAlgorithm which performs the symmetric rounding algorithm:</p>
  * <p>Symmetric arithmetic rounding. If the digits past the accuracy digit are equals to the comparison
@@ -24,7 +26,7 @@ package com.topcoder.math.roundingfactory.algorithms;
  *
  * @version 1.0
  */
-public class SymmetricRounding extends RoundingAlgorithm {
+public class SymmetricRounding extends FloatingRoundingAlgorithm {
 
     /**
      * <p>Constructs an instance of SymmetricRounding with accuracyDigit equal to
@@ -68,12 +70,30 @@ public class SymmetricRounding extends RoundingAlgorithm {
      * @throws RoundingException if any exception occurs when rounding.
      */
     public String round(String number, int accuracyDigit, int comparisonDigit) {
-
         // check arguments
         RoundingAlgorithm.checkRoundingArguments(accuracyDigit, comparisonDigit);
 
+        return roundRecorded(new FloatingNumber(), number, accuracyDigit, comparisonDigit).toString();
+    }
+
+    /**
+     * <p>Parses the given number into the given FloatingNumber and rounds it, the arguments have been checked.</p>
+     * <p>The same as round(String, int, int), without creating the resulting string.</p>
+     *
+     * @return the given FloatingNumber rounded
+     * @param floatingNumber the FloatingNumber to parse the number into
+     * @param number the number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws NullPointerException if number is null
+     * @throws NumberFormatException if number is not a valid floating point number
+     * @throws RoundingException if any exception occurs when rounding.
+     */
+    FloatingNumber roundNumber(FloatingNumber floatingNumber, CharSequence number, int accuracyDigit,
+            int comparisonDigit) {
+
         // exception will be thrown if the number is invalid
-        FloatingNumber floatingNumber = new FloatingNumber(number);
+        floatingNumber.parse(number);
 
         try {
             int comparisonResult = floatingNumber.truncationCompare(accuracyDigit, comparisonDigit);
@@ -90,6 +110,134 @@ public class SymmetricRounding extends RoundingAlgorithm {
         } catch (Exception e) {
             throw new RoundingException("exception occurs when rounding", e);
         }
+    }
+
+    /**
+     * <p>Performs the rounding of a fixed-point number, the arguments have been checked.</p>
+     * <p>The same as round(String, int, int), using integer arithmetic only.</p>
+     * <p>Example:</p>
+     * <p>round(1251, 3, 1, 5) -> 13</p>
+     * <p>round(-125, 2, 1, 5) -> -13</p>
+     *
+     * @return the unscaled value of the rounded number
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number, non-negative
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if the result can not be held by a long.
+     */
+    long roundValue(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
+
+        int comparisonResult = FixedPoint.truncationCompare(unscaledValue, scale, accuracyDigit, comparisonDigit);
+        if (comparisonResult == 0) {
+            // if comparisonDigit equals to truncation digits, round away from 0
+            return FixedPoint.roundAwayFromZero(unscaledValue, scale, accuracyDigit);
+        } else if (comparisonResult == 1) {
+            // if comparisonDigit is less than truncation digits, round away from 0
+            return FixedPoint.roundAwayFromZero(unscaledValue, scale, accuracyDigit);
+        } else {
+            // if comparisonDigit is greater than truncation digits, round towards 0
+            return FixedPoint.roundTowardsZero(unscaledValue, scale, accuracyDigit);
+        }
+    }
+
+    /**
+     * <p>Performs the rounding of a fixed-point number whose unscaled value may not fit in a long, the
+     * arguments have been checked.</p>
+     * <p>The same as roundValue(long, int, int, int): the quotient is rounded away from 0 unless the remainder
+     * is less than the comparison digit followed by 0's.</p>
+     *
+     * @return the unscaled value of the rounded number
+     * @param unscaledValue the unscaled value of the number to round
+     * @param scale the number of digits after the decimal point of the number, non-negative
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     */
+    BigInteger roundValue(BigInteger unscaledValue, int scale, int accuracyDigit, int comparisonDigit) {
 
+        BigInteger[] quotientAndRemainder = FixedPoint.divideAndRemainder(unscaledValue, scale, accuracyDigit);
+        BigInteger quotient = quotientAndRemainder[0];
+        BigInteger remainder = quotientAndRemainder[1];
+
+        int comparisonResult = FixedPoint.compareRemainder(remainder, scale - accuracyDigit, comparisonDigit);
+
+        // round away from 0 if comparisonDigit is not greater than truncation digits, otherwise round towards 0
+        return (comparisonResult >= 0) ? FixedPoint.awayFromZero(quotient, remainder) : quotient;
+    }
+
+    /**
+     * <p>Rounds the fixed-point numbers in the given range, the arguments have been checked.</p>
+     * <p>When digits are truncated, the power of ten and the comparison threshold are computed once for all the
+     * numbers, so each number only takes a division, a remainder and a comparison.</p>
+     *
+     * @param unscaledValues the unscaled values of the numbers to round
+     * @param scale the number of digits after the decimal point of all the numbers, non-negative
+     * @param results the array to store the unscaled values of the rounded results
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws RoundingException if a result can not be held by a long.
+     */
+    void roundRange(long[] unscaledValues, int scale, long[] results, int from, int to, int accuracyDigit,
+            int comparisonDigit) {
+
+        int digits = scale - accuracyDigit;
+        if (!FixedPoint.canDivide(digits)) {
+            // no digit or too many digits are truncated
+            super.roundRange(unscaledValues, scale, results, from, to, accuracyDigit, comparisonDigit);
+            return;
+        }
+
+        long divisor = FixedPoint.powerOfTen(digits);
+        long threshold = comparisonDigit * FixedPoint.powerOfTen(digits - 1);
+        for (int i = from; i < to; ++i) {
+            long quotient = unscaledValues[i] / divisor;
+            long remainder = unscaledValues[i] % divisor;
+
+            // round away from 0, unless comparisonDigit is greater than truncation digits
+            results[i] = (FixedPoint.compareRemainder(remainder, threshold) >= 0)
+                    ? FixedPoint.awayFromZero(quotient, remainder) : quotient;
+        }
+    }
+
+    /**
+     * <p>Rounds the doubles in the given range, the arguments have been checked.</p>
+     * <p>The power of ten of the accuracy and the comparison threshold are computed once for all the numbers.
+     * Each double is multiplied by the power and rounded from its integral part and fraction, so it only takes a
+     * multiplication, a comparison and a division. A double whose truncation may be zero or a tie is rounded by
+     * roundDoubleValue(double, int, int) instead, which finds its shortest decimal.</p>
+     *
+     * @param numbers the numbers to round
+     * @param results the array to store the rounded results
+     * @param from the index of the first number to round
+     * @param to the index after the last number to round
+     * @param accuracyDigit the desired accuracy, non-negative
+     * @param comparisonDigit the comparison digit, between 1 and 9 inclusive
+     * @throws IllegalArgumentException if any number to round is not proper
+     * @throws RoundingException if any exceptions occur when rounding.
+     */
+    void roundRange(double[] numbers, double[] results, int from, int to, int accuracyDigit, int comparisonDigit) {
+
+        if (!FixedPoint.canScale(accuracyDigit)) {
+            // the power of ten can not be held exactly by a double
+            super.roundRange(numbers, results, from, to, accuracyDigit, comparisonDigit);
+            return;
+        }
+
+        double power = FixedPoint.doublePowerOfTen(accuracyDigit);
+        double threshold = comparisonDigit / 10.0;
+        for (int i = from; i < to; ++i) {
+            double scaled = numbers[i] * power;
+            double quotient = (long) scaled;
+            double fraction = Math.abs(scaled - quotient);
+
+            if (!FixedPoint.isClear(scaled, fraction, threshold)) {
+                results[i] = roundDoubleValue(numbers[i], accuracyDigit, comparisonDigit);
+            } else {
+                // round away from 0, unless comparisonDigit is greater than truncation digits
+                results[i] = ((fraction > threshold) ? quotient + Math.signum(scaled) : quotient) / power;
+            }
+        }
     }
 }
@@ -0,0 +1,770 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.csv;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.topcoder.math.roundingfactory.ConfigurationException;
+import com.topcoder.math.roundingfactory.RoundingManager;
+import com.topcoder.math.roundingfactory.algorithms.Algorithm;
+
+/**
+ * <p>A tool which rounds the numbers of some columns of a CSV file with an algorithm, copying everything else
+ * unchanged.</p>
+ * <p>The input file is split into chunks at line boundaries. The chunks are read and rounded in parallel by a
+ * pool of threads, each reading its chunks into the same array, and the ASCII numbers are parsed and written
+ * where they are by Algorithm.round(byte[], int, int, byte[], int). The rounded chunks are written to the output
+ * file channel in order while the next ones are rounded. At most two rounded chunks per thread are held in
+ * memory, besides the array each thread reads into.</p>
+ * <p>The numbers are rounded with the default accuracy and comparison digits of the algorithm. Empty fields
+ * are left empty. A quoted field in a rounded column is rounded inside the quotes, and delimiters in quotes
+ * do not split fields. Since the chunks are split at line feeds, a quoted field must not contain a line
+ * feed, and IOException is thrown if it does, whatever the chunk size. Lines may end with a line feed or a
+ * carriage return and a line feed. The given number of header lines are copied unchanged.</p>
+ * <p>It can be run from the command line as well, and prints the report of the rounding:</p>
+ * <p>java com.topcoder.math.roundingfactory.csv.CsvRounder input output algorithm columns [header lines]
+ * [threads]</p>
+ * <p>where the algorithm is the name of an algorithm of RoundingManager and the columns are comma separated
+ * zero-based column indexes.</p>
+ *
+ * <p>This class is thread safe once configured, since each call of round(File, File) uses its own threads
+ * and buffers.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+public class CsvRounder {
+
+    /**
+     * The default size of the chunks rounded in parallel, 8 MB.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * The size of the buffer used to find the line feeds at the chunk boundaries.
+     */
+    private static final int BOUNDARY_BUFFER_SIZE = 8192;
+
+    /**
+     * The room kept after the rounded chunk in the output buffer, for the rounded numbers to grow.
+     */
+    private static final int OUTPUT_SLACK = 64;
+
+    /**
+     * The array each thread of the pools reads its chunks into, which is reused for all the chunks of the
+     * thread. The threads of a pool end with the call of round(File, File), so their arrays are released then.
+     */
+    private static final ThreadLocal<byte[]> INPUTS = new ThreadLocal<byte[]>();
+
+    /**
+     * The line feed, which ends a row.
+     */
+    private static final byte LINE_FEED = '\n';
+
+    /**
+     * The carriage return, which may precede a line feed.
+     */
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    /**
+     * The quote, which encloses a field.
+     */
+    private static final byte QUOTE = '"';
+
+    /**
+     * The algorithm to round the numbers.
+     */
+    private final Algorithm algorithm;
+
+    /**
+     * Whether each column is rounded, indexed by the zero-based column index. The columns after the end are
+     * not rounded.
+     */
+    private final boolean[] roundedColumns;
+
+    /**
+     * The field delimiter.
+     */
+    private byte delimiter = ',';
+
+    /**
+     * The number of header lines copied unchanged.
+     */
+    private int headerLines = 0;
+
+    /**
+     * The number of threads rounding the chunks.
+     */
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The size of the chunks rounded in parallel. A chunk is extended to the end of its last line.
+     */
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /**
+     * <p>Constructs a CsvRounder rounding the given columns with the given algorithm.</p>
+     *
+     * @param algorithm the algorithm to round the numbers
+     * @param columns the zero-based indexes of the columns to round
+     * @throws NullPointerException if algorithm or columns is null
+     * @throws IllegalArgumentException if columns is empty or contains a negative index
+     */
+    public CsvRounder(Algorithm algorithm, int[] columns) {
+        if (algorithm == null) {
+            throw new NullPointerException("algorithm should not be null");
+        }
+        if (columns == null) {
+            throw new NullPointerException("columns should not be null");
+        }
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("columns should not be empty");
+        }
+
+        int maxColumn = 0;
+        for (int i = 0; i < columns.length; ++i) {
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("columns should not contain negative index " + columns[i]);
+            }
+            maxColumn = Math.max(maxColumn, columns[i]);
+        }
+
+        this.algorithm = algorithm;
+        this.roundedColumns = new boolean[maxColumn + 1];
+        for (int i = 0; i < columns.length; ++i) {
+            roundedColumns[columns[i]] = true;
+        }
+    }
+
+    /**
+     * <p>Constructs a CsvRounder rounding the given columns with the algorithm of the given name in
+     * RoundingManager.</p>
+     *
+     * @param algorithmName the name of the algorithm in RoundingManager
+     * @param columns the zero-based indexes of the columns to round
+     * @throws NullPointerException if algorithmName or columns is null
+     * @throws IllegalArgumentException if algorithmName is empty or there is no such algorithm, or columns is
+     * empty or contains a negative index
+     * @throws ConfigurationException if RoundingManager can not be created
+     */
+    public CsvRounder(String algorithmName, int[] columns) throws ConfigurationException {
+        this(getAlgorithm(algorithmName), columns);
+    }
+
+    /**
+     * <p>Gets the algorithm of the given name in RoundingManager.</p>
+     *
+     * @param algorithmName the name of the algorithm
+     * @return the algorithm of the given name
+     * @throws NullPointerException if algorithmName is null
+     * @throws IllegalArgumentException if algorithmName is empty or there is no such algorithm
+     * @throws ConfigurationException if RoundingManager can not be created
+     */
+    private static Algorithm getAlgorithm(String algorithmName) throws ConfigurationException {
+        Algorithm algorithm = RoundingManager.getInstance().getAlgorithm(algorithmName);
+        if (algorithm == null) {
+            throw new IllegalArgumentException("there is no algorithm named " + algorithmName);
+        }
+        return algorithm;
+    }
+
+    /**
+     * <p>Sets the field delimiter, ',' by default. It should be an ASCII char which can not be part of a
+     * number.</p>
+     *
+     * @param delimiter the field delimiter
+     * @throws IllegalArgumentException if delimiter is not ASCII, or it is a line feed, a carriage return,
+     * a quote, a digit, a sign or a period
+     */
+    public void setDelimiter(char delimiter) {
+        if (delimiter > 127 || delimiter == LINE_FEED || delimiter == CARRIAGE_RETURN || delimiter == QUOTE
+                || (delimiter >= '0' && delimiter <= '9') || "+-.".indexOf(delimiter) >= 0) {
+            throw new IllegalArgumentException("delimiter '" + delimiter + "' is not allowed");
+        }
+        this.delimiter = (byte) delimiter;
+    }
+
+    /**
+     * <p>Gets the field delimiter.</p>
+     *
+     * @return the field delimiter
+     */
+    public char getDelimiter() {
+        return (char) delimiter;
+    }
+
+    /**
+     * <p>Sets the number of header lines copied unchanged, 0 by default.</p>
+     *
+     * @param headerLines the number of header lines
+     * @throws IllegalArgumentException if headerLines is negative
+     */
+    public void setHeaderLines(int headerLines) {
+        if (headerLines < 0) {
+            throw new IllegalArgumentException("headerLines should not be negative");
+        }
+        this.headerLines = headerLines;
+    }
+
+    /**
+     * <p>Gets the number of header lines copied unchanged.</p>
+     *
+     * @return the number of header lines
+     */
+    public int getHeaderLines() {
+        return headerLines;
+    }
+
+    /**
+     * <p>Sets the number of threads rounding the chunks, the number of processors by default.</p>
+     *
+     * @param threadCount the number of threads
+     * @throws IllegalArgumentException if threadCount is not positive
+     */
+    public void setThreadCount(int threadCount) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("threadCount should be positive");
+        }
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * <p>Gets the number of threads rounding the chunks.</p>
+     *
+     * @return the number of threads
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * <p>Sets the size of the chunks rounded in parallel, DEFAULT_CHUNK_SIZE by default. A chunk is extended
+     * to the end of its last line.</p>
+     *
+     * @param chunkSize the size of the chunks in bytes
+     * @throws IllegalArgumentException if chunkSize is not positive
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize should be positive");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * <p>Gets the size of the chunks rounded in parallel.</p>
+     *
+     * @return the size of the chunks in bytes
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * <p>Rounds the configured columns of the input file and writes the result to the output file, which is
+     * replaced.</p>
+     *
+     * @param input the CSV file to round
+     * @param output the file to write the result
+     * @return the report of the rounding
+     * @throws NullPointerException if input or output is null
+     * @throws IllegalArgumentException if input and output are the same file
+     * @throws IOException if the files can not be read or written, or a quoted field contains a line feed
+     * @throws NumberFormatException if a field to round is not a valid number
+     * @throws com.topcoder.math.roundingfactory.algorithms.RoundingException if a number can not be rounded
+     */
+    public CsvRoundingReport round(File input, File output) throws IOException {
+        if (input == null) {
+            throw new NullPointerException("input should not be null");
+        }
+        if (output == null) {
+            throw new NullPointerException("output should not be null");
+        }
+        if (input.getCanonicalFile().equals(output.getCanonicalFile())) {
+            throw new IllegalArgumentException("input and output should not be the same file");
+        }
+
+        long start = System.nanoTime();
+        FileInputStream in = new FileInputStream(input);
+        try {
+            FileOutputStream out = new FileOutputStream(output);
+            try {
+                return round(in.getChannel(), out.getChannel(), start);
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * <p>Rounds the input channel chunk by chunk and writes the result to the output channel.</p>
+     *
+     * @param in the channel of the input file
+     * @param out the channel of the output file
+     * @param start the time the rounding started, by System.nanoTime()
+     * @return the report of the rounding
+     * @throws IOException if the files can not be read or written, or a quoted field contains a line feed
+     */
+    private CsvRoundingReport round(FileChannel in, FileChannel out, long start) throws IOException {
+        long size = in.size();
+
+        // copy the header lines
+        long position = 0;
+        for (int i = 0; i < headerLines; ++i) {
+            position = findLineEnd(in, position, size);
+        }
+        long bytesWritten = transfer(in, position, out);
+
+        long rowCount = 0;
+        long roundedCount = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            LinkedList<Future<ChunkRounder>> pending = new LinkedList<Future<ChunkRounder>>();
+            while (position < size) {
+                long end = (size - position <= chunkSize) ? size : findLineEnd(in, position + chunkSize - 1, size);
+                if (end - position > Integer.MAX_VALUE) {
+                    throw new IOException("the line at byte " + position + " is too long to be rounded");
+                }
+                pending.addLast(executor.submit(new ChunkTask(in, position, (int) (end - position))));
+                position = end;
+
+                // write the finished chunks, so that at most two chunks per thread are held
+                while (pending.size() >= threadCount * 2 || (position == size && !pending.isEmpty())) {
+                    ChunkRounder chunk = getChunk(pending.removeFirst());
+                    bytesWritten += write(chunk.getOutput(), out);
+                    rowCount += chunk.getRowCount();
+                    roundedCount += chunk.getRoundedCount();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return new CsvRoundingReport(size, bytesWritten, rowCount, roundedCount, System.nanoTime() - start);
+    }
+
+    /**
+     * <p>Waits for the rounding of a chunk and gets it.</p>
+     *
+     * @param future the future of the chunk
+     * @return the rounded chunk
+     * @throws IOException if the chunk can not be read, or the waiting is interrupted
+     */
+    private static ChunkRounder getChunk(Future<ChunkRounder> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while rounding the chunks");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("exception occurs when rounding the chunk: " + cause);
+        }
+    }
+
+    /**
+     * <p>Finds the end of the line containing the given position, that is the position after its line feed,
+     * or the size if there is no more line feed.</p>
+     *
+     * @param channel the channel of the file
+     * @param position the position in the line
+     * @param size the size of the file
+     * @return the end of the line
+     * @throws IOException if the file can not be read
+     */
+    private static long findLineEnd(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_BUFFER_SIZE);
+        while (position < size) {
+            buffer.clear();
+            int count = channel.read(buffer, position);
+            if (count <= 0) {
+                break;
+            }
+            for (int i = 0; i < count; ++i) {
+                if (buffer.get(i) == LINE_FEED) {
+                    return position + i + 1;
+                }
+            }
+            position += count;
+        }
+        return size;
+    }
+
+    /**
+     * <p>Transfers the bytes before the given position of the input channel to the output channel.</p>
+     *
+     * @param in the channel of the input file
+     * @param length the number of bytes to transfer
+     * @param out the channel of the output file
+     * @return the number of bytes transferred
+     * @throws IOException if the files can not be read or written
+     */
+    private static long transfer(FileChannel in, long length, FileChannel out) throws IOException {
+        long position = 0;
+        while (position < length) {
+            position += in.transferTo(position, length - position, out);
+        }
+        return length;
+    }
+
+    /**
+     * <p>Writes all the remaining bytes of the given buffer to the output channel.</p>
+     *
+     * @param buffer the buffer to write
+     * @param out the channel of the output file
+     * @return the number of bytes written
+     * @throws IOException if the file can not be written
+     */
+    private static long write(ByteBuffer buffer, FileChannel out) throws IOException {
+        long count = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        return count;
+    }
+
+    /**
+     * <p>Reads the given chunk of the input channel into the given array.</p>
+     *
+     * @param channel the channel of the input file
+     * @param position the position of the chunk in the file
+     * @param input the array to read the chunk into
+     * @param size the size of the chunk
+     * @throws IOException if the file can not be read, or it ends before the chunk
+     */
+    private static void read(FileChannel channel, long position, byte[] input, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(input, 0, size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("the file ends before byte " + (position + size));
+            }
+        }
+    }
+
+    /**
+     * <p>The task which reads a chunk of the input file and rounds it.</p>
+     */
+    private class ChunkTask implements Callable<ChunkRounder> {
+
+        /**
+         * The channel of the input file.
+         */
+        private final FileChannel channel;
+
+        /**
+         * The position of the chunk in the file.
+         */
+        private final long position;
+
+        /**
+         * The size of the chunk.
+         */
+        private final int size;
+
+        /**
+         * Constructs a task rounding the given chunk.
+         *
+         * @param channel the channel of the input file
+         * @param position the position of the chunk in the file
+         * @param size the size of the chunk
+         */
+        ChunkTask(FileChannel channel, long position, int size) {
+            this.channel = channel;
+            this.position = position;
+            this.size = size;
+        }
+
+        /**
+         * Reads the chunk into the array of the current thread and rounds it. The array is only enlarged for a
+         * chunk longer than all the ones before.
+         *
+         * @return the rounded chunk
+         * @throws IOException if the chunk can not be read, or a quoted field contains a line feed
+         */
+        public ChunkRounder call() throws IOException {
+            byte[] input = INPUTS.get();
+            if (input == null || input.length < size) {
+                input = new byte[size];
+                INPUTS.set(input);
+            }
+            read(channel, position, input, size);
+
+            ChunkRounder chunk = new ChunkRounder(input, size, position);
+            chunk.round();
+            return chunk;
+        }
+    }
+
+    /**
+     * <p>Rounds the configured columns of a chunk of whole lines to a heap buffer.</p>
+     * <p>The chunk is read from the array of the thread which rounds it, so the array is not used after round()
+     * returns, and the thread can read its next chunk into it while this one waits to be written.</p>
+     */
+    private class ChunkRounder {
+
+        /**
+         * The array holding the chunk to round, null once it is rounded.
+         */
+        private byte[] input;
+
+        /**
+         * The size of the chunk, at the beginning of the input.
+         */
+        private final int size;
+
+        /**
+         * The position of the chunk in the file, to report the position of an invalid number.
+         */
+        private final long chunkPosition;
+
+        /**
+         * The array to write the rounded chunk, which grows if needed.
+         */
+        private byte[] output;
+
+        /**
+         * The number of bytes written to the output.
+         */
+        private int outputLength;
+
+        /**
+         * The number of rows in the chunk.
+         */
+        private long rowCount;
+
+        /**
+         * The number of numbers rounded in the chunk.
+         */
+        private long roundedCount;
+
+        /**
+         * Constructs an instance rounding the given chunk.
+         *
+         * @param input the array holding the chunk to round
+         * @param size the size of the chunk, at the beginning of input
+         * @param chunkPosition the position of the chunk in the file
+         */
+        ChunkRounder(byte[] input, int size, long chunkPosition) {
+            this.input = input;
+            this.size = size;
+            this.chunkPosition = chunkPosition;
+            this.output = new byte[size + size / 8 + OUTPUT_SLACK];
+        }
+
+        /**
+         * Rounds the chunk field by field. The bytes between the numbers to round are copied in bulk.
+         * <p>A line feed in quotes is rejected rather than taken as part of the field: the chunks are cut at
+         * the first line feed after their size, quoted or not, so the chunk after a cut in quotes would start
+         * with its quotes inverted. The chunk before such a cut always ends with a line feed in quotes, so the
+         * rejection does not depend on the chunk size.</p>
+         *
+         * @throws IOException if a quoted field contains a line feed
+         * @throws NumberFormatException if a field to round is not a valid number
+         */
+        void round() throws IOException {
+            try {
+                roundFields();
+            } finally {
+                // the array is reused by the thread for its next chunk
+                input = null;
+            }
+        }
+
+        /**
+         * Rounds the fields of the chunk, see round().
+         *
+         * @throws IOException if a quoted field contains a line feed
+         * @throws NumberFormatException if a field to round is not a valid number
+         */
+        private void roundFields() throws IOException {
+            int limit = size;
+            int copied = 0;
+            int column = 0;
+            int position = 0;
+            while (position < limit) {
+                // find the end of the field, skipping the delimiters in quotes
+                int fieldStart = position;
+                boolean quoted = false;
+                byte b = 0;
+                for (; position < limit; ++position) {
+                    b = input[position];
+                    if (b == QUOTE) {
+                        quoted = !quoted;
+                    } else if (b == LINE_FEED) {
+                        if (quoted) {
+                            throw new IOException("quoted line feed at byte " + (chunkPosition + position)
+                                    + " is not supported");
+                        }
+                        break;
+                    } else if (!quoted && b == delimiter) {
+                        break;
+                    }
+                }
+
+                if (column < roundedColumns.length && roundedColumns[column]) {
+                    int numberStart = fieldStart;
+                    int numberEnd = position;
+                    if (position < limit && b == LINE_FEED && numberEnd > numberStart
+                            && input[numberEnd - 1] == CARRIAGE_RETURN) {
+                        --numberEnd;
+                    }
+                    if (numberEnd - numberStart >= 2 && input[numberStart] == QUOTE && input[numberEnd - 1] == QUOTE) {
+                        ++numberStart;
+                        --numberEnd;
+                    }
+                    if (numberEnd > numberStart) {
+                        copy(copied, numberStart);
+                        roundNumber(numberStart, numberEnd);
+                        copied = numberEnd;
+                        ++roundedCount;
+                    }
+                }
+
+                if (position == limit) {
+                    // the last line without line feed
+                    ++rowCount;
+                } else if (b == LINE_FEED) {
+                    ++rowCount;
+                    column = 0;
+                    ++position;
+                } else {
+                    ++column;
+                    ++position;
+                }
+            }
+            copy(copied, limit);
+        }
+
+        /**
+         * Copies the bytes of the chunk from start (inclusive) to end (exclusive) to the output.
+         *
+         * @param start the position of the first byte to copy
+         * @param end the position after the last byte to copy
+         */
+        private void copy(int start, int end) {
+            ensureRoom(end - start);
+            System.arraycopy(input, start, output, outputLength, end - start);
+            outputLength += end - start;
+        }
+
+        /**
+         * Rounds the number of the chunk from start (inclusive) to end (exclusive) to the output.
+         * <p>The room for the result is made before the rounding. It is at most accuracyDigit + 2 bytes longer
+         * than the number: a carry or a 0 before the decimal point, the decimal point, and the fractional
+         * digits padded to the accuracy.</p>
+         *
+         * @param start the position of the first byte of the number
+         * @param end the position after the last byte of the number
+         * @throws NumberFormatException if the bytes are not a valid number
+         */
+        private void roundNumber(int start, int end) {
+            ensureRoom(end - start + algorithm.getAccuracyDigit() + 2);
+            try {
+                outputLength += algorithm.round(input, start, end - start, output, outputLength);
+            } catch (NumberFormatException e) {
+                throw new NumberFormatException("invalid number at byte " + (chunkPosition + start) + ": "
+                        + e.getMessage());
+            }
+        }
+
+        /**
+         * Makes sure the output has room for the given number of bytes, growing it if needed.
+         *
+         * @param length the number of bytes to write
+         */
+        private void ensureRoom(int length) {
+            if (output.length - outputLength >= length) {
+                return;
+            }
+            byte[] larger = new byte[Math.max(output.length * 2, outputLength + length)];
+            System.arraycopy(output, 0, larger, 0, outputLength);
+            output = larger;
+        }
+
+        /**
+         * Gets the rounded chunk, ready to be written.
+         *
+         * @return the rounded chunk
+         */
+        ByteBuffer getOutput() {
+            return ByteBuffer.wrap(output, 0, outputLength);
+        }
+
+        /**
+         * Gets the number of rows in the chunk.
+         *
+         * @return the number of rows
+         */
+        long getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Gets the number of numbers rounded in the chunk.
+         *
+         * @return the number of numbers rounded
+         */
+        long getRoundedCount() {
+            return roundedCount;
+        }
+    }
+
+    /**
+     * <p>Rounds the columns of a CSV file from the command line, and prints the report.</p>
+     * <p>The arguments are the input file, the output file, the name of the algorithm in RoundingManager,
+     * the comma separated zero-based indexes of the columns, and optionally the number of header lines and
+     * the number of threads.</p>
+     *
+     * @param args the command line arguments
+     * @throws Exception if the rounding fails
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4 || args.length > 6) {
+            System.err.println("usage: java " + CsvRounder.class.getName()
+                    + " input output algorithm columns [header lines] [threads]");
+            return;
+        }
+
+        String[] indexes = args[3].split(",");
+        int[] columns = new int[indexes.length];
+        for (int i = 0; i < indexes.length; ++i) {
+            columns[i] = Integer.parseInt(indexes[i].trim());
+        }
+
+        CsvRounder rounder = new CsvRounder(args[2], columns);
+        if (args.length > 4) {
+            rounder.setHeaderLines(Integer.parseInt(args[4]));
+        }
+        if (args.length > 5) {
+            rounder.setThreadCount(Integer.parseInt(args[5]));
+        }
+        System.out.println(rounder.round(new File(args[0]), new File(args[1])));
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.csv;
+
+/**
+ * <p>The report of rounding the columns of a CSV file by CsvRounder. It tells how much was read, written and
+ * rounded, and how fast.</p>
+ *
+ * <p>This class is thread safe, since it is immutable.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @version 1.0
+ */
+public class CsvRoundingReport {
+
+    /**
+     * The number of bytes in a megabyte.
+     */
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    /**
+     * The number of bytes read from the input file.
+     */
+    private final long bytesRead;
+
+    /**
+     * The number of bytes written to the output file.
+     */
+    private final long bytesWritten;
+
+    /**
+     * The number of rows after the header lines.
+     */
+    private final long rowCount;
+
+    /**
+     * The number of numbers rounded.
+     */
+    private final long roundedCount;
+
+    /**
+     * The time the rounding took, in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Constructs a report.
+     *
+     * @param bytesRead the number of bytes read from the input file
+     * @param bytesWritten the number of bytes written to the output file
+     * @param rowCount the number of rows after the header lines
+     * @param roundedCount the number of numbers rounded
+     * @param elapsedNanos the time the rounding took, in nanoseconds
+     */
+    CsvRoundingReport(long bytesRead, long bytesWritten, long rowCount, long roundedCount, long elapsedNanos) {
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+        this.rowCount = rowCount;
+        this.roundedCount = roundedCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the number of bytes read from the input file.
+     *
+     * @return the number of bytes read
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Returns the number of bytes written to the output file.
+     *
+     * @return the number of bytes written
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Returns the number of rows after the header lines. The last line counts even without a line feed.
+     *
+     * @return the number of rows
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of numbers rounded. Empty fields are not counted, since they are not rounded.
+     *
+     * @return the number of numbers rounded
+     */
+    public long getRoundedCount() {
+        return roundedCount;
+    }
+
+    /**
+     * Returns the time the rounding took, from opening the files to closing them, in milliseconds.
+     *
+     * @return the time the rounding took, in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedNanos / 1000000;
+    }
+
+    /**
+     * Returns the throughput of the rounding, in megabytes (2^20 bytes) of the input file per second.
+     *
+     * @return the throughput in MB/s
+     */
+    public double getMegabytesPerSecond() {
+        return (elapsedNanos == 0) ? 0 : bytesRead / BYTES_PER_MEGABYTE / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Returns a one-line summary of the report.
+     *
+     * @return the summary of the report
+     */
+    public String toString() {
+        return "rounded " + roundedCount + " numbers in " + rowCount + " rows, read " + bytesRead + " bytes, wrote "
+                + bytesWritten + " bytes in " + getElapsedMillis() + " ms ("
+                + Math.round(getMegabytesPerSecond() * 10) / 10.0 + " MB/s)";
+    }
+}
@@ -0,0 +1,258 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import com.topcoder.math.roundingfactory.algorithms.CachingAlgorithm;
+import com.topcoder.math.roundingfactory.algorithms.MeteredAlgorithm;
+import com.topcoder.math.roundingfactory.algorithms.SymmetricRounding;
+import com.topcoder.util.config.ConfigManager;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests the RoundingManagerMXBean registered by RoundingManager. The attributes and operations are used
+ * through an MBeanServer, as a JMX console does.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class RoundingManagerMonitorTests extends TestCase {
+
+    /**
+     * A config file with two algorithms.
+     */
+    private static final String CUSTOM_CONFIG_FILE = "custom.xml";
+
+    /**
+     * A config file registering the MBean in the platform MBeanServer.
+     */
+    private static final String JMX_CONFIG_FILE = "jmx.xml";
+
+    /**
+     * A config file loading the algorithms lazily.
+     */
+    private static final String LAZY_CONFIG_FILE = "lazy.xml";
+
+    /**
+     * The ConfigManager instance for test.
+     */
+    private ConfigManager configManager = ConfigManager.getInstance();
+
+    /**
+     * The MBeanServer to register the MBean in.
+     */
+    private MBeanServer server;
+
+    /**
+     * The object name of the MBean.
+     */
+    private ObjectName name;
+
+    /**
+     * Creates the MBeanServer.
+     *
+     * @throws Exception to JUnit
+     */
+    protected void setUp() throws Exception {
+        server = MBeanServerFactory.newMBeanServer();
+        name = new ObjectName(RoundingManager.MBEAN_NAME);
+    }
+
+    /**
+     * Removes the namespace and the MBean of the platform MBeanServer, to make sure other tests will not be
+     * effected.
+     *
+     * @throws Exception to JUnit
+     */
+    protected void tearDown() throws Exception {
+        removeNamespace();
+        if (ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+    }
+
+    /**
+     * Tests registerMBean(MBeanServer) and unregisterMBean(MBeanServer).
+     * The MBean should be registered, replaced and unregistered.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRegisterMBean() throws Exception {
+        RoundingManager manager = loadConfiguration(CUSTOM_CONFIG_FILE);
+
+        manager.registerMBean(server);
+        assertTrue("the MBean should be registered", server.isRegistered(name));
+        manager.registerMBean(server);
+        assertTrue("the MBean should be replaced", server.isRegistered(name));
+
+        assertTrue("the MBean should be unregistered", manager.unregisterMBean(server));
+        assertFalse("the MBean should not be registered", server.isRegistered(name));
+        assertFalse("the MBean should not be unregistered again", manager.unregisterMBean(server));
+
+        try {
+            manager.registerMBean(null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests the attributes of the MBean.
+     * The names, settings and statistics of the algorithms should be read.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testAttributes() throws Exception {
+        RoundingManager manager = loadConfiguration(CUSTOM_CONFIG_FILE);
+        manager.clearAlgorithms();
+        MeteredAlgorithm metered = new MeteredAlgorithm(new SymmetricRounding(2, 5), 1);
+        manager.addAlgorithm("metered", new CachingAlgorithm(metered, 10));
+        manager.addAlgorithm("plain", new SymmetricRounding(3, 4));
+        manager.getAlgorithm("metered").round("1.125");
+        manager.getAlgorithm("metered").round("1.125");
+        manager.getAlgorithm("metered").round("1.124");
+        manager.registerMBean(server);
+
+        String[] names = (String[]) server.getAttribute(name, "AlgorithmNames");
+        assertEquals("there should be 2 names", 2, names.length);
+        assertEquals("the names should be sorted", "metered", names[0]);
+        assertEquals("the names should be sorted", "plain", names[1]);
+        assertEquals("there should be 2 algorithms", Integer.valueOf(2), server.getAttribute(name, "AlgorithmCount"));
+
+        CompositeData[] statistics = (CompositeData[]) server.getAttribute(name, "AlgorithmStatistics");
+        assertEquals("there should be 2 algorithms", 2, statistics.length);
+        assertEquals("name should be metered", "metered", statistics[0].get("name"));
+        assertEquals("class should be SymmetricRounding", SymmetricRounding.class.getName(),
+                statistics[0].get("className"));
+        assertEquals("accuracy digit should be 2", Integer.valueOf(2), statistics[0].get("accuracyDigit"));
+        assertEquals("cache size should be 10", Integer.valueOf(10), statistics[0].get("cacheSize"));
+        assertEquals("there should be 1 hit", Long.valueOf(1), statistics[0].get("cacheHitCount"));
+        assertEquals("the algorithm should be metered", Boolean.TRUE, statistics[0].get("metered"));
+        assertEquals("there should be 2 calls", Long.valueOf(2), statistics[0].get("callCount"));
+        assertEquals("there should be 1 tie", Long.valueOf(1), statistics[0].get("tieCount"));
+        assertTrue("the median latency should be recorded",
+                ((Long) statistics[0].get("medianLatency")).longValue() > 0);
+
+        assertEquals("name should be plain", "plain", statistics[1].get("name"));
+        assertEquals("comparison digit should be 4", Integer.valueOf(4), statistics[1].get("comparisonDigit"));
+        assertEquals("the algorithm should not be metered", Boolean.FALSE, statistics[1].get("metered"));
+        assertEquals("there should be no call", Long.valueOf(0), statistics[1].get("callCount"));
+    }
+
+    /**
+     * Tests the operations of the MBean.
+     * The statistics of an algorithm should be got and reset, keeping the cached results.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testOperations() throws Exception {
+        RoundingManager manager = loadConfiguration(CUSTOM_CONFIG_FILE);
+        CachingAlgorithm cached = new CachingAlgorithm(new MeteredAlgorithm(new SymmetricRounding()), 10);
+        manager.addAlgorithm("metered", cached);
+        cached.round("1.125");
+        cached.round("1.125");
+        manager.registerMBean(server);
+
+        String[] signature = new String[] {String.class.getName()};
+        CompositeData statistics = (CompositeData) server.invoke(name, "getAlgorithmStatistics",
+                new Object[] {"metered"}, signature);
+        assertEquals("there should be 1 call", Long.valueOf(1), statistics.get("callCount"));
+        assertNull("there should be no statistics", server.invoke(name, "getAlgorithmStatistics",
+                new Object[] {"missing"}, signature));
+
+        assertEquals("the algorithm should exist", Boolean.TRUE, server.invoke(name, "resetStatistics",
+                new Object[] {"metered"}, signature));
+        assertEquals("the algorithm should not exist", Boolean.FALSE, server.invoke(name, "resetStatistics",
+                new Object[] {"missing"}, signature));
+        statistics = (CompositeData) server.invoke(name, "getAlgorithmStatistics", new Object[] {"metered"},
+                signature);
+        assertEquals("there should be no call", Long.valueOf(0), statistics.get("callCount"));
+        assertEquals("there should be no hit", Long.valueOf(0), statistics.get("cacheHitCount"));
+        assertEquals("the cached result should be kept", 1, cached.getSize());
+
+        cached.round("1.125");
+        server.invoke(name, "resetStatistics", new Object[0], new String[0]);
+        assertEquals("there should be no hit", 0, cached.getHitCount());
+    }
+
+    /**
+     * Tests the attributes of the MBean with algorithms loaded lazily.
+     * The algorithms should be shown with their configuration, without being created.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testLazyLoading() throws Exception {
+        RoundingManager manager = loadConfiguration(LAZY_CONFIG_FILE);
+        manager.registerMBean(server);
+
+        CompositeData[] statistics = (CompositeData[]) server.getAttribute(name, "AlgorithmStatistics");
+        assertEquals("there should be 3 algorithms", 3, statistics.length);
+        assertEquals("name should be missing", "missing", statistics[0].get("name"));
+        assertEquals("the algorithm should not be loaded", Boolean.FALSE, statistics[0].get("loaded"));
+        assertEquals("the configured class should be shown",
+                "com.topcoder.math.roundingfactory.algorithms.MissingRounding", statistics[0].get("className"));
+
+        manager.getAlgorithm("no");
+        CompositeData no = (CompositeData) server.invoke(name, "getAlgorithmStatistics", new Object[] {"no"},
+                new String[] {String.class.getName()});
+        assertEquals("the algorithm should be loaded", Boolean.TRUE, no.get("loaded"));
+    }
+
+    /**
+     * Tests loading configuration with the register_mbean property.
+     * The MBean should be registered in the platform MBeanServer.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRegisterMBeanProperty() throws Exception {
+        loadConfiguration(JMX_CONFIG_FILE);
+
+        MBeanServer platform = ManagementFactory.getPlatformMBeanServer();
+        assertTrue("the MBean should be registered", platform.isRegistered(name));
+        assertEquals("there should be 2 algorithms", Integer.valueOf(2), platform.getAttribute(name, "AlgorithmCount"));
+    }
+
+    /**
+     * Loads the given config file and creates the RoundingManager.
+     *
+     * @param filename the config file to load
+     * @return the created RoundingManager
+     * @throws Exception to JUnit
+     */
+    private RoundingManager loadConfiguration(String filename) throws Exception {
+        removeNamespace();
+        configManager.add(filename);
+
+        Field instance = RoundingManager.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+
+        return RoundingManager.getInstance();
+    }
+
+    /**
+     * Removes the namespace.
+     *
+     * @throws Exception to JUnit
+     */
+    private void removeNamespace() throws Exception {
+        if (configManager.existsNamespace(RoundingManager.NAMESPACE)) {
+            configManager.removeNamespace(RoundingManager.NAMESPACE);
+        }
+    }
+}
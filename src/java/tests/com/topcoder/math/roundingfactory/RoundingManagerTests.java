@@ -8,7 +8,20 @@ package com.topcoder.math.roundingfactory;
 import com.topcoder.util.config.ConfigManager;
 import com.topcoder.math.roundingfactory.algorithms.NoRounding;
 import com.topcoder.math.roundingfactory.algorithms.Algorithm;
+import com.topcoder.math.roundingfactory.algorithms.CachingAlgorithm;
+import com.topcoder.math.roundingfactory.algorithms.MeteredAlgorithm;
+import com.topcoder.math.roundingfactory.algorithms.RandomRounding;
+import com.topcoder.math.roundingfactory.algorithms.RoundingMetrics;
+import com.topcoder.math.roundingfactory.algorithms.RoundingSpec;
+import com.topcoder.math.roundingfactory.algorithms.SymmetricRounding;
+import java.io.File;
 import java.lang.reflect.Field;
+import java.util.Iterator;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 
 import junit.framework.TestCase;
@@ -80,6 +93,46 @@ public class RoundingManagerTests extends TestCase {
      */
     private static final String BAD_CONFIG_FILE10 = "bad10.xml";
 
+    /**
+     * A bad config file containing an invalid lazy_loading property.
+     */
+    private static final String BAD_CONFIG_FILE11 = "bad11.xml";
+
+    /**
+     * A bad config file containing a non-positive cache_size property.
+     */
+    private static final String BAD_CONFIG_FILE12 = "bad12.xml";
+
+    /**
+     * A bad config file containing an invalid metrics property.
+     */
+    private static final String BAD_CONFIG_FILE13 = "bad13.xml";
+
+    /**
+     * A bad config file loading the algorithms lazily, containing a negative accuracy property.
+     */
+    private static final String BAD_CONFIG_FILE14 = "bad14.xml";
+
+    /**
+     * A bad config file loading the algorithms lazily, containing a comparison property out of 1 to 9.
+     */
+    private static final String BAD_CONFIG_FILE15 = "bad15.xml";
+
+    /**
+     * A config file caching the results of the algorithms.
+     */
+    private static final String CACHE_CONFIG_FILE = "cache.xml";
+
+    /**
+     * A config file recording the metrics of the algorithms.
+     */
+    private static final String METRICS_CONFIG_FILE = "metrics.xml";
+
+    /**
+     * A config file loading the algorithms lazily, which contains an algorithm of a missing class.
+     */
+    private static final String LAZY_CONFIG_FILE = "lazy.xml";
+
     /**
      * The ConfigManager instance for test.
      */
@@ -128,6 +181,40 @@ public class RoundingManagerTests extends TestCase {
         assertNotNull("testGetInstance failed", RoundingManager.getInstance());
     }
 
+    /**
+     * Tests getInstance method. The same instance should be returned by all the calls.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testGetInstance2() throws Exception {
+        assertSame("the same instance should be returned", manager, RoundingManager.getInstance());
+    }
+
+    /**
+     * Tests getInstance method. The creation fails at first, ConfigurationException should be thrown
+     * by each call until the configuration is fixed.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testGetInstance3() throws Exception {
+        removeNamespace();
+        reset();
+
+        for (int i = 0; i < 2; ++i) {
+            try {
+                RoundingManager.getInstance();
+                fail("ConfigurationException should be thrown");
+            } catch (ConfigurationException ce) {
+                // success
+            }
+        }
+
+        configManager.add(CUSTOM_CONFIG_FILE);
+        RoundingManager created = RoundingManager.getInstance();
+        assertNotNull("the instance should be created", created);
+        assertSame("the same instance should be returned", created, RoundingManager.getInstance());
+    }
+
     /**
      * Tests loading configuration.
      * Load a bad config file without hash_algorithms property
@@ -237,6 +324,265 @@ public class RoundingManagerTests extends TestCase {
         loadConfigurationTest(BAD_CONFIG_FILE10);
     }
 
+    /**
+     * Tests loading configuration.
+     * Load a bad config file containing an invalid lazy_loading property
+     * ConfigurationException should be thrown.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testLoadConfiguration11() throws Exception {
+        loadConfigurationTest(BAD_CONFIG_FILE11);
+    }
+
+    /**
+     * Tests loading configuration.
+     * Load a bad config file containing a non-positive cache_size property
+     * ConfigurationException should be thrown.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testLoadConfiguration12() throws Exception {
+        loadConfigurationTest(BAD_CONFIG_FILE12);
+    }
+
+    /**
+     * Tests loading configuration with cache_size properties.
+     * The algorithms should be wrapped by CachingAlgorithm with the configured size, and the results of
+     * RandomRounding should not be cached.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testLoadConfiguration13() throws Exception {
+        removeNamespace();
+        configManager.add(CACHE_CONFIG_FILE);
+        reset();
+        manager = RoundingManager.getInstance();
+
+        CachingAlgorithm symmetric = (CachingAlgorithm) manager.getAlgorithm("symmetric");
+        assertTrue("the algorithm should be SymmetricRounding", symmetric.getAlgorithm() instanceof SymmetricRounding);
+        assertEquals("cache size should be 100", 100, symmetric.getMaximumSize());
+        assertTrue("the results should be cached", symmetric.isCaching());
+        assertEquals("accuracy digit should be 2", 2, symmetric.getAccuracyDigit());
+        assertEquals("result should be 1.13", "1.13", symmetric.round("1.125"));
+        assertEquals("result should be 1.13", "1.13", symmetric.round("1.125"));
+        assertEquals("there should be 1 hit", 1, symmetric.getHitCount());
+
+        CachingAlgorithm random = (CachingAlgorithm) manager.getAlgorithm("random");
+        assertFalse("the results should not be cached", random.isCaching());
+    }
+
+    /**
+     * Tests loading configuration.
+     * Load a bad config file containing an invalid metrics property
+     * ConfigurationException should be thrown.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testLoadConfiguration14() throws Exception {
+        loadConfigurationTest(BAD_CONFIG_FILE13);
+    }
+
+    /**
+     * Tests loading configuration with metrics properties.
+     * The algorithms should be wrapped by MeteredAlgorithm, inside the CachingAlgorithm if the results are
+     * cached, and their metrics should be got by getMetrics.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testLoadConfiguration15() throws Exception {
+        removeNamespace();
+        configManager.add(METRICS_CONFIG_FILE);
+        reset();
+        manager = RoundingManager.getInstance();
+
+        CachingAlgorithm symmetric = (CachingAlgorithm) manager.getAlgorithm("symmetric");
+        MeteredAlgorithm metered = (MeteredAlgorithm) symmetric.getAlgorithm();
+        assertTrue("the algorithm should be SymmetricRounding", metered.getAlgorithm() instanceof SymmetricRounding);
+        assertEquals("accuracy digit should be 2", 2, metered.getAccuracyDigit());
+        assertEquals("result should be 1.13", "1.13", symmetric.round("1.125"));
+        assertEquals("result should be 1.13", "1.13", symmetric.round("1.125"));
+
+        RoundingMetrics metrics = manager.getMetrics("symmetric");
+        assertSame("the metrics should be the ones of the algorithm", metered.getMetrics(), metrics);
+        assertEquals("the number missing from the cache should be counted once", 1, metrics.getCallCount());
+        assertEquals("there should be 1 tie", 1, metrics.getTieCount());
+
+        MeteredAlgorithm random = (MeteredAlgorithm) manager.getAlgorithm("random");
+        assertTrue("the algorithm should be RandomRounding", random.getAlgorithm() instanceof RandomRounding);
+        assertSame("the metrics should be the ones of the algorithm", random.getMetrics(),
+                manager.getMetrics("random"));
+    }
+
+    /**
+     * Tests loading configuration lazily.
+     * The algorithms should be created with the configured digits when got the first time.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testLazyLoading1() throws Exception {
+        loadLazyConfiguration();
+
+        Algorithm algorithm = manager.getAlgorithm("no");
+        assertTrue("the algorithm should be NoRounding", algorithm instanceof NoRounding);
+        assertEquals("accuracy digit should be 2", 2, algorithm.getAccuracyDigit());
+        assertEquals("comparison digit should be 5", 5, algorithm.getComparisonDigit());
+        assertSame("the same algorithm should be returned", algorithm, manager.getAlgorithm("no"));
+    }
+
+    /**
+     * Tests loading configuration lazily.
+     * The class of an algorithm is missing, IllegalStateException should be thrown when it is got,
+     * but not when the manager is created.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testLazyLoading2() throws Exception {
+        loadLazyConfiguration();
+
+        try {
+            manager.getAlgorithm("missing");
+            fail("IllegalStateException should be thrown");
+        } catch (IllegalStateException e) {
+            // success
+        }
+
+        try {
+            manager.getAllAlgorithms();
+            fail("IllegalStateException should be thrown");
+        } catch (IllegalStateException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests loading configuration lazily.
+     * The algorithms not created yet should be managed like the created ones.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testLazyLoading3() throws Exception {
+        loadLazyConfiguration();
+
+        assertFalse("the name exists, false should be returned", manager.addAlgorithm("random", rounding));
+        assertTrue("the algorithm should be removed", manager.removeAlgorithm("missing"));
+        assertNull("the algorithm should be removed", manager.getAlgorithm("missing"));
+        assertEquals("there should be 2 algorithms", 2, manager.getAllAlgorithms().size());
+        assertSame("the created algorithm should be returned", manager.getAlgorithm("random"),
+                manager.getAlgorithm("random"));
+    }
+
+    /**
+     * Tests loading configuration lazily.
+     * Load a bad config file containing a negative accuracy property
+     * ConfigurationException should be thrown when the manager is created.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testLazyLoading4() throws Exception {
+        loadConfigurationTest(BAD_CONFIG_FILE14);
+    }
+
+    /**
+     * Tests loading configuration lazily.
+     * Load a bad config file containing a comparison property out of 1 to 9
+     * ConfigurationException should be thrown when the manager is created.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testLazyLoading5() throws Exception {
+        loadConfigurationTest(BAD_CONFIG_FILE15);
+    }
+
+    /**
+     * Tests the ConfigurationLoadEvent recorded when the manager is created.
+     * The configured algorithms should be recorded.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testConfigurationLoadEvent1() throws Exception {
+        Recording recording = new Recording();
+        try {
+            recording.enable("com.topcoder.math.roundingfactory.ConfigurationLoad");
+            recording.start();
+            removeNamespace();
+            configManager.add(METRICS_CONFIG_FILE);
+            reset();
+            manager = RoundingManager.getInstance();
+
+            RecordedEvent event = getConfigurationLoadEvent(recording);
+            assertEquals("namespace is wrong", RoundingManager.NAMESPACE, event.getString("namespace"));
+            assertEquals("algorithms are wrong", "symmetric,random", event.getString("algorithms"));
+            assertEquals("algorithm count should be 2", 2, event.getInt("algorithmCount"));
+            assertFalse("algorithms should not be loaded lazily", event.getBoolean("lazyLoading"));
+            assertTrue("the manager should be created", event.getBoolean("succeeded"));
+        } finally {
+            recording.close();
+        }
+    }
+
+    /**
+     * Tests the ConfigurationLoadEvent recorded when the manager is created.
+     * The failed creation should be recorded too.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testConfigurationLoadEvent2() throws Exception {
+        Recording recording = new Recording();
+        try {
+            recording.enable("com.topcoder.math.roundingfactory.ConfigurationLoad");
+            recording.start();
+            loadConfigurationTest(BAD_CONFIG_FILE12);
+
+            assertFalse("the manager should not be created",
+                    getConfigurationLoadEvent(recording).getBoolean("succeeded"));
+        } finally {
+            recording.close();
+        }
+    }
+
+    /**
+     * Stops the given recording and gets the only ConfigurationLoadEvent recorded by it.
+     *
+     * @param recording the recording to stop
+     * @return the ConfigurationLoadEvent recorded
+     * @throws Exception to JUnit
+     */
+    private static RecordedEvent getConfigurationLoadEvent(Recording recording) throws Exception {
+        recording.stop();
+        File file = File.createTempFile("rounding", ".jfr");
+        try {
+            recording.dump(file.toPath());
+            List events = RecordingFile.readAllEvents(file.toPath());
+
+            RecordedEvent result = null;
+            for (Iterator it = events.iterator(); it.hasNext();) {
+                RecordedEvent event = (RecordedEvent) it.next();
+                if (event.getEventType().getName().equals("com.topcoder.math.roundingfactory.ConfigurationLoad")) {
+                    assertNull("only one event should be recorded", result);
+                    result = event;
+                }
+            }
+            assertNotNull("the event should be recorded", result);
+            return result;
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Creates the manager with the config file loading the algorithms lazily.
+     *
+     * @throws Exception to JUnit
+     */
+    private void loadLazyConfiguration() throws Exception {
+        removeNamespace();
+        configManager.add(LAZY_CONFIG_FILE);
+
+        reset();
+        manager = RoundingManager.getInstance();
+    }
+
     /**
      * Load the specified bad config file. ConfigurationException should be thrown.
      *
@@ -427,6 +773,80 @@ public class RoundingManagerTests extends TestCase {
         }
     }
 
+    /**
+     * Tests getRoundingSpec method.
+     * Getting an existing algorithm, the spec with its current digits should be returned, and later changes
+     * of the digits should not change the spec.
+     */
+    public void testGetRoundingSpec_Found() {
+        manager.addAlgorithm("test", new SymmetricRounding(2, 5));
+
+        RoundingSpec spec = manager.getRoundingSpec("test");
+        assertEquals("accuracy digit should be 2", 2, spec.getAccuracyDigit());
+        assertEquals("comparison digit should be 5", 5, spec.getComparisonDigit());
+        assertEquals("result should be 1.13", "1.13", spec.round("1.125"));
+
+        manager.getAlgorithm("test").setAccuracyDigit(1);
+        assertEquals("result should be 1.13", "1.13", spec.round("1.125"));
+        assertEquals("result should be 1.1", "1.1", manager.getRoundingSpec("test").round("1.125"));
+    }
+
+    /**
+     * Tests getRoundingSpec method.
+     * Getting an non-existing algorithm, null should be returned.
+     */
+    public void testGetRoundingSpec_NotFound() {
+        assertNull("testGetRoundingSpec_NotFound failed", manager.getRoundingSpec("test"));
+    }
+
+    /**
+     * Tests getRoundingSpec method.
+     * Empty name, IllegalArgumentException should be thrown.
+     */
+    public void testGetRoundingSpec_EmptyName() {
+        try {
+            manager.getRoundingSpec(" ");
+            fail("testGetRoundingSpec_EmptyName failed");
+        } catch (IllegalArgumentException iae) {
+            // success
+        }
+    }
+
+    /**
+     * Tests getMetrics method.
+     * Getting a MeteredAlgorithm, its metrics should be returned.
+     */
+    public void testGetMetrics_Found() {
+        MeteredAlgorithm algorithm = new MeteredAlgorithm(new SymmetricRounding());
+        manager.addAlgorithm("test", algorithm);
+
+        assertSame("testGetMetrics_Found failed", algorithm.getMetrics(), manager.getMetrics("test"));
+    }
+
+    /**
+     * Tests getMetrics method.
+     * Getting an non-existing algorithm or an algorithm without metrics, null should be returned.
+     */
+    public void testGetMetrics_NotFound() {
+        assertNull("testGetMetrics_NotFound failed", manager.getMetrics("test"));
+
+        manager.addAlgorithm("test", new CachingAlgorithm(new SymmetricRounding(), 10));
+        assertNull("testGetMetrics_NotFound failed", manager.getMetrics("test"));
+    }
+
+    /**
+     * Tests getMetrics method.
+     * Empty name, IllegalArgumentException should be thrown.
+     */
+    public void testGetMetrics_EmptyName() {
+        try {
+            manager.getMetrics(" ");
+            fail("testGetMetrics_EmptyName failed");
+        } catch (IllegalArgumentException iae) {
+            // success
+        }
+    }
+
     /**
      * Tests getAllAlgorithms method.
      *
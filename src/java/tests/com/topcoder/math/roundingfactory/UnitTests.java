@@ -19,6 +19,23 @@ import com.topcoder.math.roundingfactory.algorithms.UpAsymmetricRoundingTests;
 import com.topcoder.math.roundingfactory.algorithms.DownAsymmetricRoundingTests;
 import com.topcoder.math.roundingfactory.algorithms.UpSymmetricRoundingTests;
 import com.topcoder.math.roundingfactory.algorithms.DownSymmetricRoundingTests;
+import com.topcoder.math.roundingfactory.algorithms.DoubleRoundingTests;
+import com.topcoder.math.roundingfactory.algorithms.BulkRoundingTests;
+import com.topcoder.math.roundingfactory.algorithms.OutputRoundingTests;
+import com.topcoder.math.roundingfactory.algorithms.InputRoundingTests;
+import com.topcoder.math.roundingfactory.algorithms.AsciiRoundingTests;
+import com.topcoder.math.roundingfactory.algorithms.StreamRoundingTests;
+import com.topcoder.math.roundingfactory.algorithms.RoundingSpecTests;
+import com.topcoder.math.roundingfactory.algorithms.CachingAlgorithmTests;
+import com.topcoder.math.roundingfactory.algorithms.MeteredAlgorithmTests;
+import com.topcoder.math.roundingfactory.algorithms.ParallelRoundingTests;
+import com.topcoder.math.roundingfactory.algorithms.RoundedSumTests;
+import com.topcoder.math.roundingfactory.algorithms.RoundingAccumulatorTests;
+import com.topcoder.math.roundingfactory.algorithms.RoundingAllocatorTests;
+import com.topcoder.math.roundingfactory.algorithms.DecimalRoundingTests;
+import com.topcoder.math.roundingfactory.algorithms.AlgorithmTests;
+import com.topcoder.math.roundingfactory.algorithms.RoundingEventTests;
+import com.topcoder.math.roundingfactory.csv.CsvRounderTests;
 
 /**
  * <p>This test case aggregates all Unit test cases.</p>
@@ -40,6 +57,7 @@ public class UnitTests extends TestCase {
 
 
         suite.addTestSuite(RoundingManagerTests.class);
+        suite.addTestSuite(RoundingManagerMonitorTests.class);
         suite.addTestSuite(ConfigurationExceptionTests.class);
 
         suite.addTestSuite(RoundingExceptionTests.class);
@@ -53,6 +71,24 @@ public class UnitTests extends TestCase {
         suite.addTestSuite(DownAsymmetricRoundingTests.class);
         suite.addTestSuite(UpSymmetricRoundingTests.class);
         suite.addTestSuite(DownSymmetricRoundingTests.class);
+        suite.addTestSuite(DoubleRoundingTests.class);
+        suite.addTestSuite(BulkRoundingTests.class);
+        suite.addTestSuite(OutputRoundingTests.class);
+        suite.addTestSuite(InputRoundingTests.class);
+        suite.addTestSuite(AsciiRoundingTests.class);
+        suite.addTestSuite(StreamRoundingTests.class);
+        suite.addTestSuite(RoundingSpecTests.class);
+        suite.addTestSuite(CachingAlgorithmTests.class);
+        suite.addTestSuite(MeteredAlgorithmTests.class);
+        suite.addTestSuite(RoundingEventTests.class);
+        suite.addTestSuite(ParallelRoundingTests.class);
+        suite.addTestSuite(RoundedSumTests.class);
+        suite.addTestSuite(RoundingAccumulatorTests.class);
+        suite.addTestSuite(RoundingAllocatorTests.class);
+        suite.addTestSuite(DecimalRoundingTests.class);
+        suite.addTestSuite(AlgorithmTests.class);
+
+        suite.addTestSuite(CsvRounderTests.class);
 
         suite.addTestSuite(Demo.class);
 
@@ -0,0 +1,268 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests the default methods of Algorithm. An Algorithm which only implements the original methods is
+ * cross-checked against the RoundingAlgorithm it rounds strings with.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class AlgorithmTests extends TestCase {
+
+    /**
+     * The numbers to round.
+     */
+    private static final String[] NUMBERS = {"0", "1.005", "-1.005", "2.345", "-2.3449", "123456.785", "0.0049"};
+
+    /**
+     * The RoundingAlgorithm to cross-check against.
+     */
+    private RoundingAlgorithm expected;
+
+    /**
+     * The Algorithm which only implements the original methods.
+     */
+    private Algorithm algorithm;
+
+    /**
+     * Sets up the environment.
+     */
+    protected void setUp() {
+        expected = new SymmetricRounding(2, 5);
+        algorithm = new StringAlgorithm(expected);
+    }
+
+    /**
+     * Tests the default round methods of CharSequence and char array.
+     */
+    public void testRoundSequence() {
+        for (int i = 0; i < NUMBERS.length; ++i) {
+            String number = NUMBERS[i];
+            assertEquals(expected.round(number), algorithm.round(new StringBuilder(number)));
+            assertEquals(expected.round(number, 1, 3), algorithm.round(new StringBuilder(number), 1, 3));
+            assertEquals(expected.round(number), algorithm.round(("x" + number + "x").toCharArray(), 1,
+                    number.length(), 2, 5));
+        }
+
+        try {
+            algorithm.round((CharSequence) null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            algorithm.round("1.5".toCharArray(), 1, 3, 2, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests the default round methods of fixed-point numbers and BigDecimals.
+     */
+    public void testRoundValue() {
+        assertEquals(expected.round(1005L, 3), algorithm.round(1005L, 3));
+        assertEquals(expected.round(-2345L, 3, 1, 5), algorithm.round(-2345L, 3, 1, 5));
+        assertEquals(expected.roundDecimal(new BigDecimal("123456.785")),
+                algorithm.roundDecimal(new BigDecimal("123456.785")));
+        assertEquals(new BigDecimal("-0.00"), algorithm.roundDecimal(new BigDecimal("-0.0049")));
+
+        try {
+            algorithm.round(1L, -1);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(Long.MAX_VALUE, 0, 2, 5);
+            fail("RoundingException should be thrown");
+        } catch (RoundingException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests the default round methods writing to a char array or appending to a StringBuilder.
+     */
+    public void testRoundOutput() {
+        char[] chars = new char[8];
+        assertEquals(4, algorithm.round("2.345", chars, 4));
+        assertEquals("2.35", new String(chars, 4, 4));
+
+        try {
+            algorithm.round("2.345", chars, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+        assertEquals("2.35", new String(chars, 4, 4));
+
+        StringBuilder builder = new StringBuilder("x");
+        assertEquals(5, algorithm.round("-1.005", builder));
+        assertEquals("x-1.01", builder.toString());
+    }
+
+    /**
+     * Tests the default round methods of byte arrays and ByteBuffers.
+     */
+    public void testRoundAscii() {
+        byte[] bytes = new byte[6];
+        assertEquals(4, algorithm.round("x2.345".getBytes(), 1, 5, bytes, 2));
+        assertEquals("2.35", new String(bytes, 2, 4));
+
+        ByteBuffer number = ByteBuffer.wrap("1.005".getBytes());
+        ByteBuffer result = ByteBuffer.allocate(3);
+        try {
+            algorithm.round(number, result);
+            fail("BufferOverflowException should be thrown");
+        } catch (BufferOverflowException e) {
+            // success
+        }
+        assertEquals(0, number.position());
+        assertEquals(0, result.position());
+
+        result = ByteBuffer.allocate(4);
+        assertEquals(4, algorithm.round(number, result));
+        assertEquals(5, number.position());
+        assertEquals("1.01", new String(result.array()));
+    }
+
+    /**
+     * Tests the default round methods of Reader.
+     *
+     * @throws IOException to JUnit
+     */
+    public void testRoundReader() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        assertEquals(6, algorithm.round(new StringReader("123456.785"), builder, 0, 5));
+        assertEquals(expected.round("123456.785", 0, 5), builder.toString());
+    }
+
+    /**
+     * Tests the default roundAll methods.
+     */
+    public void testRoundAll() {
+        String[] results = new String[NUMBERS.length];
+        algorithm.roundAll(NUMBERS, results, 1, NUMBERS.length);
+        assertNull(results[0]);
+        for (int i = 1; i < NUMBERS.length; ++i) {
+            assertEquals(expected.round(NUMBERS[i]), results[i]);
+        }
+
+        double[] doubles = {1.005, 2.345, -0.125};
+        double[] roundedDoubles = new double[doubles.length];
+        algorithm.roundAll(doubles, roundedDoubles, 0, doubles.length);
+        for (int i = 0; i < doubles.length; ++i) {
+            assertEquals(expected.roundDouble(doubles[i], 2, 5), roundedDoubles[i], 0);
+        }
+
+        long[] values = {1005, 2345, -125};
+        long[] roundedValues = new long[values.length];
+        algorithm.roundAll(values, 3, roundedValues, 0, values.length);
+        for (int i = 0; i < values.length; ++i) {
+            assertEquals(expected.round(values[i], 3), roundedValues[i]);
+        }
+
+        try {
+            algorithm.roundAll(NUMBERS, results, 0, 0, 2, 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+
+    /**
+     * <p>An Algorithm which only implements the original methods, by the given RoundingAlgorithm.</p>
+     */
+    private static class StringAlgorithm implements Algorithm {
+
+        /**
+         * The RoundingAlgorithm to round with.
+         */
+        private final RoundingAlgorithm algorithm;
+
+        /**
+         * Creates the Algorithm rounding with the given RoundingAlgorithm.
+         *
+         * @param algorithm the RoundingAlgorithm to round with
+         */
+        StringAlgorithm(RoundingAlgorithm algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        /**
+         * @see Algorithm#round(String, int, int)
+         */
+        public String round(String number, int accuracyDigit, int comparisonDigit) {
+            return algorithm.round(number, accuracyDigit, comparisonDigit);
+        }
+
+        /**
+         * @see Algorithm#roundDouble(double, int, int)
+         */
+        public double roundDouble(double number, int accuracyDigit, int comparisonDigit) {
+            return algorithm.roundDouble(number, accuracyDigit, comparisonDigit);
+        }
+
+        /**
+         * @see Algorithm#round(double)
+         */
+        public String round(double number) {
+            return algorithm.round(number);
+        }
+
+        /**
+         * @see Algorithm#round(String)
+         */
+        public String round(String number) {
+            return algorithm.round(number);
+        }
+
+        /**
+         * @see Algorithm#getAccuracyDigit()
+         */
+        public int getAccuracyDigit() {
+            return algorithm.getAccuracyDigit();
+        }
+
+        /**
+         * @see Algorithm#getComparisonDigit()
+         */
+        public int getComparisonDigit() {
+            return algorithm.getComparisonDigit();
+        }
+
+        /**
+         * @see Algorithm#setAccuracyDigit(int)
+         */
+        public void setAccuracyDigit(int accuracyDigit) {
+            algorithm.setAccuracyDigit(accuracyDigit);
+        }
+
+        /**
+         * @see Algorithm#setComparisonDigit(int)
+         */
+        public void setComparisonDigit(int comparisonDigit) {
+            algorithm.setComparisonDigit(comparisonDigit);
+        }
+    }
+}
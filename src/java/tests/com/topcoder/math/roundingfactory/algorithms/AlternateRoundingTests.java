@@ -104,6 +104,48 @@ public class AlternateRoundingTests extends TestCase {
         }
     }
 
+    /**
+     * Tests constructor.
+     * AlternateRounding(boolean) and AlternateRounding(int, int, boolean).
+     * The alternation mode should be given value.
+     */
+    public void testAlternateRounding6() {
+        assertFalse("The alternation should be shared by default", ((AlternateRounding) algorithm).isPerThread());
+
+        AlternateRounding alternateRounding = new AlternateRounding(true);
+        assertTrue("The alternation should be per-thread", alternateRounding.isPerThread());
+        assertEquals("The accuracy digit should be 2", 2, alternateRounding.getAccuracyDigit());
+        assertEquals("The comparison digit should be 5", 5, alternateRounding.getComparisonDigit());
+
+        alternateRounding = new AlternateRounding(3, 9, true);
+        assertTrue("The alternation should be per-thread", alternateRounding.isPerThread());
+        assertEquals("The accuracy digit should be 3", 3, alternateRounding.getAccuracyDigit());
+        assertEquals("The comparison digit should be 9", 9, alternateRounding.getComparisonDigit());
+
+        assertFalse("The alternation should be shared", new AlternateRounding(3, 9, false).isPerThread());
+    }
+
+    /**
+     * Tests constructor.
+     * AlternateRounding(int, int, boolean).
+     * Invalid digits, IllegalArgumentException should be thrown.
+     */
+    public void testAlternateRounding7() {
+        try {
+            new AlternateRounding(-1, 9, true);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            new AlternateRounding(3, 10, false);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+
     /**
      * Tests round(String number, int accuracyDigit, int comparisonDigit).
      * The number is null, NullPointerException should be thrown.
@@ -647,4 +689,166 @@ public class AlternateRoundingTests extends TestCase {
         assertEquals("The comparison digit should be 2", 2, algorithm.getComparisonDigit());
     }
 
+    /**
+     * Tests round(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit).
+     * The arguments are invalid, IllegalArgumentException should be thrown.
+     */
+    public void testRoundLong1() {
+        try {
+            algorithm.round(11, 1, -1, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(11, 1, 3, 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(11, 1, 3, 10);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            // the scale should not be negative
+            algorithm.round(11, -1, 3, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests round(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit).
+     * Rounds general numbers.
+     */
+    public void testRoundLong2() {
+
+        // first time, round up
+        assertEquals("result should be 113", 113L, algorithm.round(1125, 3, 2, 5));
+        // second time, round down
+        assertEquals("result should be 112", 112L, algorithm.round(1125, 3, 2, 5));
+        // round up, then round down
+        assertEquals("result should be -112", -112L, algorithm.round(-1125, 3, 2, 5));
+        assertEquals("result should be -113", -113L, algorithm.round(-1125, 3, 2, 5));
+
+        // the alternation is shared with round(String, int, int)
+        assertEquals("result should be 1.13", "1.13", algorithm.round("1.125", 2, 5));
+        assertEquals("result should be 112", 112L, algorithm.round(1125, 3, 2, 5));
+
+        assertEquals("result should be 113", 113L, algorithm.round(11251, 4, 2, 5));
+        assertEquals("result should be 112", 112L, algorithm.round(11249, 4, 2, 5));
+
+        // no rounding should be performed since the numbers are already rounded.
+        assertEquals("result should be 123456000", 123456000L, algorithm.round(123456, 3, 6, 5));
+        assertEquals("result should be -123456000", -123456000L, algorithm.round(-123456, 3, 6, 5));
+
+        // boundary situation
+        assertEquals("result should be 10", 10L, algorithm.round(96, 3, 2, 5));
+        assertEquals("result should be -1000", -1000L, algorithm.round(-9999, 3, 2, 5));
+        assertEquals("result should be 0", 0L, algorithm.round(1, 8, 2, 5));
+    }
+
+    /**
+     * Tests round(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit).
+     * The result can not be held by a long, RoundingException should be thrown.
+     */
+    public void testRoundLong3() {
+        try {
+            algorithm.round(Long.MAX_VALUE, 0, 1, 5);
+            fail("RoundingException should be thrown");
+        } catch (RoundingException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(-1, 0, 19, 5);
+            fail("RoundingException should be thrown");
+        } catch (RoundingException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests round(String number, int accuracyDigit, int comparisonDigit) in per-thread mode.
+     * Each thread should alternate on its own, starting with round up.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRoundPerThread() throws Exception {
+        algorithm = new AlternateRounding(true);
+
+        assertEquals("result should be 1.13", "1.13", algorithm.round("1.125", 2, 5));
+
+        // another thread starts with round up too
+        final String[] results = new String[2];
+        Thread thread = new Thread() {
+            public void run() {
+                results[0] = algorithm.round("1.125", 2, 5);
+                results[1] = algorithm.round("1.125", 2, 5);
+            }
+        };
+        thread.start();
+        thread.join();
+        assertEquals("result should be 1.13", "1.13", results[0]);
+        assertEquals("result should be 1.12", "1.12", results[1]);
+
+        // the alternation of this thread is not affected by the other thread
+        assertEquals("result should be 112", 112L, algorithm.round(1125, 3, 2, 5));
+        assertEquals("result should be 1.13", "1.13", algorithm.round("1.125", 2, 5));
+    }
+
+    /**
+     * Tests round(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit) by several threads.
+     * The shared alternation should round exactly half of the ties up, in both modes.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRoundConcurrently() throws Exception {
+        checkBalance(new AlternateRounding(false));
+        checkBalance(new AlternateRounding(true));
+    }
+
+    /**
+     * Rounds ties by several threads, each thread rounds an even number of ties, and checks
+     * that half of them are rounded up.
+     *
+     * @param alternateRounding the algorithm to check
+     * @throws Exception to JUnit
+     */
+    private void checkBalance(final AlternateRounding alternateRounding) throws Exception {
+        final int roundingCount = 10000;
+        final int[] roundUpCounts = new int[8];
+
+        Thread[] threads = new Thread[roundUpCounts.length];
+        for (int i = 0; i < threads.length; ++i) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < roundingCount; ++j) {
+                        if (alternateRounding.round(1125, 3, 2, 5) == 113) {
+                            ++roundUpCounts[index];
+                        }
+                    }
+                }
+            };
+        }
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i].start();
+        }
+
+        int roundUpCount = 0;
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i].join();
+            roundUpCount += roundUpCounts[i];
+        }
+
+        assertEquals("half of the ties should be rounded up", threads.length * roundingCount / 2, roundUpCount);
+    }
 }
@@ -0,0 +1,314 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests the round methods reading the number from and writing the result to ASCII bytes.
+ * The results are cross-checked against round(String, int, int) for all the algorithms.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class AsciiRoundingTests extends TestCase {
+
+    /**
+     * The numbers with carries, signs, decimal symbols and 0's to check.
+     */
+    private static final String[] NUMBERS = new String[] {"0", "-0", "+0.000", "0.005", "-0.005", "0.0049",
+        "9.995", "-9.995", "99.999", "-999.9999", "0.999", "1", "+1,125", "-1,125", "007.50", ".5", "5.",
+        "-.995", "123", "19.99", "129.9951", "0.1", "0.01", "0.001", "+7", "-12.3456789"};
+
+    /**
+     * Tests round(byte[], int, int, byte[], int, int, int) and round(ByteBuffer, ByteBuffer, int, int).
+     * The results should be the same as the ones of round(String, int, int).
+     */
+    public void testRound1() {
+        for (int accuracyDigit = 0; accuracyDigit <= 6; ++accuracyDigit) {
+            for (int comparisonDigit = 1; comparisonDigit <= 9; comparisonDigit += 4) {
+                // two instances of the same state for the algorithms which are not deterministic
+                checkRound(new NoRounding(), new NoRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new RandomRounding(new Random(1)), new RandomRounding(new Random(1)), accuracyDigit,
+                        comparisonDigit);
+                checkRound(new AlternateRounding(), new AlternateRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new SymmetricRounding(), new SymmetricRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new AsymmetricRounding(), new AsymmetricRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new BankersRounding(), new BankersRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new UpSymmetricRounding(), new UpSymmetricRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new DownSymmetricRounding(), new DownSymmetricRounding(), accuracyDigit,
+                        comparisonDigit);
+                checkRound(new UpAsymmetricRounding(), new UpAsymmetricRounding(), accuracyDigit,
+                        comparisonDigit);
+                checkRound(new DownAsymmetricRounding(), new DownAsymmetricRounding(), accuracyDigit,
+                        comparisonDigit);
+            }
+        }
+    }
+
+    /**
+     * Tests round(byte[], int, int, byte[], int) and round(ByteBuffer, ByteBuffer).
+     * Only the given range should be parsed, and the positions of the buffers should be moved.
+     */
+    public void testRound2() {
+        Algorithm algorithm = new SymmetricRounding();
+
+        byte[] message = ascii("qty=7;px=1.125;ccy=EUR");
+        byte[] result = ascii("px=xxxxxx");
+        assertEquals("4 bytes should be written", 4, algorithm.round(message, 9, 5, result, 3));
+        assertEquals("result should be px=1.13xx", "px=1.13xx", string(result));
+
+        ByteBuffer number = ByteBuffer.wrap(message, 9, 5);
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        assertEquals("4 bytes should be written", 4, algorithm.round(number, buffer));
+        assertEquals("number should be read", 14, number.position());
+        assertEquals("result should be put", 4, buffer.position());
+        assertEquals("1 byte should be written", 1, algorithm.round(ByteBuffer.wrap(ascii("7")), buffer, 0, 5));
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertEquals("result should be 1.137", "1.137", string(bytes));
+    }
+
+    /**
+     * Tests round(byte[], int, int, byte[], int, int, int) and round(ByteBuffer, ByteBuffer, int, int).
+     * There is no room for the result, exception should be thrown and nothing should be changed.
+     */
+    public void testRound3() {
+        Algorithm algorithm = new SymmetricRounding();
+        byte[] result = ascii("xxxx");
+
+        try {
+            algorithm.round(ascii("99.999"), 0, 6, result, 0, 2, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+        assertEquals("result should not be changed", "xxxx", string(result));
+
+        ByteBuffer number = ByteBuffer.wrap(ascii("-1.125"));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4);
+        try {
+            algorithm.round(number, buffer, 2, 5);
+            fail("BufferOverflowException should be thrown");
+        } catch (BufferOverflowException e) {
+            // success
+        }
+        assertEquals("number should not be read", 0, number.position());
+        assertEquals("nothing should be put", 0, buffer.position());
+
+        try {
+            algorithm.round(number, ByteBuffer.allocate(8).asReadOnlyBuffer(), 2, 5);
+            fail("ReadOnlyBufferException should be thrown");
+        } catch (ReadOnlyBufferException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests round(byte[], int, int, byte[], int, int, int) and round(ByteBuffer, ByteBuffer, int, int).
+     * The arguments are invalid, exception should be thrown.
+     */
+    public void testRound4() {
+        Algorithm algorithm = new SymmetricRounding();
+        byte[] number = ascii("1.125");
+        byte[] result = new byte[8];
+
+        try {
+            algorithm.round(null, 0, 0, result, 0, 2, 5);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(number, 0, 5, null, 0, 2, 5);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(number, 0, 5, result, 0, -1, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(number, 1, 5, result, 0, 2, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(number, 0, 5, result, 9, 2, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(new byte[] {'1', '.', (byte) 0xb5}, 0, 3, result, 0, 2, 5);
+            fail("NumberFormatException should be thrown");
+        } catch (NumberFormatException e) {
+            // success
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(number);
+        try {
+            algorithm.round(buffer, null, 2, 5);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(buffer, buffer, 2, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(ByteBuffer.allocate(0), ByteBuffer.allocate(8), 2, 5);
+            fail("NumberFormatException should be thrown");
+        } catch (NumberFormatException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests round(byte[], int, int, byte[], int, int, int) and round(ByteBuffer, ByteBuffer, int, int) of a
+     * subclass which only implements round(String, int, int).
+     * The number should be rounded by round(String, int, int).
+     */
+    public void testRound5() {
+        RoundingAlgorithm algorithm = new RoundingAlgorithm() {
+            public String round(String number, int accuracyDigit, int comparisonDigit) {
+                return "[" + number + "]";
+            }
+        };
+
+        byte[] result = new byte[8];
+        assertEquals("5 bytes should be written", 5, algorithm.round(ascii("x1.1x"), 1, 3, result, 1, 2, 5));
+        assertEquals("result should be [1.1]", "[1.1]", string(result).substring(1, 6));
+
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        try {
+            algorithm.round(ByteBuffer.wrap(ascii("1.1")), buffer, 2, 5);
+            fail("BufferOverflowException should be thrown");
+        } catch (BufferOverflowException e) {
+            // success
+        }
+        assertEquals("nothing should be put", 0, buffer.position());
+    }
+
+    /**
+     * Checks the ASCII methods of an algorithm against round(String, int, int) of another algorithm
+     * in the same state.
+     *
+     * @param algorithm the algorithm whose ASCII methods are checked
+     * @param expectedAlgorithm the algorithm in the same state, whose round(String, int, int) gives the expected
+     * results
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     */
+    private static void checkRound(Algorithm algorithm, Algorithm expectedAlgorithm, int accuracyDigit,
+            int comparisonDigit) {
+        byte[] bytes = new byte[64];
+        byte[] result = new byte[64];
+        ByteBuffer heap = ByteBuffer.allocate(64);
+        ByteBuffer direct = ByteBuffer.allocateDirect(64);
+
+        for (int i = 0; i < NUMBERS.length; ++i) {
+            String message = "round(" + NUMBERS[i] + ", " + accuracyDigit + ", " + comparisonDigit + ") of "
+                    + algorithm.getClass().getName();
+            byte[] number = ascii(NUMBERS[i]);
+
+            // the number is surrounded by other bytes
+            Arrays.fill(bytes, (byte) '#');
+            System.arraycopy(number, 0, bytes, 3, number.length);
+            String expected = expectedAlgorithm.round(NUMBERS[i], accuracyDigit, comparisonDigit);
+            int length = algorithm.round(bytes, 3, number.length, result, 2, accuracyDigit, comparisonDigit);
+            assertEquals(message, expected, new String(string(result).toCharArray(), 2, length));
+
+            expected = expectedAlgorithm.round(NUMBERS[i], accuracyDigit, comparisonDigit);
+            checkBuffer(message, expected, algorithm, ByteBuffer.wrap(bytes, 3, number.length), heap,
+                    accuracyDigit, comparisonDigit);
+
+            direct.clear();
+            direct.put(number).flip();
+            expected = expectedAlgorithm.round(NUMBERS[i], accuracyDigit, comparisonDigit);
+            checkBuffer(message, expected, algorithm, direct.duplicate(), direct.duplicate(),
+                    accuracyDigit, comparisonDigit);
+        }
+    }
+
+    /**
+     * Rounds the number in the given buffer to the given result buffer from its start, and checks the result.
+     *
+     * @param message the failure message
+     * @param expected the expected result
+     * @param algorithm the algorithm to round the number
+     * @param number the buffer holding the number
+     * @param result the buffer to put the result
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     */
+    private static void checkBuffer(String message, String expected, Algorithm algorithm, ByteBuffer number,
+            ByteBuffer result, int accuracyDigit, int comparisonDigit) {
+        // the result overwrites the number in the direct buffer, it is parsed before
+        result.clear();
+        result.position(number.limit());
+        int length = algorithm.round(number, result, accuracyDigit, comparisonDigit);
+        assertEquals(message, expected.length(), length);
+        assertEquals(message, number.limit(), number.position());
+
+        byte[] bytes = new byte[length];
+        result.position(result.position() - length);
+        result.get(bytes);
+        assertEquals(message, expected, string(bytes));
+    }
+
+    /**
+     * Returns the ASCII bytes of the given string.
+     *
+     * @param string the string of ASCII chars
+     * @return the ASCII bytes
+     */
+    private static byte[] ascii(String string) {
+        byte[] bytes = new byte[string.length()];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = (byte) string.charAt(i);
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the string of the given ASCII bytes.
+     *
+     * @param bytes the ASCII bytes
+     * @return the string of the bytes
+     */
+    private static String string(byte[] bytes) {
+        char[] chars = new char[bytes.length];
+        for (int i = 0; i < bytes.length; ++i) {
+            chars[i] = (char) (bytes[i] & 0xff);
+        }
+        return new String(chars);
+    }
+}
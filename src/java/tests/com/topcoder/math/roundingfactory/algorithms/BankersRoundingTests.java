@@ -659,4 +659,108 @@ public class BankersRoundingTests extends TestCase {
         assertEquals("The comparison digit should be 2", 2, algorithm.getComparisonDigit());
     }
 
+    /**
+     * Tests round(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit).
+     * The arguments are invalid, IllegalArgumentException should be thrown.
+     */
+    public void testRoundLong1() {
+        try {
+            algorithm.round(11, 1, -1, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(11, 1, 3, 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(11, 1, 3, 10);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            // the scale should not be negative
+            algorithm.round(11, -1, 3, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests round(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit).
+     * Rounds general numbers.
+     */
+    public void testRoundLong2() {
+
+        // banker's rounding
+        assertEquals("result should be 112", 112L, algorithm.round(1125, 3, 2, 5));
+        assertEquals("result should be -112", -112L, algorithm.round(-1125, 3, 2, 5));
+        assertEquals("result should be 113", 113L, algorithm.round(11251, 4, 2, 5));
+        assertEquals("result should be 112", 112L, algorithm.round(11249, 4, 2, 5));
+        assertEquals("result should be 102", 102L, algorithm.round(1015, 3, 2, 5));
+
+        // no rounding should be performed since the numbers are already rounded.
+        assertEquals("result should be 123456000", 123456000L, algorithm.round(123456, 3, 6, 5));
+        assertEquals("result should be -123456000", -123456000L, algorithm.round(-123456, 3, 6, 5));
+
+        // boundary situation
+        assertEquals("result should be 10", 10L, algorithm.round(96, 3, 2, 5));
+        assertEquals("result should be -1000", -1000L, algorithm.round(-9999, 3, 2, 5));
+        assertEquals("result should be 0", 0L, algorithm.round(1, 8, 2, 5));
+
+        // when accuracy digit is 0
+        assertEquals("result should be 10", 10L, algorithm.round(105, 1, 0, 5));
+
+        // other comparison digit
+        assertEquals("result should be 114", 114L, algorithm.round(1137, 3, 2, 7));
+
+        // more digits are truncated than a long can hold
+        assertEquals("result should be -1", -1L, algorithm.round(Long.MIN_VALUE, 19, 0, 9));
+        assertEquals("result should be 0", 0L, algorithm.round(0, 25, 0, 5));
+    }
+
+    /**
+     * Tests round(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit).
+     * The result can not be held by a long, RoundingException should be thrown.
+     */
+    public void testRoundLong3() {
+        try {
+            algorithm.round(Long.MAX_VALUE, 0, 1, 5);
+            fail("RoundingException should be thrown");
+        } catch (RoundingException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(-1, 0, 19, 5);
+            fail("RoundingException should be thrown");
+        } catch (RoundingException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests round(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit).
+     * The result should be the same as the one of round(String, int, int).
+     */
+    public void testRoundLong4() {
+        for (long value = -3000; value <= 3000; value += 7) {
+            for (int accuracyDigit = 0; accuracyDigit <= 4; ++accuracyDigit) {
+                String expected = algorithm.round(FixedPoint.toString(value, 3), accuracyDigit, 5);
+                long result = algorithm.round(value, 3, accuracyDigit, 5);
+
+                assertEquals("result should be " + expected, new java.math.BigDecimal(expected).setScale(accuracyDigit),
+                        java.math.BigDecimal.valueOf(result, accuracyDigit));
+            }
+        }
+    }
+
 }
@@ -0,0 +1,321 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests the roundAll methods of all the algorithms. The results are cross-checked against the
+ * rounding of each number.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class BulkRoundingTests extends TestCase {
+
+    /**
+     * The number of numbers to round.
+     */
+    private static final int COUNT = 1000;
+
+    /**
+     * The deterministic algorithms to check.
+     */
+    private RoundingAlgorithm[] algorithms;
+
+    /**
+     * The random generator of the numbers, with a fixed seed so that a failure can be reproduced.
+     */
+    private Random random;
+
+    /**
+     * Sets up the environment.
+     */
+    protected void setUp() {
+        algorithms = new RoundingAlgorithm[] {new NoRounding(), new SymmetricRounding(), new AsymmetricRounding(),
+            new BankersRounding(), new UpSymmetricRounding(), new DownSymmetricRounding(),
+            new UpAsymmetricRounding(), new DownAsymmetricRounding()};
+        random = new Random(20050101L);
+    }
+
+    /**
+     * Tests roundAll(long[] unscaledValues, int scale, long[] results, int from, int to, int accuracyDigit,
+     * int comparisonDigit).
+     * The arguments are invalid, exception should be thrown.
+     */
+    public void testRoundAll1() {
+        Algorithm algorithm = new SymmetricRounding();
+        long[] values = new long[10];
+
+        try {
+            algorithm.roundAll(values, 3, values, 0, 10, -1, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.roundAll(values, -1, values, 0, 10, 2, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.roundAll(values, 3, values, 5, 4, 2, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.roundAll(values, 3, values, -1, 4, 2, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+
+        try {
+            algorithm.roundAll(values, 3, new long[5], 0, 10, 2, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+
+        try {
+            algorithm.roundAll(null, 3, values, 0, 0, 2, 5);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            algorithm.roundAll(values, 3, null, 0, 0, 2, 5);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests roundAll(double[] numbers, double[] results, int from, int to, int accuracyDigit,
+     * int comparisonDigit) and roundAll(String[] numbers, String[] results, int from, int to, int accuracyDigit,
+     * int comparisonDigit).
+     * The arguments are invalid, exception should be thrown.
+     */
+    public void testRoundAll2() {
+        Algorithm algorithm = new SymmetricRounding();
+
+        try {
+            algorithm.roundAll(new double[3], new double[3], 0, 3, 2, 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.roundAll(new double[] {1, Double.NaN}, new double[2], 0, 2, 2, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.roundAll(new double[3], new double[3], 0, 4, 2, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+
+        try {
+            algorithm.roundAll(new String[3], new String[3], 0, 3, 10, 10);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.roundAll(new String[] {"1.2", null}, new String[2], 0, 2, 2, 5);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            algorithm.roundAll(new String[] {"1.2", "a"}, new String[2], 0, 2, 2, 5);
+            fail("NumberFormatException should be thrown");
+        } catch (NumberFormatException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests roundAll(long[] unscaledValues, int scale, long[] results, int from, int to, int accuracyDigit,
+     * int comparisonDigit).
+     * The results should be the same as the ones of round(long, int, int, int).
+     */
+    public void testRoundAll3() {
+        long[] values = new long[COUNT];
+        long[] results = new long[COUNT];
+        for (int i = 0; i < COUNT; ++i) {
+            values[i] = random.nextLong() >> random.nextInt(64);
+        }
+        values[0] = Long.MIN_VALUE;
+        values[1] = Long.MAX_VALUE;
+        values[2] = 0;
+
+        // the numbers are not rescaled, since NoRounding would throw RoundingException for most of them
+        for (int i = 1; i < algorithms.length; ++i) {
+            for (int scale = 0; scale <= 22; scale += 2) {
+                for (int accuracyDigit = 0; accuracyDigit <= scale; accuracyDigit += 3) {
+                    for (int comparisonDigit = 1; comparisonDigit <= 9; comparisonDigit += 2) {
+                        algorithms[i].roundAll(values, scale, results, 0, COUNT, accuracyDigit, comparisonDigit);
+
+                        for (int j = 0; j < COUNT; ++j) {
+                            long expected = algorithms[i].round(values[j], scale, accuracyDigit, comparisonDigit);
+                            if (results[j] != expected) {
+                                fail("round(" + values[j] + ", " + scale + ", " + accuracyDigit + ", "
+                                        + comparisonDigit + ") of " + algorithms[i].getClass().getName()
+                                        + " should be " + expected + " but was " + results[j]);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests roundAll(long[] unscaledValues, int scale, long[] results, int from, int to).
+     * Only the given range should be rounded, and the numbers can be rounded in place.
+     */
+    public void testRoundAll4() {
+        long[] values = new long[] {1125, -1125, 11251, 11249, 1051};
+
+        new SymmetricRounding().roundAll(values, 3, values, 1, 4);
+        assertEquals("number out of the range should not be changed", 1125, values[0]);
+        assertEquals("result should be -113", -113, values[1]);
+        assertEquals("result should be 1125", 1125, values[2]);
+        assertEquals("result should be 1125", 1125, values[3]);
+        assertEquals("number out of the range should not be changed", 1051, values[4]);
+
+        // the numbers are rescaled by NoRounding
+        values = new long[] {105, -12, 0};
+        new NoRounding().roundAll(values, 1, values, 0, 3);
+        assertEquals("result should be 1050", 1050, values[0]);
+        assertEquals("result should be -120", -120, values[1]);
+        assertEquals("result should be 0", 0, values[2]);
+
+        // the alternation goes on from number to number
+        values = new long[] {1125, 1125, -1125, -1125};
+        new AlternateRounding().roundAll(values, 3, values, 0, 4);
+        assertEquals("result should be 113", 113, values[0]);
+        assertEquals("result should be 112", 112, values[1]);
+        assertEquals("result should be -112", -112, values[2]);
+        assertEquals("result should be -113", -113, values[3]);
+    }
+
+    /**
+     * Tests roundAll(double[] numbers, double[] results, int from, int to, int accuracyDigit,
+     * int comparisonDigit).
+     * The results should be the same as the ones of roundDouble(double, int, int).
+     */
+    public void testRoundAll5() {
+        double[] numbers = new double[COUNT];
+        double[] results = new double[COUNT];
+        for (int i = 0; i < COUNT; ++i) {
+            numbers[i] = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(30) - 15);
+        }
+
+        for (int i = 0; i < algorithms.length; ++i) {
+            for (int accuracyDigit = 0; accuracyDigit <= 12; accuracyDigit += 4) {
+                algorithms[i].roundAll(numbers, results, 0, COUNT, accuracyDigit, 5);
+
+                for (int j = 0; j < COUNT; ++j) {
+                    assertEquals("roundDouble(" + numbers[j] + ", " + accuracyDigit + ", 5) of "
+                            + algorithms[i].getClass().getName() + " is wrong",
+                            algorithms[i].roundDouble(numbers[j], accuracyDigit, 5), results[j], 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests roundAll(String[] numbers, String[] results, int from, int to).
+     * The results should be the same as the ones of round(String).
+     */
+    public void testRoundAll6() {
+        String[] numbers = new String[] {"1.125", "-1,125", "+0.0051", "99.999", "-0.001"};
+        String[] results = new String[numbers.length];
+
+        for (int i = 0; i < algorithms.length; ++i) {
+            algorithms[i].roundAll(numbers, results, 0, numbers.length);
+
+            for (int j = 0; j < numbers.length; ++j) {
+                assertEquals("round(" + numbers[j] + ") of " + algorithms[i].getClass().getName() + " is wrong",
+                        algorithms[i].round(numbers[j]), results[j]);
+            }
+        }
+
+        // the numbers can be rounded in place
+        new SymmetricRounding().roundAll(numbers, numbers, 1, 4);
+        assertEquals("number out of the range should not be changed", "1.125", numbers[0]);
+        assertEquals("result should be -1,13", "-1,13", numbers[1]);
+        assertEquals("result should be 0.01", "0.01", numbers[2]);
+        assertEquals("result should be 100.00", "100.00", numbers[3]);
+        assertEquals("number out of the range should not be changed", "-0.001", numbers[4]);
+    }
+
+    /**
+     * Tests roundAll(double[] numbers, double[] results, int from, int to, int accuracyDigit,
+     * int comparisonDigit).
+     * The doubles are prices with ties, rounded numbers, zeros and doubles of all magnitudes, the results
+     * should be exactly the same as the ones of roundDouble(double, int, int), including the sign of 0.
+     */
+    public void testRoundAll7() {
+        double[] numbers = new double[COUNT];
+        double[] results = new double[COUNT];
+        for (int i = 0; i < COUNT; ++i) {
+            if (i % 4 == 0) {
+                numbers[i] = (random.nextInt(2000000) - 1000000) / Math.pow(10, random.nextInt(7));
+            } else if (i % 4 == 1) {
+                numbers[i] = (random.nextLong() % 100000000000000L) / 1e9;
+            } else if (i % 4 == 2) {
+                numbers[i] = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(40) - 20);
+            } else {
+                numbers[i] = Double.longBitsToDouble(random.nextLong() & 0x7fefffffffffffffL);
+            }
+        }
+        numbers[0] = 0.0;
+        numbers[1] = -0.0;
+        numbers[2] = -0.001;
+        numbers[3] = 2.675;
+        numbers[4] = Double.MIN_VALUE;
+        numbers[5] = -Double.MAX_VALUE;
+
+        for (int i = 0; i < algorithms.length; ++i) {
+            for (int accuracyDigit = 0; accuracyDigit <= 24; accuracyDigit += 3) {
+                for (int comparisonDigit = 1; comparisonDigit <= 9; comparisonDigit += 2) {
+                    algorithms[i].roundAll(numbers, results, 0, COUNT, accuracyDigit, comparisonDigit);
+
+                    for (int j = 0; j < COUNT; ++j) {
+                        double expected = algorithms[i].roundDouble(numbers[j], accuracyDigit, comparisonDigit);
+                        if (Double.doubleToLongBits(results[j]) != Double.doubleToLongBits(expected)) {
+                            fail("roundDouble(" + numbers[j] + ", " + accuracyDigit + ", " + comparisonDigit
+                                    + ") of " + algorithms[i].getClass().getName() + " should be " + expected
+                                    + " but was " + results[j]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
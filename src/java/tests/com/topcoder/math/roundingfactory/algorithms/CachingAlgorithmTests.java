@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.io.StringReader;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests CachingAlgorithm. The results are cross-checked against the ones of the cached algorithms, and the
+ * hits, misses and evictions are checked.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class CachingAlgorithmTests extends TestCase {
+
+    /**
+     * The numbers with carries, signs, decimal symbols and 0's to check.
+     */
+    private static final String[] NUMBERS = new String[] {"0", "-0", "+0.000", "0.005", "-0.005", "0.0049",
+        "9.995", "-9.995", "99.999", "-999.9999", "0.999", "1", "+1,125", "-1,125", "007.50", ".5", "5.",
+        "-.995", "123", "19.99", "129.9951", "0.1", "0.01", "0.001", "+7", "-12.3456789"};
+
+    /**
+     * Tests CachingAlgorithm(Algorithm, int).
+     * The arguments are invalid, exception should be thrown.
+     */
+    public void testCachingAlgorithm1() {
+        try {
+            new CachingAlgorithm(null, 10);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            new CachingAlgorithm(new SymmetricRounding(), 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests CachingAlgorithm(Algorithm, int).
+     * The digits should be the ones of the algorithm, and the algorithms which are not deterministic
+     * should not be cached.
+     */
+    public void testCachingAlgorithm2() {
+        CachingAlgorithm algorithm = new CachingAlgorithm(new BankersRounding(3, 4), 10);
+        assertEquals("accuracy digit should be 3", 3, algorithm.getAccuracyDigit());
+        assertEquals("comparison digit should be 4", 4, algorithm.getComparisonDigit());
+        assertEquals("maximum size should be 10", 10, algorithm.getMaximumSize());
+        assertTrue("the results should be cached", algorithm.isCaching());
+        assertTrue("the algorithm should be deterministic", algorithm.isDeterministic());
+
+        assertFalse("the results should not be cached", new CachingAlgorithm(new RandomRounding(), 10).isCaching());
+        assertFalse("the results should not be cached",
+                new CachingAlgorithm(new AlternateRounding(), 10).isCaching());
+        assertFalse("the wrapper should not be deterministic",
+                new CachingAlgorithm(new AlternateRounding(), 10).isDeterministic());
+    }
+
+    /**
+     * Tests round(String, int, int).
+     * The results should be taken from the cache after the first time, and counted.
+     */
+    public void testRound1() {
+        CachingAlgorithm algorithm = new CachingAlgorithm(new SymmetricRounding(), 100);
+
+        String result = algorithm.round("1.125", 2, 5);
+        assertEquals("result should be 1.13", "1.13", result);
+        assertSame("the cached result should be returned", result, algorithm.round("1.125", 2, 5));
+        assertSame("the cached result should be returned", result, algorithm.round("1.125"));
+        assertEquals("result should be 1.1", "1.1", algorithm.round("1.125", 1, 5));
+        assertEquals("result should be 1.12", "1.12", algorithm.round("1.125", 2, 6));
+        assertEquals("there should be 2 hits", 2, algorithm.getHitCount());
+        assertEquals("there should be 3 misses", 3, algorithm.getMissCount());
+        assertEquals("there should be 3 results", 3, algorithm.getSize());
+
+        // an invalid number is not cached
+        for (int i = 0; i < 2; ++i) {
+            try {
+                algorithm.round("1.1a", 2, 5);
+                fail("NumberFormatException should be thrown");
+            } catch (NumberFormatException e) {
+                // success
+            }
+        }
+        assertEquals("there should be 3 results", 3, algorithm.getSize());
+
+        try {
+            algorithm.round("1.1", 2, 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.round((String) null, 2, 5);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        algorithm.clear();
+        assertEquals("there should be no result", 0, algorithm.getSize());
+        assertEquals("there should be no hit", 0, algorithm.getHitCount());
+        assertEquals("there should be no miss", 0, algorithm.getMissCount());
+    }
+
+    /**
+     * Tests round(String, int, int).
+     * The least recently used results should be evicted, the cache should never hold more than its maximum
+     * size.
+     */
+    public void testRound2() {
+        CachingAlgorithm algorithm = new CachingAlgorithm(new SymmetricRounding(), 1);
+        algorithm.round("1.125");
+        algorithm.round("2.125");
+        algorithm.round("1.125");
+        assertEquals("there should be no hit", 0, algorithm.getHitCount());
+        assertEquals("there should be 1 result", 1, algorithm.getSize());
+
+        algorithm = new CachingAlgorithm(new SymmetricRounding(), 3);
+        algorithm.round("1");
+        algorithm.round("2");
+        algorithm.round("3");
+        algorithm.round("1");
+        algorithm.round("4");
+        algorithm.round("1");
+        assertEquals("1 should be kept as the most recently used", 2, algorithm.getHitCount());
+
+        algorithm = new CachingAlgorithm(new SymmetricRounding(), 100);
+        for (int i = 0; i < 1000; ++i) {
+            algorithm.round(Integer.toString(i) + ".125");
+        }
+        assertEquals("there should be 100 results", 100, algorithm.getSize());
+    }
+
+    /**
+     * Tests the round methods of CachingAlgorithm.
+     * The results should be the same as the ones of the algorithm, for all the forms of the numbers.
+     */
+    public void testRound3() throws Exception {
+        RoundingAlgorithm[] algorithms = new RoundingAlgorithm[] {new NoRounding(), new SymmetricRounding(),
+            new AsymmetricRounding(), new BankersRounding(), new UpSymmetricRounding(), new DownSymmetricRounding(),
+            new UpAsymmetricRounding(), new DownAsymmetricRounding(), new RandomRounding(new Random(1))};
+        RoundingAlgorithm[] expectedAlgorithms = new RoundingAlgorithm[] {new NoRounding(),
+            new SymmetricRounding(), new AsymmetricRounding(), new BankersRounding(), new UpSymmetricRounding(),
+            new DownSymmetricRounding(), new UpAsymmetricRounding(), new DownAsymmetricRounding(),
+            new RandomRounding(new Random(1))};
+
+        for (int i = 0; i < algorithms.length; ++i) {
+            CachingAlgorithm algorithm = new CachingAlgorithm(algorithms[i], 8);
+            String name = algorithms[i].getClass().getName();
+
+            for (int round = 0; round < 2; ++round) {
+                for (int j = 0; j < NUMBERS.length; ++j) {
+                    String expected = expectedAlgorithms[i].round(NUMBERS[j], 2, 5);
+                    assertEquals("round(" + NUMBERS[j] + ") of " + name, expected, algorithm.round(NUMBERS[j], 2, 5));
+
+                    expected = expectedAlgorithms[i].round(NUMBERS[j], 2, 5);
+                    assertEquals("round(" + NUMBERS[j] + ") of " + name, expected,
+                            algorithm.round(new StringBuilder(NUMBERS[j]), 2, 5));
+
+                    expected = expectedAlgorithms[i].round(NUMBERS[j], 2, 5);
+                    StringBuilder builder = new StringBuilder();
+                    algorithm.round(new StringReader(NUMBERS[j]), builder, 2, 5);
+                    assertEquals("round(" + NUMBERS[j] + ") of " + name, expected, builder.toString());
+                }
+            }
+
+            if (i < algorithms.length - 1) {
+                // the doubles and the fixed-point numbers are rounded by the algorithm
+                assertEquals("round(1.125) of " + name, expectedAlgorithms[i].round(1.125), algorithm.round(1.125));
+                assertEquals("roundDouble(1.125) of " + name, expectedAlgorithms[i].roundDouble(1.125, 2, 5),
+                        algorithm.roundDouble(1.125, 2, 5), 0);
+                assertEquals("round(1125, 3) of " + name, expectedAlgorithms[i].round(1120, 3, 2, 5),
+                        algorithm.round(1120, 3, 2, 5));
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests the rounding of BigDecimals. The results of roundDecimal(BigDecimal, int, int) are cross-checked
+ * against round(String, int, int) with the plain string of the BigDecimal, for all the deterministic
+ * algorithms.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class DecimalRoundingTests extends TestCase {
+
+    /**
+     * The number of random BigDecimals to check.
+     */
+    private static final int COUNT = 2000;
+
+    /**
+     * The deterministic algorithms to check.
+     */
+    private RoundingAlgorithm[] algorithms;
+
+    /**
+     * The random generator of the numbers, with a fixed seed so that a failure can be reproduced.
+     */
+    private Random random;
+
+    /**
+     * Sets up the environment.
+     */
+    protected void setUp() {
+        algorithms = new RoundingAlgorithm[] {new SymmetricRounding(), new AsymmetricRounding(),
+            new BankersRounding(), new UpSymmetricRounding(), new DownSymmetricRounding(),
+            new UpAsymmetricRounding(), new DownAsymmetricRounding()};
+        random = new Random(20050101L);
+    }
+
+    /**
+     * Tests roundDecimal(BigDecimal number, int accuracyDigit, int comparisonDigit).
+     * The arguments are invalid, exception should be thrown.
+     */
+    public void testRoundDecimal1() {
+        RoundingAlgorithm algorithm = new SymmetricRounding();
+
+        try {
+            algorithm.roundDecimal(null, 2, 5);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            algorithm.roundDecimal(null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            algorithm.roundDecimal(BigDecimal.ONE, -1, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.roundDecimal(BigDecimal.ONE, 2, 10);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.compile(2, 5).roundDecimal(null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests roundDecimal(BigDecimal number) and RoundingSpec.roundDecimal(BigDecimal number).
+     * The results should have the accuracy digit as their scale.
+     */
+    public void testRoundDecimal2() {
+        RoundingAlgorithm algorithm = new BankersRounding(2, 5);
+
+        assertEquals("result should be 1.12", "1.12", algorithm.roundDecimal(new BigDecimal("1.125")).toString());
+        assertEquals("result should be -1.14", "-1.14", algorithm.roundDecimal(new BigDecimal("-1.135")).toString());
+        assertEquals("result should be 0.00", "0.00", algorithm.roundDecimal(new BigDecimal("0.004")).toString());
+        assertEquals("result should be 12.50", "12.50", algorithm.roundDecimal(new BigDecimal("12.5")).toString());
+        assertEquals("result should be 1200.00", "1200.00",
+                algorithm.roundDecimal(new BigDecimal("1.2E+3")).toString());
+        assertEquals("result should be 1.13", "1.13",
+                new SymmetricRounding().compile(2, 5).roundDecimal(new BigDecimal("1.125")).toString());
+
+        // the unscaled value can not be held by a long
+        assertEquals("result should be 123456789012345678901.22", "123456789012345678901.22",
+                algorithm.roundDecimal(new BigDecimal("123456789012345678901.225")).toString());
+
+        // the rescaled number can not be held by a long
+        algorithm.setAccuracyDigit(20);
+        assertEquals("result should be 1.50000000000000000000", "1.50000000000000000000",
+                algorithm.roundDecimal(new BigDecimal("1.5")).toString());
+    }
+
+    /**
+     * Tests roundDecimal(BigDecimal number) of NoRounding, AlternateRounding and RandomRounding.
+     * NoRounding should return the number unchanged, and the others should round the ties by their rules.
+     */
+    public void testRoundDecimal3() {
+        BigDecimal number = new BigDecimal("1.12500");
+        assertSame("number should not be changed", number, new NoRounding(2, 5).roundDecimal(number));
+        assertSame("number should not be changed", number,
+                new CachingAlgorithm(new NoRounding(2, 5), 16).roundDecimal(number));
+
+        AlternateRounding alternate = new AlternateRounding(2, 5);
+        assertEquals("result should be 1.13", "1.13", alternate.roundDecimal(number).toString());
+        assertEquals("result should be 1.12", "1.12", alternate.roundDecimal(number).toString());
+
+        RandomRounding first = new RandomRounding(2, 5, new Random(20050101L));
+        RandomRounding second = new RandomRounding(2, 5, new Random(20050101L));
+        for (int i = 0; i < 100; ++i) {
+            assertEquals("seeded generators should round the same", second.round(1125, 3),
+                    first.roundDecimal(number).unscaledValue().longValue());
+        }
+    }
+
+    /**
+     * Tests roundDecimal(BigDecimal number, int accuracyDigit, int comparisonDigit).
+     * The rounding should be recorded by MeteredAlgorithm, and the cached algorithm should give the same result.
+     */
+    public void testRoundDecimal4() {
+        MeteredAlgorithm metered = new MeteredAlgorithm(new SymmetricRounding());
+        assertEquals("result should be 1.13", "1.13", metered.roundDecimal(new BigDecimal("1.125"), 2, 5).toString());
+        assertEquals("result should be 1.13", "1.13",
+                metered.roundDecimal(new BigDecimal("1.125000000000000000000"), 2, 5).toString());
+        assertEquals("roundings should be recorded", 2, metered.getMetrics().getCallCount());
+
+        CachingAlgorithm caching = new CachingAlgorithm(new UpSymmetricRounding(), 16);
+        assertEquals("result should be -1.13", "-1.13",
+                caching.roundDecimal(new BigDecimal("-1.121"), 2, 5).toString());
+    }
+
+    /**
+     * Tests roundDecimal(BigDecimal number, int accuracyDigit, int comparisonDigit).
+     * Rounds random BigDecimals of all scales, the result should be the same as the one of
+     * round(String, int, int).
+     */
+    public void testRoundDecimal5() {
+        for (int i = 0; i < COUNT; ++i) {
+            BigInteger unscaledValue = new BigInteger(1 + random.nextInt(90), random);
+            if (random.nextBoolean()) {
+                unscaledValue = unscaledValue.negate();
+            }
+
+            checkDecimal(new BigDecimal(unscaledValue, random.nextInt(30) - 5));
+        }
+    }
+
+    /**
+     * Tests roundDecimal(BigDecimal number, int accuracyDigit, int comparisonDigit).
+     * Rounds the boundary BigDecimals, the result should be the same as the one of round(String, int, int).
+     */
+    public void testRoundDecimal6() {
+        String[] numbers = new String[] {"0", "0.000", "0E+5", "0.5", "0.05", "0.005", "0.015", "0.045",
+            "9.995", "99.99999", "9223372036854775807", "-9223372036854775808", "92233720368547758.07",
+            "-92233720368547758.08", "9223372036854775808", "0.9223372036854775807", "1E-40", "-1.5E-3",
+            "4.5E+2", "12345678901234567890.5"};
+
+        for (int i = 0; i < numbers.length; ++i) {
+            checkDecimal(new BigDecimal(numbers[i]));
+        }
+    }
+
+    /**
+     * Tests roundDecimal(BigDecimal number, int accuracyDigit, int comparisonDigit).
+     * The unscaled values can not be held by a long, so they are rounded as BigIntegers. The ties should be
+     * rounded by the rules of AlternateRounding and RandomRounding, and the numbers of large scales should be
+     * rounded without their plain strings.
+     */
+    public void testRoundDecimal7() {
+        BigDecimal tie = new BigDecimal("123456789012345678901.125");
+        BigDecimal negativeTie = tie.negate();
+
+        AlternateRounding alternate = new AlternateRounding(2, 5);
+        assertEquals("result should be 123456789012345678901.13", "123456789012345678901.13",
+                alternate.roundDecimal(tie).toPlainString());
+        assertEquals("result should be 123456789012345678901.12", "123456789012345678901.12",
+                alternate.roundDecimal(tie).toPlainString());
+        assertEquals("result should be -123456789012345678901.12", "-123456789012345678901.12",
+                alternate.roundDecimal(negativeTie).toPlainString());
+        assertEquals("result should be -123456789012345678901.13", "-123456789012345678901.13",
+                alternate.roundDecimal(negativeTie).toPlainString());
+
+        RandomRounding first = new RandomRounding(2, 5, new Random(20050101L));
+        RandomRounding second = new RandomRounding(2, 5, new Random(20050101L));
+        for (int i = 0; i < 100; ++i) {
+            assertEquals("seeded generators should round the same", second.round(tie.toPlainString()),
+                    first.roundDecimal(tie).toPlainString());
+        }
+
+        RoundingAlgorithm algorithm = new SymmetricRounding(3, 5);
+        assertEquals("result should be 0.000", "0.000", algorithm.roundDecimal(new BigDecimal("1E-100000")).toString());
+        assertEquals("result should be -0.001", "-0.001",
+                new UpSymmetricRounding(3, 5).roundDecimal(new BigDecimal("-1E-100000")).toString());
+        assertEquals("result should be 10^400", BigInteger.TEN.pow(400),
+                algorithm.roundDecimal(new BigDecimal("1E+400")).toBigIntegerExact());
+    }
+
+    /**
+     * Checks the rounding of the given BigDecimal with all the algorithms, several accuracy digits and all
+     * comparison digits.
+     *
+     * @param number the BigDecimal to round
+     */
+    private void checkDecimal(BigDecimal number) {
+        String string = number.toPlainString();
+
+        for (int i = 0; i < algorithms.length; ++i) {
+            RoundingAlgorithm algorithm = algorithms[i];
+            for (int accuracyDigit = 0; accuracyDigit <= 24; accuracyDigit += 3) {
+                for (int comparisonDigit = 1; comparisonDigit <= 9; comparisonDigit += 4) {
+                    BigDecimal expected = new BigDecimal(algorithm.round(string, accuracyDigit, comparisonDigit))
+                            .setScale(accuracyDigit);
+
+                    assertEquals("roundDecimal(" + string + ", " + accuracyDigit + ", " + comparisonDigit
+                            + ") of " + algorithm.getClass().getName() + " is wrong", expected,
+                            algorithm.roundDecimal(number, accuracyDigit, comparisonDigit));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests the rounding of doubles. The results of round(double) and roundDouble(double, int, int)
+ * are cross-checked against round(String, int, int) with the decimal given by doubleToString(double),
+ * for all the deterministic algorithms.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class DoubleRoundingTests extends TestCase {
+
+    /**
+     * The number of random doubles to check.
+     */
+    private static final int COUNT = 2000;
+
+    /**
+     * The deterministic algorithms to check.
+     */
+    private RoundingAlgorithm[] algorithms;
+
+    /**
+     * The random generator of the numbers, with a fixed seed so that a failure can be reproduced.
+     */
+    private Random random;
+
+    /**
+     * Sets up the environment.
+     */
+    protected void setUp() {
+        algorithms = new RoundingAlgorithm[] {new SymmetricRounding(), new AsymmetricRounding(),
+            new BankersRounding(), new UpSymmetricRounding(), new DownSymmetricRounding(),
+            new UpAsymmetricRounding(), new DownAsymmetricRounding()};
+        random = new Random(20050101L);
+    }
+
+    /**
+     * Tests FixedPoint.scaleOf(double) and FixedPoint.unscaledValueOf(double, int).
+     * The double should be taken as the shortest decimal.
+     */
+    public void testScaleOf() {
+        assertEquals("scale should be 3", 3, FixedPoint.scaleOf(0.015));
+        assertEquals("unscaled value should be 15", 15, FixedPoint.unscaledValueOf(0.015, 3));
+        assertEquals("scale should be 3", 3, FixedPoint.scaleOf(-0.085));
+        assertEquals("unscaled value should be -85", -85, FixedPoint.unscaledValueOf(-0.085, 3));
+        assertEquals("scale should be 8", 8, FixedPoint.scaleOf(1e-8));
+        assertEquals("unscaled value should be 1", 1, FixedPoint.unscaledValueOf(1e-8, 8));
+        assertEquals("scale should be 0", 0, FixedPoint.scaleOf(1e10));
+        assertEquals("unscaled value should be 10000000000", 10000000000L, FixedPoint.unscaledValueOf(1e10, 0));
+        assertEquals("scale should be 0", 0, FixedPoint.scaleOf(-0.0));
+        assertEquals("scale should be 1", 1, FixedPoint.scaleOf(0.1));
+        assertEquals("scale should be 2", 2, FixedPoint.scaleOf(1.13));
+
+        // the decimal can not be held exactly by a double
+        assertEquals("scale should be -1", -1, FixedPoint.scaleOf(1e300));
+        assertEquals("scale should be -1", -1, FixedPoint.scaleOf(1e-300));
+        assertEquals("scale should be -1", -1, FixedPoint.scaleOf(0.1 + 0.2));
+        assertEquals("scale should be -1", -1, FixedPoint.scaleOf(Double.NaN));
+        assertEquals("scale should be -1", -1, FixedPoint.scaleOf(Double.POSITIVE_INFINITY));
+        assertEquals("scale should be -1", -1, FixedPoint.scaleOf(Double.NEGATIVE_INFINITY));
+    }
+
+    /**
+     * Tests RoundingAlgorithm.doubleToString(double).
+     * The very large and very small doubles should be the shortest decimals, even where Double.toString
+     * gives one more digit before JDK 19.
+     */
+    public void testDoubleToString() {
+        assertEquals("result should be 1E+23", "100000000000000000000000", RoundingAlgorithm.doubleToString(1e23));
+        assertEquals("result should be 2E+23", "200000000000000000000000", RoundingAlgorithm.doubleToString(2e23));
+        assertEquals("result should be 8.41E+21", "8410000000000000000000", RoundingAlgorithm.doubleToString(8.41e21));
+        assertEquals("result should be -1E+23", "-100000000000000000000000",
+                RoundingAlgorithm.doubleToString(-1e23));
+        assertEquals("result should be 4.9E-324", new BigDecimal("4.9E-324").toPlainString(),
+                RoundingAlgorithm.doubleToString(Double.MIN_VALUE));
+        assertEquals("result should be 1E-300", new BigDecimal("1E-300").toPlainString(),
+                RoundingAlgorithm.doubleToString(1e-300));
+        assertEquals("result should be Double.MAX_VALUE", new BigDecimal("1.7976931348623157E+308").toPlainString(),
+                RoundingAlgorithm.doubleToString(Double.MAX_VALUE));
+    }
+
+    /**
+     * Tests RoundingAlgorithm.doubleToString(double).
+     * The random doubles of all magnitudes should convert back, with no more digits than Double.toString gives.
+     */
+    public void testDoubleToString2() {
+        for (int i = 0; i < COUNT; ++i) {
+            double number = Double.longBitsToDouble(random.nextLong() & 0x7fefffffffffffffL);
+            String string = RoundingAlgorithm.doubleToString(number);
+            BigDecimal decimal = new BigDecimal(string);
+            BigDecimal expected = new BigDecimal(Double.toString(number));
+
+            assertEquals(string + " should convert back to " + number, number, Double.parseDouble(string), 0);
+            assertTrue(string + " should be no longer than " + expected,
+                    decimal.stripTrailingZeros().precision() <= expected.stripTrailingZeros().precision());
+        }
+    }
+
+    /**
+     * Tests round(double number).
+     * Rounds the numbers which are converted by the string rounding.
+     */
+    public void testRoundDouble1() {
+        RoundingAlgorithm algorithm = new SymmetricRounding(3, 5);
+
+        assertEquals("result should be 0.300", "0.300", algorithm.round(0.1 + 0.2));
+        assertEquals("result should be 1.000", "1.000", algorithm.round(0.99999999999999989));
+        assertEquals("result should be 0", "0", algorithm.round(1e-300));
+        assertEquals("result should be 0", "0", algorithm.round(Double.MIN_VALUE));
+        assertEquals("result should be 1E+300", new BigDecimal("1E+300").setScale(3).toPlainString(),
+                algorithm.round(1e300));
+
+        // the rescaled number can not be held by a long
+        algorithm.setAccuracyDigit(20);
+        assertEquals("result should be 1.50000000000000000000", "1.50000000000000000000", algorithm.round(1.5));
+        assertEquals("result should be 1.5", 1.5, algorithm.roundDouble(1.5, 20, 5), 0);
+    }
+
+    /**
+     * Tests round(double number) and roundDouble(double number, int accuracyDigit, int comparisonDigit).
+     * Rounds decimals with a few digits, the result should be the same as the one of round(String, int, int).
+     */
+    public void testRoundDouble2() {
+        for (int i = 0; i < COUNT; ++i) {
+            int scale = random.nextInt(11);
+            long unscaledValue = random.nextLong() % FixedPoint.powerOfTen(1 + random.nextInt(15));
+
+            checkDouble(unscaledValue / Math.pow(10, scale));
+        }
+    }
+
+    /**
+     * Tests round(double number) and roundDouble(double number, int accuracyDigit, int comparisonDigit).
+     * Rounds random doubles of all magnitudes, the result should be the same as the one of
+     * round(String, int, int).
+     */
+    public void testRoundDouble3() {
+        for (int i = 0; i < COUNT; ++i) {
+            double number = random.nextDouble() * Math.pow(10, random.nextInt(40) - 20);
+
+            checkDouble(random.nextBoolean() ? number : -number);
+        }
+    }
+
+    /**
+     * Tests round(double number) and roundDouble(double number, int accuracyDigit, int comparisonDigit).
+     * Rounds the boundary doubles, the result should be the same as the one of round(String, int, int).
+     */
+    public void testRoundDouble4() {
+        double[] numbers = new double[] {0.0, -0.0, 0.5, 0.05, 0.005, 0.015, 0.045, 0.085, 0.095, 9.995, 1.005,
+            2.675, 1.0 / 3, 2.0 / 3, 9007199254740991.0, 9007199254740992.0, 9007199254740993.0,
+            4503599627370495.5, 922337203685477.5807, Long.MAX_VALUE, Long.MIN_VALUE, Double.MIN_VALUE,
+            Double.MAX_VALUE, Math.PI, Math.E, 1e-7, 1e-5, 123456789.987654321};
+
+        for (int i = 0; i < numbers.length; ++i) {
+            checkDouble(numbers[i]);
+            checkDouble(-numbers[i]);
+            checkDouble(Math.nextAfter(numbers[i], 0));
+            checkDouble(-Math.nextAfter(numbers[i], 0));
+        }
+    }
+
+    /**
+     * Checks the rounding of the given double with all the algorithms, several accuracy digits and all
+     * comparison digits.
+     *
+     * @param number the double to round
+     */
+    private void checkDouble(double number) {
+        String string = RoundingAlgorithm.doubleToString(number);
+
+        for (int i = 0; i < algorithms.length; ++i) {
+            RoundingAlgorithm algorithm = algorithms[i];
+            for (int accuracyDigit = 0; accuracyDigit <= 12; accuracyDigit += 3) {
+                for (int comparisonDigit = 1; comparisonDigit <= 9; comparisonDigit += 4) {
+                    String expected = algorithm.round(string, accuracyDigit, comparisonDigit);
+
+                    assertEquals("roundDouble(" + number + ", " + accuracyDigit + ", " + comparisonDigit
+                            + ") of " + algorithm.getClass().getName() + " should be " + expected,
+                            Double.parseDouble(expected), algorithm.roundDouble(number, accuracyDigit, comparisonDigit),
+                            0);
+
+                    algorithm.setAccuracyDigit(accuracyDigit);
+                    algorithm.setComparisonDigit(comparisonDigit);
+                    assertEquals("round(" + number + ") of " + algorithm.getClass().getName() + " should be "
+                            + expected, expected, algorithm.round(number));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.nio.CharBuffer;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests the round methods taking the number as a CharSequence or a range of a char array.
+ * The results are cross-checked against round(String, int, int) for all the algorithms.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class InputRoundingTests extends TestCase {
+
+    /**
+     * The numbers with carries, signs, decimal symbols and 0's to check.
+     */
+    private static final String[] NUMBERS = new String[] {"0", "-0", "+0.000", "0.005", "-0.005", "0.0049",
+        "9.995", "-9.995", "99.999", "-999.9999", "0.999", "1", "+1,125", "-1,125", "007.50", ".5", "5.",
+        "-.995", "123", "19.99", "129.9951", "0.1", "0.01", "0.001", "+7", "-12.3456789"};
+
+    /**
+     * Tests round(CharSequence, int, int) and round(char[], int, int, int, int).
+     * The results should be the same as the ones of round(String, int, int).
+     */
+    public void testRound1() {
+        for (int accuracyDigit = 0; accuracyDigit <= 6; ++accuracyDigit) {
+            for (int comparisonDigit = 1; comparisonDigit <= 9; comparisonDigit += 4) {
+                // two instances of the same state for the algorithms which are not deterministic
+                checkRound(new NoRounding(), new NoRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new RandomRounding(new Random(1)), new RandomRounding(new Random(1)), accuracyDigit,
+                        comparisonDigit);
+                checkRound(new AlternateRounding(), new AlternateRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new SymmetricRounding(), new SymmetricRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new AsymmetricRounding(), new AsymmetricRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new BankersRounding(), new BankersRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new UpSymmetricRounding(), new UpSymmetricRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new DownSymmetricRounding(), new DownSymmetricRounding(), accuracyDigit,
+                        comparisonDigit);
+                checkRound(new UpAsymmetricRounding(), new UpAsymmetricRounding(), accuracyDigit,
+                        comparisonDigit);
+                checkRound(new DownAsymmetricRounding(), new DownAsymmetricRounding(), accuracyDigit,
+                        comparisonDigit);
+            }
+        }
+    }
+
+    /**
+     * Tests round(CharSequence) and round(char[], int, int, int, int).
+     * Only the given range should be parsed, and the result should not change with the input afterwards.
+     */
+    public void testRound2() {
+        Algorithm algorithm = new SymmetricRounding();
+
+        char[] message = "qty=7;px=1.125;ccy=EUR".toCharArray();
+        assertEquals("result should be 1.13", "1.13", algorithm.round(message, 9, 5, 2, 5));
+        assertEquals("result should be 7.0", "7.0", algorithm.round(message, 4, 1, 1, 5));
+
+        StringBuilder builder = new StringBuilder("-0,0049");
+        assertEquals("result should be 0", "0", algorithm.round(builder));
+        builder.setCharAt(5, '5');
+        assertEquals("result should be -0,01", "-0,01", algorithm.round(builder));
+
+        // the unchanged number is copied
+        builder = new StringBuilder("1.5");
+        String result = new NoRounding().round(builder);
+        builder.setCharAt(0, '2');
+        assertEquals("result should be 1.5", "1.5", result);
+
+        // the number can be read from the result buffer of another rounding
+        char[] chars = new char[16];
+        int length = algorithm.round("9.999", chars, 0, 3, 5);
+        assertEquals("result should be 10.0", "10.0", algorithm.round(chars, 0, length, 1, 5));
+
+        // the numbers of the input methods can be given to the output methods
+        builder.setLength(0);
+        assertEquals("3 chars should be appended", 3, algorithm.round(CharBuffer.wrap("2.675"), builder, 1, 5));
+        assertEquals("result should be 2.7", "2.7", builder.toString());
+    }
+
+    /**
+     * Tests round(CharSequence, int, int) and round(char[], int, int, int, int).
+     * The arguments are invalid, exception should be thrown.
+     */
+    public void testRound3() {
+        Algorithm algorithm = new SymmetricRounding();
+        char[] chars = "1.125".toCharArray();
+
+        try {
+            algorithm.round((CharSequence) null, 2, 5);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            algorithm.round((char[]) null, 0, 0, 2, 5);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(new StringBuilder("1.1"), -1, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(chars, 0, 5, 2, 10);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(chars, -1, 3, 2, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(chars, 1, -1, 2, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(chars, 1, 5, 2, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(chars, 2, 0, 2, 5);
+            fail("NumberFormatException should be thrown");
+        } catch (NumberFormatException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(new StringBuilder("1.1x"), 2, 5);
+            fail("NumberFormatException should be thrown");
+        } catch (NumberFormatException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests round(CharSequence, int, int) and round(char[], int, int, int, int) of a subclass which only
+     * implements round(String, int, int).
+     * The number should be rounded by round(String, int, int).
+     */
+    public void testRound4() {
+        RoundingAlgorithm algorithm = new RoundingAlgorithm() {
+            public String round(String number, int accuracyDigit, int comparisonDigit) {
+                return "[" + number + "]";
+            }
+        };
+
+        assertEquals("result should be [1.1]", "[1.1]", algorithm.round(new StringBuilder("1.1"), 2, 5));
+        assertEquals("result should be [1.1]", "[1.1]", algorithm.round("x1.1x".toCharArray(), 1, 3, 2, 5));
+        assertEquals("result should be [1.1]", "[1.1]", algorithm.round((CharSequence) "1.1"));
+    }
+
+    /**
+     * Tests CharArraySequence.
+     * The view should give the chars of the range only.
+     */
+    public void testCharArraySequence() {
+        CharSequence sequence = new CharArraySequence("x=-1.25;".toCharArray(), 2, 5);
+
+        assertEquals("length should be 5", 5, sequence.length());
+        assertEquals("char should be -", '-', sequence.charAt(0));
+        assertEquals("char should be 5", '5', sequence.charAt(4));
+        assertEquals("string should be -1.25", "-1.25", sequence.toString());
+        assertEquals("string should be 1.2", "1.2", sequence.subSequence(1, 4).toString());
+
+        try {
+            sequence.charAt(5);
+            fail("IndexOutOfBoundsException should be thrown");
+        } catch (IndexOutOfBoundsException e) {
+            // success
+        }
+
+        try {
+            sequence.subSequence(3, 2);
+            fail("IndexOutOfBoundsException should be thrown");
+        } catch (IndexOutOfBoundsException e) {
+            // success
+        }
+    }
+
+    /**
+     * Checks the input methods of an algorithm against round(String, int, int) of another algorithm
+     * in the same state.
+     *
+     * @param algorithm the algorithm whose input methods are checked
+     * @param expectedAlgorithm the algorithm in the same state, whose round(String, int, int) gives the expected
+     * results
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     */
+    private static void checkRound(Algorithm algorithm, Algorithm expectedAlgorithm, int accuracyDigit,
+            int comparisonDigit) {
+        char[] chars = new char[64];
+
+        for (int i = 0; i < NUMBERS.length; ++i) {
+            String message = "round(" + NUMBERS[i] + ", " + accuracyDigit + ", " + comparisonDigit + ") of "
+                    + algorithm.getClass().getName();
+
+            String expected = expectedAlgorithm.round(NUMBERS[i], accuracyDigit, comparisonDigit);
+            assertEquals(message, expected, algorithm.round(new StringBuilder(NUMBERS[i]), accuracyDigit,
+                    comparisonDigit));
+
+            expected = expectedAlgorithm.round(NUMBERS[i], accuracyDigit, comparisonDigit);
+            assertEquals(message, expected, algorithm.round(CharBuffer.wrap(NUMBERS[i]), accuracyDigit,
+                    comparisonDigit));
+
+            // the number is surrounded by other chars
+            NUMBERS[i].getChars(0, NUMBERS[i].length(), chars, 3);
+            chars[2] = '#';
+            chars[3 + NUMBERS[i].length()] = '#';
+            expected = expectedAlgorithm.round(NUMBERS[i], accuracyDigit, comparisonDigit);
+            assertEquals(message, expected, algorithm.round(chars, 3, NUMBERS[i].length(), accuracyDigit,
+                    comparisonDigit));
+        }
+    }
+}
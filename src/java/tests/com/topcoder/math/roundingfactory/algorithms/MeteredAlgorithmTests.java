@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.io.StringReader;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests MeteredAlgorithm and RoundingMetrics. The results are cross-checked against the ones of the metered
+ * algorithms, and the counts and the latency histogram are checked.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class MeteredAlgorithmTests extends TestCase {
+
+    /**
+     * Tests MeteredAlgorithm(Algorithm, int).
+     * The arguments are invalid, exception should be thrown.
+     */
+    public void testMeteredAlgorithm1() {
+        try {
+            new MeteredAlgorithm(null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            new MeteredAlgorithm(new SymmetricRounding(), 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            new MeteredAlgorithm(new SymmetricRounding(), 12);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests MeteredAlgorithm(Algorithm).
+     * The digits should be the ones of the algorithm, the default sampling interval should be used, and all the
+     * counts should be 0.
+     */
+    public void testMeteredAlgorithm2() {
+        MeteredAlgorithm algorithm = new MeteredAlgorithm(new BankersRounding(3, 4));
+        assertEquals("accuracy digit should be 3", 3, algorithm.getAccuracyDigit());
+        assertEquals("comparison digit should be 4", 4, algorithm.getComparisonDigit());
+        assertEquals("sampling interval should be 16", 16, algorithm.getSamplingInterval());
+        assertTrue("the algorithm should be deterministic", algorithm.isDeterministic());
+        assertFalse("the algorithm should not be deterministic",
+                new MeteredAlgorithm(new AlternateRounding()).isDeterministic());
+
+        RoundingMetrics metrics = algorithm.getMetrics();
+        assertEquals("there should be no call", 0, metrics.getCallCount());
+        assertEquals("there should be no latency", 0, metrics.getLatencyCount());
+        assertEquals("the percentile should be 0", 0, metrics.getLatencyPercentile(50));
+    }
+
+    /**
+     * Tests round(String, int, int).
+     * The ties, the decisions and the numbers rejected should be counted.
+     */
+    public void testRound1() {
+        MeteredAlgorithm algorithm = new MeteredAlgorithm(new SymmetricRounding(), 1);
+
+        assertEquals("result should be 1.13", "1.13", algorithm.round("1.125", 2, 5));
+        assertEquals("result should be -1.12", "-1.12", algorithm.round("-1.124", 2, 5));
+        assertEquals("result should be 1.12", "1.12", algorithm.round("1.12", 2, 5));
+        assertEquals("result should be 1.2", "1.2", algorithm.round("1.125", 1, 2));
+        try {
+            algorithm.round("1.2a", 2, 5);
+            fail("NumberFormatException should be thrown");
+        } catch (NumberFormatException e) {
+            // success
+        }
+
+        RoundingMetrics metrics = algorithm.getMetrics();
+        assertEquals("there should be 5 calls", 5, metrics.getCallCount());
+        assertEquals("there should be 1 tie", 1, metrics.getTieCount());
+        assertEquals("2 numbers should be rounded away from zero", 2, metrics.getAwayFromZeroCount());
+        assertEquals("1 number should be rounded towards zero", 1, metrics.getTowardsZeroCount());
+        assertEquals("1 number should be rejected", 1, metrics.getRejectionCount());
+        assertEquals("there should be no RoundingException", 0, metrics.getRoundingExceptionCount());
+        assertEquals("there should be 4 latencies", 4, metrics.getLatencyCount());
+
+        metrics.reset();
+        assertEquals("there should be no call", 0, metrics.getCallCount());
+        assertEquals("there should be no tie", 0, metrics.getTieCount());
+        assertEquals("there should be no latency", 0, metrics.getLatencyCount());
+    }
+
+    /**
+     * Tests round(long, int, int, int) and roundAll(long[], int, long[], int, int, int, int).
+     * Each fixed-point number should be counted, and the RoundingExceptions should be counted.
+     */
+    public void testRound2() {
+        MeteredAlgorithm algorithm = new MeteredAlgorithm(new BankersRounding(), 1);
+
+        assertEquals("result should be 112", 112, algorithm.round(1125, 3, 2, 5));
+        assertEquals("result should be -114", -114, algorithm.round(-1135, 3, 2, 5));
+        assertEquals("result should be 1130", 1130, algorithm.round(113, 2, 3, 5));
+
+        long[] values = new long[] {1125, 1135, 1134, 1136, 1130};
+        algorithm.roundAll(values, 3, values, 0, values.length, 2, 5);
+        assertEquals("result should be 112", 112, values[0]);
+        assertEquals("result should be 114", 114, values[1]);
+        assertEquals("result should be 113", 113, values[2]);
+        assertEquals("result should be 114", 114, values[3]);
+        assertEquals("result should be 113", 113, values[4]);
+
+        RoundingMetrics metrics = algorithm.getMetrics();
+        assertEquals("there should be 8 calls", 8, metrics.getCallCount());
+        assertEquals("there should be 4 ties", 4, metrics.getTieCount());
+        assertEquals("3 numbers should be rounded away from zero", 3, metrics.getAwayFromZeroCount());
+        assertEquals("3 numbers should be rounded towards zero", 3, metrics.getTowardsZeroCount());
+
+        MeteredAlgorithm no = new MeteredAlgorithm(new NoRounding(), 1);
+        try {
+            no.round(1125, 3, 2, 5);
+            fail("RoundingException should be thrown");
+        } catch (RoundingException e) {
+            // success
+        }
+        assertEquals("there should be 1 call", 1, no.getMetrics().getCallCount());
+        assertEquals("there should be 1 RoundingException", 1, no.getMetrics().getRoundingExceptionCount());
+        assertEquals("there should be no latency", 0, no.getMetrics().getLatencyCount());
+    }
+
+    /**
+     * Tests the rounding of CharSequences, char arrays, bytes, Readers and doubles.
+     * The results should be the ones of the algorithm, and each number should be counted once.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRound3() throws Exception {
+        RoundingAlgorithm symmetric = new SymmetricRounding(2, 5);
+        MeteredAlgorithm algorithm = new MeteredAlgorithm(symmetric, 1);
+
+        assertEquals("result should be the one of the algorithm", symmetric.round(new StringBuilder("-9.995")),
+                algorithm.round(new StringBuilder("-9.995")));
+        assertEquals("result should be the one of the algorithm", symmetric.round("12.3449".toCharArray(), 1, 5, 2, 5),
+                algorithm.round("12.3449".toCharArray(), 1, 5, 2, 5));
+        StringBuilder result = new StringBuilder();
+        algorithm.round("0.005", result);
+        assertEquals("result should be 0.01", "0.01", result.toString());
+        byte[] bytes = new byte[10];
+        assertEquals("4 bytes should be written", 4, algorithm.round("1.125".getBytes("US-ASCII"), 0, 5, bytes, 0));
+        result.setLength(0);
+        algorithm.round(new StringReader("2.675"), result);
+        assertEquals("result should be 2.68", "2.68", result.toString());
+        assertEquals("result should be 2.68", "2.68", algorithm.round(2.675));
+        assertEquals("result should be 2.68", 2.68, algorithm.roundDouble(2.675, 2, 5), 0);
+        assertEquals("result should be the one of the algorithm", symmetric.compile().round("1.005"),
+                algorithm.compile().round("1.005"));
+
+        RoundingMetrics metrics = algorithm.getMetrics();
+        assertEquals("there should be 8 calls", 8, metrics.getCallCount());
+        assertEquals("there should be 8 latencies", 8, metrics.getLatencyCount());
+        assertEquals("the ties of the numbers rounded from strings should be counted", 4, metrics.getTieCount());
+    }
+
+    /**
+     * Tests round(String, int, int) with an algorithm which only rounds to string.
+     * The numbers should be counted with their latencies only.
+     */
+    public void testRound4() {
+        MeteredAlgorithm algorithm = new MeteredAlgorithm(new CachingAlgorithm(new SymmetricRounding(), 10), 1);
+
+        assertEquals("result should be 1.13", "1.13", algorithm.round("1.125", 2, 5));
+        assertEquals("result should be 1.13", "1.13", algorithm.round(new StringBuilder("1.125"), 2, 5));
+        try {
+            algorithm.round("a", 2, 5);
+            fail("NumberFormatException should be thrown");
+        } catch (NumberFormatException e) {
+            // success
+        }
+
+        RoundingMetrics metrics = algorithm.getMetrics();
+        assertEquals("there should be 3 calls", 3, metrics.getCallCount());
+        assertEquals("there should be 2 latencies", 2, metrics.getLatencyCount());
+        assertEquals("1 number should be rejected", 1, metrics.getRejectionCount());
+        assertEquals("the ties should not be known", 0, metrics.getTieCount());
+    }
+
+    /**
+     * Tests the sampling of the latencies.
+     * All the numbers should be counted, but only about one of every 16 latencies should be recorded.
+     */
+    public void testSampling() {
+        MeteredAlgorithm algorithm = new MeteredAlgorithm(new SymmetricRounding());
+        for (int i = 0; i < 16000; ++i) {
+            algorithm.round(i, 3, 2, 5);
+        }
+
+        RoundingMetrics metrics = algorithm.getMetrics();
+        assertEquals("all the numbers should be counted", 16000, metrics.getCallCount());
+        assertEquals("all the ties should be counted", 1600, metrics.getTieCount());
+        assertTrue("about 1000 latencies should be recorded",
+                metrics.getLatencyCount() > 700 && metrics.getLatencyCount() < 1300);
+    }
+
+    /**
+     * Tests the buckets of the latency histogram.
+     * Each latency should be in the bucket whose greatest latency is at least the latency and within 12.5%.
+     */
+    public void testLatencyBuckets() {
+        assertEquals("bucket should be 0", 0, RoundingMetrics.getBucketIndex(-5));
+        assertEquals("bucket should be 7", 7, RoundingMetrics.getBucketIndex(7));
+        assertEquals("bucket should be 8", 8, RoundingMetrics.getBucketIndex(8));
+        assertEquals("bucket should be the last one", RoundingMetrics.BUCKET_COUNT - 1,
+                RoundingMetrics.getBucketIndex(Long.MAX_VALUE));
+
+        for (long latency = 1; latency < (1L << 42); latency = latency * 3 / 2 + 1) {
+            int index = RoundingMetrics.getBucketIndex(latency);
+            long limit = RoundingMetrics.getBucketLimit(index);
+            assertTrue("the latency " + latency + " should not exceed its bucket", latency <= limit);
+            assertTrue("the latency " + latency + " should be within 12.5%", limit - latency <= latency / 8);
+            assertTrue("the latency " + latency + " should exceed the previous bucket",
+                    RoundingMetrics.getBucketLimit(index - 1) < latency);
+        }
+    }
+
+    /**
+     * Tests getLatencyPercentile(double).
+     * The percentiles should be the greatest latencies of their buckets.
+     */
+    public void testGetLatencyPercentile() {
+        RoundingMetrics metrics = new RoundingMetrics();
+        for (int i = 1; i <= 100; ++i) {
+            metrics.recordRounding(i * 100);
+        }
+
+        assertEquals("there should be 100 latencies", 100, metrics.getLatencyCount());
+        assertEquals("the median should be the limit of 5000", RoundingMetrics.getBucketLimit(
+                RoundingMetrics.getBucketIndex(5000)), metrics.getLatencyPercentile(50));
+        assertEquals("the maximum should be the limit of 10000", RoundingMetrics.getBucketLimit(
+                RoundingMetrics.getBucketIndex(10000)), metrics.getLatencyPercentile(100));
+        assertEquals("the minimum should be the limit of 100", RoundingMetrics.getBucketLimit(
+                RoundingMetrics.getBucketIndex(100)), metrics.getLatencyPercentile(0.1));
+
+        try {
+            metrics.getLatencyPercentile(0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            metrics.getLatencyPercentile(100.5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+}
@@ -0,0 +1,369 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.ref.WeakReference;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests the round methods writing the result to a char array, a StringBuilder or an Appendable.
+ * The results are cross-checked against round(String, int, int) for all the algorithms.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class OutputRoundingTests extends TestCase {
+
+    /**
+     * The number of random numbers to check.
+     */
+    private static final int COUNT = 500;
+
+    /**
+     * The numbers with carries, signs, decimal symbols and 0's to check.
+     */
+    private static final String[] NUMBERS = new String[] {"0", "-0", "+0.000", "0.005", "-0.005", "0.0049",
+        "9.995", "-9.995", "99.999", "-999.9999", "0.999", "1", "+1,125", "-1,125", "007.50", ".5", "5.",
+        "-.995", "123", "19.99", "129.9951", "0.1", "0.01", "0.001"};
+
+    /**
+     * The random generator of the numbers, with a fixed seed so that a failure can be reproduced.
+     */
+    private Random random;
+
+    /**
+     * Sets up the environment.
+     */
+    protected void setUp() {
+        random = new Random(20050101L);
+    }
+
+    /**
+     * Tests round(String, char[], int, int, int), round(String, StringBuilder, int, int) and
+     * round(String, Appendable, int, int).
+     * The results should be the same as the ones of round(String, int, int).
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRound1() throws Exception {
+        String[] numbers = new String[NUMBERS.length + COUNT];
+        System.arraycopy(NUMBERS, 0, numbers, 0, NUMBERS.length);
+        for (int i = NUMBERS.length; i < numbers.length; ++i) {
+            StringBuffer buffer = new StringBuffer();
+            if (random.nextBoolean()) {
+                buffer.append('-');
+            }
+            buffer.append(random.nextInt(3) == 0 ? 9999 : random.nextInt(1000));
+            buffer.append('.');
+            for (int j = random.nextInt(10); j >= 0; --j) {
+                buffer.append(random.nextInt(4) == 0 ? 9 : random.nextInt(10));
+            }
+            numbers[i] = buffer.toString();
+        }
+
+        for (int accuracyDigit = 0; accuracyDigit <= 6; ++accuracyDigit) {
+            for (int comparisonDigit = 1; comparisonDigit <= 9; comparisonDigit += 4) {
+                // two instances of the same state for the algorithms which are not deterministic
+                checkRound(new NoRounding(), new NoRounding(), numbers, accuracyDigit, comparisonDigit);
+                checkRound(new RandomRounding(new Random(1)), new RandomRounding(new Random(1)), numbers,
+                        accuracyDigit, comparisonDigit);
+                checkRound(new AlternateRounding(), new AlternateRounding(), numbers, accuracyDigit,
+                        comparisonDigit);
+                checkRound(new SymmetricRounding(), new SymmetricRounding(), numbers, accuracyDigit,
+                        comparisonDigit);
+                checkRound(new AsymmetricRounding(), new AsymmetricRounding(), numbers, accuracyDigit,
+                        comparisonDigit);
+                checkRound(new BankersRounding(), new BankersRounding(), numbers, accuracyDigit,
+                        comparisonDigit);
+                checkRound(new UpSymmetricRounding(), new UpSymmetricRounding(), numbers, accuracyDigit,
+                        comparisonDigit);
+                checkRound(new DownSymmetricRounding(), new DownSymmetricRounding(), numbers, accuracyDigit,
+                        comparisonDigit);
+                checkRound(new UpAsymmetricRounding(), new UpAsymmetricRounding(), numbers, accuracyDigit,
+                        comparisonDigit);
+                checkRound(new DownAsymmetricRounding(), new DownAsymmetricRounding(), numbers, accuracyDigit,
+                        comparisonDigit);
+            }
+        }
+    }
+
+    /**
+     * Tests round(String, char[], int), round(String, StringBuilder) and round(String, Appendable).
+     * The results should be written after the existing content, and the number of chars should be returned.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRound2() throws Exception {
+        Algorithm algorithm = new SymmetricRounding();
+
+        char[] result = "xxxxxxxxxx".toCharArray();
+        assertEquals("5 chars should be written", 5, algorithm.round("-1.125", result, 3));
+        assertEquals("result should be xxx-1.13xx", "xxx-1.13xx", new String(result));
+        assertEquals("4 chars should be written", 4, algorithm.round("0.999", result, 6));
+        assertEquals("result should be xxx-1.1.00", "xxx-1.1.00", new String(result));
+
+        StringBuilder builder = new StringBuilder("price=");
+        assertEquals("7 chars should be appended", 7, algorithm.round("+999.999", builder));
+        assertEquals("result should be price=1000.00", "price=1000.00", builder.toString());
+
+        StringWriter writer = new StringWriter();
+        writer.write("price=");
+        assertEquals("1 char should be appended", 1, algorithm.round("-0.004", writer));
+        assertEquals("result should be price=0", "price=0", writer.toString());
+    }
+
+    /**
+     * Tests round(String, char[], int, int, int).
+     * The result does not fit in the char array, exception should be thrown and nothing should be written.
+     */
+    public void testRound3() {
+        Algorithm algorithm = new SymmetricRounding();
+        char[] result = "xxxxx".toCharArray();
+
+        try {
+            algorithm.round("99.995", result, 0, 2, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+        assertEquals("nothing should be written", "xxxxx", new String(result));
+
+        try {
+            algorithm.round("1.1", result, 2, 2, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+        assertEquals("nothing should be written", "xxxxx", new String(result));
+
+        try {
+            algorithm.round("1.1", result, -1, 2, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+
+        try {
+            algorithm.round("1.1", result, 6, 2, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests round(String, char[], int, int, int), round(String, StringBuilder, int, int) and
+     * round(String, Appendable, int, int).
+     * The arguments are invalid, exception should be thrown.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRound4() throws Exception {
+        Algorithm algorithm = new BankersRounding();
+
+        try {
+            algorithm.round("1.1", (char[]) null, 0, 2, 5);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            algorithm.round((CharSequence) null, new StringBuilder(), 2, 5);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            algorithm.round("1.1", (Appendable) null, 2, 5);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            algorithm.round("1.1", new StringBuilder(), -1, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.round("1.1", new char[10], 0, 2, 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.round("1.1a", new StringWriter(), 2, 5);
+            fail("NumberFormatException should be thrown");
+        } catch (NumberFormatException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests round(String, Appendable, int, int).
+     * The Appendable throws IOException, which should be propagated.
+     */
+    public void testRound5() {
+        Appendable failing = new Appendable() {
+            public Appendable append(CharSequence csq) throws IOException {
+                throw new IOException("failed");
+            }
+
+            public Appendable append(CharSequence csq, int start, int end) throws IOException {
+                throw new IOException("failed");
+            }
+
+            public Appendable append(char c) throws IOException {
+                throw new IOException("failed");
+            }
+        };
+
+        try {
+            new SymmetricRounding().round("1.1", failing, 2, 5);
+            fail("IOException should be thrown");
+        } catch (IOException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests round(String number, Appendable result, int accuracyDigit, int comparisonDigit).
+     * The Appendable rounds another number while the result is appended to it, both results should be right.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRound7() throws Exception {
+        final RoundingAlgorithm algorithm = new SymmetricRounding();
+        final StringBuilder inner = new StringBuilder();
+        final StringBuilder outer = new StringBuilder();
+        Appendable rounding = new Appendable() {
+            public Appendable append(CharSequence csq) throws IOException {
+                return append(csq, 0, csq.length());
+            }
+
+            public Appendable append(CharSequence csq, int start, int end) throws IOException {
+                for (int i = start; i < end; ++i) {
+                    append(csq.charAt(i));
+                }
+                return this;
+            }
+
+            public Appendable append(char c) throws IOException {
+                if (inner.length() == 0) {
+                    algorithm.round("-7.775", inner, 2, 5);
+                }
+                outer.append(c);
+                return this;
+            }
+        };
+
+        assertEquals("length should be 4", 4, algorithm.round("1.125", rounding, 2, 5));
+        assertEquals("result should be 1.13", "1.13", outer.toString());
+        assertEquals("result should be -7.78", "-7.78", inner.toString());
+    }
+
+    /**
+     * Tests round(CharSequence number, int accuracyDigit, int comparisonDigit).
+     * The FloatingNumber of the thread should not keep the rounded StringBuilder after the rounding, so it can be
+     * collected.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRound8() throws Exception {
+        StringBuilder number = new StringBuilder("1.125");
+        assertEquals("result should be 1.13", "1.13", new SymmetricRounding().round(number, 2, 5));
+
+        WeakReference<StringBuilder> reference = new WeakReference<StringBuilder>(number);
+        number = null;
+        for (int i = 0; i < 10 && reference.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull("the number should be collected", reference.get());
+    }
+
+    /**
+     * Tests round(String, char[], int, int, int) and round(String, StringBuilder, int, int) of an algorithm
+     * which only implements round(String, int, int).
+     * The result of round(String, int, int) should be written.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRound6() throws Exception {
+        RoundingAlgorithm algorithm = new RoundingAlgorithm() {
+            public String round(String number, int accuracyDigit, int comparisonDigit) {
+                return "[" + number + "]";
+            }
+        };
+
+        char[] result = new char[10];
+        assertEquals("5 chars should be written", 5, algorithm.round("1.1", result, 1, 2, 5));
+        assertEquals("result should be [1.1]", "[1.1]", new String(result, 1, 5));
+
+        StringBuilder builder = new StringBuilder();
+        assertEquals("5 chars should be appended", 5, algorithm.round("1.1", builder, 2, 5));
+        assertEquals("result should be [1.1]", "[1.1]", builder.toString());
+
+        try {
+            algorithm.round("1.1", result, 6, 2, 5);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+    }
+
+    /**
+     * Checks the output methods of an algorithm against round(String, int, int) of another algorithm
+     * in the same state.
+     *
+     * @param algorithm the algorithm whose output methods are checked
+     * @param expectedAlgorithm the algorithm in the same state, whose round(String, int, int) gives the expected
+     * results
+     * @param numbers the numbers to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws Exception to JUnit
+     */
+    private static void checkRound(Algorithm algorithm, Algorithm expectedAlgorithm, String[] numbers,
+            int accuracyDigit, int comparisonDigit) throws Exception {
+        char[] buffer = new char[64];
+        StringBuilder builder = new StringBuilder();
+        StringWriter writer = new StringWriter();
+
+        for (int i = 0; i < numbers.length; ++i) {
+            String message = "round(" + numbers[i] + ", " + accuracyDigit + ", " + comparisonDigit + ") of "
+                    + algorithm.getClass().getName();
+
+            String expected = expectedAlgorithm.round(numbers[i], accuracyDigit, comparisonDigit);
+            int length = algorithm.round(numbers[i], buffer, 1, accuracyDigit, comparisonDigit);
+            assertEquals(message, expected, new String(buffer, 1, length));
+
+            expected = expectedAlgorithm.round(numbers[i], accuracyDigit, comparisonDigit);
+            builder.setLength(0);
+            assertEquals(message, expected.length(), algorithm.round(numbers[i], builder, accuracyDigit,
+                    comparisonDigit));
+            assertEquals(message, expected, builder.toString());
+
+            expected = expectedAlgorithm.round(numbers[i], accuracyDigit, comparisonDigit);
+            writer.getBuffer().setLength(0);
+            assertEquals(message, expected.length(), algorithm.round(numbers[i], (Appendable) writer,
+                    accuracyDigit, comparisonDigit));
+            assertEquals(message, expected, writer.toString());
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests ParallelRounding. The results are cross-checked against the roundAll methods of the algorithms,
+ * rounding each chunk in order.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class ParallelRoundingTests extends TestCase {
+
+    /**
+     * The number of numbers to round.
+     */
+    private static final int COUNT = 10000;
+
+    /**
+     * The threshold of the tests, which does not divide COUNT.
+     */
+    private static final int THRESHOLD = 300;
+
+    /**
+     * The pool of the tests.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The random generator of the numbers, with a fixed seed so that a failure can be reproduced.
+     */
+    private Random random;
+
+    /**
+     * Sets up the environment.
+     */
+    protected void setUp() {
+        pool = new ForkJoinPool(4);
+        random = new Random(20050101L);
+    }
+
+    /**
+     * Tears down the environment.
+     */
+    protected void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Tests the constructors.
+     * The arguments are invalid, exception should be thrown.
+     */
+    public void testCtor() {
+        try {
+            new ParallelRounding(null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            new ParallelRounding(new SymmetricRounding(), 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            new ParallelRounding(new SymmetricRounding(), 10, null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        ParallelRounding parallel = new ParallelRounding(new SymmetricRounding());
+        assertEquals("threshold should be the default", ParallelRounding.DEFAULT_THRESHOLD, parallel.getThreshold());
+        assertSame("pool should be the common pool", ForkJoinPool.commonPool(), parallel.getPool());
+    }
+
+    /**
+     * Tests the roundAll methods.
+     * The arguments are invalid, exception should be thrown.
+     */
+    public void testRoundAll1() {
+        ParallelRounding parallel = new ParallelRounding(new SymmetricRounding(), THRESHOLD, pool);
+
+        try {
+            parallel.roundAll(new long[10], -1, new long[10], 0, 10);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            parallel.roundAll(new double[10], new double[10], 0, 10, 2, 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            parallel.roundAll(new String[10], new String[10], 5, 4);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            parallel.roundAll(new double[10], new double[5], 0, 10);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+
+        try {
+            parallel.roundAll(null, new String[10], 0, 10);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests the roundAll methods.
+     * The exception thrown while rounding a chunk should be thrown.
+     */
+    public void testRoundAll2() {
+        ParallelRounding parallel = new ParallelRounding(new SymmetricRounding(), THRESHOLD, pool);
+
+        String[] numbers = new String[COUNT];
+        Arrays.fill(numbers, "1.125");
+        numbers[COUNT - 1] = "1.12a";
+        try {
+            parallel.roundAll(numbers, new String[COUNT], 0, COUNT);
+            fail("NumberFormatException should be thrown");
+        } catch (NumberFormatException e) {
+            // success
+        }
+
+        double[] doubles = new double[COUNT];
+        doubles[THRESHOLD] = Double.NaN;
+        try {
+            parallel.roundAll(doubles, doubles, 0, COUNT);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests roundAll(long[] unscaledValues, int scale, long[] results, int from, int to, int accuracyDigit,
+     * int comparisonDigit).
+     * The results of the deterministic algorithms should be the same as the ones of their roundAll.
+     */
+    public void testRoundAll3() {
+        long[] values = new long[COUNT];
+        for (int i = 0; i < COUNT; ++i) {
+            values[i] = random.nextLong() % 100000000L;
+        }
+        RoundingAlgorithm[] algorithms = new RoundingAlgorithm[] {new SymmetricRounding(), new BankersRounding(),
+            new DownAsymmetricRounding(), new CachingAlgorithm(new UpSymmetricRounding(), 16)};
+
+        for (int i = 0; i < algorithms.length; ++i) {
+            long[] expected = new long[COUNT];
+            algorithms[i].roundAll(values, 4, expected, 3, COUNT - 5, 1, 5);
+            long[] results = new long[COUNT];
+            new ParallelRounding(algorithms[i], THRESHOLD, pool).roundAll(values, 4, results, 3, COUNT - 5, 1, 5);
+
+            assertTrue("results of " + algorithms[i].getClass().getName() + " are wrong",
+                    Arrays.equals(expected, results));
+        }
+    }
+
+    /**
+     * Tests roundAll(double[] numbers, double[] results, int from, int to) and roundAll(String[] numbers,
+     * String[] results, int from, int to).
+     * The results of the deterministic algorithms should be the same as the ones of their roundAll, and the
+     * numbers can be rounded in place.
+     */
+    public void testRoundAll4() {
+        double[] doubles = new double[COUNT];
+        String[] numbers = new String[COUNT];
+        for (int i = 0; i < COUNT; ++i) {
+            doubles[i] = (random.nextInt(2000000) - 1000000) / 1000.0;
+            numbers[i] = Double.toString(doubles[i]);
+        }
+        RoundingAlgorithm algorithm = new SymmetricRounding();
+        ParallelRounding parallel = new ParallelRounding(algorithm, THRESHOLD, pool);
+
+        double[] expectedDoubles = new double[COUNT];
+        algorithm.roundAll(doubles, expectedDoubles, 0, COUNT);
+        parallel.roundAll(doubles, doubles, 0, COUNT);
+        assertTrue("results are wrong", Arrays.equals(expectedDoubles, doubles));
+
+        String[] expected = new String[COUNT];
+        algorithm.roundAll(numbers, expected, 0, COUNT);
+        parallel.roundAll(numbers, numbers, 0, COUNT);
+        assertTrue("results are wrong", Arrays.equals(expected, numbers));
+    }
+
+    /**
+     * Tests roundAll(long[] unscaledValues, int scale, long[] results, int from, int to) with
+     * AlternateRounding.
+     * Each chunk should alternate on its own starting with round up.
+     */
+    public void testRoundAll5() {
+        long[] ties = new long[COUNT];
+        Arrays.fill(ties, 1125);
+        AlternateRounding algorithm = new AlternateRounding();
+        // the alternation of the algorithm does not change the chunks
+        algorithm.round(1125, 3);
+
+        long[] results = new long[COUNT];
+        new ParallelRounding(algorithm, THRESHOLD, pool).roundAll(ties, 3, results, 0, COUNT);
+
+        for (int from = 0; from < COUNT; from += THRESHOLD) {
+            long[] expected = new long[COUNT];
+            new AlternateRounding().roundAll(ties, 3, expected, from, Math.min(from + THRESHOLD, COUNT));
+            for (int i = from; i < Math.min(from + THRESHOLD, COUNT); ++i) {
+                assertEquals("result of tie " + i + " is wrong", expected[i], results[i]);
+            }
+        }
+        assertEquals("the first tie of a chunk should be rounded up", 113, results[THRESHOLD]);
+
+        // a single chunk is also rounded by a split algorithm, not by the shared one whose next tie is down
+        new ParallelRounding(algorithm, THRESHOLD, pool).roundAll(ties, 3, results, 0, 2);
+        assertEquals("the first tie of a single chunk should be rounded up", 113, results[0]);
+        assertEquals("the second tie of a single chunk should be rounded down", 112, results[1]);
+    }
+
+    /**
+     * Tests roundAll(double[] numbers, double[] results, int from, int to) with a seeded RandomRounding.
+     * The choices should be the same whatever the number of threads.
+     */
+    public void testRoundAll6() {
+        double[] ties = new double[COUNT];
+        Arrays.fill(ties, 1.125);
+
+        double[] results1 = new double[COUNT];
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            new ParallelRounding(new RandomRounding(new Random(7)), THRESHOLD, single).roundAll(ties, results1, 0,
+                    COUNT);
+        } finally {
+            single.shutdown();
+        }
+        double[] results2 = new double[COUNT];
+        new ParallelRounding(new RandomRounding(new Random(7)), THRESHOLD, pool).roundAll(ties, results2, 0, COUNT);
+
+        assertTrue("the choices should be replayed", Arrays.equals(results1, results2));
+        int roundUpCount = 0;
+        for (int i = 0; i < COUNT; ++i) {
+            if (results1[i] == 1.13) {
+                ++roundUpCount;
+            }
+        }
+        assertTrue("about half of the ties should be rounded up", Math.abs(roundUpCount - COUNT / 2) < COUNT / 10);
+    }
+
+    /**
+     * Tests roundAll(long[] unscaledValues, int scale, long[] results, int from, int to) with an algorithm
+     * which is not deterministic and can not be split.
+     * The numbers should be rounded in order, the same as by roundAll of the algorithm.
+     */
+    public void testRoundAll7() {
+        long[] ties = new long[COUNT];
+        Arrays.fill(ties, 1125);
+        MeteredAlgorithm algorithm = new MeteredAlgorithm(new AlternateRounding());
+
+        long[] results = new long[COUNT];
+        new ParallelRounding(algorithm, THRESHOLD, pool).roundAll(ties, 3, results, 0, COUNT);
+
+        for (int i = 0; i < COUNT; ++i) {
+            assertEquals("result of tie " + i + " is wrong", (i % 2 == 0) ? 113 : 112, results[i]);
+        }
+        assertEquals("all the ties should be recorded", COUNT, algorithm.getMetrics().getTieCount());
+    }
+}
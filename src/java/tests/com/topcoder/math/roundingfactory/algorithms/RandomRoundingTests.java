@@ -5,6 +5,8 @@
  */
 package com.topcoder.math.roundingfactory.algorithms;
 
+import java.util.Random;
+
 import junit.framework.TestCase;
 
 /**
@@ -104,6 +106,89 @@ public class RandomRoundingTests extends TestCase {
         }
     }
 
+    /**
+     * Tests constructor.
+     * RandomRounding(boolean), RandomRounding(int, int, boolean), RandomRounding(Random),
+     * RandomRounding(int, int, Random), RandomRounding(long) and RandomRounding(int, int, long).
+     * The accuracy and comparison digits and the mode should be given value.
+     */
+    public void testRandomRounding6() {
+        assertTrue("The generator should be per-thread by default", ((RandomRounding) algorithm).isPerThread());
+        assertTrue("The generator should be per-thread by default", new RandomRounding(3, 9).isPerThread());
+
+        RandomRounding randomRounding = new RandomRounding(true);
+        assertTrue("The generator should be per-thread", randomRounding.isPerThread());
+        assertEquals("The accuracy digit should be 2", 2, randomRounding.getAccuracyDigit());
+        assertEquals("The comparison digit should be 5", 5, randomRounding.getComparisonDigit());
+
+        randomRounding = new RandomRounding(3, 9, true);
+        assertTrue("The generator should be per-thread", randomRounding.isPerThread());
+        assertEquals("The accuracy digit should be 3", 3, randomRounding.getAccuracyDigit());
+        assertEquals("The comparison digit should be 9", 9, randomRounding.getComparisonDigit());
+
+        randomRounding = new RandomRounding(false);
+        assertFalse("The generator should be shared", randomRounding.isPerThread());
+        assertEquals("The accuracy digit should be 2", 2, randomRounding.getAccuracyDigit());
+
+        randomRounding = new RandomRounding(3, 9, false);
+        assertFalse("The generator should be shared", randomRounding.isPerThread());
+        assertEquals("The accuracy digit should be 3", 3, randomRounding.getAccuracyDigit());
+
+        randomRounding = new RandomRounding(new Random(1));
+        assertFalse("The generator should be shared", randomRounding.isPerThread());
+        assertEquals("The accuracy digit should be 2", 2, randomRounding.getAccuracyDigit());
+
+        randomRounding = new RandomRounding(3, 9, new Random(1));
+        assertFalse("The generator should be shared", randomRounding.isPerThread());
+        assertEquals("The accuracy digit should be 3", 3, randomRounding.getAccuracyDigit());
+        assertEquals("The comparison digit should be 9", 9, randomRounding.getComparisonDigit());
+
+        randomRounding = new RandomRounding(1L);
+        assertFalse("The generator should be seeded", randomRounding.isPerThread());
+        assertEquals("The accuracy digit should be 2", 2, randomRounding.getAccuracyDigit());
+        assertEquals("The comparison digit should be 5", 5, randomRounding.getComparisonDigit());
+
+        randomRounding = new RandomRounding(3, 9, 1L);
+        assertFalse("The generator should be seeded", randomRounding.isPerThread());
+        assertEquals("The accuracy digit should be 3", 3, randomRounding.getAccuracyDigit());
+        assertEquals("The comparison digit should be 9", 9, randomRounding.getComparisonDigit());
+    }
+
+    /**
+     * Tests constructor.
+     * RandomRounding(int, int, boolean), RandomRounding(Random) and RandomRounding(int, int, Random).
+     * Invalid arguments, exception should be thrown.
+     */
+    public void testRandomRounding7() {
+        try {
+            new RandomRounding(-1, 9, true);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            new RandomRounding(3, 0, new Random());
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            new RandomRounding(null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            new RandomRounding(3, 9, null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+    }
+
     /**
      * Tests round(String number, int accuracyDigit, int comparisonDigit).
      * The number is null, NullPointerException should be thrown.
@@ -664,4 +749,183 @@ public class RandomRoundingTests extends TestCase {
         assertEquals("The comparison digit should be 2", 2, algorithm.getComparisonDigit());
     }
 
+    /**
+     * Tests round(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit).
+     * The arguments are invalid, IllegalArgumentException should be thrown.
+     */
+    public void testRoundLong1() {
+        try {
+            algorithm.round(11, 1, -1, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(11, 1, 3, 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(11, 1, 3, 10);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            // the scale should not be negative
+            algorithm.round(11, -1, 3, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests round(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit).
+     * Rounds general numbers.
+     */
+    public void testRoundLong2() {
+
+        // random rounding
+        long result = algorithm.round(1125, 3, 2, 5);
+        assertTrue("result should be 112 or 113", result == 112 || result == 113);
+        result = algorithm.round(-1125, 3, 2, 5);
+        assertTrue("result should be -112 or -113", result == -112 || result == -113);
+
+        assertEquals("result should be 113", 113L, algorithm.round(11251, 4, 2, 5));
+        assertEquals("result should be 112", 112L, algorithm.round(11249, 4, 2, 5));
+
+        // no rounding should be performed since the numbers are already rounded.
+        assertEquals("result should be 123456000", 123456000L, algorithm.round(123456, 3, 6, 5));
+        assertEquals("result should be -123456000", -123456000L, algorithm.round(-123456, 3, 6, 5));
+
+        // boundary situation
+        assertEquals("result should be 10", 10L, algorithm.round(96, 3, 2, 5));
+        assertEquals("result should be -1000", -1000L, algorithm.round(-9999, 3, 2, 5));
+        assertEquals("result should be 0", 0L, algorithm.round(1, 8, 2, 5));
+    }
+
+    /**
+     * Tests round(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit).
+     * The result can not be held by a long, RoundingException should be thrown.
+     */
+    public void testRoundLong3() {
+        try {
+            algorithm.round(Long.MAX_VALUE, 0, 1, 5);
+            fail("RoundingException should be thrown");
+        } catch (RoundingException e) {
+            // success
+        }
+
+        try {
+            algorithm.round(-1, 0, 19, 5);
+            fail("RoundingException should be thrown");
+        } catch (RoundingException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests round(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit) with seeded generators.
+     * The same seed should make the same choices.
+     */
+    public void testRoundSeeded() {
+        RandomRounding first = new RandomRounding(new Random(20050101L));
+        RandomRounding second = new RandomRounding(new Random(20050101L));
+
+        for (int i = 0; i < 1000; ++i) {
+            assertEquals("the same choice should be made", first.round(1125, 3, 2, 5), second.round(1125, 3, 2, 5));
+        }
+
+        first = new RandomRounding(20050101L);
+        second = new RandomRounding(20050101L);
+        int ups = 0;
+        for (int i = 0; i < 1000; ++i) {
+            long rounded = first.round(1125, 3, 2, 5);
+            assertEquals("the same choice should be made", rounded, second.round(1125, 3, 2, 5));
+            ups += (rounded == 113) ? 1 : 0;
+        }
+        assertTrue("both choices should be made", ups > 0 && ups < 1000);
+    }
+
+    /**
+     * Tests split().
+     * The split instances should keep the digits, and make the same choices whichever threads use them.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testSplit() throws Exception {
+        RandomRounding master = new RandomRounding(3, 7, new Random(20050101L));
+        RandomRounding split = master.split();
+        assertEquals("The accuracy digit should be 3", 3, split.getAccuracyDigit());
+        assertEquals("The comparison digit should be 7", 7, split.getComparisonDigit());
+        assertFalse("The generator should be seeded", split.isPerThread());
+        assertFalse("The generator should be seeded", new RandomRounding(true).split().isPerThread());
+
+        // the choices of the splits made by several threads
+        final RandomRounding[] splits = new RandomRounding[4];
+        final long[][] results = new long[splits.length][1000];
+        master = new RandomRounding(20050101L);
+        for (int i = 0; i < splits.length; ++i) {
+            splits[i] = master.split();
+        }
+        Thread[] threads = new Thread[splits.length];
+        for (int i = 0; i < threads.length; ++i) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < results[index].length; ++j) {
+                        results[index][j] = splits[index].round(1125, 3, 2, 5);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i].join();
+        }
+
+        // replay the choices in this thread
+        master = new RandomRounding(20050101L);
+        for (int i = 0; i < splits.length; ++i) {
+            RandomRounding replay = master.split();
+            for (int j = 0; j < results[i].length; ++j) {
+                assertEquals("the same choice should be made", results[i][j], replay.round(1125, 3, 2, 5));
+            }
+        }
+    }
+
+    /**
+     * Tests round(long unscaledValue, int scale, int accuracyDigit, int comparisonDigit) in per-thread mode.
+     * Both choices should be made by several threads.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRoundPerThread() throws Exception {
+        final RandomRounding randomRounding = new RandomRounding(true);
+        final int[][] counts = new int[4][2];
+
+        Thread[] threads = new Thread[counts.length];
+        for (int i = 0; i < threads.length; ++i) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 1000; ++j) {
+                        ++counts[index][(int) randomRounding.round(1125, 3, 2, 5) - 112];
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i].join();
+            assertTrue("some ties should be rounded down", counts[i][0] > 0);
+            assertTrue("some ties should be rounded up", counts[i][1] > 0);
+        }
+    }
 }
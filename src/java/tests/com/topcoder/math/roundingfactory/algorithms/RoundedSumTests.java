@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests RoundedSum and RoundingSpec.summing(). The sums are cross-checked against the rounded results of
+ * the spec added by BigDecimal.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class RoundedSumTests extends TestCase {
+
+    /**
+     * The number of numbers to add.
+     */
+    private static final int COUNT = 10000;
+
+    /**
+     * The random generator of the numbers, with a fixed seed so that a failure can be reproduced.
+     */
+    private Random random;
+
+    /**
+     * Sets up the environment.
+     */
+    protected void setUp() {
+        random = new Random(20050101L);
+    }
+
+    /**
+     * Tests accept(double).
+     * The sum should be the exact sum of the rounded doubles, including the doubles of all magnitudes.
+     */
+    public void testAcceptDouble() {
+        RoundingSpec spec = new UpSymmetricRounding().compile(2, 5);
+        RoundedSum sum = spec.newSum();
+        BigDecimal expected = BigDecimal.ZERO;
+
+        for (int i = 0; i < COUNT; ++i) {
+            double number = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(30) - 10);
+            sum.accept(number);
+            expected = expected.add(new BigDecimal(RoundingAlgorithm.doubleToString(spec.roundDouble(number))));
+        }
+
+        assertEquals("count should be " + COUNT, COUNT, sum.getCount());
+        assertEquals("sum is wrong", 0, expected.compareTo(sum.getSum()));
+        assertEquals("scale should be the accuracy digit", 2, sum.getSum().scale());
+        assertEquals("double sum is wrong", expected.doubleValue(), sum.getDoubleSum(), 0);
+    }
+
+    /**
+     * Tests accept(CharSequence).
+     * The sum should be the exact sum of the rounded numbers, including the numbers which overflow a long.
+     */
+    public void testAcceptCharSequence() {
+        RoundingSpec spec = new BankersRounding().compile(3, 5);
+        RoundedSum sum = spec.newSum();
+
+        sum.accept("1.0005");
+        sum.accept(new StringBuilder("-2.0015"));
+        sum.accept("9223372036854775.807");
+        sum.accept("0.0015");
+        assertEquals("sum is wrong", "9223372036854774.807", sum.toString());
+
+        sum.accept("123456789012345678901234567890.12345");
+        assertEquals("sum is wrong", new BigDecimal("123456789012345678901234567890.123")
+                .add(new BigDecimal("9223372036854774.807")), sum.getSum());
+        assertEquals("count should be 5", 5, sum.getCount());
+
+        try {
+            sum.accept((CharSequence) null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            sum.accept("1.2a");
+            fail("NumberFormatException should be thrown");
+        } catch (NumberFormatException e) {
+            // success
+        }
+
+        try {
+            sum.accept(Double.NaN);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+        assertEquals("the rejected numbers should not be counted", 5, sum.getCount());
+    }
+
+    /**
+     * Tests combine(RoundedSum).
+     * The sums should be added, and the sums of other accuracy digits should be rejected.
+     */
+    public void testCombine() {
+        RoundingSpec spec = new SymmetricRounding().compile(0, 5);
+        RoundedSum sum = spec.newSum();
+        sum.accept("4611686018427387903.4");
+        RoundedSum other = spec.newSum();
+        other.accept("9223372036854775807");
+        other.accept("0.5");
+
+        sum.combine(other);
+        assertEquals("sum is wrong", new BigDecimal("13835058055282163711"), sum.getSum());
+        assertEquals("count should be 3", 3, sum.getCount());
+        assertEquals("the other sum should not be changed", 2, other.getCount());
+
+        try {
+            sum.combine(null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            sum.combine(new SymmetricRounding().compile(1, 5).newSum());
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests RoundedSum with a parallel DoubleStream.
+     * The sum should be the same as the one of the sequential stream.
+     */
+    public void testParallelDoubleStream() {
+        double[] numbers = new double[COUNT];
+        for (int i = 0; i < COUNT; ++i) {
+            numbers[i] = (random.nextInt(2000000) - 1000000) / 1000.0;
+        }
+        final RoundingSpec spec = new UpSymmetricRounding().compile(2, 5);
+
+        RoundedSum expected = spec.newSum();
+        for (int i = 0; i < COUNT; ++i) {
+            expected.accept(numbers[i]);
+        }
+
+        Supplier<RoundedSum> supplier = new Supplier<RoundedSum>() {
+            public RoundedSum get() {
+                return spec.newSum();
+            }
+        };
+        ObjDoubleConsumer<RoundedSum> accumulator = new ObjDoubleConsumer<RoundedSum>() {
+            public void accept(RoundedSum s, double number) {
+                s.accept(number);
+            }
+        };
+        BiConsumer<RoundedSum, RoundedSum> combiner = new BiConsumer<RoundedSum, RoundedSum>() {
+            public void accept(RoundedSum s, RoundedSum other) {
+                s.combine(other);
+            }
+        };
+        RoundedSum sum = DoubleStream.of(numbers).parallel().collect(supplier, accumulator, combiner);
+        assertEquals("sum is wrong", expected.getSum(), sum.getSum());
+        assertEquals("count should be " + COUNT, COUNT, sum.getCount());
+    }
+
+    /**
+     * Tests RoundingSpec.summing().
+     * The Strings and the Numbers of a parallel stream should be rounded and added.
+     */
+    public void testSumming() {
+        String[] numbers = new String[COUNT];
+        BigDecimal expected = BigDecimal.ZERO;
+        RoundingSpec spec = new DownSymmetricRounding().compile(1, 5);
+        for (int i = 0; i < COUNT; ++i) {
+            numbers[i] = BigDecimal.valueOf(random.nextInt(2000000) - 1000000, 3).toPlainString();
+            expected = expected.add(new BigDecimal(spec.round(numbers[i])));
+        }
+
+        RoundedSum sum = Arrays.asList(numbers).parallelStream().collect(spec.summing());
+        assertEquals("sum is wrong", expected, sum.getSum());
+        assertEquals("count should be " + COUNT, COUNT, sum.getCount());
+
+        sum = Arrays.asList(new Object[] {Double.valueOf(1.25), Integer.valueOf(3), "-0.25"})
+                .stream().collect(spec.summing());
+        assertEquals("sum is wrong", "4.0", sum.toString());
+
+        // the integers and the BigDecimals are added exactly, not through their doubles
+        sum = Arrays.asList(new Object[] {Long.valueOf(9007199254740993L), new BigDecimal("0.19"),
+            new BigInteger("100000000000000000001")}).stream().collect(spec.summing());
+        assertEquals("sum is wrong", "100009007199254740994.1", sum.toString());
+        assertEquals("count should be 3", 3, sum.getCount());
+
+        try {
+            Arrays.asList(new Object[] {new AtomicLong(1)}).stream()
+                    .collect(spec.summing());
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+}
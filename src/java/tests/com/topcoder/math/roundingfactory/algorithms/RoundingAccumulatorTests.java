@@ -0,0 +1,333 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests RoundingAccumulator. The sums are cross-checked against the numbers and their rounded values added
+ * by BigDecimal.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class RoundingAccumulatorTests extends TestCase {
+
+    /**
+     * The number of numbers to add.
+     */
+    private static final int COUNT = 10000;
+
+    /**
+     * The specs rounding the numbers.
+     */
+    private RoundingSpec[] specs;
+
+    /**
+     * The random generator of the numbers, with a fixed seed so that a failure can be reproduced.
+     */
+    private Random random;
+
+    /**
+     * Sets up the environment.
+     */
+    protected void setUp() {
+        specs = new RoundingSpec[] {new SymmetricRounding().compile(2, 5), new BankersRounding().compile(2, 5),
+            new UpSymmetricRounding().compile(0, 5), new DownAsymmetricRounding().compile(4, 3)};
+        random = new Random(20050101L);
+    }
+
+    /**
+     * Tests RoundingAccumulator(int scale, RoundingSpec[] specs).
+     * The arguments are invalid, exception should be thrown.
+     */
+    public void testConstructor1() {
+        try {
+            new RoundingAccumulator(4, null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            new RoundingAccumulator(4, new RoundingSpec[] {specs[0], null});
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            new RoundingAccumulator(4, new RoundingSpec[0]);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            new RoundingAccumulator(-1, specs);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            new RoundingAccumulator(3, specs);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            new RoundingAccumulator(19, specs);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests RoundingAccumulator(int scale, RoundingSpec[] specs).
+     * The accumulator should be empty, and should not be changed by changing the array of specs.
+     */
+    public void testConstructor2() {
+        RoundingAccumulator accumulator = new RoundingAccumulator(4, specs);
+        specs[0] = null;
+
+        assertEquals("scale should be 4", 4, accumulator.getScale());
+        assertEquals("spec count should be 4", 4, accumulator.getSpecCount());
+        assertNotNull("spec should not be changed", accumulator.getSpec(0));
+        assertEquals("count should be 0", 0, accumulator.getCount());
+        assertEquals("sum should be 0.0000", "0.0000", accumulator.getSum().toString());
+        assertEquals("rounded sum should be 0.0000", "0.0000", accumulator.getRoundedSum(3).toString());
+        assertEquals("residue should be 0.0000", "0.0000", accumulator.getResidue(1).toString());
+        assertEquals("mean residue should be 0", 0, accumulator.getMeanResidue(2), 0);
+
+        try {
+            accumulator.getResidue(4);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests add(long unscaledValue).
+     * The sums should be the exact sums of the numbers and the rounded values of each spec.
+     */
+    public void testAddLong() {
+        RoundingAccumulator accumulator = new RoundingAccumulator(4, specs);
+        BigDecimal sum = BigDecimal.ZERO;
+        BigDecimal[] roundedSums = new BigDecimal[specs.length];
+        for (int j = 0; j < specs.length; ++j) {
+            roundedSums[j] = BigDecimal.ZERO;
+        }
+
+        for (int i = 0; i < COUNT; ++i) {
+            long unscaledValue = random.nextLong() >> random.nextInt(64);
+            accumulator.add(unscaledValue);
+
+            sum = sum.add(BigDecimal.valueOf(unscaledValue, 4));
+            for (int j = 0; j < specs.length; ++j) {
+                roundedSums[j] = roundedSums[j].add(BigDecimal.valueOf(specs[j].round(unscaledValue, 4),
+                        specs[j].getAccuracyDigit()));
+            }
+        }
+
+        assertEquals("count should be " + COUNT, COUNT, accumulator.getCount());
+        assertEquals("sum is wrong", sum, accumulator.getSum());
+        for (int j = 0; j < specs.length; ++j) {
+            assertEquals("rounded sum of spec " + j + " is wrong", 0,
+                    roundedSums[j].compareTo(accumulator.getRoundedSum(j)));
+            assertEquals("residue of spec " + j + " is wrong", 0,
+                    roundedSums[j].subtract(sum).compareTo(accumulator.getResidue(j)));
+        }
+    }
+
+    /**
+     * Tests add(long unscaledValue).
+     * The sums should go on beyond the range of a long, both upwards and downwards.
+     */
+    public void testAddLong2() {
+        RoundingAccumulator accumulator = new RoundingAccumulator(4, specs);
+
+        for (int i = 0; i < 4; ++i) {
+            accumulator.add(Long.MAX_VALUE);
+        }
+        BigDecimal max = BigDecimal.valueOf(Long.MAX_VALUE, 4);
+        assertEquals("sum is wrong", max.multiply(BigDecimal.valueOf(4)), accumulator.getSum());
+        assertEquals("rounded sum is wrong", new BigDecimal("922337203685477.58").multiply(BigDecimal.valueOf(4)),
+                accumulator.getRoundedSum(0).stripTrailingZeros().setScale(2));
+
+        for (int i = 0; i < 8; ++i) {
+            accumulator.add(Long.MIN_VALUE);
+        }
+        BigDecimal min = BigDecimal.valueOf(Long.MIN_VALUE, 4);
+        assertEquals("sum is wrong", max.add(min).multiply(BigDecimal.valueOf(4)).add(
+                min.multiply(BigDecimal.valueOf(4))), accumulator.getSum());
+
+        for (int i = 0; i < 4; ++i) {
+            accumulator.add(Long.MAX_VALUE);
+            accumulator.add(2);
+        }
+        assertEquals("sum should be 0.0000", "0.0000", accumulator.getSum().toString());
+        assertEquals("count should be 20", 20, accumulator.getCount());
+    }
+
+    /**
+     * Tests add(long unscaledValue).
+     * The mean residue should show the bias of each rounding: none for SymmetricRounding and
+     * BankersRounding, half a unit for UpSymmetricRounding of positive ties and UpAsymmetricRounding of any
+     * numbers.
+     */
+    public void testAddLong3() {
+        RoundingAccumulator accumulator = new RoundingAccumulator(4, specs);
+
+        // positive ties only
+        for (int i = 0; i < COUNT; ++i) {
+            accumulator.add(i * 10000L + 5000);
+        }
+        assertEquals("Bankers should have no bias", 0, accumulator.getMeanResidue(1), 0);
+        assertEquals("UpSymmetric should round all ties up", 0.5, accumulator.getMeanResidue(2), 0);
+        assertEquals("DownAsymmetric should not round", 0, accumulator.getMeanResidue(3), 0);
+
+        accumulator = new RoundingAccumulator(2,
+                new RoundingSpec[] {new SymmetricRounding().compile(0, 5), new UpAsymmetricRounding().compile(0, 5)});
+        for (int i = 0; i < COUNT; ++i) {
+            accumulator.add((random.nextLong() >> 1) / 100 * 100 + random.nextInt(100));
+        }
+        assertEquals("Symmetric should have no bias", 0, accumulator.getMeanResidue(0), 0.02);
+        assertEquals("UpAsymmetric should round up by half a unit", 0.5, accumulator.getMeanResidue(1), 0.02);
+    }
+
+    /**
+     * Tests add(double number).
+     * The doubles should be added exactly, otherwise exception should be thrown.
+     */
+    public void testAddDouble() {
+        RoundingAccumulator accumulator = new RoundingAccumulator(4, specs);
+
+        accumulator.add(1.005);
+        accumulator.add(-2.0015);
+        accumulator.add(1e10);
+        accumulator.add(-0.0);
+        assertEquals("sum should be 9999999999.0035", "9999999999.0035", accumulator.getSum().toString());
+        assertEquals("rounded sum should be 9999999999.0100", "9999999999.0100",
+                accumulator.getRoundedSum(0).toString());
+        assertEquals("residue should be -0.0035", "-0.0035", accumulator.getResidue(2).toString());
+
+        double[] numbers = new double[] {0.1 + 0.2, 1.00001, 1e300, Double.NaN, Double.POSITIVE_INFINITY};
+        for (int i = 0; i < numbers.length; ++i) {
+            try {
+                accumulator.add(numbers[i]);
+                fail("IllegalArgumentException should be thrown");
+            } catch (IllegalArgumentException e) {
+                // success
+            }
+        }
+        assertEquals("count should be 4", 4, accumulator.getCount());
+    }
+
+    /**
+     * Tests addAll(long[] unscaledValues, int from, int to) and addAll(double[] numbers, int from, int to).
+     * Only the given range should be added.
+     */
+    public void testAddAll() {
+        RoundingAccumulator accumulator = new RoundingAccumulator(4, specs);
+
+        accumulator.addAll(new long[] {1, 10050, 20050, 1}, 1, 3);
+        accumulator.addAll(new double[] {0.1, 1.5, 2.5, 0.1}, 1, 3);
+        assertEquals("count should be 4", 4, accumulator.getCount());
+        assertEquals("sum should be 7.0100", "7.0100", accumulator.getSum().toString());
+        assertEquals("Bankers rounded sum should be 7.0000", "7.0000", accumulator.getRoundedSum(1).toString());
+        assertEquals("UpSymmetric rounded sum should be 10.0000", "10.0000",
+                accumulator.getRoundedSum(2).toString());
+
+        try {
+            accumulator.addAll((long[]) null, 0, 0);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            accumulator.addAll(new double[2], 2, 1);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            accumulator.addAll(new long[2], 0, 3);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests add(long unscaledValue).
+     * The exception of NoRounding should be thrown, and the number should not be added.
+     */
+    public void testAddFailure() {
+        RoundingAccumulator accumulator = new RoundingAccumulator(3,
+                new RoundingSpec[] {specs[0], new NoRounding().compile(2, 5)});
+
+        accumulator.add(1250);
+        try {
+            accumulator.add(1251);
+            fail("RoundingException should be thrown");
+        } catch (RoundingException e) {
+            // success
+        }
+        assertEquals("count should be 1", 1, accumulator.getCount());
+        assertEquals("sum should be 1.250", "1.250", accumulator.getSum().toString());
+        assertEquals("residue should be 0.000", "0.000", accumulator.getResidue(1).toString());
+    }
+
+    /**
+     * Tests combine(RoundingAccumulator other).
+     * The combined sums should be the sums of all the numbers, including the carries.
+     */
+    public void testCombine() {
+        RoundingAccumulator whole = new RoundingAccumulator(4, specs);
+        RoundingAccumulator first = new RoundingAccumulator(4, specs);
+        RoundingAccumulator second = new RoundingAccumulator(4, specs);
+
+        for (int i = 0; i < COUNT; ++i) {
+            long unscaledValue = random.nextLong();
+            whole.add(unscaledValue);
+            ((i % 3 == 0) ? first : second).add(unscaledValue);
+        }
+        first.combine(second);
+
+        assertEquals("count is wrong", whole.getCount(), first.getCount());
+        assertEquals("sum is wrong", whole.getSum(), first.getSum());
+        for (int j = 0; j < specs.length; ++j) {
+            assertEquals("residue is wrong", whole.getResidue(j), first.getResidue(j));
+        }
+        assertEquals("other accumulator should not be changed", COUNT - (COUNT + 2) / 3, second.getCount());
+
+        try {
+            first.combine(null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            first.combine(new RoundingAccumulator(5, specs));
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+}
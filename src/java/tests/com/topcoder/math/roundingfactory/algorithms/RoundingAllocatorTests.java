@@ -0,0 +1,279 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests RoundingAllocator. The allocations are cross-checked against the largest remainder method done by
+ * BigDecimal, with the shares rounded by round(String).</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class RoundingAllocatorTests extends TestCase {
+
+    /**
+     * The number of random allocations to check.
+     */
+    private static final int COUNT = 300;
+
+    /**
+     * The random generator of the allocations, with a fixed seed so that a failure can be reproduced.
+     */
+    private Random random;
+
+    /**
+     * Sets up the environment.
+     */
+    protected void setUp() {
+        random = new Random(20050101L);
+    }
+
+    /**
+     * Tests RoundingAllocator(RoundingSpec spec) and allocate(long unscaledTotal, int scale, long[] weights,
+     * long[] results, int from, int to).
+     * The arguments are invalid, exception should be thrown.
+     */
+    public void testAllocate1() {
+        try {
+            new RoundingAllocator(null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        RoundingAllocator allocator = new RoundingAllocator(new SymmetricRounding().compile(2, 5));
+
+        try {
+            allocator.allocate(100, 2, null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            allocator.allocate(100, 2, new long[2], null, 0, 2);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            allocator.allocate(100, -1, new long[] {1, 2});
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            allocator.allocate(100, 2, new long[] {1, -2});
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            allocator.allocate(100, 2, new long[] {0, 0});
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            allocator.allocate(100, 2, new long[] {Long.MAX_VALUE, 1});
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            allocator.allocate(Long.MIN_VALUE, 2, new long[] {1, 1});
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            allocator.allocate(100, 2, new long[2], new long[2], 2, 1);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            allocator.allocate(100, 2, new long[3], new long[2], 0, 3);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests allocate(long unscaledTotal, int scale, long[] weights).
+     * The units left should go to the parts of the largest remainders, the lower indexes first.
+     */
+    public void testAllocate2() {
+        RoundingAllocator allocator = new RoundingAllocator(new SymmetricRounding().compile(2, 5));
+
+        assertEquals("allocation is wrong", "[3334, 3333, 3333]",
+                Arrays.toString(allocator.allocate(10000, 2, new long[] {1, 1, 1})));
+        assertEquals("allocation is wrong", "[25, 37, 38]",
+                Arrays.toString(allocator.allocate(100, 2, new long[] {2, 3, 3})));
+        assertEquals("allocation is wrong", "[-3334, -3333, -3333]",
+                Arrays.toString(allocator.allocate(-10000, 2, new long[] {1, 1, 1})));
+
+        // the total is rounded first
+        assertEquals("allocation is wrong", "[50, 0, 51]",
+                Arrays.toString(allocator.allocate(100549, 5, new long[] {1, 0, 1})));
+    }
+
+    /**
+     * Tests allocate(long unscaledTotal, int scale, long[] weights).
+     * The units in excess should be taken from the parts of the least remainders.
+     */
+    public void testAllocate3() {
+        RoundingAllocator allocator = new RoundingAllocator(new UpSymmetricRounding().compile(2, 5));
+
+        // each share of 0.1666... is rounded up to 0.17
+        assertEquals("allocation is wrong", "[16, 16, 17, 17, 17, 17]",
+                Arrays.toString(allocator.allocate(100, 2, new long[] {1, 1, 1, 1, 1, 1})));
+
+        allocator = new RoundingAllocator(new DownAsymmetricRounding().compile(0, 5));
+        assertEquals("allocation is wrong", "[-3, -3, -4]",
+                Arrays.toString(allocator.allocate(-10, 0, new long[] {1, 1, 1})));
+    }
+
+    /**
+     * Tests allocate(long unscaledTotal, int scale, long[] weights, long[] results, int from, int to).
+     * Only the given range should be allocated, and the rounded total should be returned.
+     */
+    public void testAllocate4() {
+        RoundingAllocator allocator = new RoundingAllocator(new BankersRounding().compile(1, 5));
+        long[] weights = new long[] {7, 1, 1, 2, 7};
+        long[] results = new long[] {-1, -1, -1, -1, -1};
+
+        assertEquals("total should be 20", 20, allocator.allocate(2049, 3, weights, results, 1, 4));
+        assertEquals("allocation is wrong", "[-1, 5, 5, 10, -1]", Arrays.toString(results));
+        assertEquals("total should be 6", 6, allocator.allocate(6, 1, weights, results, 1, 3));
+        assertEquals("allocation is wrong", "[-1, 3, 3, 10, -1]", Arrays.toString(results));
+
+        // both ties are rounded down to even, leaving one unit to give
+        assertEquals("total should be 10", 10, allocator.allocate(10, 1, new long[] {1, 1, 2}, results, 0, 3));
+        assertEquals("allocation is wrong", "[3, 2, 5, 10, -1]", Arrays.toString(results));
+    }
+
+    /**
+     * Tests allocate(long unscaledTotal, int scale, long[] weights).
+     * NoRounding should allocate the exact shares, and throw RoundingException for the other ones.
+     */
+    public void testAllocate5() {
+        RoundingAllocator allocator = new RoundingAllocator(new NoRounding().compile(2, 5));
+
+        assertEquals("allocation is wrong", "[25, 75]", Arrays.toString(allocator.allocate(1, 0, new long[] {1, 3})));
+
+        try {
+            allocator.allocate(1, 0, new long[] {1, 2});
+            fail("RoundingException should be thrown");
+        } catch (RoundingException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests allocate(long unscaledTotal, int scale, long[] weights).
+     * The allocations should be the same as the ones done by BigDecimal, including the weights whose products
+     * with the total can not be held by a long.
+     */
+    public void testAllocate6() {
+        RoundingAlgorithm[] algorithms = new RoundingAlgorithm[] {new SymmetricRounding(), new AsymmetricRounding(),
+            new BankersRounding(), new UpSymmetricRounding(), new DownSymmetricRounding(),
+            new UpAsymmetricRounding(), new DownAsymmetricRounding()};
+
+        for (int i = 0; i < COUNT; ++i) {
+            RoundingSpec spec = algorithms[i % algorithms.length].compile(random.nextInt(5), 1 + random.nextInt(9));
+            long[] weights = new long[1 + random.nextInt(50)];
+            int bits = 2 + random.nextInt(60);
+            for (int j = 0; j < weights.length; ++j) {
+                weights[j] = (random.nextInt(5) == 0) ? 0 : (random.nextLong() >>> (64 - bits));
+            }
+            weights[0] = 1 + weights[0] / weights.length;
+            for (int j = 1; j < weights.length; ++j) {
+                weights[j] /= weights.length;
+            }
+            long unscaledTotal = random.nextLong() >> random.nextInt(64);
+            int scale = 4 + random.nextInt(6);
+
+            long[] expected = allocate(spec, unscaledTotal, scale, weights);
+            long[] results = new RoundingAllocator(spec).allocate(unscaledTotal, scale, weights);
+            assertEquals("allocation of " + unscaledTotal + " by " + Arrays.toString(weights) + " is wrong",
+                    Arrays.toString(expected), Arrays.toString(results));
+        }
+    }
+
+    /**
+     * Allocates the given total to parts by BigDecimal, as the reference of the allocations.
+     *
+     * @param spec the spec rounding the total and the shares
+     * @param unscaledTotal the unscaled value of the total
+     * @param scale the number of digits after the decimal point of the total
+     * @param weights the weights of the parts
+     * @return the unscaled values of the parts
+     */
+    private static long[] allocate(RoundingSpec spec, long unscaledTotal, int scale, long[] weights) {
+        int accuracyDigit = spec.getAccuracyDigit();
+        BigInteger total = new BigDecimal(spec.round(BigDecimal.valueOf(unscaledTotal, scale).toPlainString()))
+                .setScale(accuracyDigit).unscaledValue();
+        BigInteger weightSum = BigInteger.ZERO;
+        for (int i = 0; i < weights.length; ++i) {
+            weightSum = weightSum.add(BigInteger.valueOf(weights[i]));
+        }
+
+        long[] results = new long[weights.length];
+        BigInteger[] remainders = new BigInteger[weights.length];
+        Integer[] indexes = new Integer[weights.length];
+        BigInteger residue = total;
+        for (int i = 0; i < weights.length; ++i) {
+            // the share, truncated far beyond the accuracy digit with a last 1 if it is not exact
+            BigInteger product = total.multiply(BigInteger.valueOf(weights[i]));
+            BigDecimal share = new BigDecimal(product.abs()).divide(new BigDecimal(weightSum), 30, RoundingMode.DOWN);
+            String digits = share.movePointLeft(accuracyDigit).toPlainString();
+            if (share.multiply(new BigDecimal(weightSum)).compareTo(new BigDecimal(product.abs())) != 0) {
+                digits += "1";
+            }
+
+            results[i] = new BigDecimal(spec.round((product.signum() < 0 ? "-" : "") + digits))
+                    .setScale(accuracyDigit).unscaledValue().longValue();
+            remainders[i] = product.subtract(BigInteger.valueOf(results[i]).multiply(weightSum));
+            indexes[i] = Integer.valueOf(i);
+            residue = residue.subtract(BigInteger.valueOf(results[i]));
+        }
+
+        final int direction = residue.signum();
+        final BigInteger[] keys = remainders;
+        Arrays.sort(indexes, new Comparator<Integer>() {
+            public int compare(Integer first, Integer second) {
+                int comparison = keys[second.intValue()].compareTo(keys[first.intValue()]);
+                return (comparison != 0) ? comparison * direction : first.compareTo(second);
+            }
+        });
+        for (int i = 0; i < residue.abs().intValue(); ++i) {
+            results[indexes[i].intValue()] += direction;
+        }
+
+        return results;
+    }
+}
@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests the flight recorder events RoundingEvent and ParseEvent. The rounding is recorded and the events
+ * are read back from the recording file.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class RoundingEventTests extends TestCase {
+
+    /**
+     * The name of RoundingEvent.
+     */
+    private static final String ROUNDING_EVENT = "com.topcoder.math.roundingfactory.Rounding";
+
+    /**
+     * The name of ParseEvent.
+     */
+    private static final String PARSE_EVENT = "com.topcoder.math.roundingfactory.Parse";
+
+    /**
+     * The recording used in the tests.
+     */
+    private Recording recording;
+
+    /**
+     * The file the recording is dumped to.
+     */
+    private File file;
+
+    /**
+     * Sets up the environment.
+     *
+     * @throws Exception to JUnit
+     */
+    protected void setUp() throws Exception {
+        recording = new Recording();
+        file = File.createTempFile("rounding", ".jfr");
+    }
+
+    /**
+     * Tears down the environment.
+     */
+    protected void tearDown() {
+        recording.close();
+        file.delete();
+    }
+
+    /**
+     * Tests the events are disabled by default.
+     */
+    public void testDisabledByDefault() {
+        assertFalse("RoundingEvent should be disabled", EventType.getEventType(RoundingEvent.class).isEnabled());
+        assertFalse("ParseEvent should be disabled", EventType.getEventType(ParseEvent.class).isEnabled());
+        assertFalse("RoundingEvent should be disabled", new RoundingEvent().isEnabled());
+    }
+
+    /**
+     * Tests the events are not recorded with the default settings of the JDK.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testDefaultSettings() throws Exception {
+        recording.setSettings(Configuration.getConfiguration("default").getSettings());
+        recording.start();
+        new SymmetricRounding().round("1.125");
+
+        List events = stop();
+        assertEquals("no RoundingEvent should be recorded", 0, getEvents(events, ROUNDING_EVENT).size());
+        assertEquals("no ParseEvent should be recorded", 0, getEvents(events, PARSE_EVENT).size());
+    }
+
+    /**
+     * Tests RoundingEvent.
+     * The decisions and the ties should be recorded.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRoundingEvent1() throws Exception {
+        recording.enable(ROUNDING_EVENT);
+        recording.start();
+        Algorithm algorithm = new SymmetricRounding();
+        assertEquals("result should be 1.13", "1.13", algorithm.round("1.125", 2, 5));
+        assertEquals("result should be -1.1", "-1.1", algorithm.round("-1.124", 1, 5));
+        assertEquals("result should be 1.12", "1.12", algorithm.round("1.12", 2, 5));
+
+        List events = getEvents(stop(), ROUNDING_EVENT);
+        assertEquals("3 events should be recorded", 3, events.size());
+        checkEvent((RecordedEvent) events.get(0), 5, 2, true, RoundingEvent.AWAY_FROM_ZERO);
+        checkEvent((RecordedEvent) events.get(1), 6, 1, false, RoundingEvent.TOWARDS_ZERO);
+        checkEvent((RecordedEvent) events.get(2), 4, 2, false, RoundingEvent.UNCHANGED);
+        assertEquals("algorithm should be SymmetricRounding", SymmetricRounding.class.getName(),
+                ((RecordedEvent) events.get(0)).getString("algorithm"));
+        assertEquals("comparison digit should be 5", 5, ((RecordedEvent) events.get(0)).getInt("comparisonDigit"));
+    }
+
+    /**
+     * Tests RoundingEvent.
+     * The rounding to StringBuilders and char arrays and the rounding of Readers should be recorded too.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRoundingEvent2() throws Exception {
+        recording.enable(ROUNDING_EVENT);
+        recording.start();
+        RoundingAlgorithm algorithm = new BankersRounding();
+        StringBuilder result = new StringBuilder();
+        algorithm.round(new StringBuilder("1.125"), result, 2, 5);
+        algorithm.round(new StringBuilder("1.135"), new char[8], 0, 2, 5);
+        algorithm.round(new StringReader("2.5000"), result, 0, 5);
+        assertEquals("result should be 1.122", "1.122", result.toString());
+
+        List events = getEvents(stop(), ROUNDING_EVENT);
+        assertEquals("3 events should be recorded", 3, events.size());
+        checkEvent((RecordedEvent) events.get(0), 5, 2, true, RoundingEvent.TOWARDS_ZERO);
+        checkEvent((RecordedEvent) events.get(1), 5, 2, true, RoundingEvent.AWAY_FROM_ZERO);
+        // the Reader is rounded by the digits read up to the one after the accuracy digit, which are "2.5"
+        checkEvent((RecordedEvent) events.get(2), 3, 0, true, RoundingEvent.TOWARDS_ZERO);
+    }
+
+    /**
+     * Tests ParseEvent.
+     * The numbers which are not valid should be recorded too.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testParseEvent() throws Exception {
+        recording.enable(PARSE_EVENT);
+        recording.start();
+        Algorithm algorithm = new UpSymmetricRounding();
+        algorithm.round("12.345", 2, 5);
+        try {
+            algorithm.round("1.2a", 2, 5);
+            fail("NumberFormatException should be thrown");
+        } catch (NumberFormatException e) {
+            // success
+        }
+
+        List events = getEvents(stop(), PARSE_EVENT);
+        assertEquals("2 events should be recorded", 2, events.size());
+        assertEquals("input length should be 6", 6, ((RecordedEvent) events.get(0)).getInt("inputLength"));
+        assertTrue("number should be valid", ((RecordedEvent) events.get(0)).getBoolean("valid"));
+        assertEquals("input length should be 4", 4, ((RecordedEvent) events.get(1)).getInt("inputLength"));
+        assertFalse("number should not be valid", ((RecordedEvent) events.get(1)).getBoolean("valid"));
+    }
+
+    /**
+     * Stops the recording and reads its events.
+     *
+     * @return the recorded events
+     * @throws Exception to JUnit
+     */
+    private List stop() throws Exception {
+        recording.stop();
+        recording.dump(file.toPath());
+        return RecordingFile.readAllEvents(file.toPath());
+    }
+
+    /**
+     * Gets the events of the given name, recorded by the current thread.
+     *
+     * @param events the recorded events
+     * @param name the name of the events to get
+     * @return the events of the given name in the order they are recorded
+     */
+    private static List getEvents(List events, String name) {
+        List result = new ArrayList();
+        for (Iterator it = events.iterator(); it.hasNext();) {
+            RecordedEvent event = (RecordedEvent) it.next();
+            if (event.getEventType().getName().equals(name)
+                    && event.getThread().getJavaThreadId() == Thread.currentThread().getId()) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks the given RoundingEvent.
+     *
+     * @param event the event to check
+     * @param inputLength the expected input length
+     * @param accuracyDigit the expected accuracy digit
+     * @param tie the expected tie
+     * @param decision the expected decision
+     */
+    private static void checkEvent(RecordedEvent event, int inputLength, int accuracyDigit, boolean tie,
+            String decision) {
+        assertEquals("input length is wrong", inputLength, event.getInt("inputLength"));
+        assertEquals("accuracy digit is wrong", accuracyDigit, event.getInt("accuracyDigit"));
+        assertEquals("tie is wrong", tie, event.getBoolean("tie"));
+        assertEquals("decision is wrong", decision, event.getString("decision"));
+    }
+}
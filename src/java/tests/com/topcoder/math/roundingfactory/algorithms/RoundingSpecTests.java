@@ -0,0 +1,300 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongUnaryOperator;
+import java.util.function.UnaryOperator;
+import java.util.stream.DoubleStream;
+import java.util.stream.LongStream;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests RoundingSpec. The results are cross-checked against the ones of the algorithms with the same
+ * digits.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class RoundingSpecTests extends TestCase {
+
+    /**
+     * The numbers with carries, signs, decimal symbols and 0's to check.
+     */
+    private static final String[] NUMBERS = new String[] {"0", "-0", "+0.000", "0.005", "-0.005", "0.0049",
+        "9.995", "-9.995", "99.999", "-999.9999", "0.999", "1", "+1,125", "-1,125", "007.50", ".5", "5.",
+        "-.995", "123", "19.99", "129.9951", "0.1", "0.01", "0.001", "+7", "-12.3456789"};
+
+    /**
+     * The deterministic algorithms to check.
+     */
+    private RoundingAlgorithm[] algorithms;
+
+    /**
+     * Sets up the environment.
+     */
+    protected void setUp() {
+        algorithms = new RoundingAlgorithm[] {new SymmetricRounding(), new AsymmetricRounding(),
+            new BankersRounding(), new UpSymmetricRounding(), new DownSymmetricRounding(),
+            new UpAsymmetricRounding(), new DownAsymmetricRounding()};
+    }
+
+    /**
+     * Tests compile() and compile(int, int).
+     * The spec should have the digits, and invalid digits should be rejected.
+     */
+    public void testCompile() {
+        RoundingAlgorithm algorithm = new BankersRounding(3, 4);
+
+        RoundingSpec spec = algorithm.compile();
+        assertEquals("accuracy digit should be 3", 3, spec.getAccuracyDigit());
+        assertEquals("comparison digit should be 4", 4, spec.getComparisonDigit());
+
+        spec = algorithm.compile(0, 9);
+        assertEquals("accuracy digit should be 0", 0, spec.getAccuracyDigit());
+        assertEquals("comparison digit should be 9", 9, spec.getComparisonDigit());
+
+        try {
+            algorithm.compile(-1, 5);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            algorithm.compile(2, 10);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests the round methods of RoundingSpec.
+     * The arguments are invalid, exception should be thrown.
+     */
+    public void testRound1() throws Exception {
+        RoundingSpec spec = new SymmetricRounding().compile();
+
+        try {
+            spec.round((CharSequence) null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            spec.round("1.1", (StringBuilder) null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            spec.round("1.1a");
+            fail("NumberFormatException should be thrown");
+        } catch (NumberFormatException e) {
+            // success
+        }
+
+        try {
+            spec.round(1125, -1);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            spec.roundDouble(Double.NaN);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            spec.roundAll(new long[3], 2, new long[2], 0, 3);
+            fail("ArrayIndexOutOfBoundsException should be thrown");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // success
+        }
+
+        try {
+            new NoRounding().compile(2, 5).round(1051, 3);
+            fail("RoundingException should be thrown");
+        } catch (RoundingException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests the round methods of RoundingSpec.
+     * The results should be the same as the ones of the algorithm with the digits of the spec.
+     */
+    public void testRound2() throws Exception {
+        Random random = new Random(20050101L);
+        long[] values = new long[200];
+        double[] doubles = new double[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = random.nextLong() % 1000000000000L;
+            doubles[i] = values[i] / 1e6;
+        }
+        long[] longResults = new long[values.length];
+        double[] doubleResults = new double[values.length];
+
+        for (int i = 0; i < algorithms.length; ++i) {
+            for (int accuracyDigit = 0; accuracyDigit <= 6; accuracyDigit += 2) {
+                for (int comparisonDigit = 1; comparisonDigit <= 9; comparisonDigit += 4) {
+                    RoundingAlgorithm algorithm = algorithms[i];
+                    RoundingSpec spec = algorithm.compile(accuracyDigit, comparisonDigit);
+                    String name = algorithm.getClass().getName() + " " + accuracyDigit + " " + comparisonDigit;
+
+                    StringBuilder builder = new StringBuilder();
+                    for (int j = 0; j < NUMBERS.length; ++j) {
+                        String expected = algorithm.round(NUMBERS[j], accuracyDigit, comparisonDigit);
+                        assertEquals("round(" + NUMBERS[j] + ") of " + name, expected, spec.round(NUMBERS[j]));
+                        assertEquals("round(" + NUMBERS[j] + ") of " + name, expected,
+                                spec.round(new StringBuilder(NUMBERS[j])));
+
+                        builder.setLength(0);
+                        assertEquals("length should be " + expected.length(), expected.length(),
+                                spec.round(NUMBERS[j], builder));
+                        assertEquals("round(" + NUMBERS[j] + ") of " + name, expected, builder.toString());
+                    }
+
+                    spec.roundAll(values, 6, longResults, 0, values.length);
+                    spec.roundAll(doubles, doubleResults, 0, values.length);
+                    for (int j = 0; j < values.length; ++j) {
+                        long expected = algorithm.round(values[j], 6, accuracyDigit, comparisonDigit);
+                        assertEquals("round(" + values[j] + ", 6) of " + name, expected, spec.round(values[j], 6));
+                        assertEquals("roundAll of " + name, expected, longResults[j]);
+
+                        double expectedDouble = algorithm.roundDouble(doubles[j], accuracyDigit, comparisonDigit);
+                        assertEquals("roundDouble(" + doubles[j] + ") of " + name, expectedDouble,
+                                spec.roundDouble(doubles[j]), 0);
+                        assertEquals("roundAll of " + name, expectedDouble, doubleResults[j], 0);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests the immutability of RoundingSpec.
+     * Changing the default digits of the algorithm from another thread should not change the results.
+     */
+    public void testRound3() throws Exception {
+        final RoundingAlgorithm algorithm = new SymmetricRounding(2, 5);
+        final RoundingSpec spec = algorithm.compile();
+        final boolean[] done = new boolean[1];
+
+        Thread changer = new Thread() {
+            public void run() {
+                for (int i = 0; !isDone(done); ++i) {
+                    algorithm.setAccuracyDigit(i % 5);
+                    algorithm.setComparisonDigit(1 + i % 9);
+                }
+            }
+        };
+        changer.start();
+
+        try {
+            for (int i = 0; i < 100000; ++i) {
+                assertEquals("result should be 1.13", "1.13", spec.round("1.125"));
+                assertEquals("result should be 113", 113, spec.round(1125, 3));
+            }
+        } finally {
+            synchronized (done) {
+                done[0] = true;
+            }
+            changer.join();
+        }
+    }
+
+    /**
+     * Tests asDoubleOperator(), asLongOperator(int) and asStringOperator().
+     * The operators should round the same as the spec.
+     */
+    public void testOperators1() {
+        Random random = new Random(20050101L);
+        for (int i = 0; i < algorithms.length; ++i) {
+            RoundingSpec spec = algorithms[i].compile(2, 5);
+            DoubleUnaryOperator doubleOperator = spec.asDoubleOperator();
+            LongUnaryOperator longOperator = spec.asLongOperator(4);
+            UnaryOperator stringOperator = spec.asStringOperator();
+
+            for (int j = 0; j < NUMBERS.length; ++j) {
+                assertEquals("result of " + NUMBERS[j] + " is wrong", spec.round(NUMBERS[j]),
+                        stringOperator.apply(NUMBERS[j]));
+            }
+            for (int j = 0; j < 1000; ++j) {
+                long unscaledValue = random.nextInt(2000000) - 1000000;
+                assertEquals("result of " + unscaledValue + " is wrong", spec.round(unscaledValue, 4),
+                        longOperator.applyAsLong(unscaledValue));
+                double number = unscaledValue / 10000.0;
+                assertEquals("result of " + number + " is wrong", spec.roundDouble(number),
+                        doubleOperator.applyAsDouble(number), 0);
+            }
+        }
+    }
+
+    /**
+     * Tests asDoubleOperator() and asLongOperator(int) with parallel streams.
+     * The streams should be rounded the same as by roundAll.
+     */
+    public void testOperators2() {
+        RoundingSpec spec = new BankersRounding().compile(1, 5);
+
+        long[] unscaledValues = LongStream.range(-5000, 5000).toArray();
+        long[] expected = new long[unscaledValues.length];
+        spec.roundAll(unscaledValues, 2, expected, 0, unscaledValues.length);
+        assertTrue("results are wrong", Arrays.equals(expected,
+                LongStream.of(unscaledValues).parallel().map(spec.asLongOperator(2)).toArray()));
+
+        double[] numbers = new double[] {0.25, -0.35, 1.05, 2.449};
+        assertTrue("results are wrong", Arrays.equals(new double[] {0.2, -0.4, 1.0, 2.4},
+                DoubleStream.of(numbers).parallel().map(spec.asDoubleOperator()).toArray()));
+    }
+
+    /**
+     * Tests asLongOperator(int) and asStringOperator().
+     * The arguments are invalid, exception should be thrown.
+     */
+    public void testOperators3() {
+        RoundingSpec spec = new SymmetricRounding().compile();
+
+        try {
+            spec.asLongOperator(-1);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            spec.asStringOperator().apply(null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+    }
+
+    /**
+     * Returns whether the test is done.
+     *
+     * @param done the flag of the test
+     * @return whether the test is done
+     */
+    private static boolean isDone(boolean[] done) {
+        synchronized (done) {
+            return done[0];
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.algorithms;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests the round methods reading the number from a Reader. The results are cross-checked against
+ * round(String, int, int) for all the algorithms, with short numbers and numbers of thousands of digits.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class StreamRoundingTests extends TestCase {
+
+    /**
+     * The numbers with carries, signs, decimal symbols and 0's to check.
+     */
+    private static final String[] NUMBERS = new String[] {"0", "-0", "+0.000", "0.005", "-0.005", "0.0049",
+        "9.995", "-9.995", "99.999", "-999.9999", "0.999", "1", "+1,125", "-1,125", "007.50", ".5", "5.",
+        "-.995", "123", "19.99", "129.9951", "0.1", "0.01", "0.001", "+7", "-12.3456789", "-000", "000.0001"};
+
+    /**
+     * The invalid numbers to check.
+     */
+    private static final String[] INVALID_NUMBERS = new String[] {"", "-", "+", ".", "-.", "1.2.3", "1a", "--1",
+        "1e5", " 1", "0.00x", "00.0009-"};
+
+    /**
+     * The long numbers to check, generated by setUp().
+     */
+    private String[] longNumbers;
+
+    /**
+     * Sets up the environment.
+     */
+    protected void setUp() {
+        Random random = new Random(20050101L);
+        longNumbers = new String[40];
+        for (int i = 0; i < longNumbers.length; ++i) {
+            StringBuffer buffer = new StringBuffer();
+            buffer.append((i % 2 == 0) ? "-" : "");
+            buffer.append((i % 4 < 2) ? "0" : "98765");
+            buffer.append('.');
+            // a tie or a run of 9's followed by many 0's, and sometimes a non-zero digit far away
+            buffer.append((i % 3 == 0) ? "125" : "9999");
+            for (int j = random.nextInt(3000); j > 0; --j) {
+                buffer.append((i % 5 == 0) ? (char) ('0' + random.nextInt(10)) : '0');
+            }
+            buffer.append((i % 7 < 3) ? "1" : "0");
+            longNumbers[i] = buffer.toString();
+        }
+    }
+
+    /**
+     * Tests round(Reader, Appendable, int, int).
+     * The results should be the same as the ones of round(String, int, int).
+     */
+    public void testRound1() throws Exception {
+        for (int accuracyDigit = 0; accuracyDigit <= 6; ++accuracyDigit) {
+            for (int comparisonDigit = 1; comparisonDigit <= 9; comparisonDigit += 4) {
+                // two instances of the same state for the algorithms which are not deterministic
+                checkRound(new NoRounding(), new NoRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new RandomRounding(new Random(1)), new RandomRounding(new Random(1)), accuracyDigit,
+                        comparisonDigit);
+                checkRound(new AlternateRounding(), new AlternateRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new SymmetricRounding(), new SymmetricRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new AsymmetricRounding(), new AsymmetricRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new BankersRounding(), new BankersRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new UpSymmetricRounding(), new UpSymmetricRounding(), accuracyDigit, comparisonDigit);
+                checkRound(new DownSymmetricRounding(), new DownSymmetricRounding(), accuracyDigit,
+                        comparisonDigit);
+                checkRound(new UpAsymmetricRounding(), new UpAsymmetricRounding(), accuracyDigit,
+                        comparisonDigit);
+                checkRound(new DownAsymmetricRounding(), new DownAsymmetricRounding(), accuracyDigit,
+                        comparisonDigit);
+            }
+        }
+    }
+
+    /**
+     * Tests round(Reader, Appendable, int, int) and round(Reader, Appendable).
+     * The arguments are invalid, exception should be thrown.
+     */
+    public void testRound2() throws Exception {
+        Algorithm[] algorithms = new Algorithm[] {new NoRounding(), new SymmetricRounding()};
+
+        for (int i = 0; i < algorithms.length; ++i) {
+            try {
+                algorithms[i].round((Reader) null, new StringBuilder());
+                fail("NullPointerException should be thrown");
+            } catch (NullPointerException e) {
+                // success
+            }
+
+            try {
+                algorithms[i].round(new StringReader("1"), (Appendable) null, 2, 5);
+                fail("NullPointerException should be thrown");
+            } catch (NullPointerException e) {
+                // success
+            }
+
+            try {
+                algorithms[i].round(new StringReader("1"), new StringBuilder(), -1, 5);
+                fail("IllegalArgumentException should be thrown");
+            } catch (IllegalArgumentException e) {
+                // success
+            }
+
+            for (int j = 0; j < INVALID_NUMBERS.length; ++j) {
+                try {
+                    algorithms[i].round(new StringReader(INVALID_NUMBERS[j]), new StringBuilder(), 2, 5);
+                    fail("NumberFormatException should be thrown for " + INVALID_NUMBERS[j]);
+                } catch (NumberFormatException e) {
+                    // success
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests round(Reader, Appendable, int, int).
+     * A number of ten million digits is rounded, the digits are generated as they are read.
+     */
+    public void testRound3() throws Exception {
+        StringBuilder result = new StringBuilder();
+
+        assertEquals("length should be 5", 5, new SymmetricRounding().round(new DigitReader("-1.", '9', 10000000),
+                result, 2, 5));
+        assertEquals("result should be -2.00", "-2.00", result.toString());
+
+        result.setLength(0);
+        new DownSymmetricRounding().round(new DigitReader("1.", '9', 10000000), result, 2, 5);
+        assertEquals("result should be 1.99", "1.99", result.toString());
+
+        // all the digits are appended by NoRounding
+        result.setLength(0);
+        assertEquals("length should be 1000002", 1000002, new NoRounding().round(new DigitReader("+1.", '7',
+                1000000), result));
+        assertEquals("result should be the number without '+'", "1." + new DigitReader("", '7', 1000000).getDigits(),
+                result.toString());
+
+        result.setLength(0);
+        new NoRounding().round(new DigitReader("-000.", '0', 10000000), result);
+        assertEquals("result should be 0", "0", result.toString());
+    }
+
+    /**
+     * Tests round(Reader, Appendable, int, int).
+     * An algorithm which only rounds to string should get all the chars read.
+     */
+    public void testRound4() throws Exception {
+        RoundingAlgorithm algorithm = new RoundingAlgorithm() {
+            public String round(String number, int accuracyDigit, int comparisonDigit) {
+                return "[" + number + "]";
+            }
+        };
+
+        StringBuilder result = new StringBuilder();
+        assertEquals("length should be 11", 11, algorithm.round(new StringReader("+1.230000"), result, 2, 5));
+        assertEquals("result should be [+1.230000]", "[+1.230000]", result.toString());
+        assertFalse("the algorithm only rounds to string", algorithm.roundsFloatingNumbers());
+        assertFalse("the algorithm only rounds to string", new MeteredAlgorithm(algorithm).roundsFloatingNumbers());
+        assertTrue("the algorithm rounds FloatingNumbers",
+                new MeteredAlgorithm(new SymmetricRounding()).roundsFloatingNumbers());
+    }
+
+    /**
+     * Checks the results of round(Reader, Appendable, int, int) of the given algorithm against the ones of
+     * round(String, int, int) of the other algorithm, which has the same state.
+     *
+     * @param algorithm the algorithm to check
+     * @param expectedAlgorithm the algorithm giving the expected results
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws IOException to JUnit
+     */
+    private void checkRound(Algorithm algorithm, Algorithm expectedAlgorithm, int accuracyDigit,
+            int comparisonDigit) throws IOException {
+        checkRound(algorithm, expectedAlgorithm, NUMBERS, accuracyDigit, comparisonDigit);
+        checkRound(algorithm, expectedAlgorithm, longNumbers, accuracyDigit, comparisonDigit);
+    }
+
+    /**
+     * Checks the results of round(Reader, Appendable, int, int) for the given numbers.
+     *
+     * @param algorithm the algorithm to check
+     * @param expectedAlgorithm the algorithm giving the expected results
+     * @param numbers the numbers to round
+     * @param accuracyDigit the desired accuracy
+     * @param comparisonDigit the comparison digit
+     * @throws IOException to JUnit
+     */
+    private static void checkRound(Algorithm algorithm, Algorithm expectedAlgorithm, String[] numbers,
+            int accuracyDigit, int comparisonDigit) throws IOException {
+        StringBuilder result = new StringBuilder("=");
+        for (int i = 0; i < numbers.length; ++i) {
+            String expected = expectedAlgorithm.round(numbers[i], accuracyDigit, comparisonDigit);
+            String message = "round(" + numbers[i] + ", " + accuracyDigit + ", " + comparisonDigit + ") of "
+                    + algorithm.getClass().getName() + " should be " + expected;
+
+            result.setLength(1);
+            assertEquals(message, expected.length(), algorithm.round(new StringReader(numbers[i]), result,
+                    accuracyDigit, comparisonDigit));
+            assertEquals(message, "=" + expected, result.toString());
+        }
+    }
+
+    /**
+     * <p>A Reader of a prefix followed by many copies of a digit, which are generated as they are read.</p>
+     *
+     * @author TCSDEVELOPER
+     *
+     * @version 1.0
+     */
+    private static class DigitReader extends Reader {
+
+        /**
+         * The prefix.
+         */
+        private final String prefix;
+
+        /**
+         * The digit repeated.
+         */
+        private final char digit;
+
+        /**
+         * The number of digits.
+         */
+        private final int count;
+
+        /**
+         * The number of chars read.
+         */
+        private int position = 0;
+
+        /**
+         * Constructs a DigitReader.
+         *
+         * @param prefix the prefix
+         * @param digit the digit repeated
+         * @param count the number of digits
+         */
+        DigitReader(String prefix, char digit, int count) {
+            this.prefix = prefix;
+            this.digit = digit;
+            this.count = count;
+        }
+
+        /**
+         * Returns the digits as a string.
+         *
+         * @return the digits
+         */
+        String getDigits() {
+            char[] digits = new char[count];
+            Arrays.fill(digits, digit);
+            return new String(digits);
+        }
+
+        /**
+         * Reads chars into a part of an array.
+         *
+         * @param buffer the array to read into
+         * @param offset the offset to start storing chars
+         * @param length the maximum number of chars to read
+         * @return the number of chars read, or -1 at the end
+         */
+        public int read(char[] buffer, int offset, int length) {
+            int total = prefix.length() + count;
+            if (position == total) {
+                return -1;
+            }
+
+            int n = Math.min(length, total - position);
+            for (int i = 0; i < n; ++i, ++position) {
+                buffer[offset + i] = (position < prefix.length()) ? prefix.charAt(position) : digit;
+            }
+            return n;
+        }
+
+        /**
+         * Does nothing.
+         */
+        public void close() {
+            // empty
+        }
+    }
+}
@@ -0,0 +1,347 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved.
+ *
+ * TCS Rounding Factory 1.0
+ */
+package com.topcoder.math.roundingfactory.csv;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+import com.topcoder.math.roundingfactory.algorithms.Algorithm;
+import com.topcoder.math.roundingfactory.algorithms.BankersRounding;
+import com.topcoder.math.roundingfactory.algorithms.SymmetricRounding;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests the CsvRounder class. The files are split into small chunks, so that the chunk boundaries fall
+ * everywhere in the lines.</p>
+ *
+ * @author TCSDEVELOPER
+ *
+ * @copyright (c) 2005, Topcoder, Inc. All Rights Reserved.
+ *
+ * @version 1.0
+ */
+public class CsvRounderTests extends TestCase {
+
+    /**
+     * The input file.
+     */
+    private File input;
+
+    /**
+     * The output file.
+     */
+    private File output;
+
+    /**
+     * Sets up the environment.
+     *
+     * @throws Exception to JUnit
+     */
+    protected void setUp() throws Exception {
+        input = File.createTempFile("rounding", ".csv");
+        output = File.createTempFile("rounded", ".csv");
+    }
+
+    /**
+     * Tears down the environment.
+     */
+    protected void tearDown() {
+        input.delete();
+        output.delete();
+    }
+
+    /**
+     * Tests the constructors and the setters.
+     * The arguments are invalid, exception should be thrown.
+     */
+    public void testCsvRounder1() {
+        try {
+            new CsvRounder((Algorithm) null, new int[] {0});
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            new CsvRounder(new SymmetricRounding(), null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+
+        try {
+            new CsvRounder(new SymmetricRounding(), new int[0]);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            new CsvRounder(new SymmetricRounding(), new int[] {1, -1});
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        CsvRounder rounder = new CsvRounder(new SymmetricRounding(), new int[] {0});
+        char[] delimiters = new char[] {'\n', '\r', '"', '5', '-', '+', '.', '\u00e9'};
+        for (int i = 0; i < delimiters.length; ++i) {
+            try {
+                rounder.setDelimiter(delimiters[i]);
+                fail("IllegalArgumentException should be thrown");
+            } catch (IllegalArgumentException e) {
+                // success
+            }
+        }
+
+        try {
+            rounder.setHeaderLines(-1);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            rounder.setThreadCount(0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            rounder.setChunkSize(0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests round(File, File).
+     * The header, the other columns, the empty fields, the quotes and the line endings should be kept.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRound1() throws Exception {
+        write(input, "id;price;name;qty\r\n"
+                + "1;1.125;\"a;b\";2.5\r\n"
+                + "2;;c;-0.004\r\n"
+                + "3;\"9.995\";\"d\"\"e\";7\n"
+                + "4;+3;f;\"\"\n"
+                + "5;-1.5");
+
+        CsvRounder rounder = new CsvRounder(new SymmetricRounding(), new int[] {1, 3});
+        rounder.setDelimiter(';');
+        rounder.setHeaderLines(1);
+        rounder.setThreadCount(3);
+        for (int chunkSize = 1; chunkSize <= 64; ++chunkSize) {
+            rounder.setChunkSize(chunkSize);
+            CsvRoundingReport report = rounder.round(input, output);
+
+            assertEquals("output is wrong with chunk size " + chunkSize, "id;price;name;qty\r\n"
+                    + "1;1.13;\"a;b\";2.50\r\n"
+                    + "2;;c;0\r\n"
+                    + "3;\"10.00\";\"d\"\"e\";7.00\n"
+                    + "4;3.00;f;\"\"\n"
+                    + "5;-1.50", read(output));
+            assertEquals("row count should be 5", 5, report.getRowCount());
+            assertEquals("rounded count should be 7", 7, report.getRoundedCount());
+            assertEquals("bytes read is wrong", input.length(), report.getBytesRead());
+            assertEquals("bytes written is wrong", output.length(), report.getBytesWritten());
+        }
+    }
+
+    /**
+     * Tests round(File, File).
+     * The output should be the same as rounding the fields of each line one by one.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRound2() throws Exception {
+        Random random = new Random(20050101L);
+        StringBuffer csv = new StringBuffer();
+        StringBuffer expected = new StringBuffer();
+        Algorithm algorithm = new BankersRounding(3, 5);
+        for (int i = 0; i < 2000; ++i) {
+            for (int j = 0; j < 4; ++j) {
+                String number = (random.nextBoolean() ? "-" : "") + random.nextInt(100000) + "."
+                        + random.nextInt(100000);
+                csv.append(number);
+                expected.append((j % 2 == 1) ? algorithm.round(number) : number);
+                csv.append(j < 3 ? ',' : '\n');
+                expected.append(j < 3 ? ',' : '\n');
+            }
+        }
+        write(input, csv.toString());
+
+        CsvRounder rounder = new CsvRounder(algorithm, new int[] {3, 1});
+        int[] chunkSizes = new int[] {1, 100, 4096, CsvRounder.DEFAULT_CHUNK_SIZE};
+        for (int i = 0; i < chunkSizes.length; ++i) {
+            for (int threadCount = 1; threadCount <= 4; threadCount += 3) {
+                rounder.setChunkSize(chunkSizes[i]);
+                rounder.setThreadCount(threadCount);
+                CsvRoundingReport report = rounder.round(input, output);
+
+                assertEquals("output is wrong with chunk size " + chunkSizes[i], expected.toString(), read(output));
+                assertEquals("row count should be 2000", 2000, report.getRowCount());
+                assertEquals("rounded count should be 4000", 4000, report.getRoundedCount());
+            }
+        }
+    }
+
+    /**
+     * Tests round(File, File).
+     * The files are empty or have the header only, nothing should be rounded.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRound3() throws Exception {
+        CsvRounder rounder = new CsvRounder(new SymmetricRounding(), new int[] {0});
+        rounder.setHeaderLines(2);
+
+        write(input, "");
+        assertEquals("row count should be 0", 0, rounder.round(input, output).getRowCount());
+        assertEquals("output should be empty", "", read(output));
+
+        write(input, "a\nb");
+        assertEquals("row count should be 0", 0, rounder.round(input, output).getRowCount());
+        assertEquals("output should be the header", "a\nb", read(output));
+    }
+
+    /**
+     * Tests round(File, File).
+     * A field to round is not a number, NumberFormatException should be thrown.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRound4() throws Exception {
+        write(input, "1.1,2.2\n3.3,x\n");
+        CsvRounder rounder = new CsvRounder(new SymmetricRounding(), new int[] {1});
+        rounder.setChunkSize(4);
+
+        try {
+            rounder.round(input, output);
+            fail("NumberFormatException should be thrown");
+        } catch (NumberFormatException e) {
+            assertTrue("the position should be reported", e.getMessage().indexOf("byte 12") >= 0);
+        }
+
+        try {
+            rounder.round(input, input);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+
+        try {
+            rounder.round(null, output);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // success
+        }
+    }
+
+    /**
+     * Tests round(File, File).
+     * A quoted field contains a line feed, IOException should be thrown whether a chunk boundary falls in the
+     * quotes or not.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRound5() throws Exception {
+        write(input, "a,1.255\n\"x\ny\",1.255\nb,2.345\n");
+        CsvRounder rounder = new CsvRounder(new SymmetricRounding(2, 5), new int[] {1});
+
+        // the first chunk is cut at the line feed in the quotes with the chunk sizes of 1 and 10
+        int[] chunkSizes = new int[] {1, 10, CsvRounder.DEFAULT_CHUNK_SIZE};
+        for (int i = 0; i < chunkSizes.length; ++i) {
+            rounder.setChunkSize(chunkSizes[i]);
+            try {
+                rounder.round(input, output);
+                fail("IOException should be thrown with chunk size " + chunkSizes[i]);
+            } catch (IOException e) {
+                assertTrue("the position should be reported", e.getMessage().indexOf("byte 10") >= 0);
+            }
+        }
+    }
+
+    /**
+     * Tests round(File, File).
+     * The short numbers are padded to a large accuracy, so the rounded chunks are several times longer than the
+     * chunks read. The output should be the same as rounding the fields one by one, while the threads reuse
+     * their arrays for chunks of different sizes.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testRound6() throws Exception {
+        String[] numbers = new String[] {"9", ".96", "-.5", "0", "99.99", "-9.5", "1"};
+        StringBuffer csv = new StringBuffer();
+        StringBuffer expected = new StringBuffer();
+        Algorithm algorithm = new SymmetricRounding(12, 5);
+        for (int i = 0; i < 1000; ++i) {
+            String number = numbers[i % numbers.length];
+            csv.append(i).append(',').append(number).append('\n');
+            expected.append(i).append(',').append(algorithm.round(number)).append('\n');
+        }
+        write(input, csv.toString());
+
+        CsvRounder rounder = new CsvRounder(algorithm, new int[] {1});
+        int[] chunkSizes = new int[] {1, 7, 1000, CsvRounder.DEFAULT_CHUNK_SIZE};
+        for (int i = 0; i < chunkSizes.length; ++i) {
+            for (int threadCount = 1; threadCount <= 4; threadCount += 3) {
+                rounder.setChunkSize(chunkSizes[i]);
+                rounder.setThreadCount(threadCount);
+                CsvRoundingReport report = rounder.round(input, output);
+
+                assertEquals("output is wrong with chunk size " + chunkSizes[i], expected.toString(), read(output));
+                assertEquals("rounded count should be 1000", 1000, report.getRoundedCount());
+            }
+        }
+    }
+
+    /**
+     * Writes the given ASCII text to the given file.
+     *
+     * @param file the file to write
+     * @param text the text to write
+     * @throws IOException if the file can not be written
+     */
+    private static void write(File file, String text) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(text.getBytes("US-ASCII"));
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads the given file as ASCII text.
+     *
+     * @param file the file to read
+     * @return the text of the file
+     * @throws IOException if the file can not be read
+     */
+    private static String read(File file) throws IOException {
+        byte[] bytes = new byte[(int) file.length()];
+        InputStream in = new FileInputStream(file);
+        try {
+            int count = 0;
+            while (count < bytes.length) {
+                count += in.read(bytes, count, bytes.length - count);
+            }
+        } finally {
+            in.close();
+        }
+        return new String(bytes, "US-ASCII");
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved
+ */
+package com.topcoder.math.roundingfactory.stresstests;
+
+import com.topcoder.math.roundingfactory.algorithms.AlternateRounding;
+
+import junit.framework.TestCase;
+
+/**
+ * Contention test for <tt>AlternateRounding</tt>. Several threads round ties, which all need the alternation,
+ * with the shared and the per-thread alternation modes.
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class AlternateRoundingStressTests extends TestCase {
+
+    /** Number of ties rounded by each thread. */
+    private static final int ROUNDING_COUNT = 200000;
+
+    /** The numbers of threads to test with. */
+    private static final int[] THREAD_COUNTS = new int[] {1, 2, 4, 8, 16, 32};
+
+    /**
+     * Contention test for the shared alternation.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testSharedAlternation() throws Exception {
+        contentionTest(new AlternateRounding(false));
+    }
+
+    /**
+     * Contention test for the per-thread alternation.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testPerThreadAlternation() throws Exception {
+        contentionTest(new AlternateRounding(true));
+    }
+
+    /**
+     * Rounds ties with given algorithm by each number of threads in THREAD_COUNTS.
+     *
+     * @param algo Algorithm to test
+     * @throws Exception to JUnit
+     */
+    private void contentionTest(AlternateRounding algo) throws Exception {
+        System.out.println("----\t " + algo.getClass().getName() + (algo.isPerThread() ? " per-thread" : " shared")
+                + "\t----");
+
+        // warm up
+        roundTies(algo, 1);
+
+        for (int i = 0; i < THREAD_COUNTS.length; i++) {
+            System.out.print("Rounding " + ROUNDING_COUNT + " ties by each of " + THREAD_COUNTS[i]
+                    + " threads costs: ");
+            long start = System.currentTimeMillis();
+            int roundUpCount = roundTies(algo, THREAD_COUNTS[i]);
+            long time = System.currentTimeMillis() - start;
+            System.out.println(time + " ms, " + (ROUNDING_COUNT * (long) THREAD_COUNTS[i] / Math.max(time, 1))
+                    + " ties/ms.");
+
+            assertEquals("half of the ties should be rounded up", ROUNDING_COUNT / 2 * THREAD_COUNTS[i],
+                    roundUpCount);
+        }
+    }
+
+    /**
+     * Rounds ROUNDING_COUNT ties by each of the given number of threads.
+     *
+     * @param algo Algorithm to test
+     * @param threadCount the number of threads
+     * @return the number of ties rounded up
+     * @throws Exception to JUnit
+     */
+    private static int roundTies(final AlternateRounding algo, int threadCount) throws Exception {
+        final int[] roundUpCounts = new int[threadCount];
+
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    int count = 0;
+                    for (int j = 0; j < ROUNDING_COUNT; j++) {
+                        if (algo.round(1125, 3, 2, 5) == 113) {
+                            count++;
+                        }
+                    }
+                    roundUpCounts[index] = count;
+                }
+            };
+        }
+
+        for (int i = 0; i < threadCount; i++) {
+            threads[i].start();
+        }
+
+        int roundUpCount = 0;
+        for (int i = 0; i < threadCount; i++) {
+            threads[i].join();
+            roundUpCount += roundUpCounts[i];
+        }
+        return roundUpCount;
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved
+ */
+package com.topcoder.math.roundingfactory.stresstests;
+
+import java.util.Random;
+
+import com.topcoder.math.roundingfactory.algorithms.Algorithm;
+import com.topcoder.math.roundingfactory.algorithms.BankersRounding;
+import com.topcoder.math.roundingfactory.algorithms.DownSymmetricRounding;
+import com.topcoder.math.roundingfactory.algorithms.SymmetricRounding;
+
+import junit.framework.TestCase;
+
+/**
+ * Speed test which compares the bulk rounding of arrays with rounding each number of the arrays.
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class BulkRoundingStressTests extends TestCase {
+
+    /** Number of numbers in the arrays. */
+    private static final int ARRAY_LENGTH = 100000;
+
+    /** Main loop count, the arrays are rounded this many times. */
+    private static final int ROUNDING_COUNT = 50;
+
+    /** Number of digits after the decimal point of the fixed-point numbers. */
+    private static final int SCALE = 6;
+
+    /** Test fixed-point numbers. */
+    private static long[] unscaledValues = new long[ARRAY_LENGTH];
+
+    /** Test doubles. */
+    private static double[] doubles = new double[ARRAY_LENGTH];
+
+    /** Generate test numbers */
+    static {
+        Random rand = new Random();
+        for (int i = 0; i < ARRAY_LENGTH; i++) {
+            unscaledValues[i] = rand.nextLong() % 1000000000000L;
+            doubles[i] = unscaledValues[i] / 1e6;
+        }
+    }
+
+    /**
+     * Speed test for <tt>SymmetricRounding</tt> algorithm.
+     */
+    public void testSymmetricRounding() {
+        bulkTest(new SymmetricRounding());
+    }
+
+    /**
+     * Speed test for <tt>BankersRounding</tt> algorithm.
+     */
+    public void testBankersRounding() {
+        bulkTest(new BankersRounding());
+    }
+
+    /**
+     * Speed test for <tt>DownSymmetricRounding</tt> algorithm.
+     */
+    public void testDownSymmetricRounding() {
+        bulkTest(new DownSymmetricRounding());
+    }
+
+    /**
+     * Rounds test numbers with given algorithm one by one and by roundAll, ROUNDING_COUNT times each.
+     *
+     * @param algo Algorithm to test
+     */
+    private void bulkTest(Algorithm algo) {
+        System.out.println("----\t " + algo.getClass().getName() + "\t----");
+        long[] longResults = new long[ARRAY_LENGTH];
+        double[] doubleResults = new double[ARRAY_LENGTH];
+
+        // warm up both ways, so that the JIT compiler has compiled them before timing
+        roundLongs(algo, longResults);
+        algo.roundAll(unscaledValues, SCALE, longResults, 0, ARRAY_LENGTH, 2, 5);
+
+        System.out.print("Rounding " + ARRAY_LENGTH + " longs " + ROUNDING_COUNT + " times one by one costs: ");
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < ROUNDING_COUNT; i++) {
+            roundLongs(algo, longResults);
+        }
+        System.out.println((System.currentTimeMillis() - start) + " ms.");
+
+        System.out.print("Rounding " + ARRAY_LENGTH + " longs " + ROUNDING_COUNT + " times by roundAll costs: ");
+        start = System.currentTimeMillis();
+        for (int i = 0; i < ROUNDING_COUNT; i++) {
+            algo.roundAll(unscaledValues, SCALE, longResults, 0, ARRAY_LENGTH, 2, 5);
+        }
+        System.out.println((System.currentTimeMillis() - start) + " ms.");
+
+        roundDoubles(algo, doubleResults);
+        algo.roundAll(doubles, doubleResults, 0, ARRAY_LENGTH, 2, 5);
+
+        System.out.print("Rounding " + ARRAY_LENGTH + " doubles " + ROUNDING_COUNT + " times one by one costs: ");
+        start = System.currentTimeMillis();
+        for (int i = 0; i < ROUNDING_COUNT; i++) {
+            roundDoubles(algo, doubleResults);
+        }
+        System.out.println((System.currentTimeMillis() - start) + " ms.");
+
+        System.out.print("Rounding " + ARRAY_LENGTH + " doubles " + ROUNDING_COUNT + " times by roundAll costs: ");
+        start = System.currentTimeMillis();
+        for (int i = 0; i < ROUNDING_COUNT; i++) {
+            algo.roundAll(doubles, doubleResults, 0, ARRAY_LENGTH, 2, 5);
+        }
+        System.out.println((System.currentTimeMillis() - start) + " ms.");
+    }
+
+    /**
+     * Rounds the test fixed-point numbers one by one.
+     *
+     * @param algo Algorithm to test
+     * @param results the array to store the results
+     */
+    private static void roundLongs(Algorithm algo, long[] results) {
+        for (int i = 0; i < ARRAY_LENGTH; i++) {
+            results[i] = algo.round(unscaledValues[i], SCALE, 2, 5);
+        }
+    }
+
+    /**
+     * Rounds the test doubles one by one.
+     *
+     * @param algo Algorithm to test
+     * @param results the array to store the results
+     */
+    private static void roundDoubles(Algorithm algo, double[] results) {
+        for (int i = 0; i < ARRAY_LENGTH; i++) {
+            results[i] = algo.roundDouble(doubles[i], 2, 5);
+        }
+    }
+}
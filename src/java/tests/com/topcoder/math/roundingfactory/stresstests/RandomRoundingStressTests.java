@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2005, TopCoder, Inc. All rights reserved
+ */
+package com.topcoder.math.roundingfactory.stresstests;
+
+import java.util.Random;
+
+import com.topcoder.math.roundingfactory.algorithms.Algorithm;
+import com.topcoder.math.roundingfactory.algorithms.RandomRounding;
+
+import junit.framework.TestCase;
+
+/**
+ * Throughput test for <tt>RandomRounding</tt>. Several threads round ties, which all draw from a generator,
+ * with a shared generator, per-thread generators and split instances.
+ *
+ * @author TCSDEVELOPER
+ * @version 1.0
+ */
+public class RandomRoundingStressTests extends TestCase {
+
+    /** Number of ties rounded by each thread. */
+    private static final int ROUNDING_COUNT = 200000;
+
+    /** The numbers of threads to test with. */
+    private static final int[] THREAD_COUNTS = new int[] {1, 2, 4, 8, 16, 32};
+
+    /**
+     * Throughput test for the shared generator.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testSharedGenerator() throws Exception {
+        throughputTest("shared", new RandomRounding(false), false);
+    }
+
+    /**
+     * Throughput test for the per-thread generators.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testPerThreadGenerator() throws Exception {
+        throughputTest("per-thread", new RandomRounding(true), false);
+    }
+
+    /**
+     * Throughput test for the instances split from a seeded instance, one for each thread.
+     *
+     * @throws Exception to JUnit
+     */
+    public void testSplitGenerator() throws Exception {
+        throughputTest("split", new RandomRounding(new Random(20050101L)), true);
+    }
+
+    /**
+     * Rounds ties with given algorithm by each number of threads in THREAD_COUNTS.
+     *
+     * @param mode the name of the generator mode
+     * @param algo Algorithm to test
+     * @param split whether each thread should use an instance split from algo
+     * @throws Exception to JUnit
+     */
+    private void throughputTest(String mode, RandomRounding algo, boolean split) throws Exception {
+        System.out.println("----\t " + algo.getClass().getName() + " " + mode + "\t----");
+
+        // warm up
+        roundTies(algo, 1, split);
+
+        for (int i = 0; i < THREAD_COUNTS.length; i++) {
+            System.out.print("Rounding " + ROUNDING_COUNT + " ties by each of " + THREAD_COUNTS[i]
+                    + " threads costs: ");
+            long start = System.currentTimeMillis();
+            int roundUpCount = roundTies(algo, THREAD_COUNTS[i], split);
+            long time = System.currentTimeMillis() - start;
+            System.out.println(time + " ms, " + (ROUNDING_COUNT * (long) THREAD_COUNTS[i] / Math.max(time, 1))
+                    + " ties/ms, " + roundUpCount + " rounded up.");
+        }
+    }
+
+    /**
+     * Rounds ROUNDING_COUNT ties by each of the given number of threads.
+     *
+     * @param algo Algorithm to test
+     * @param threadCount the number of threads
+     * @param split whether each thread should use an instance split from algo
+     * @return the number of ties rounded up
+     * @throws Exception to JUnit
+     */
+    private static int roundTies(RandomRounding algo, int threadCount, boolean split) throws Exception {
+        final int[] roundUpCounts = new int[threadCount];
+
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            final int index = i;
+            final Algorithm threadAlgo = split ? algo.split() : algo;
+            threads[i] = new Thread() {
+                public void run() {
+                    int count = 0;
+                    for (int j = 0; j < ROUNDING_COUNT; j++) {
+                        if (threadAlgo.round(1125, 3, 2, 5) == 113) {
+                            count++;
+                        }
+                    }
+                    roundUpCounts[index] = count;
+                }
+            };
+        }
+
+        for (int i = 0; i < threadCount; i++) {
+            threads[i].start();
+        }
+
+        int roundUpCount = 0;
+        for (int i = 0; i < threadCount; i++) {
+            threads[i].join();
+            roundUpCount += roundUpCounts[i];
+        }
+        return roundUpCount;
+    }
+}
@@ -4,8 +4,12 @@
 package com.topcoder.math.roundingfactory.stresstests;
 
 import com.topcoder.math.roundingfactory.RoundingManager;
+import com.topcoder.math.roundingfactory.algorithms.Algorithm;
+import com.topcoder.math.roundingfactory.algorithms.SymmetricRounding;
 import com.topcoder.util.config.ConfigManager;
 
+import java.lang.reflect.Field;
+
 import junit.framework.TestCase;
 
 /**
@@ -18,6 +22,9 @@ public class RoundingManagerStressTests extends TestCase {
 
     /** Configuration file path. */
     private static final String CONFIG_FILE = "stresstests/stress.properties";
+
+    /** Configuration file path of the same algorithms loaded lazily. */
+    private static final String LAZY_CONFIG_FILE = "stresstests/stress_lazy.properties";
     
     /**
      * Sets up test environment.
@@ -54,4 +61,237 @@ public class RoundingManagerStressTests extends TestCase {
         assertEquals("Incorrect algorithms count", 1000, rm.getAllAlgorithms().size());
     }
 
+    /**
+     * Speed test for lazy configuration loading. The manager is created without creating the algorithms,
+     * which are created when got the first time.
+     *
+     * @throws Exception propagated to JUnit
+     */
+    public void testLazyAlgorithmsLoading() throws Exception {
+        ConfigManager cm = ConfigManager.getInstance();
+        cm.removeNamespace(RoundingManager.NAMESPACE);
+        cm.add(RoundingManager.NAMESPACE, LAZY_CONFIG_FILE, ConfigManager.CONFIG_PROPERTIES_FORMAT);
+
+        try {
+            resetInstance();
+            System.out.print("Loading 1000 algorithms lazily costs: ");
+            long start = System.currentTimeMillis();
+            RoundingManager rm = RoundingManager.getInstance();
+            System.out.println((System.currentTimeMillis() - start) + " ms.");
+
+            System.out.print("Getting 10 algorithms the first time costs: ");
+            start = System.currentTimeMillis();
+            for (int i = 0; i < 10; i++) {
+                assertNotNull("algo" + i + " is missing", rm.getAlgorithm("algo" + i));
+            }
+            System.out.println((System.currentTimeMillis() - start) + " ms.");
+
+            System.out.print("Getting all the algorithms the first time costs: ");
+            start = System.currentTimeMillis();
+            assertEquals("Incorrect algorithms count", 1000, rm.getAllAlgorithms().size());
+            System.out.println((System.currentTimeMillis() - start) + " ms.");
+        } finally {
+            // the other tests use the manager loading the algorithms eagerly
+            resetInstance();
+        }
+    }
+
+    /**
+     * Resets the singleton instance of RoundingManager, so that the next getInstance() creates it again.
+     *
+     * @throws Exception propagated to JUnit
+     */
+    private static void resetInstance() throws Exception {
+        Field instance = RoundingManager.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+    }
+
+    /**
+     * Concurrent access test. Reader threads look up the configured algorithms and take snapshots,
+     * while a writer thread keeps adding and removing other algorithms.
+     *
+     * @throws Exception propagated to JUnit
+     */
+    public void testConcurrentAccess() throws Exception {
+        final RoundingManager rm = RoundingManager.getInstance();
+        final int readCount = 200000;
+        final boolean[] stop = new boolean[1];
+        final Throwable[] failure = new Throwable[1];
+
+        Thread writer = new Thread() {
+            public void run() {
+                Algorithm algorithm = new SymmetricRounding();
+                try {
+                    for (int i = 0; !stop[0]; i = (i + 1) % 100) {
+                        rm.addAlgorithm("dynamic" + i, algorithm);
+                        rm.removeAlgorithm("dynamic" + ((i + 50) % 100));
+                    }
+                } catch (Throwable e) {
+                    failure[0] = e;
+                }
+            }
+        };
+
+        Thread[] readers = new Thread[8];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread() {
+                public void run() {
+                    try {
+                        for (int j = 0; j < readCount; j++) {
+                            if (rm.getAlgorithm("algo" + (j % 1000)) == null) {
+                                throw new IllegalStateException("algo" + (j % 1000) + " is missing");
+                            }
+                            if (j % 10000 == 0 && rm.getAllAlgorithms().size() < 1000) {
+                                throw new IllegalStateException("the snapshot misses algorithms");
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failure[0] = e;
+                    }
+                }
+            };
+        }
+
+        System.out.print("Looking up " + readCount + " algorithms by each of " + readers.length
+                + " threads while adding and removing costs: ");
+        long start = System.currentTimeMillis();
+        writer.start();
+        for (int i = 0; i < readers.length; i++) {
+            readers[i].start();
+        }
+        for (int i = 0; i < readers.length; i++) {
+            readers[i].join();
+        }
+        stop[0] = true;
+        writer.join();
+        System.out.println((System.currentTimeMillis() - start) + " ms.");
+
+        // leave only the configured algorithms
+        for (int i = 0; i < 100; i++) {
+            rm.removeAlgorithm("dynamic" + i);
+        }
+
+        if (failure[0] != null) {
+            fail("concurrent access fails: " + failure[0]);
+        }
+        assertEquals("Incorrect algorithms count", 1000, rm.getAllAlgorithms().size());
+    }
+
+    /**
+     * Concurrent add test. Only one of the threads adding an algorithm of the same name should succeed.
+     *
+     * @throws Exception propagated to JUnit
+     */
+    public void testConcurrentAdd() throws Exception {
+        final RoundingManager rm = RoundingManager.getInstance();
+        final int[] addedCounts = new int[8];
+
+        for (int round = 0; round < 100; round++) {
+            final String name = "contended" + round;
+            Thread[] threads = new Thread[addedCounts.length];
+            for (int i = 0; i < threads.length; i++) {
+                final int index = i;
+                threads[i] = new Thread() {
+                    public void run() {
+                        if (rm.addAlgorithm(name, new SymmetricRounding())) {
+                            addedCounts[index]++;
+                        }
+                    }
+                };
+            }
+            for (int i = 0; i < threads.length; i++) {
+                threads[i].start();
+            }
+            for (int i = 0; i < threads.length; i++) {
+                threads[i].join();
+            }
+            rm.removeAlgorithm(name);
+        }
+
+        int addedCount = 0;
+        for (int i = 0; i < addedCounts.length; i++) {
+            addedCount += addedCounts[i];
+        }
+        assertEquals("each name should be added exactly once", 100, addedCount);
+    }
+
+    /**
+     * Speed test for getting the instance, without contention and by several threads at the same time.
+     *
+     * @throws Exception propagated to JUnit
+     */
+    public void testGetInstance() throws Exception {
+        final int count = 10000000;
+        final RoundingManager rm = RoundingManager.getInstance();
+
+        // warm up
+        getInstances(rm, count, 1, false);
+        getInstances(rm, count, 1, true);
+
+        int[] threadCounts = new int[] {1, 2, 4, 8, 16};
+        for (int i = 0; i < threadCounts.length; i++) {
+            System.out.print("Getting the instance " + count + " times by each of " + threadCounts[i]
+                    + " threads costs: ");
+            long start = System.currentTimeMillis();
+            getInstances(rm, count, threadCounts[i], false);
+            System.out.print((System.currentTimeMillis() - start) + " ms, with a lock held by each call: ");
+            start = System.currentTimeMillis();
+            getInstances(rm, count, threadCounts[i], true);
+            System.out.println((System.currentTimeMillis() - start) + " ms.");
+        }
+    }
+
+    /**
+     * Gets the instance while holding the class lock, which is what every call of the former
+     * synchronized getInstance() did.
+     *
+     * @return the singleton instance of RoundingManager
+     * @throws Exception propagated to JUnit
+     */
+    private static synchronized RoundingManager getInstanceLocked() throws Exception {
+        return RoundingManager.getInstance();
+    }
+
+    /**
+     * Gets the instance the given number of times by each of the given number of threads.
+     *
+     * @param expected the instance which should be returned
+     * @param count the number of calls made by each thread
+     * @param threadCount the number of threads
+     * @param locked whether each call holds a lock, like the former synchronized getInstance()
+     * @throws Exception propagated to JUnit
+     */
+    private static void getInstances(final RoundingManager expected, final int count, int threadCount,
+        final boolean locked) throws Exception {
+        final Throwable[] failure = new Throwable[1];
+
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        for (int j = 0; j < count; j++) {
+                            RoundingManager rm = locked ? getInstanceLocked() : RoundingManager.getInstance();
+                            if (rm != expected) {
+                                throw new IllegalStateException("another instance is returned");
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failure[0] = e;
+                    }
+                }
+            };
+        }
+        for (int i = 0; i < threadCount; i++) {
+            threads[i].start();
+        }
+        for (int i = 0; i < threadCount; i++) {
+            threads[i].join();
+        }
+
+        if (failure[0] != null) {
+            fail("getting the instance fails: " + failure[0]);
+        }
+    }
 }
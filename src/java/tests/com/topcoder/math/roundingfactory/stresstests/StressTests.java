@@ -20,6 +20,9 @@ public class StressTests extends TestCase {
     public static Test suite() {
         final TestSuite suite = new TestSuite();
         suite.addTestSuite(AlgorithmsStressTests.class);
+        suite.addTestSuite(BulkRoundingStressTests.class);
+        suite.addTestSuite(AlternateRoundingStressTests.class);
+        suite.addTestSuite(RandomRoundingStressTests.class);
         suite.addTestSuite(RoundingManagerStressTests.class);
         return suite;
     }